@@ -1,12 +1,14 @@
-import React, { useState, useEffect, useCallback, useMemo } from 'react';
+import React, { useState, useEffect, useCallback, useMemo, useRef } from 'react';
 import { Geolocation } from '@capacitor/geolocation';
 import { LocalNotifications } from '@capacitor/local-notifications';
-import { Capacitor } from '@capacitor/core';
+import { Capacitor, PluginListenerHandle } from '@capacitor/core';
 import { App as CapacitorApp } from '@capacitor/app';
-import { DEFAULT_SETTINGS, DEFAULT_COORDS } from './constants';
+import { DEFAULT_SETTINGS, DEFAULT_COORDS, SOUND_EZAN } from './constants';
 import { AppSettings, PrayerData, PrayerName, NextPrayerInfo, PrayerKeys, ManualLocation } from './types';
-import { fetchPrayerTimes, calculateNextPrayer, getTimeDifferenceMinutes } from './services/prayerService.ts';
+import { fetchPrayerTimes, nextPrayerTarget, NextPrayerTarget } from './services/prayerService.ts';
 import DirectAlarm, { DirectAlarmWeb } from './services/directAlarm';
+import AlarmSound from './services/alarmSound';
+import PrayerTable, { NativeNextPrayer } from './services/prayerTable';
 import AlarmOverlay from './components/AlarmOverlay';
 import SettingsModal from './components/SettingsModal';
 import LocationModal from './components/LocationModal';
@@ -63,6 +65,13 @@ const checkForPendingAlarm = async () => {
   }
 };
 
+// Yerel FireGate.WINDOW_MS ile aynı: bu süre içinde aynı vakit ikinci kez açılmaz
+const ALARM_DEDUP_MS = 10 * 60 * 1000;
+
+// Tek ayar değeri tüm vakitlere uygulanır; yerel zamanlayıcı vakit başına dakika bekler
+const minutesForAll = (minutes: number | undefined): Record<string, number> =>
+  Object.fromEntries(PrayerKeys.map(key => [key, minutes ?? 0]));
+
 // ============================================================
 // APP COMPONENT
 // ============================================================
@@ -76,6 +85,11 @@ const App: React.FC = () => {
   const [isSettingsOpen, setIsSettingsOpen] = useState<boolean>(false);
   const [isLocationModalOpen, setIsLocationModalOpen] = useState<boolean>(false);
   const [lastAlarmTime, setLastAlarmTime] = useState<string | null>(null);
+  // Vakit → son gösterim; aynı alarm başka yoldan tekrar gelirse ikinci ekran açılmaz
+  const shownAlarms = useRef<Map<string, number>>(new Map());
+  const suppressedAlarms = useRef(0);
+  // Yerel zamanlayıcı kuruluyken ön plan geri sayımı alarm açmaz; AlarmActivity çalar
+  const nativeScheduleActive = useRef(false);
 
   const [settings, setSettings] = useState<AppSettings>(() => {
     const saved = localStorage.getItem('ezan_app_settings');
@@ -109,6 +123,14 @@ const App: React.FC = () => {
     };
     // Önce key olarak dene, bulamazsan direkt göster
     const displayName = keyToName[prayerKeyOrName] || prayerKeyOrName;
+    const now = Date.now();
+    const lastShown = shownAlarms.current.get(displayName);
+    if (lastShown !== undefined && now - lastShown < ALARM_DEDUP_MS) {
+      suppressedAlarms.current++;
+      console.log(`[App] Tekrarlanan alarm bastırıldı (${suppressedAlarms.current}):`, displayName);
+      return;
+    }
+    shownAlarms.current.set(displayName, now);
     setActiveAlarmPrayer(displayName);
     setIsAlarmActive(true);
   }, []);
@@ -126,7 +148,7 @@ const App: React.FC = () => {
 
   // ============================================================
   // showAlarm GLOBAL EVENT LİSTENER (tek tanım)
-  // directAlarm.ts'deki setTimeout ve Android intent burayı tetikler
+  // directAlarm.ts'deki setTimeout burayı tetikler; Android'de alarm yerel AlarmActivity'de çalar
   // ============================================================
   useEffect(() => {
     const handleShowAlarm = (event: Event) => {
@@ -178,7 +200,6 @@ const App: React.FC = () => {
     try {
       setLoading(true);
       setError(null);
-      await new Promise(resolve => setTimeout(resolve, 1500));
 
       const currentSettings = overrideSettings || settings;
       let lat = DEFAULT_COORDS.latitude;
@@ -204,6 +225,7 @@ const App: React.FC = () => {
       }
 
       const data = await fetchPrayerTimes(lat, lng, cityOverride);
+      nextTargetRef.current = null;
       setPrayerData(data);
       updateNextPrayer(data.times);
       scheduleDirectAlarms(data, currentSettings);
@@ -229,8 +251,24 @@ const App: React.FC = () => {
     }
   };
 
+  // ============================================================
+  // YEREL ALARM SESİ (Android): seçili ses bir kez yerel depoya kopyalanır
+  // ============================================================
+  useEffect(() => {
+    if (!Capacitor.isNativePlatform()) return;
+    const { soundType, customSoundSource, volume } = settings;
+    AlarmSound.setSound({
+      type: soundType,
+      url: soundType === 'ezan' ? SOUND_EZAN : undefined,
+      data: soundType === 'custom' ? customSoundSource : undefined,
+      volume,
+    })
+      .then(r => { if (r.copied) console.log(`[App] Alarm sesi yerel depoya kopyalandı (${r.elapsedMs}ms)`); })
+      .catch(e => console.warn('[App] Alarm sesi kopyalanamadı:', e));
+  }, [settings.soundType, settings.customSoundSource, settings.volume]);
+
   const handleLocationSelect = (mode: 'auto' | 'manual', manualData?: ManualLocation) => {
-    localStorage.removeItem('ezan_diyanet_v60');
+    // Önbellek silinmez: şehir uyuşmazsa fetchPrayerTimes önce yerel çok konumlu tabloya bakar
     const newSettings = { ...settings, locationMode: mode, manualLocation: manualData };
     handleUpdateSettings(newSettings);
     setTimeout(() => initData(newSettings), 100);
@@ -243,9 +281,40 @@ const App: React.FC = () => {
     try {
       if (!currentSettings.notificationsEnabled) {
         console.log("Alarm servisleri kapalı.");
+        nativeScheduleActive.current = false;
+        if (Capacitor.isNativePlatform()) {
+          DirectAlarm.configureSchedule({ enabled: false }).catch(() => { /* eklenti yoksa sorun değil */ });
+        }
         return;
       }
 
+      // Android: yerel yuvarlanan zamanlayıcı her alarmdan sonra bir sonrakini WebView'siz kurar
+      if (Capacitor.isNativePlatform()) {
+        try {
+          const result = await DirectAlarm.configureSchedule({
+            enabled: true,
+            locationId: data.locationId ? Number(data.locationId) : undefined,
+            latitude: data.coords?.latitude,
+            longitude: data.coords?.longitude,
+            offsets: currentSettings.prayerReminders,
+            reminders: minutesForAll(currentSettings.preReminderMinutes),
+            followUps: minutesForAll(currentSettings.followUpMinutes),
+          });
+          nativeScheduleActive.current = result.success;
+          if (result.success) {
+            const pendingNotifications = await LocalNotifications.getPending();
+            if (pendingNotifications.notifications.length > 0) {
+              await LocalNotifications.cancel(pendingNotifications);
+            }
+            console.log("Yerel zamanlayıcı kuruldu:", result.nextPrayer, result.nextKind, result.nextTriggerAt && new Date(result.nextTriggerAt).toLocaleString());
+            return;
+          }
+        } catch (e) {
+          nativeScheduleActive.current = false;
+          console.warn("Yerel zamanlayıcı kurulamadı, bildirimler kullanılacak:", e);
+        }
+      }
+
       const pending = await LocalNotifications.getPending();
       if (pending.notifications.length > 0) {
         await LocalNotifications.cancel(pending);
@@ -308,39 +377,89 @@ const App: React.FC = () => {
   // ============================================================
   // GERİ SAYIM VE ÖN PLAN ALARM KONTROLÜ
   // ============================================================
-  const updateNextPrayer = useCallback((times: any) => {
-    if (!times) return;
-    const { nextKey, isTomorrow } = calculateNextPrayer(times);
-    const timeStr = times[nextKey];
+  const nextTargetRef = useRef<NextPrayerTarget | null>(null);
+
+  // Hedef yalnızca vakit geçince (veya yerel "nextPrayer" olayıyla) yenilenir
+  const updateNextPrayer = useCallback((times: any): NextPrayerTarget | null => {
+    if (!times) return null;
+    const now = Date.now();
+    let target = nextTargetRef.current;
+    if (!target || now >= target.triggerAt) {
+      target = nextPrayerTarget(times);
+      nextTargetRef.current = target;
+    }
     const keyToName: Record<string, PrayerName> = {
       imsak: PrayerName.Imsak, gunes: PrayerName.Gunes, ogle: PrayerName.Ogle,
       ikindi: PrayerName.Ikindi, aksam: PrayerName.Aksam, yatsi: PrayerName.Yatsi
     };
-    const diff = getTimeDifferenceMinutes(timeStr, isTomorrow);
     setNextPrayer({
-      name: keyToName[nextKey],
-      key: nextKey,
-      time: timeStr,
-      minutesRemaining: diff,
-      isTomorrow
+      name: keyToName[target.nextKey],
+      key: target.nextKey,
+      time: target.time,
+      minutesRemaining: Math.floor((target.triggerAt - now) / 60000),
+      isTomorrow: target.isTomorrow
     });
+    return target;
   }, []);
 
+  // Android: sıradaki vakit yerel indeksten gelir, vakit sınırında olayla güncellenir
+  useEffect(() => {
+    if (!prayerData || !Capacitor.isNativePlatform()) return;
+    let cancelled = false;
+    let handle: PluginListenerHandle | undefined;
+
+    const apply = (next: NativeNextPrayer) => {
+      if (cancelled || !next.found || !next.prayer || !next.time || next.triggerAt === undefined) return;
+      nextTargetRef.current = {
+        nextKey: next.prayer,
+        isTomorrow: !!next.isTomorrow,
+        time: next.time,
+        triggerAt: next.triggerAt,
+      };
+      updateNextPrayer(prayerData.times);
+    };
+
+    PrayerTable.addListener('nextPrayer', apply)
+      .then(h => { if (cancelled) h.remove(); else handle = h; })
+      .catch(() => { /* eklenti yoksa JS hesabı kullanılır */ });
+
+    // Tablo varsa yalnızca konum; yoksa hesaplama için koordinatlar
+    const locationId = prayerData.locationId ? Number(prayerData.locationId) : undefined;
+    PrayerTable.getNextPrayer({
+      locationId,
+      latitude: locationId ? undefined : prayerData.coords?.latitude,
+      longitude: locationId ? undefined : prayerData.coords?.longitude,
+      watch: true,
+    }).then(apply).catch(() => { /* JS hesabı kullanılır */ });
+
+    return () => {
+      cancelled = true;
+      handle?.remove();
+    };
+  }, [prayerData, updateNextPrayer]);
+
+  // Android: süren geri sayım bildirimi yerelde çizilir, WebView'e ihtiyaç duymaz
+  useEffect(() => {
+    if (!Capacitor.isNativePlatform()) return;
+    PrayerTable.setCountdownNotification({ enabled: !!settings.countdownNotification })
+      .catch(() => { /* eklenti yoksa bildirim yok */ });
+  }, [settings.countdownNotification]);
+
   useEffect(() => {
     if (!prayerData) return;
 
     const timer = setInterval(() => {
       if (!prayerData || isAlarmActive || !settings.notificationsEnabled) return;
 
-      updateNextPrayer(prayerData.times);
+      const target = updateNextPrayer(prayerData.times);
+      if (!target) return;
 
-      const { nextKey, isTomorrow } = calculateNextPrayer(prayerData.times);
-      const timeStr = prayerData.times[nextKey];
-      const freshRemaining = getTimeDifferenceMinutes(timeStr, isTomorrow);
+      const nextKey = target.nextKey;
+      const freshRemaining = Math.floor((target.triggerAt - Date.now()) / 60000);
       const triggerTime = settings.prayerReminders[nextKey] ?? 0;
       const currentAlarmKey = `${new Date().toDateString()}-${nextKey}-${triggerTime}`;
 
-      if (freshRemaining <= triggerTime) {
+      if (!nativeScheduleActive.current && freshRemaining <= triggerTime) {
         setLastAlarmTime(prev => {
           if (prev !== currentAlarmKey) {
             showAlarmScreen(nextKey);
@@ -359,6 +478,8 @@ const App: React.FC = () => {
   // Web + Native her iki platformda 5 saniye sonra otomatik açılır
   // ============================================================
   const handleTestSequence = async () => {
+    // Test alarmı aynı vakti tekrar açabilsin
+    shownAlarms.current.clear();
     try {
       // Test için 5 saniye (gerçek alarm için 1 dakika şeklinde değiştirebilirsiniz)
       const TEST_DELAY_MS = 5000;
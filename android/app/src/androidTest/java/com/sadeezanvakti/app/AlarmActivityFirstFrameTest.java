@@ -0,0 +1,96 @@
+package com.sadeezanvakti.app;
+
+import static org.junit.Assert.*;
+
+import android.app.Activity;
+import android.app.Instrumentation;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Bundle;
+import android.os.SystemClock;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import java.util.Arrays;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * AlarmActivity için ilk kare süresini ölçer: süreçteki ilk açılış (soğuk),
+ * kapatılıp yeniden açılış (ılık) ve açıkken gelen ikinci alarm (onNewIntent).
+ * Sonuçlar enstrümantasyon durumu olarak raporlanır:
+ *   ./gradlew connectedAndroidTest -Pandroid.testInstrumentationRunnerArguments.class=com.sadeezanvakti.app.AlarmActivityFirstFrameTest
+ */
+@RunWith(AndroidJUnit4.class)
+public class AlarmActivityFirstFrameTest {
+
+    private static final int WARM_RUNS = 5;
+    private static final long FRAME_TIMEOUT_MS = 5000;
+
+    @Test
+    public void reportsColdWarmAndReuseFirstFrame() throws Exception {
+        Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        Context context = instrumentation.getTargetContext();
+
+        long cold = launchAndMeasure(instrumentation, context, "ogle");
+        long[] warm = new long[WARM_RUNS];
+        for (int i = 0; i < WARM_RUNS; i++) {
+            warm[i] = launchAndMeasure(instrumentation, context, "ikindi");
+        }
+        long reuse = measureReuse(instrumentation, context);
+
+        Arrays.sort(warm);
+        Bundle results = new Bundle();
+        results.putLong("alarm_first_frame_cold_ms", cold);
+        results.putLong("alarm_first_frame_warm_median_ms", warm[WARM_RUNS / 2]);
+        results.putLong("alarm_first_frame_reuse_ms", reuse);
+        instrumentation.sendStatus(0, results);
+        System.out.println("AlarmActivity ilk kare: soğuk=" + cold + "ms, ılık(medyan)=" + warm[WARM_RUNS / 2]
+            + "ms, onNewIntent=" + reuse + "ms");
+
+        assertTrue(cold >= 0);
+        assertTrue(reuse >= 0);
+    }
+
+    private static long launchAndMeasure(Instrumentation instrumentation, Context context, String prayer)
+            throws InterruptedException {
+        AlarmActivity.lastFirstFrameMs = -1;
+        Activity activity = instrumentation.startActivitySync(alarmIntent(context, prayer));
+        long ms = awaitFirstFrame(null);
+        instrumentation.runOnMainSync(activity::finish);
+        instrumentation.waitForIdleSync();
+        return ms;
+    }
+
+    private static long measureReuse(Instrumentation instrumentation, Context context) throws InterruptedException {
+        Activity activity = instrumentation.startActivitySync(alarmIntent(context, "aksam"));
+        awaitFirstFrame(null);
+
+        // singleInstance: ikinci alarm yeni pencere açmaz, onNewIntent'e düşer
+        AlarmActivity.lastFirstFrameMs = -1;
+        context.startActivity(alarmIntent(context, "yatsi"));
+        long ms = awaitFirstFrame(AlarmActivity.PATH_REUSE);
+
+        instrumentation.runOnMainSync(activity::finish);
+        instrumentation.waitForIdleSync();
+        return ms;
+    }
+
+    private static long awaitFirstFrame(String expectedPath) throws InterruptedException {
+        long deadline = SystemClock.uptimeMillis() + FRAME_TIMEOUT_MS;
+        while (SystemClock.uptimeMillis() < deadline) {
+            long ms = AlarmActivity.lastFirstFrameMs;
+            if (ms >= 0 && (expectedPath == null || expectedPath.equals(AlarmActivity.lastFirstFramePath))) {
+                return ms;
+            }
+            Thread.sleep(5);
+        }
+        fail("İlk kare " + FRAME_TIMEOUT_MS + "ms içinde çizilmedi");
+        return -1;
+    }
+
+    private static Intent alarmIntent(Context context, String prayer) {
+        return new Intent(context, AlarmActivity.class)
+            .addFlags(Intent.FLAG_ACTIVITY_NEW_TASK)
+            .putExtra("prayer", prayer);
+    }
+}
@@ -6,29 +6,62 @@ import android.content.Context;
 import android.content.Intent;
 import android.os.Build;
 import android.os.Bundle;
+import android.os.Debug;
 import android.os.Handler;
 import android.os.Looper;
-import android.view.WindowManager;
+import android.os.Process;
+import android.os.SystemClock;
 import android.view.View;
+import android.view.ViewTreeObserver;
 import android.view.Window;
+import android.view.WindowManager;
 import android.widget.TextView;
-import android.widget.Button;
-import android.media.Ringtone;
-import android.media.RingtoneManager;
-import android.net.Uri;
 import android.os.VibrationEffect;
 import android.os.Vibrator;
 
 public class AlarmActivity extends Activity {
     
-    private Ringtone ringtone;
+    static final String PATH_COLD = "cold";
+    static final String PATH_WARM = "warm";
+    static final String PATH_REUSE = "reuse";
+    
+    // Süreçteki ilk açılış soğuk sayılır
+    private static boolean coldProcess = true;
+    
+    // Ses ve titreşimi son başlatan örneğin belirteci; yalnızca o örnek durdurur
+    private static Object playbackOwner;
+    
+    // Son açılışın ilk kare süresi (ms) ve yolu; ölçüm testleri okur
+    static volatile long lastFirstFrameMs = -1;
+    static volatile String lastFirstFramePath;
+    
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    // Çalma bitişi oturumdan okunur; yeniden oluşturulan etkinlik kalan süreyi bekler
+    private final Runnable autoDismiss = () -> {
+        session.timeout(System.currentTimeMillis());
+        flushJournal();
+        stopPlayback();
+        finish();
+    };
+    
+    private AlarmSession session;
+    private boolean coldLaunch;
+    private TextView prayerView;
+    private View snoozeButton;
+    private String currentPrayer;
+    private int currentKind = AlarmRegistry.KIND_EXACT;
+    private long currentEpochDay = -1;
     private Vibrator vibrator;
+    private final Object playbackToken = new Object();
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        long launchStartedAt = SystemClock.uptimeMillis();
+        coldLaunch = StartupTrace.claimColdLaunch(Process.getStartUptimeMillis(), launchStartedAt);
         super.onCreate(savedInstanceState);
-        
-        System.out.println("🔥 AlarmActivity BAŞLATILDI!");
+        AlarmWakeLock.markActivityStarted();
+        EventJournal.init(getFilesDir());
+        session = AlarmSession.shared(getFilesDir(), AlarmCore.get(this).systemExecutor());
         
         // Ekranı kilitle ekranının üzerinde göster - TÜM YÖNTEMLER
         Window window = getWindow();
@@ -54,104 +87,187 @@ public class AlarmActivity extends Activity {
             keyguardManager.requestDismissKeyguard(this, null);
         }
         
-        // Intent'ten verileri al
-        Intent intent = getIntent();
-        String prayer = intent.getStringExtra("prayer");
-        if (prayer == null) prayer = "Namaz";
-        
-        System.out.println("Alarm gösteriliyor: " + prayer);
-        
-        // Layout oluştur
-        setContentView(createAlarmView(prayer));
+        // Yerleşim bir kez şişirilir; sonraki alarmlar onNewIntent ile aynı pencereyi günceller
+        setContentView(R.layout.activity_alarm);
+        prayerView = findViewById(R.id.alarm_prayer);
+        findViewById(R.id.alarm_dismiss).setOnClickListener(v -> dismiss());
+        findViewById(R.id.alarm_open_app).setOnClickListener(v -> openApp());
+        snoozeButton = findViewById(R.id.alarm_snooze);
+        snoozeButton.setOnClickListener(v -> snooze());
         
-        // Ses ve titreşim başlat
-        startAlarmSound();
-        startVibration();
-        
-        // 2 dakika sonra otomatik kapat
-        new Handler(Looper.getMainLooper()).postDelayed(() -> {
-            stopAlarmSound();
-            stopVibration();
+        // Yeniden oluşturma (yapılandırma değişikliği) aynı alarmın devamıdır; kapıya sorulmaz.
+        // Bu arada alarm ertelendi veya bittiyse gösterilecek bir şey yoktur.
+        boolean recreated = savedInstanceState != null;
+        boolean shown = (!recreated || session.state() == AlarmSession.STATE_RINGING)
+            && showAlarm(getIntent(), launchStartedAt, coldProcess ? PATH_COLD : PATH_WARM, !recreated);
+        coldProcess = false;
+        if (!shown) {
+            // Alarm başka yoldan zaten gösterilip kapatıldı (ör. geç kalan yedek başlatma)
+            AlarmWakeLock.onFirstFrame();
             finish();
-        }, 120000); // 2 dakika
+        }
+    }
+    
+    @Override
+    protected void onNewIntent(Intent intent) {
+        super.onNewIntent(intent);
+        long startedAt = SystemClock.uptimeMillis();
+        AlarmWakeLock.markActivityStarted();
+        // Aynı alarm ikinci yoldan geldiyse (bildirime dokunma) ekran olduğu gibi kalır
+        if (showAlarm(intent, startedAt, PATH_REUSE, true)) {
+            setIntent(intent);
+        }
     }
     
-    private View createAlarmView(String prayer) {
-        // Programatik olarak layout oluştur
-        android.widget.LinearLayout layout = new android.widget.LinearLayout(this);
-        layout.setOrientation(android.widget.LinearLayout.VERTICAL);
-        layout.setGravity(android.view.Gravity.CENTER);
-        layout.setBackgroundColor(0xFF1a237e); // Koyu mavi
-        layout.setPadding(50, 50, 50, 50);
+    /** Gate açıksa aynı alarm için ekran ve ses FireGate'ten talep edilir; tekrarsa false */
+    private boolean showAlarm(Intent intent, long startedAt, String path, boolean gate) {
+        int fireKey = intent.getIntExtra(FireGate.EXTRA_FIRE_KEY, FireGate.NO_KEY);
+        long now = System.currentTimeMillis();
+        if (gate && !FireGate.SHARED.claim(fireKey, FireGate.STAGE_SCREEN, now)) {
+            return false;
+        }
         
-        // Başlık
-        TextView titleView = new TextView(this);
-        titleView.setText("🕌 EZAN VAKTİ 🕌");
-        titleView.setTextSize(32);
-        titleView.setTextColor(0xFFFFFFFF);
-        titleView.setGravity(android.view.Gravity.CENTER);
-        titleView.setPadding(20, 40, 20, 40);
-        layout.addView(titleView);
+        String prayer = intent.getStringExtra("prayer");
+        if (prayer == null) prayer = getString(R.string.alarm_default_prayer);
+        currentPrayer = prayer;
+        currentKind = intent.getIntExtra(NativeAlarmScheduler.EXTRA_KIND, AlarmRegistry.KIND_EXACT);
+        currentEpochDay = intent.getLongExtra(NativeAlarmScheduler.EXTRA_EPOCH_DAY, -1);
+        // Alıcı oturumu başlatmadıysa (ör. eski bildirimden açılış) burada başlar
+        if (session.state() != AlarmSession.STATE_RINGING) {
+            session.ring(EventJournal.prayerOf(prayer), currentKind, currentEpochDay, fireKey, now);
+        }
+        snoozeButton.setVisibility(session.canSnooze() ? View.VISIBLE : View.GONE);
         
-        // Namaz adı
-        TextView prayerView = new TextView(this);
-        prayerView.setText(prayer.toUpperCase() + " VAKTİ");
-        prayerView.setTextSize(48);
-        prayerView.setTextColor(0xFFFFD700); // Altın sarısı
-        prayerView.setGravity(android.view.Gravity.CENTER);
-        prayerView.setPadding(20, 60, 20, 60);
-        layout.addView(prayerView);
+        prayerView.setText(getString(R.string.alarm_prayer_format, prayer.toUpperCase()));
+        awaitFirstFrame(startedAt, path);
         
-        // Mesaj
-        TextView messageView = new TextView(this);
-        messageView.setText("Namaz vaktiniz geldi!\nAllah kabul etsin.");
-        messageView.setTextSize(20);
-        messageView.setTextColor(0xFFFFFFFF);
-        messageView.setGravity(android.view.Gravity.CENTER);
-        messageView.setPadding(20, 40, 20, 60);
-        layout.addView(messageView);
+        // Ses ve titreşim başlat (yeni alarm öncekinin yerine geçer)
+        if (!gate || FireGate.SHARED.claim(fireKey, FireGate.STAGE_SOUND, now)) {
+            startPlayback();
+        }
         
-        // Kapat butonu
-        Button dismissButton = new Button(this);
-        dismissButton.setText("TAMAM");
-        dismissButton.setTextSize(24);
-        dismissButton.setPadding(60, 30, 60, 30);
-        dismissButton.setOnClickListener(v -> {
-            stopAlarmSound();
-            stopVibration();
-            
-            // MainActivity'yi başlat
-            Intent mainIntent = new Intent(this, MainActivity.class);
-            mainIntent.putExtra("prayer", prayer);
-            mainIntent.putExtra("autoTrigger", "true");
-            mainIntent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | 
-                              Intent.FLAG_ACTIVITY_CLEAR_TOP);
-            startActivity(mainIntent);
-            
-            finish();
+        // Çalma süresi dolunca otomatik kapat; yeni alarm veya erteleme süreyi baştan başlatır
+        handler.removeCallbacks(autoDismiss);
+        handler.postDelayed(autoDismiss, Math.max(0, session.ringDeadline() - now));
+        return true;
+    }
+    
+    /**
+     * Çalmayı durdurur ve tek erteleme alarmı kurar. Süreç ve wake lock beklemede
+     * tutulmaz; yeniden çalış AlarmReceiver'dan normal alarm gibi gelir.
+     */
+    private void snooze() {
+        long ringAt = session.snooze(System.currentTimeMillis());
+        if (ringAt < 0) {
+            return;
+        }
+        handler.removeCallbacks(autoDismiss);
+        stopPlayback();
+        
+        Context appContext = getApplicationContext();
+        String prayer = currentPrayer;
+        boolean test = session.kind() == AlarmRegistry.KIND_TEST;
+        int fireKey = session.fireKey();
+        AlarmCore core = AlarmCore.get(appContext);
+        core.systemExecutor().execute(() -> {
+            Intent intent = core.intentFor(prayer, -1, test);
+            intent.putExtra(AlarmSession.EXTRA_SNOOZE, "true");
+            intent.putExtra(FireGate.EXTRA_FIRE_KEY, fireKey);
+            intent.putExtra(NativeAlarmScheduler.EXTRA_TRIGGER_AT, ringAt);
+            core.schedule(AlarmSession.SNOOZE_REQUEST_CODE, ringAt, intent);
+            AlarmAudio.schedulePrewarm(appContext, ringAt);
         });
-        layout.addView(dismissButton);
+        finish();
+    }
+    
+    /**
+     * Alarm tamamen yerelde biter: köprü, WebView ve web paketi yüklenmez. Ana arayüz
+     * yalnızca kullanıcı isterse (openApp) açılır.
+     */
+    private void dismiss() {
+        handler.removeCallbacks(autoDismiss);
+        session.dismiss(System.currentTimeMillis());
+        flushJournal();
+        stopPlayback();
         
-        return layout;
+        // Kullanıcı asıl alarmı gördü: yuvarlanan zamanlayıcı bu vaktin takibini atlar
+        int prayerIndex = EventJournal.prayerOf(currentPrayer);
+        if (currentKind == AlarmRegistry.KIND_EXACT && currentEpochDay >= 0
+            && prayerIndex != EventJournal.NO_PRAYER) {
+            Context appContext = getApplicationContext();
+            long epochDay = currentEpochDay;
+            AlarmCore.get(appContext).systemExecutor().execute(() -> {
+                if (NativeAlarmScheduler.isEnabled(appContext)) {
+                    NativeAlarmScheduler.acknowledge(appContext, epochDay, prayerIndex);
+                }
+            });
+        }
+        
+        finish();
     }
     
-    private void startAlarmSound() {
-        try {
-            Uri alarmUri = RingtoneManager.getDefaultUri(RingtoneManager.TYPE_ALARM);
-            if (alarmUri == null) {
-                alarmUri = RingtoneManager.getDefaultUri(RingtoneManager.TYPE_NOTIFICATION);
-            }
-            ringtone = RingtoneManager.getRingtone(this, alarmUri);
-            ringtone.play();
-        } catch (Exception e) {
-            e.printStackTrace();
+    /** Alarmı kapatır ve ana arayüze geçer; köprü ancak burada başlatılır */
+    private void openApp() {
+        Intent mainIntent = new Intent(this, MainActivity.class);
+        mainIntent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
+        startActivity(mainIntent);
+        dismiss();
+    }
+    
+    private void flushJournal() {
+        // Alarm bitti; günlüğü diske zorlamak için uygun an (sıcak yol dışında)
+        EventJournal journal = EventJournal.shared();
+        if (journal != null) {
+            journal.flush();
         }
     }
     
-    private void stopAlarmSound() {
-        if (ringtone != null && ringtone.isPlaying()) {
-            ringtone.stop();
+    /**
+     * Metin değişikliğinden sonraki ilk çizim; yaklaşık "ilk kare" zamanı.
+     */
+    private void awaitFirstFrame(long startedAt, String path) {
+        View decor = getWindow().getDecorView();
+        decor.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                decor.getViewTreeObserver().removeOnPreDrawListener(this);
+                // Çizim bu geçişte yapılır; post çizimden sonra çalışır
+                decor.post(() -> {
+                    lastFirstFrameMs = SystemClock.uptimeMillis() - startedAt;
+                    lastFirstFramePath = path;
+                    EventJournal.log(EventJournal.INFO, EventJournal.ACTIVITY_SHOWN,
+                        EventJournal.prayerOf(currentPrayer), (int) lastFirstFrameMs, 0,
+                        PATH_COLD.equals(path) ? 0 : PATH_WARM.equals(path) ? 1 : 2);
+                    // Ekran çizildi; CPU'yu uyanık tutmaya gerek yok
+                    AlarmWakeLock.onFirstFrame();
+                    if (coldLaunch) {
+                        coldLaunch = false;
+                        long sinceStart = SystemClock.uptimeMillis() - Process.getStartUptimeMillis();
+                        // PSS ölçümü birkaç ms sürer; ana iş parçacığında yapılmaz
+                        AlarmCore.get(getApplicationContext()).systemExecutor().execute(
+                            () -> StartupTrace.record(StartupTrace.PATH_ALARM, sinceStart, Debug.getPss()));
+                    }
+                });
+                return true;
+            }
+        });
+    }
+    
+    private void startPlayback() {
+        playbackOwner = playbackToken;
+        // Önceden hazırlanmış yerel kopya (yoksa sistem alarm sesi) USAGE_ALARM ile çalar
+        AlarmAudio.play(this);
+        startVibration();
+    }
+    
+    /** Ses ve titreşim bu örneğe aitse durdurur; başka örneğin çalmasına dokunmaz */
+    private void stopPlayback() {
+        if (playbackOwner != playbackToken) {
+            return;
         }
+        playbackOwner = null;
+        AlarmAudio.stop();
+        stopVibration();
     }
     
     private void startVibration() {
@@ -175,12 +291,18 @@ public class AlarmActivity extends Activity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        stopAlarmSound();
-        stopVibration();
+        handler.removeCallbacks(autoDismiss);
+        // Yapılandırma değişikliğinde yeni örnek çalmayı devralır (showAlarm, gate kapalı)
+        if (!isChangingConfigurations()) {
+            stopPlayback();
+        }
     }
     
     @Override
     public void onBackPressed() {
-        // Geri tuşunu engelle
+        // Geri tuşu alarmı kapatmaz, erteler; erteleme hakkı bittiyse yok sayılır
+        if (session.canSnooze()) {
+            snooze();
+        }
     }
 }
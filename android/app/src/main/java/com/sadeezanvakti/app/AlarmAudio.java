@@ -0,0 +1,252 @@
+package com.sadeezanvakti.app;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.media.AudioAttributes;
+import android.media.MediaPlayer;
+import android.media.RingtoneManager;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Alarm sesi: yerel kopyadan USAGE_ALARM ile çalar.
+ *
+ * Bir sonraki alarmdan yaklaşık bir dakika önce (ve AlarmReceiver tetiklenince)
+ * MediaPlayer arka planda hazırlanıp bekletilir; AlarmActivity yalnızca start()
+ * çağırır. Hazırlık bitmeden çalınırsa play() beklemez, kendi oynatıcısını kurar.
+ * Her çalışta "çal isteği → ilk ses karesi" süresi kaydedilir.
+ */
+final class AlarmAudio {
+
+    static final String PREFS = "ezan_alarm_sound";
+    static final String KEY_VOLUME = "volume";
+    static final String KEY_PREWARM_AT = "prewarmAt";
+
+    static final long PREWARM_LEAD_MS = 60_000;
+    // Kullanılmayan hazır oynatıcı bu süreden sonra bırakılır
+    static final long PREPARED_TTL_MS = 5 * 60_000;
+    static final int PREWARM_REQUEST_CODE = 0xC55A0002;
+    static final int HISTORY_SIZE = 16;
+
+    private static final long FIRST_AUDIO_POLL_MS = 5;
+    private static final long FIRST_AUDIO_TIMEOUT_MS = 3000;
+
+    private static final Handler handler = new Handler(Looper.getMainLooper());
+
+    private static MediaPlayer prepared;
+    private static MediaPlayer playing;
+    private static boolean preparing;
+    // invalidate() her çağrıda artırır; hazırlık sürerken ses değiştiyse sonuç atılır
+    private static int generation;
+    private static Runnable releasePrepared;
+
+    // Son çalışların ilk ses süreleri; -1 = ses başlamadı
+    private static final long[] firstAudioMs = new long[HISTORY_SIZE];
+    private static final boolean[] firstAudioWarm = new boolean[HISTORY_SIZE];
+    private static final long[] firstAudioAt = new long[HISTORY_SIZE];
+    private static int historyCount;
+
+    private AlarmAudio() {
+    }
+
+    static AlarmSoundCache cache(Context context) {
+        return new AlarmSoundCache(new File(context.getFilesDir(), AlarmSoundCache.DIR_NAME));
+    }
+
+    /**
+     * Oynatıcıyı hazırlayıp bekletir; zaten hazırsa veya hazırlanıyorsa bir şey yapmaz.
+     * prepare() dosya okur: ana iş parçacığında çağrılmaz ve kilit tutulmadan yapılır,
+     * böylece play() hazırlığı beklemez.
+     */
+    static void prewarm(Context context) {
+        int started;
+        synchronized (AlarmAudio.class) {
+            if (prepared != null || preparing) {
+                return;
+            }
+            preparing = true;
+            started = generation;
+        }
+        long start = SystemClock.elapsedRealtime();
+        MediaPlayer player = null;
+        try {
+            player = createPlayer(context.getApplicationContext());
+        } catch (IOException | RuntimeException e) {
+            EventJournal.log(EventJournal.ERROR, EventJournal.AUDIO_FAILED, EventJournal.NO_PRAYER,
+                (int) (SystemClock.elapsedRealtime() - start), 0, 0);
+        }
+        synchronized (AlarmAudio.class) {
+            preparing = false;
+            if (player == null) {
+                return;
+            }
+            // Hazırlık sürerken çalma başladıysa veya ses değiştiyse bu oynatıcı kullanılmaz
+            if (playing != null || prepared != null || started != generation) {
+                player.release();
+                return;
+            }
+            prepared = player;
+            releasePrepared = AlarmAudio::invalidate;
+            handler.postDelayed(releasePrepared, PREPARED_TTL_MS);
+        }
+    }
+
+    /** Hazır oynatıcıyı bırakır; ses değiştiğinde veya süresi dolunca */
+    static synchronized void invalidate() {
+        generation++;
+        if (releasePrepared != null) {
+            handler.removeCallbacks(releasePrepared);
+            releasePrepared = null;
+        }
+        if (prepared != null) {
+            prepared.release();
+            prepared = null;
+        }
+    }
+
+    static synchronized boolean play(Context context) {
+        stop();
+        long requestedAt = SystemClock.elapsedRealtime();
+        boolean warm = prepared != null;
+        MediaPlayer player = prepared;
+        prepared = null;
+        if (releasePrepared != null) {
+            handler.removeCallbacks(releasePrepared);
+            releasePrepared = null;
+        }
+
+        try {
+            if (player == null) {
+                player = createPlayer(context.getApplicationContext());
+            }
+            player.start();
+        } catch (IOException | RuntimeException e) {
+            EventJournal.log(EventJournal.ERROR, EventJournal.AUDIO_FAILED, EventJournal.NO_PRAYER, 0, 0, 1);
+            if (player != null) {
+                player.release();
+            }
+            return false;
+        }
+        playing = player;
+        watchFirstAudio(player, requestedAt, warm);
+        return true;
+    }
+
+    static synchronized void stop() {
+        if (playing != null) {
+            try {
+                playing.stop();
+            } catch (IllegalStateException e) {
+                // zaten durmuş
+            }
+            playing.release();
+            playing = null;
+        }
+    }
+
+    /**
+     * Alarmdan PREWARM_LEAD_MS önce hazırlık yapılır. Daha erken bir hazırlık zaten
+     * kuruluysa ona dokunulmaz. Uyandıran, Doze'da da çalışan tam olmayan alarm
+     * kullanılır; hazırlık yine de kaçarsa (süreç öldü) AlarmReceiver tekrarlar.
+     */
+    static void schedulePrewarm(Context context, long triggerAt) {
+        long at = triggerAt - PREWARM_LEAD_MS;
+        long now = System.currentTimeMillis();
+        if (at <= now) {
+            return;
+        }
+        SharedPreferences prefs = context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        long pendingAt = prefs.getLong(KEY_PREWARM_AT, 0);
+        if (pendingAt > now && pendingAt <= at) {
+            return;
+        }
+
+        PendingIntent pendingIntent = PendingIntent.getBroadcast(
+            context,
+            PREWARM_REQUEST_CODE,
+            new Intent(context, AlarmSoundPrewarmReceiver.class),
+            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        alarmManager.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, at, pendingIntent);
+        prefs.edit().putLong(KEY_PREWARM_AT, at).apply();
+    }
+
+    static synchronized long[][] history() {
+        int size = Math.min(historyCount, HISTORY_SIZE);
+        long[][] rows = new long[size][];
+        for (int i = 0; i < size; i++) {
+            int slot = (historyCount - size + i) % HISTORY_SIZE;
+            rows[i] = new long[]{firstAudioAt[slot], firstAudioMs[slot], firstAudioWarm[slot] ? 1 : 0};
+        }
+        return rows;
+    }
+
+    private static MediaPlayer createPlayer(Context context) throws IOException {
+        MediaPlayer player = new MediaPlayer();
+        player.setAudioAttributes(new AudioAttributes.Builder()
+            .setUsage(AudioAttributes.USAGE_ALARM)
+            .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+            .build());
+
+        File file = cache(context).soundFile();
+        if (file != null) {
+            player.setDataSource(file.getPath());
+            player.setLooping(false);
+        } else {
+            Uri alarmUri = RingtoneManager.getDefaultUri(RingtoneManager.TYPE_ALARM);
+            if (alarmUri == null) {
+                alarmUri = RingtoneManager.getDefaultUri(RingtoneManager.TYPE_NOTIFICATION);
+            }
+            player.setDataSource(context, alarmUri);
+            player.setLooping(true);
+        }
+
+        float volume = context.getSharedPreferences(PREFS, Context.MODE_PRIVATE).getFloat(KEY_VOLUME, 1f);
+        player.setVolume(volume, volume);
+        player.prepare();
+        return player;
+    }
+
+    private static void watchFirstAudio(MediaPlayer player, long requestedAt, boolean warm) {
+        handler.post(new Runnable() {
+            @Override
+            public void run() {
+                long elapsed = SystemClock.elapsedRealtime() - requestedAt;
+                synchronized (AlarmAudio.class) {
+                    if (player != playing) {
+                        recordFirstAudio(-1, warm);
+                        return;
+                    }
+                    if (player.getCurrentPosition() > 0) {
+                        recordFirstAudio(elapsed, warm);
+                        EventJournal.log(EventJournal.INFO, EventJournal.AUDIO_STARTED, EventJournal.NO_PRAYER,
+                            (int) elapsed, 0, warm ? 1 : 0);
+                        return;
+                    }
+                }
+                if (elapsed >= FIRST_AUDIO_TIMEOUT_MS) {
+                    recordFirstAudio(-1, warm);
+                    EventJournal.log(EventJournal.WARN, EventJournal.AUDIO_STARTED, EventJournal.NO_PRAYER,
+                        -1, 0, warm ? 1 : 0);
+                    return;
+                }
+                handler.postDelayed(this, FIRST_AUDIO_POLL_MS);
+            }
+        });
+    }
+
+    private static synchronized void recordFirstAudio(long ms, boolean warm) {
+        int slot = historyCount++ % HISTORY_SIZE;
+        firstAudioMs[slot] = ms;
+        firstAudioWarm[slot] = warm;
+        firstAudioAt[slot] = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,285 @@
+package com.sadeezanvakti.app;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Tüm alarm kurma ve iptal yollarının tek noktası: Intent ekstraları, istek kodu,
+ * AlarmManager yolu (AlarmMode) ve AlarmRegistry kaydı burada belirlenir.
+ *
+ * Metotlar kilitlidir; alıcılar ve zamanlayıcı doğrudan çağırabilir. Eklentiler işi
+ * executor üzerinden tek arka plan iş parçacığına verir (PluginCalls); köprü
+ * çağrıları sıraya girer ve ana iş parçacığını hiçbir zaman bekletmez.
+ * Alıcıların, alarm ekranının ve oturum yazımının işi ayrı, sınırsız
+ * systemExecutor'da yürür; eklenti sırası dolsa da reddedilmez.
+ */
+public final class AlarmCore {
+
+    private static AlarmCore instance;
+
+    private final Context context;
+    private final AlarmManager alarmManager;
+    private final ThreadPoolExecutor executor = PluginCalls.bounded("EzanAlarmCore", 1);
+    private final ExecutorService systemExecutor =
+        Executors.newSingleThreadExecutor(r -> new Thread(r, "EzanAlarm"));
+
+    // İstek kodu → kullanılan yol; kayıtsız alarmlar (yuvarlanan) dahil
+    private final Map<Integer, Integer> modes = new HashMap<>();
+    private final long[] modeCounts = new long[AlarmMode.NAMES.length];
+    private long fallbacks;
+
+    private AlarmCore(Context context) {
+        this.context = context;
+        this.alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        EventJournal.init(context.getFilesDir());
+    }
+
+    public static synchronized AlarmCore get(Context context) {
+        if (instance == null) {
+            instance = new AlarmCore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /** Eklenti çağrılarını sıralayan tek iş parçacıklı, sınırlı yürütücü; dolunca BUSY */
+    public Executor executor() {
+        return executor;
+    }
+
+    /**
+     * Alıcı, alarm ekranı, bileşen ve oturum işleri için tek iş parçacıklı, sınırsız
+     * yürütücü. goAsync() sonrası iş hiçbir zaman reddedilmemelidir; aksi halde
+     * PendingResult bitmez ve yuvarlanan alarm yeniden kurulmaz.
+     */
+    public Executor systemExecutor() {
+        return systemExecutor;
+    }
+
+    /** İlk çağrıda diskten yüklenir; alıcıların ana iş parçacığında get() dosya okumaz */
+    public AlarmRegistry registry() {
+        AlarmRegistry registry = AlarmRegistry.shared(context.getFilesDir());
+        // prayer-core günlüğü bilmez; okuma hatası burada bir kez kaydedilir
+        if (registry.takeLoadFailure()) {
+            EventJournal.storageError(EventJournal.STORE_ALARM_REGISTRY, EventJournal.STORAGE_READ);
+        }
+        return registry;
+    }
+
+    public boolean canScheduleExactAlarms() {
+        return Build.VERSION.SDK_INT < Build.VERSION_CODES.S || alarmManager.canScheduleExactAlarms();
+    }
+
+    /** AlarmReceiver'ın beklediği ekstralarla vakit alarmı Intent'i */
+    public Intent intentFor(String prayer, int alarmId, boolean testMode) {
+        Intent intent = new Intent(context, AlarmReceiver.class);
+        intent.putExtra("prayer", prayer);
+        intent.putExtra("autoTrigger", "true");
+        intent.putExtra("directLaunch", "true");
+        if (testMode) {
+            intent.putExtra("testMode", "true");
+        }
+        if (alarmId >= 0) {
+            intent.putExtra(AlarmRegistry.EXTRA_ALARM_ID, alarmId);
+        }
+        return intent;
+    }
+
+    /** Kayıtlı alarmın Intent'i; planlanan zaman gecikme ölçümü ve FireGate anahtarı içindir */
+    private Intent intentFor(String prayer, AlarmRegistry.Record record) {
+        Intent intent = intentFor(prayer, record.id, record.kind == AlarmRegistry.KIND_TEST);
+        intent.putExtra(NativeAlarmScheduler.EXTRA_TRIGGER_AT, record.triggerAt);
+        return intent;
+    }
+
+    /**
+     * Girdiyi kaydeder ve kurar; kurulan kaydı (kimlik ve AlarmMode ile) döndürür.
+     * Kayıt diske save ile yazılır (toplu işlemlerde bir kez).
+     */
+    public synchronized AlarmRegistry.Record arm(AlarmBatchPlanner.Entry entry) {
+        return arm(entry.toRecord(), PrayerTimeCalculator.PRAYER_KEYS[entry.prayer]);
+    }
+
+    /**
+     * Vakit anahtarı ve zamanla gelen eski tip istek (AlarmManagerPlugin, MainActivity).
+     * Kimlik yerel günden türetilir; kaydedilir ve kullanılan AlarmMode döndürülür.
+     */
+    public synchronized int armPrayer(String prayer, long triggerAt, int kind) {
+        int index = DirectAlarmPlugin.prayerIndex(prayer);
+        AlarmRegistry.Record record = new AlarmRegistry.Record(
+            0,
+            AlarmRegistry.localEpochDay(triggerAt, TimeZone.getDefault()),
+            index >= 0 ? index : AlarmRegistry.PRAYER_OTHER,
+            kind,
+            triggerAt);
+        int mode = arm(record, prayer).mode;
+        save();
+        return mode;
+    }
+
+    /**
+     * Kimlik her zaman AlarmRegistry.idFor ile çözülür: dörtlü kayıtlıysa (kaydırılmış
+     * kimlikle bile) o kaydın yerine geçer, değilse başka konumun kurulu alarmını
+     * yerinden etmeden ilk boş kimliğe kurulur.
+     */
+    private AlarmRegistry.Record arm(AlarmRegistry.Record record, String prayer) {
+        AlarmRegistry registry = registry();
+        int id = registry.idFor(record.locationId, record.epochDay, record.prayer, record.kind);
+        if (id < 0) {
+            throw new IllegalStateException("Boş alarm kimliği yok: " + prayer);
+        }
+        if (id != record.id) {
+            record = new AlarmRegistry.Record(id, record.locationId, record.epochDay, record.prayer,
+                record.kind, record.triggerAt, record.mode);
+        }
+        int mode = schedule(record.id, record.triggerAt, intentFor(prayer, record));
+        AlarmRegistry.Record armed = record.withMode(mode);
+        registry.put(armed);
+        int home = AlarmRegistry.alarmId(record.locationId, record.epochDay, record.prayer, record.kind);
+        if (armed.id != home) {
+            EventJournal.log(EventJournal.WARN, EventJournal.ALARM_REPLACED, armed.prayer, 0, home, armed.id);
+        }
+        AlarmAudio.schedulePrewarm(context, record.triggerAt);
+        return armed;
+    }
+
+    /** Kaydı siler ve PendingIntent'i iptal eder; kayıt vardıysa true */
+    public synchronized boolean disarm(int id) {
+        cancel(id);
+        return registry().remove(id) != null;
+    }
+
+    /** Kayıtlı tüm alarmları iptal eder; iptal edilen sayısı */
+    public synchronized int disarmAll() {
+        List<AlarmRegistry.Record> records = registry().list();
+        for (AlarmRegistry.Record record : records) {
+            cancel(record.id);
+        }
+        registry().clear();
+        return records.size();
+    }
+
+    /**
+     * Yeniden başlatma AlarmManager'daki tüm PendingIntent'leri siler, kayıtlar diskte
+     * kalır. Zamanı geçmiş kayıtlar atılır, gelecektekiler aynı kimlik ve ekstralarla
+     * yeniden kurulur ve kaydedilir; böylece listPending ve isArmed yine gerçeği söyler.
+     * Yeniden kurulan kayıt sayısını döndürür.
+     */
+    public synchronized int restore(long now) {
+        AlarmRegistry registry = registry();
+        int dropped = registry.pruneExpired(now);
+        List<AlarmRegistry.Record> records = registry.list();
+        for (AlarmRegistry.Record record : records) {
+            String prayer = record.prayer < PrayerTimeCalculator.PRAYER_COUNT
+                ? PrayerTimeCalculator.PRAYER_KEYS[record.prayer] : "test";
+            int mode = schedule(record.id, record.triggerAt, intentFor(prayer, record));
+            registry.put(record.withMode(mode));
+        }
+        if (dropped > 0 || !records.isEmpty()) {
+            save();
+        }
+        return records.size();
+    }
+
+    public synchronized void save() {
+        try {
+            registry().save();
+        } catch (IOException e) {
+            EventJournal.storageError(EventJournal.STORE_ALARM_REGISTRY, EventJournal.STORAGE_WRITE);
+        }
+    }
+
+    /**
+     * PendingIntent'i AlarmMode sırasıyla kurar. Bir yol SecurityException atarsa
+     * (izin kurulum anında geri alınmış olabilir) sıradakine geçilir.
+     */
+    public synchronized int schedule(int requestCode, long triggerAt, Intent intent) {
+        PendingIntent pendingIntent = PendingIntent.getBroadcast(
+            context,
+            requestCode,
+            intent,
+            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
+
+        int[] ladder = AlarmMode.ladder(Build.VERSION.SDK_INT, canScheduleExactAlarms());
+        int prayer = EventJournal.isEnabled(EventJournal.WARN)
+            ? EventJournal.prayerOf(intent.getStringExtra("prayer")) : EventJournal.NO_PRAYER;
+        SecurityException failure = null;
+        for (int i = 0; i < ladder.length; i++) {
+            try {
+                set(ladder[i], triggerAt, pendingIntent);
+                if (i > 0 || ladder[i] != AlarmMode.EXACT) {
+                    fallbacks++;
+                    EventJournal.log(EventJournal.WARN, EventJournal.ALARM_FALLBACK, prayer, 0, triggerAt, ladder[i]);
+                } else {
+                    EventJournal.log(EventJournal.INFO, EventJournal.ALARM_SCHEDULED, prayer, 0, triggerAt, ladder[i]);
+                }
+                modes.put(requestCode, ladder[i]);
+                modeCounts[ladder[i]]++;
+                return ladder[i];
+            } catch (SecurityException e) {
+                failure = e;
+            }
+        }
+        throw failure;
+    }
+
+    private void set(int mode, long triggerAt, PendingIntent pendingIntent) {
+        switch (mode) {
+            case AlarmMode.EXACT:
+                alarmManager.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, triggerAt, pendingIntent);
+                break;
+            case AlarmMode.ALARM_CLOCK:
+                Intent show = new Intent(context, MainActivity.class);
+                PendingIntent showIntent = PendingIntent.getActivity(
+                    context, 0, show, PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+                alarmManager.setAlarmClock(new AlarmManager.AlarmClockInfo(triggerAt, showIntent), pendingIntent);
+                break;
+            default:
+                alarmManager.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, triggerAt, pendingIntent);
+                break;
+        }
+    }
+
+    /** Kurulu değilse bir şey yapmaz */
+    public synchronized void cancel(int requestCode) {
+        modes.remove(requestCode);
+        EventJournal.log(EventJournal.DEBUG, EventJournal.ALARM_CANCELLED, EventJournal.NO_PRAYER, 0, 0, requestCode);
+        PendingIntent pendingIntent = PendingIntent.getBroadcast(
+            context,
+            requestCode,
+            new Intent(context, AlarmReceiver.class),
+            PendingIntent.FLAG_NO_CREATE | PendingIntent.FLAG_IMMUTABLE
+        );
+        if (pendingIntent != null) {
+            alarmManager.cancel(pendingIntent);
+            pendingIntent.cancel();
+        }
+    }
+
+    /** Bu süreçte kurulmuş alarmın yolu; bilinmiyorsa -1 */
+    public synchronized int modeOf(int requestCode) {
+        Integer mode = modes.get(requestCode);
+        return mode != null ? mode : -1;
+    }
+
+    /** Süreç başından beri yol başına kurulan alarm sayısı */
+    public synchronized long[] modeCounts() {
+        return modeCounts.clone();
+    }
+
+    public synchronized long fallbacks() {
+        return fallbacks;
+    }
+}
@@ -10,15 +10,18 @@ import android.content.pm.PackageManager;
 import android.os.Build;
 import android.os.Handler;
 import android.os.Looper;
-import android.os.PowerManager;
 import android.view.WindowManager;
 import android.app.KeyguardManager;
 import androidx.core.app.NotificationCompat;
 import androidx.core.app.NotificationManagerCompat;
 import androidx.core.content.ContextCompat;
+import java.util.TimeZone;
+import java.util.concurrent.RejectedExecutionException;
 
 public class AlarmReceiver extends BroadcastReceiver {
     
+    static final String REMINDER_CHANNEL_ID = "ezan_reminder";
+    
     @Override
     public void onReceive(Context context, Intent intent) {
         String prayer = intent.getStringExtra("prayer");
@@ -27,17 +30,56 @@ public class AlarmReceiver extends BroadcastReceiver {
         String testMode = intent.getStringExtra("testMode");
         
         if (prayer != null && "true".equals(autoTrigger) && "true".equals(directLaunch)) {
-            System.out.println("AlarmReceiver tetiklendi: " + prayer);
+            EventJournal.init(context.getFilesDir());
+            Context appContext = context.getApplicationContext();
+            AlarmCore core = AlarmCore.get(appContext);
+            int prayerIndex = EventJournal.prayerOf(prayer);
+            long firedAt = System.currentTimeMillis();
+            int alarmId = intent.getIntExtra(AlarmRegistry.EXTRA_ALARM_ID, -1);
             
-            // WakeLock al - cihazı zorla uyandır
-            PowerManager powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
-            PowerManager.WakeLock wakeLock = powerManager.newWakeLock(
-                PowerManager.SCREEN_BRIGHT_WAKE_LOCK | 
-                PowerManager.FULL_WAKE_LOCK | 
-                PowerManager.ACQUIRE_CAUSES_WAKEUP,
-                "EzanVakti:AlarmWakeLock"
-            );
-            wakeLock.acquire(10*60*1000L); // 10 dakika
+            // Kayıtlı alarmda kademe kimliğin alt bitlerindedir, yuvarlananda extra'dadır
+            int kind = alarmId >= 0 ? alarmId & 3 : intent.getIntExtra(NativeAlarmScheduler.EXTRA_KIND,
+                "true".equals(testMode) ? AlarmRegistry.KIND_TEST : AlarmRegistry.KIND_EXACT);
+            long epochDay = intent.getLongExtra(NativeAlarmScheduler.EXTRA_EPOCH_DAY,
+                AlarmRegistry.localEpochDay(firedAt, TimeZone.getDefault()));
+            
+            AlarmSession session = AlarmSession.shared(appContext.getFilesDir(), core.systemExecutor());
+            boolean snoozeRing = "true".equals(intent.getStringExtra(AlarmSession.EXTRA_SNOOZE));
+            int fireKey;
+            // Etkinlik ve yedek yollar için kapı anahtarı; erteleme sonrası çalışta kapı oturumdur
+            int gateKey;
+            if (snoozeRing) {
+                // Yalnızca hâlâ ertelenmiş aynı alarm yeniden çalar (SNOOZED → RINGING bir kez)
+                fireKey = intent.getIntExtra(FireGate.EXTRA_FIRE_KEY, FireGate.NO_KEY);
+                if (!session.reRing(fireKey, firedAt)) {
+                    finishInBackground(appContext, core, intent, alarmId, prayerIndex, firedAt);
+                    return;
+                }
+                kind = session.kind();
+                epochDay = session.epochDay();
+                gateKey = FireGate.NO_KEY;
+            } else {
+                // Aynı vakit ikinci kez geldiyse (yinelenen yayın, yuvarlanan + toplu alarm) çalma
+                fireKey = FireGate.keyFor(alarmId, epochDay, prayerIndex, kind,
+                    intent.getLongExtra(NativeAlarmScheduler.EXTRA_TRIGGER_AT, 0));
+                if (!FireGate.SHARED.claim(fireKey, FireGate.STAGE_FIRED, firedAt)) {
+                    finishInBackground(appContext, core, intent, alarmId, prayerIndex, firedAt);
+                    return;
+                }
+                
+                // Ön hatırlatma sessizdir: ekran, ses ve wakelock yok, yalnızca bildirim
+                if (kind == AlarmRegistry.KIND_REMINDER) {
+                    postReminder(context, prayer, prayerIndex, fireKey);
+                    finishInBackground(appContext, core, intent, alarmId, prayerIndex, firedAt);
+                    return;
+                }
+                // Bellekte hemen geçerli; dosyaya alarm iş parçacığında yazılır
+                session.ring(prayerIndex, kind, epochDay, fireKey, firedAt);
+                gateKey = fireKey;
+            }
+            
+            // WakeLock al - AlarmActivity ilk karesini çizene kadar (en fazla AlarmWakeLock.CEILING_MS)
+            AlarmWakeLock.acquire(context, prayer);
             
             // Bildirim kanalını oluştur
             createNotificationChannel(context);
@@ -48,16 +90,23 @@ public class AlarmReceiver extends BroadcastReceiver {
             alarmIntent.putExtra("autoTrigger", autoTrigger);
             alarmIntent.putExtra("directLaunch", directLaunch);
             alarmIntent.putExtra("testMode", testMode);
+            alarmIntent.putExtra(FireGate.EXTRA_FIRE_KEY, gateKey);
+            alarmIntent.putExtra(NativeAlarmScheduler.EXTRA_KIND, kind);
+            alarmIntent.putExtra(NativeAlarmScheduler.EXTRA_EPOCH_DAY, epochDay);
+            // CLEAR_TASK yok: ekran açıkken gelen tekrar başlatmalar (bildirime dokunma,
+            // yedek başlatma) canlı örneği yok etmeden onNewIntent'e düşer
             alarmIntent.setFlags(
-                Intent.FLAG_ACTIVITY_NEW_TASK | 
-                Intent.FLAG_ACTIVITY_CLEAR_TASK |
+                Intent.FLAG_ACTIVITY_NEW_TASK |
                 Intent.FLAG_ACTIVITY_NO_USER_ACTION
             );
             
+            // Aynı alarmın bildirimi yığılmaz, yerine geçer
+            int notificationId = fireKey != FireGate.NO_KEY ? fireKey : (int) System.currentTimeMillis();
+            
             // Bildirim için PendingIntent oluştur - BU ÇOK ÖNEMLİ
             PendingIntent fullScreenPendingIntent = PendingIntent.getActivity(
                 context, 
-                (int) System.currentTimeMillis(), 
+                notificationId, 
                 alarmIntent, 
                 PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
             );
@@ -81,29 +130,114 @@ public class AlarmReceiver extends BroadcastReceiver {
             
             if (ContextCompat.checkSelfPermission(context, android.Manifest.permission.POST_NOTIFICATIONS) 
                 == PackageManager.PERMISSION_GRANTED) {
-                notificationManager.notify((int) System.currentTimeMillis(), builder.build());
-                System.out.println("Full screen bildirim gösterildi - AlarmActivity açılmalı");
+                notificationManager.notify(notificationId, builder.build());
+                EventJournal.log(EventJournal.INFO, EventJournal.NOTIFICATION_POSTED, prayerIndex, 0, 0, 1);
+            } else {
+                EventJournal.log(EventJournal.WARN, EventJournal.NOTIFICATION_POSTED, prayerIndex, 0, 0, 0);
             }
             
-            // Yedek: 500ms sonra manuel başlat (bildirim çalışmazsa)
+            // AlarmActivity açılırken ses hazır olsun; prepare() ana iş parçacığını bekletmez
+            // ve alarm iş parçacığında defter işlerinden önce yapılır
+            core.systemExecutor().execute(() -> AlarmAudio.prewarm(appContext));
+            
+            // Yedek: 500ms sonra manuel başlat (bildirim etkinliği açmadıysa)
             new Handler(Looper.getMainLooper()).postDelayed(() -> {
+                if (FireGate.SHARED.alreadyClaimed(gateKey, FireGate.STAGE_SCREEN, System.currentTimeMillis())
+                    || AlarmWakeLock.activityStartedSince(firedAt)) {
+                    return;
+                }
                 try {
-                    System.out.println("YEDEK: Manuel AlarmActivity başlatılıyor...");
                     context.startActivity(alarmIntent);
-                    System.out.println("YEDEK: AlarmActivity başlatıldı!");
+                    EventJournal.log(EventJournal.WARN, EventJournal.ACTIVITY_FALLBACK, prayerIndex,
+                        (int) (System.currentTimeMillis() - firedAt), 0, 1);
                 } catch (Exception e) {
-                    System.err.println("YEDEK başlatma hatası: " + e.getMessage());
-                    e.printStackTrace();
+                    EventJournal.log(EventJournal.ERROR, EventJournal.ACTIVITY_FALLBACK, prayerIndex,
+                        (int) (System.currentTimeMillis() - firedAt), 0, 0);
                 }
             }, 500);
             
-            // WakeLock'i 10 saniye sonra serbest bırak
-            new Handler(Looper.getMainLooper()).postDelayed(() -> {
-                if (wakeLock.isHeld()) {
-                    wakeLock.release();
-                    System.out.println("WakeLock serbest bırakıldı");
+            // Ekran yolda; kayıt, günlük ve sıradaki alarm arka planda
+            finishInBackground(appContext, core, intent, alarmId, prayerIndex, firedAt);
+        }
+    }
+    
+    /**
+     * Tetiklenmenin defter işleri: kayıt silinir ve diske yazılır, gecikme günlüğe
+     * yazılır, yuvarlanan zamanlayıcı sıradaki vakti kurar. Tablo ve tercih okuması
+     * ile AlarmManager çağrısı ana iş parçacığında yapılmaz, etkinliği geciktirmez.
+     */
+    private void finishInBackground(Context appContext, AlarmCore core, Intent intent,
+                                    int alarmId, int prayerIndex, long firedAt) {
+        long triggerAt = intent.getLongExtra(NativeAlarmScheduler.EXTRA_TRIGGER_AT, 0);
+        boolean rolling = "true".equals(intent.getStringExtra(NativeAlarmScheduler.EXTRA_ROLLING));
+        PendingResult pendingResult = goAsync();
+        Runnable bookkeeping = () -> {
+            try {
+                // Tetiklenen alarm artık kurulu değil; planlanan zaman gecikmeyi ölçmek için alınır
+                long scheduledAt = triggerAt;
+                if (alarmId >= 0) {
+                    AlarmRegistry.Record record = core.registry().remove(alarmId);
+                    if (record != null) {
+                        scheduledAt = record.triggerAt;
+                        core.save();
+                    }
+                }
+                EventJournal.log(EventJournal.INFO, EventJournal.ALARM_FIRED, prayerIndex,
+                    scheduledAt > 0 ? (int) (firedAt - scheduledAt) : -1, scheduledAt, alarmId);
+                
+                // Yuvarlanan zamanlayıcı: WebView beklemeden bir sonraki vakti kur
+                if (rolling) {
+                    NativeAlarmScheduler.rearmAfter(appContext, triggerAt);
                 }
-            }, 10000);
+            } catch (Exception e) {
+                EventJournal.log(EventJournal.ERROR, EventJournal.SCHEDULE_ERROR, prayerIndex);
+            } finally {
+                pendingResult.finish();
+            }
+        };
+        try {
+            core.systemExecutor().execute(bookkeeping);
+        } catch (RejectedExecutionException e) {
+            // Yürütücü kabul etmezse iş burada yapılır: PendingResult açık kalmamalı,
+            // yuvarlanan zamanlayıcı sıradaki vakti kurmadan zincir kopmamalı
+            bookkeeping.run();
+        }
+    }
+    
+    private void postReminder(Context context, String prayer, int prayerIndex, int notificationId) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(
+                REMINDER_CHANNEL_ID,
+                "Ezan Hatırlatması",
+                NotificationManager.IMPORTANCE_LOW
+            );
+            channel.setDescription("Vakitten önce sessiz hatırlatma");
+            channel.setSound(null, null);
+            context.getSystemService(NotificationManager.class).createNotificationChannel(channel);
+        }
+        
+        Intent openIntent = new Intent(context, MainActivity.class);
+        openIntent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
+        PendingIntent contentIntent = PendingIntent.getActivity(
+            context, notificationId, openIntent,
+            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+        
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, REMINDER_CHANNEL_ID)
+            .setSmallIcon(android.R.drawable.ic_lock_idle_alarm)
+            .setContentTitle(prayer + " yaklaşıyor")
+            .setContentText(prayer + " vaktine az kaldı")
+            .setPriority(NotificationCompat.PRIORITY_LOW)
+            .setCategory(NotificationCompat.CATEGORY_REMINDER)
+            .setSilent(true)
+            .setAutoCancel(true)
+            .setContentIntent(contentIntent);
+        
+        if (ContextCompat.checkSelfPermission(context, android.Manifest.permission.POST_NOTIFICATIONS)
+            == PackageManager.PERMISSION_GRANTED) {
+            NotificationManagerCompat.from(context).notify(notificationId, builder.build());
+            EventJournal.log(EventJournal.INFO, EventJournal.NOTIFICATION_POSTED, prayerIndex, 0, 0, 1);
+        } else {
+            EventJournal.log(EventJournal.WARN, EventJournal.NOTIFICATION_POSTED, prayerIndex, 0, 0, 0);
         }
     }
     
@@ -124,8 +258,6 @@ public class AlarmReceiver extends BroadcastReceiver {
             
             NotificationManager notificationManager = context.getSystemService(NotificationManager.class);
             notificationManager.createNotificationChannel(channel);
-            
-            System.out.println("Bildirim kanalı oluşturuldu: IMPORTANCE_MAX");
         }
     }
 }
@@ -0,0 +1,263 @@
+package com.sadeezanvakti.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.Executor;
+
+/**
+ * Çalan alarmın yaşam döngüsü: çalıyor → ertelendi → yeniden çalıyor → kapatıldı / zaman aşımı.
+ *
+ * Durum her geçişte küçük bir dosyaya yazılır. Böylece etkinlik yeniden oluşturulsa
+ * ya da süreç ertelemede öldürülse de çalma bitişi ve erteleme sayısı kaybolmaz.
+ * Geçiş bellekte hemen geçerlidir; dosya yazımı verilen yürütücüde sırayla yapılır,
+ * alıcı ve etkinlik ana iş parçacığında diske yazmaz.
+ * Erteleme süreci ve wake lock'u canlı tutmaz; tek sabit istek kodlu AlarmManager
+ * alarmı kurulur (SNOOZE_REQUEST_CODE) ve AlarmReceiver reRing ile devam ettirir.
+ *
+ * Geçiş süreleri EventJournal'a yazılır: erteleme öncesi çalma süresi, ertelemenin
+ * gecikmesi ve kapanışta toplam çalma. Çalma süresi pil tüketimine göre buradan ayarlanır.
+ */
+public final class AlarmSession {
+
+    public static final int STATE_IDLE = 0;
+    public static final int STATE_RINGING = 1;
+    public static final int STATE_SNOOZED = 2;
+    public static final int STATE_DISMISSED = 3;
+    public static final int STATE_TIMED_OUT = 4;
+
+    public static final String[] STATE_NAMES = {"idle", "ringing", "snoozed", "dismissed", "timedOut"};
+
+    public static final long RING_MS = 120_000;       // kapatılmazsa 2 dakikada zaman aşımı
+    public static final long SNOOZE_MS = 5 * 60_000L;
+    public static final int MAX_SNOOZES = 3;
+
+    public static final String EXTRA_SNOOZE = "snooze";
+
+    // Sabit istek kodu: aynı anda tek erteleme alarmı. Negatiftir, AlarmRegistry kimlikleriyle
+    // ve NativeAlarmScheduler.ROLLING_REQUEST_CODE ile çakışmaz.
+    static final int SNOOZE_REQUEST_CODE = 0xC55A0002;
+
+    public static final String FILE_NAME = "alarm_session.bin";
+
+    private static final int MAGIC = 0x53415A45; // "EZAS"
+    private static final int RECORD_SIZE = 48;
+
+    private static AlarmSession shared;
+
+    private final File file;
+    private final Executor writer;
+
+    private int state = STATE_IDLE;
+    private int prayer = EventJournal.NO_PRAYER;
+    private int kind = AlarmRegistry.KIND_EXACT;
+    private int fireKey = FireGate.NO_KEY;
+    private int snoozeCount;
+    private long epochDay = -1;
+    private long ringStartedAt;
+    private long snoozeUntil;
+    private long totalRingMs;
+
+    /** Yazım çağıran iş parçacığında yapılır */
+    public AlarmSession(File file) {
+        this(file, Runnable::run);
+    }
+
+    /** writer tek iş parçacıklı olmalı; yazımlar geçiş sırasıyla diske iner */
+    public AlarmSession(File file, Executor writer) {
+        this.file = file;
+        this.writer = writer;
+        load();
+    }
+
+    /** Süreçteki ortak oturum; writer yalnızca ilk çağrıda kullanılır */
+    public static synchronized AlarmSession shared(File filesDir, Executor writer) {
+        if (shared == null) {
+            shared = new AlarmSession(new File(filesDir, FILE_NAME), writer);
+        }
+        return shared;
+    }
+
+    /** Yeni alarm çalmaya başladı; önceki oturum (ertelenmiş olsa da) yerini ona bırakır */
+    public synchronized void ring(int prayer, int kind, long epochDay, int fireKey, long now) {
+        this.prayer = prayer;
+        this.kind = kind;
+        this.epochDay = epochDay;
+        this.fireKey = fireKey;
+        snoozeCount = 0;
+        totalRingMs = 0;
+        snoozeUntil = 0;
+        ringStartedAt = now;
+        state = STATE_RINGING;
+        persist();
+    }
+
+    /**
+     * Erteleme alarmı geldi. Yalnızca aynı alarm hâlâ ertelenmişse yeniden çalar;
+     * yinelenen yayın veya araya giren yeni alarm false alır.
+     */
+    public synchronized boolean reRing(int fireKey, long now) {
+        if (state != STATE_SNOOZED || fireKey != this.fireKey) {
+            return false;
+        }
+        EventJournal.log(EventJournal.INFO, EventJournal.ALARM_RERUNG, prayer,
+            (int) (now - snoozeUntil), snoozeUntil, snoozeCount);
+        ringStartedAt = now;
+        snoozeUntil = 0;
+        state = STATE_RINGING;
+        persist();
+        return true;
+    }
+
+    public synchronized boolean canSnooze() {
+        return state == STATE_RINGING && snoozeCount < MAX_SNOOZES;
+    }
+
+    /** Çalmayı erteler; yeniden çalma zamanını, ertelenemiyorsa -1 döndürür */
+    public synchronized long snooze(long now) {
+        if (!canSnooze()) {
+            return -1;
+        }
+        long rang = now - ringStartedAt;
+        totalRingMs += rang;
+        snoozeCount++;
+        snoozeUntil = now + SNOOZE_MS;
+        state = STATE_SNOOZED;
+        EventJournal.log(EventJournal.INFO, EventJournal.ALARM_SNOOZED, prayer,
+            (int) rang, snoozeUntil, snoozeCount);
+        persist();
+        return snoozeUntil;
+    }
+
+    /** Kullanıcı kapattı; çalıyor veya ertelenmiş değilse false */
+    public synchronized boolean dismiss(long now) {
+        return finish(STATE_DISMISSED, now);
+    }
+
+    /** Çalma süresi doldu; yalnızca çalarken geçerlidir */
+    public synchronized boolean timeout(long now) {
+        return state == STATE_RINGING && finish(STATE_TIMED_OUT, now);
+    }
+
+    private boolean finish(int finalState, long now) {
+        if (state != STATE_RINGING && state != STATE_SNOOZED) {
+            return false;
+        }
+        long rang = state == STATE_RINGING ? now - ringStartedAt : 0;
+        totalRingMs += rang;
+        state = finalState;
+        EventJournal.log(EventJournal.INFO, EventJournal.ALARM_DISMISSED, prayer,
+            (int) rang, totalRingMs, finalState == STATE_TIMED_OUT ? 1 : 0);
+        persist();
+        return true;
+    }
+
+    /** Çalıyorsa otomatik kapanma zamanı; yeniden oluşturulan etkinlik süreyi buradan sürdürür */
+    public synchronized long ringDeadline() {
+        return ringStartedAt + RING_MS;
+    }
+
+    public synchronized int state() {
+        return state;
+    }
+
+    public synchronized int prayer() {
+        return prayer;
+    }
+
+    public synchronized int kind() {
+        return kind;
+    }
+
+    public synchronized long epochDay() {
+        return epochDay;
+    }
+
+    public synchronized int fireKey() {
+        return fireKey;
+    }
+
+    public synchronized int snoozeCount() {
+        return snoozeCount;
+    }
+
+    public synchronized long snoozeUntil() {
+        return snoozeUntil;
+    }
+
+    /** Ertelemeler dahil toplam çalma süresi */
+    public synchronized long totalRingMs() {
+        return totalRingMs;
+    }
+
+    // ============================================================
+    // KALICILIK
+    // ============================================================
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+                // tamamını oku
+            }
+            buffer.flip();
+            if (buffer.remaining() < RECORD_SIZE || buffer.getInt() != MAGIC) {
+                return;
+            }
+            int storedState = buffer.get();
+            prayer = buffer.get() & 0xFF;
+            kind = buffer.get();
+            snoozeCount = buffer.get();
+            fireKey = buffer.getInt();
+            buffer.getInt(); // ayrılmış
+            epochDay = buffer.getLong();
+            ringStartedAt = buffer.getLong();
+            snoozeUntil = buffer.getLong();
+            totalRingMs = buffer.getLong();
+            state = storedState >= STATE_IDLE && storedState < STATE_NAMES.length ? storedState : STATE_IDLE;
+        } catch (IOException e) {
+            EventJournal.storageError(EventJournal.STORE_ALARM_SESSION, EventJournal.STORAGE_READ);
+        }
+    }
+
+    private void persist() {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.put((byte) state);
+        buffer.put((byte) prayer);
+        buffer.put((byte) kind);
+        buffer.put((byte) snoozeCount);
+        buffer.putInt(fireKey);
+        buffer.putInt(0);
+        buffer.putLong(epochDay);
+        buffer.putLong(ringStartedAt);
+        buffer.putLong(snoozeUntil);
+        buffer.putLong(totalRingMs);
+        buffer.flip();
+        writer.execute(() -> write(buffer));
+    }
+
+    private void write(ByteBuffer buffer) {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (RandomAccessFile raf = new RandomAccessFile(tmp, "rw");
+             FileChannel channel = raf.getChannel()) {
+            channel.truncate(0);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            EventJournal.storageError(EventJournal.STORE_ALARM_SESSION, EventJournal.STORAGE_WRITE);
+            return;
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+        }
+    }
+}
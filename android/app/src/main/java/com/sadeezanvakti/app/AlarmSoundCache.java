@@ -0,0 +1,119 @@
+package com.sadeezanvakti.app;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Seçili alarm sesinin uygulama deposundaki kopyası.
+ *
+ * Ses (ezan MP3'ü veya kullanıcı dosyası) yalnızca kaynağı değiştiğinde bir kez
+ * kopyalanır; alarm anında ağ veya WebView gerekmez. Kaynak anahtarı yanındaki
+ * küçük dosyada tutulur. Kopya yoksa sistem alarm sesi kullanılır.
+ */
+public final class AlarmSoundCache {
+
+    public static final String DIR_NAME = "alarm_sound";
+    private static final String SOUND_FILE = "sound.bin";
+    private static final String KEY_FILE = "sound.key";
+
+    private final File dir;
+
+    public AlarmSoundCache(File dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * Kaynağı ucuza tanımlayan anahtar; base64 veri için uzunluk ve özet yeterlidir.
+     */
+    public static String keyFor(String type, String source) {
+        if (source == null) {
+            return type;
+        }
+        return type + ":" + source.length() + ":" + Integer.toHexString(source.hashCode());
+    }
+
+    /** Kopyalanmış ses dosyası; yoksa null */
+    public File soundFile() {
+        File file = new File(dir, SOUND_FILE);
+        return file.isFile() && file.length() > 0 ? file : null;
+    }
+
+    public String currentKey() {
+        File file = new File(dir, KEY_FILE);
+        if (!file.isFile()) {
+            return null;
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] bytes = new byte[(int) file.length()];
+            int read = 0;
+            while (read < bytes.length) {
+                int n = in.read(bytes, read, bytes.length - read);
+                if (n < 0) {
+                    break;
+                }
+                read += n;
+            }
+            return new String(bytes, 0, read, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public boolean isCurrent(String key) {
+        return key.equals(currentKey()) && soundFile() != null;
+    }
+
+    /**
+     * Akışı geçici dosyaya yazıp yerine taşır, sonra anahtarı kaydeder.
+     * Yarım kalan kopya hiçbir zaman geçerli ses olarak görünmez.
+     */
+    public File store(String key, InputStream in) throws IOException {
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Dizin oluşturulamadı: " + dir);
+        }
+        File tmp = new File(dir, SOUND_FILE + ".tmp");
+        long total = 0;
+        try (OutputStream out = new FileOutputStream(tmp)) {
+            byte[] buffer = new byte[16 * 1024];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+                total += n;
+            }
+        } catch (IOException e) {
+            tmp.delete();
+            throw e;
+        }
+        if (total == 0) {
+            tmp.delete();
+            throw new IOException("Ses verisi boş");
+        }
+
+        File target = new File(dir, SOUND_FILE);
+        new File(dir, KEY_FILE).delete();
+        if (!tmp.renameTo(target)) {
+            tmp.delete();
+            throw new IOException("Ses dosyası yazılamadı: " + target);
+        }
+        try (OutputStream out = new FileOutputStream(new File(dir, KEY_FILE))) {
+            out.write(key.getBytes(StandardCharsets.UTF_8));
+        }
+        return target;
+    }
+
+    /** Kopyayı siler; alarm sistem sesine döner */
+    public void clear(String key) throws IOException {
+        new File(dir, SOUND_FILE).delete();
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Dizin oluşturulamadı: " + dir);
+        }
+        try (OutputStream out = new FileOutputStream(new File(dir, KEY_FILE))) {
+            out.write(key.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
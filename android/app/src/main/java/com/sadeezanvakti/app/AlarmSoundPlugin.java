@@ -0,0 +1,141 @@
+package com.sadeezanvakti.app;
+
+import android.content.Context;
+import android.util.Base64;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Seçili alarm sesini bir kez yerel depoya kopyalar ve yerel olarak çalar.
+ */
+@CapacitorPlugin(name = "AlarmSound")
+public class AlarmSoundPlugin extends Plugin {
+
+    private static final int CONNECT_TIMEOUT_MS = 15_000;
+    private static final int READ_TIMEOUT_MS = 30_000;
+
+    // Kopyalamalar sıralı; çal/durdur bunların arkasında beklemesin diye ortak havuzda
+    private final ThreadPoolExecutor executor = PluginCalls.bounded("EzanAlarmSound", 1);
+
+    /**
+     * { type: 'ezan' | 'beep' | 'custom', url?, data? (base64 / data URL), volume? }
+     * Kaynak değişmediyse kopyalama atlanır.
+     */
+    @PluginMethod
+    public void setSound(PluginCall call) {
+        String type = call.getString("type");
+        String url = call.getString("url");
+        String data = call.getString("data");
+        Double volume = call.getDouble("volume");
+
+        if (type == null) {
+            call.reject("Missing type");
+            return;
+        }
+
+        Context context = getContext().getApplicationContext();
+        if (volume != null) {
+            context.getSharedPreferences(AlarmAudio.PREFS, Context.MODE_PRIVATE)
+                .edit().putFloat(AlarmAudio.KEY_VOLUME, (float) Math.max(0, Math.min(1, volume))).apply();
+        }
+
+        PluginCalls.run(call, "AlarmSound.setSound", executor, () -> {
+            long start = System.currentTimeMillis();
+            try {
+                String source = data != null ? data : url;
+                String key = AlarmSoundCache.keyFor(type, source);
+                AlarmSoundCache cache = AlarmAudio.cache(context);
+                boolean copied = false;
+
+                if (source == null) {
+                    // Bip: sistem alarm sesi kullanılır
+                    if (!key.equals(cache.currentKey())) {
+                        cache.clear(key);
+                    }
+                } else if (!cache.isCurrent(key)) {
+                    try (InputStream in = data != null ? decodeData(data) : download(url)) {
+                        cache.store(key, in);
+                    }
+                    copied = true;
+                }
+                AlarmAudio.invalidate();
+
+                JSObject result = new JSObject();
+                result.put("success", true);
+                result.put("copied", copied);
+                result.put("cached", cache.soundFile() != null);
+                result.put("elapsedMs", System.currentTimeMillis() - start);
+                call.resolve(result);
+
+            } catch (Exception e) {
+                call.reject("Alarm sesi kaydedilemedi: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    @PluginMethod
+    public void play(PluginCall call) {
+        PluginCalls.run(call, "AlarmSound.play", () -> {
+            JSObject result = new JSObject();
+            result.put("success", AlarmAudio.play(getContext()));
+            call.resolve(result);
+        });
+    }
+
+    @PluginMethod
+    public void stop(PluginCall call) {
+        PluginCalls.run(call, "AlarmSound.stop", () -> {
+            AlarmAudio.stop();
+            call.resolve();
+        });
+    }
+
+    /**
+     * Son çalışların "çal isteği → ilk ses karesi" süreleri.
+     */
+    @PluginMethod
+    public void getAudioStats(PluginCall call) {
+        PluginCalls.run(call, "AlarmSound.getAudioStats", () -> {
+            JSArray plays = new JSArray();
+            for (long[] row : AlarmAudio.history()) {
+                JSObject item = new JSObject();
+                item.put("at", row[0]);
+                item.put("firstAudioMs", row[1]);
+                item.put("prewarmed", row[2] == 1);
+                plays.put(item);
+            }
+
+            JSObject result = new JSObject();
+            result.put("cached", AlarmAudio.cache(getContext()).soundFile() != null);
+            result.put("plays", plays);
+            call.resolve(result);
+        });
+    }
+
+    private static InputStream decodeData(String data) {
+        int comma = data.startsWith("data:") ? data.indexOf(',') : -1;
+        return new ByteArrayInputStream(Base64.decode(data.substring(comma + 1), Base64.DEFAULT));
+    }
+
+    private static InputStream download(String url) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+        connection.setReadTimeout(READ_TIMEOUT_MS);
+        connection.setInstanceFollowRedirects(true);
+        int status = connection.getResponseCode();
+        if (status != HttpURLConnection.HTTP_OK) {
+            connection.disconnect();
+            throw new Exception("HTTP " + status);
+        }
+        return connection.getInputStream();
+    }
+}
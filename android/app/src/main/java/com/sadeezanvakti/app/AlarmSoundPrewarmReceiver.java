@@ -0,0 +1,26 @@
+package com.sadeezanvakti.app;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+
+/**
+ * Alarmdan yaklaşık bir dakika önce alarm sesini alarm iş parçacığında hazırlar.
+ */
+public class AlarmSoundPrewarmReceiver extends BroadcastReceiver {
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        Context appContext = context.getApplicationContext();
+        appContext.getSharedPreferences(AlarmAudio.PREFS, Context.MODE_PRIVATE)
+            .edit().remove(AlarmAudio.KEY_PREWARM_AT).apply();
+        PendingResult pendingResult = goAsync();
+        AlarmCore.get(appContext).systemExecutor().execute(() -> {
+            try {
+                AlarmAudio.prewarm(appContext);
+            } finally {
+                pendingResult.finish();
+            }
+        });
+    }
+}
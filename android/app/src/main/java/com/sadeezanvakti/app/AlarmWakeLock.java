@@ -0,0 +1,87 @@
+package com.sadeezanvakti.app;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.PowerManager;
+import java.io.File;
+
+/**
+ * Alarm anındaki wake lock'un tek sahibi.
+ *
+ * Kilit AlarmActivity ilk karesini çizene kadar tutulur ve orada bırakılır. Sert
+ * tavan (CEILING_MS) hem acquire(timeout) ile çekirdeğe verilir, hem de burada
+ * zamanlanır; süreç ölse bile kilit tavanı aşamaz. Her tutuş WakeLockLedger'a yazılır.
+ */
+final class AlarmWakeLock {
+
+    static final long CEILING_MS = 30_000;
+    private static final String TAG = "EzanVakti:AlarmWakeLock";
+
+    private static final Handler handler = new Handler(Looper.getMainLooper());
+
+    private static WakeLockLedger ledger;
+    private static PowerManager.WakeLock wakeLock;
+    private static WakeLockLedger.Record current;
+    private static long activityStartedAt;
+    private static final Runnable timeout = () -> release(WakeLockLedger.PATH_TIMEOUT);
+
+    private AlarmWakeLock() {
+    }
+
+    static synchronized WakeLockLedger ledger(Context context) {
+        if (ledger == null) {
+            ledger = new WakeLockLedger(
+                new File(context.getApplicationContext().getFilesDir(), WakeLockLedger.FILE_NAME), CEILING_MS);
+        }
+        return ledger;
+    }
+
+    /**
+     * CPU'yu AlarmActivity çizilene kadar uyanık tutar. Ekranı açmak etkinliğin
+     * turnScreenOn bayraklarına ve tam ekran bildirime bırakılır.
+     */
+    static synchronized void acquire(Context context, String prayer) {
+        // Önceki alarmın kilidi hâlâ tutuluyorsa yenisi devralır
+        release(WakeLockLedger.PATH_NORMAL);
+
+        PowerManager powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        wakeLock = powerManager.newWakeLock(PowerManager.PARTIAL_WAKE_LOCK, TAG);
+        wakeLock.setReferenceCounted(false);
+        wakeLock.acquire(CEILING_MS);
+
+        current = ledger(context).open(System.currentTimeMillis(), DirectAlarmPlugin.prayerIndex(prayer));
+        handler.postDelayed(timeout, CEILING_MS);
+    }
+
+    /** AlarmActivity ilk kareyi çizdi */
+    static void onFirstFrame() {
+        release(WakeLockLedger.PATH_NORMAL);
+    }
+
+    static synchronized void markActivityStarted() {
+        activityStartedAt = System.currentTimeMillis();
+    }
+
+    /** Verilen andan sonra AlarmActivity başladı mı? Yedek startActivity için */
+    static synchronized boolean activityStartedSince(long since) {
+        return activityStartedAt >= since;
+    }
+
+    private static synchronized void release(int path) {
+        handler.removeCallbacks(timeout);
+        if (wakeLock != null) {
+            if (wakeLock.isHeld()) {
+                wakeLock.release();
+            }
+            wakeLock = null;
+        }
+        if (current != null) {
+            if (ledger.close(current, System.currentTimeMillis(), path)) {
+                EventJournal.log(path == WakeLockLedger.PATH_TIMEOUT ? EventJournal.WARN : EventJournal.INFO,
+                    EventJournal.WAKELOCK_RELEASED, current.prayer, (int) current.holdMs, 0, path);
+            }
+            current = null;
+        }
+    }
+}
@@ -1,20 +1,30 @@
 package com.sadeezanvakti.app;
 
-import android.app.AlarmManager;
-import android.app.PendingIntent;
-import android.content.Context;
-import android.content.Intent;
-import android.os.Build;
+import com.getcapacitor.JSArray;
 import com.getcapacitor.JSObject;
 import com.getcapacitor.Plugin;
 import com.getcapacitor.PluginCall;
 import com.getcapacitor.PluginMethod;
 import com.getcapacitor.annotation.CapacitorPlugin;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Locale;
+import java.util.TimeZone;
+import org.json.JSONObject;
 
 @CapacitorPlugin(name = "DirectAlarm")
 public class DirectAlarmPlugin extends Plugin {
 
+    // Eski sürümlerin vakit adının hashCode'u ile kurduğu alarmlar; yükseltmede temizlenir
+    private static final String[] LEGACY_PRAYERS = {"imsak", "gunes", "ogle", "ikindi", "aksam", "yatsi"};
+
+    /**
+     * Tek alarm kurar. Kimlik (locationId, gün, vakit, tür) ile belirlenir;
+     * aynı vakit farklı günlerde birbirinin üzerine yazmaz.
+     * { prayer, timestamp, date? ("dd.MM.yyyy"), locationId?, kind?, testMode? }
+     */
     @PluginMethod
     public void scheduleAlarm(PluginCall call) {
         String prayer = call.getString("prayer");
@@ -25,101 +35,419 @@ public class DirectAlarmPlugin extends Plugin {
             return;
         }
 
+        AlarmBatchPlanner.Entry parsed = parseBatchEntry(call.getData());
+        if (parsed == null) {
+            call.reject("Invalid prayer or timestamp");
+            return;
+        }
+        // Test alarmı aynı vaktin gerçek alarmının yerine geçmesin
+        AlarmBatchPlanner.Entry entry = call.getBoolean("testMode", false)
+            ? new AlarmBatchPlanner.Entry(
+                parsed.locationId, parsed.prayer, parsed.epochDay, AlarmRegistry.KIND_TEST, parsed.triggerAt)
+            : parsed;
+
+        AlarmCore core = AlarmCore.get(getContext());
+        PluginCalls.run(call, "DirectAlarm.scheduleAlarm", core.executor(), () -> {
+            try {
+                AlarmRegistry.Record armed = core.arm(entry);
+                core.save();
+
+                JSObject result = new JSObject();
+                result.put("success", true);
+                result.put("id", armed.id);
+                result.put("mode", AlarmMode.NAMES[armed.mode]);
+                result.put("message", "Alarm scheduled successfully");
+                call.resolve(result);
+
+            } catch (Exception e) {
+                call.reject("Failed to schedule alarm: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * { id } verilirse yalnızca o alarm, { prayer } verilirse o vaktin kurulu tüm alarmları iptal edilir.
+     */
+    @PluginMethod
+    public void cancelAlarm(PluginCall call) {
+        String prayer = call.getString("prayer");
+        Integer id = call.getInt("id");
+        
+        if (prayer == null && id == null) {
+            call.reject("Missing prayer or id");
+            return;
+        }
+
+        AlarmCore core = AlarmCore.get(getContext());
+        PluginCalls.run(call, "DirectAlarm.cancelAlarm", core.executor(), () -> {
+            try {
+                int cancelled = 0;
+                if (id != null) {
+                    cancelled += core.disarm(id) ? 1 : 0;
+                } else {
+                    int index = prayerIndex(prayer);
+                    if (index >= 0) {
+                        for (AlarmRegistry.Record record : core.registry().findByPrayer(index)) {
+                            core.disarm(record.id);
+                            cancelled++;
+                        }
+                    }
+                    core.cancel(prayer.hashCode());
+                }
+                core.save();
+
+                JSObject result = new JSObject();
+                result.put("success", true);
+                result.put("cancelled", cancelled);
+                result.put("message", "Alarm cancelled successfully");
+                call.resolve(result);
+
+            } catch (Exception e) {
+                call.reject("Failed to cancel alarm: " + e.getMessage());
+            }
+        });
+    }
+
+    @PluginMethod
+    public void cancelAllAlarms(PluginCall call) {
+        AlarmCore core = AlarmCore.get(getContext());
+        PluginCalls.run(call, "DirectAlarm.cancelAllAlarms", core.executor(), () -> {
+            try {
+                int cancelled = core.disarmAll();
+                for (String prayer : LEGACY_PRAYERS) {
+                    core.cancel(prayer.hashCode());
+                }
+                core.save();
+
+                JSObject result = new JSObject();
+                result.put("success", true);
+                result.put("cancelled", cancelled);
+                result.put("message", "All alarms cancelled successfully");
+                call.resolve(result);
+
+            } catch (Exception e) {
+                call.reject("Failed to cancel all alarms: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Kurulu alarmları tetiklenme sırasıyla döndürür; zamanı geçmiş kayıtlar önce temizlenir.
+     */
+    @PluginMethod
+    public void listPending(PluginCall call) {
+        AlarmCore core = AlarmCore.get(getContext());
+        PluginCalls.run(call, "DirectAlarm.listPending", core.executor(), () -> listPending(call, core));
+    }
+
+    private void listPending(PluginCall call, AlarmCore core) {
         try {
-            AlarmManager alarmManager = (AlarmManager) getContext().getSystemService(Context.ALARM_SERVICE);
-            Intent intent = new Intent(getContext(), AlarmReceiver.class);
-            intent.putExtra("prayer", prayer);
-            intent.putExtra("autoTrigger", "true");  // KRİTİK EKLEME
-            intent.putExtra("directLaunch", "true"); // KRİTİK EKLEME
-            
-            PendingIntent pendingIntent = PendingIntent.getBroadcast(
-                getContext(),
-                prayer.hashCode(),
-                intent,
-                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
-            );
-
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-                alarmManager.setExactAndAllowWhileIdle(
-                    AlarmManager.RTC_WAKEUP,
-                    timestamp,
-                    pendingIntent
-                );
-            } else {
-                alarmManager.setExact(
-                    AlarmManager.RTC_WAKEUP,
-                    timestamp,
-                    pendingIntent
-                );
+            List<AlarmRegistry.Record> records;
+            synchronized (core) {
+                if (core.registry().pruneExpired(System.currentTimeMillis()) > 0) {
+                    core.save();
+                }
+                records = core.registry().list();
+            }
+
+            JSArray alarms = new JSArray();
+            int[] date = new int[3];
+            for (AlarmRegistry.Record record : records) {
+                PrayerTimeCalculator.civilFromEpochDay(record.epochDay, date);
+                JSObject item = new JSObject();
+                item.put("id", record.id);
+                item.put("prayer", record.prayer < PrayerTimeCalculator.PRAYER_COUNT
+                    ? PrayerTimeCalculator.PRAYER_KEYS[record.prayer] : "other");
+                item.put("date", String.format(Locale.ROOT, "%02d.%02d.%04d", date[2], date[1], date[0]));
+                item.put("kind", AlarmRegistry.KIND_NAMES[record.kind]);
+                item.put("locationId", record.locationId);
+                item.put("timestamp", record.triggerAt);
+                item.put("mode", AlarmMode.NAMES[record.mode]);
+                alarms.put(item);
             }
 
             JSObject result = new JSObject();
             result.put("success", true);
-            result.put("message", "Alarm scheduled successfully");
+            result.put("alarms", alarms);
+            result.put("canScheduleExact", core.canScheduleExactAlarms());
             call.resolve(result);
-            
+
         } catch (Exception e) {
-            call.reject("Failed to schedule alarm: " + e.getMessage());
+            call.reject("Failed to list alarms: " + e.getMessage());
         }
     }
 
     @PluginMethod
-    public void cancelAlarm(PluginCall call) {
-        String prayer = call.getString("prayer");
-        
-        if (prayer == null) {
-            call.reject("Missing prayer");
+    public void isArmed(PluginCall call) {
+        Integer id = call.getInt("id");
+        if (id == null) {
+            call.reject("Missing id");
             return;
         }
+        PluginCalls.run(call, "DirectAlarm.isArmed", () -> {
+            JSObject result = new JSObject();
+            result.put("armed", AlarmCore.get(getContext()).registry().isArmed(id));
+            call.resolve(result);
+        });
+    }
+
+    /**
+     * Kesin alarm izni ve süreç başından beri hangi yolla kaç alarm kurulduğu.
+     */
+    @PluginMethod
+    public void getSchedulingInfo(PluginCall call) {
+        PluginCalls.run(call, "DirectAlarm.getSchedulingInfo", () -> {
+            AlarmCore core = AlarmCore.get(getContext());
+            long[] counts = core.modeCounts();
+            JSObject modes = new JSObject();
+            for (int i = 0; i < counts.length; i++) {
+                modes.put(AlarmMode.NAMES[i], counts[i]);
+            }
 
+            JSObject result = new JSObject();
+            result.put("canScheduleExact", core.canScheduleExactAlarms());
+            result.put("modes", modes);
+            result.put("fallbacks", core.fallbacks());
+            call.resolve(result);
+        });
+    }
+
+    /**
+     * Alarm wake lock tutuşları: her alarm için süre ve bırakılma yolu
+     * (normal = ilk kare, timeout = tavan, killed = süreç öldü).
+     */
+    @PluginMethod
+    public void getPowerStats(PluginCall call) {
+        PluginCalls.run(call, "DirectAlarm.getPowerStats", () -> {
+            JSArray holds = new JSArray();
+            long totalMs = 0;
+            long maxMs = 0;
+            int[] pathCounts = new int[WakeLockLedger.PATH_NAMES.length];
+            for (WakeLockLedger.Record record : AlarmWakeLock.ledger(getContext()).records()) {
+                JSObject item = new JSObject();
+                item.put("at", record.acquiredAt);
+                item.put("prayer", record.prayer >= 0 && record.prayer < PrayerTimeCalculator.PRAYER_COUNT
+                    ? PrayerTimeCalculator.PRAYER_KEYS[record.prayer] : "other");
+                item.put("holdMs", record.holdMs);
+                item.put("path", WakeLockLedger.PATH_NAMES[record.path]);
+                holds.put(item);
+                pathCounts[record.path]++;
+                if (record.holdMs > 0) {
+                    totalMs += record.holdMs;
+                    maxMs = Math.max(maxMs, record.holdMs);
+                }
+            }
+
+            JSObject paths = new JSObject();
+            for (int i = 0; i < pathCounts.length; i++) {
+                paths.put(WakeLockLedger.PATH_NAMES[i], pathCounts[i]);
+            }
+
+            JSObject result = new JSObject();
+            result.put("ceilingMs", AlarmWakeLock.CEILING_MS);
+            result.put("holds", holds);
+            result.put("paths", paths);
+            result.put("totalHoldMs", totalMs);
+            result.put("maxHoldMs", maxMs);
+            result.put("avgHoldMs", holds.length() > 0 ? totalMs / holds.length() : 0);
+            call.resolve(result);
+        });
+    }
+
+    /**
+     * Yerel yuvarlanan zamanlayıcıyı yapılandırır. Etkinse vakitler ikili tablodan
+     * (yoksa konumdan hesaplanarak) okunur ve her tetiklenmede bir sonraki kurulur.
+     * { enabled, locationId?, latitude?, longitude?, prayers?: string[], offsets?: {key: dakika},
+     *   reminders?: {key: dakika}, followUps?: {key: dakika} }
+     * reminders asıl alarmdan önceki sessiz hatırlatma, followUps sonraki takip alarmıdır;
+     * aynı tek PendingIntent üzerinde yalnızca sıradaki kademe kurulur.
+     */
+    @PluginMethod
+    public void configureSchedule(PluginCall call) {
+        Boolean enabled = call.getBoolean("enabled", true);
+        int locationId = call.getInt("locationId", 0);
+        Double latitude = call.getDouble("latitude");
+        Double longitude = call.getDouble("longitude");
+
+        if (enabled && locationId <= 0 && (latitude == null || longitude == null)) {
+            call.reject("Missing locationId or coordinates");
+            return;
+        }
+
+        AlarmCore core = AlarmCore.get(getContext());
+        PluginCalls.run(call, "DirectAlarm.configureSchedule", core.executor(),
+            () -> configureSchedule(call, core, enabled, locationId, latitude, longitude));
+    }
+
+    private void configureSchedule(PluginCall call, AlarmCore core, boolean enabled, int locationId,
+                                   Double latitude, Double longitude) {
         try {
-            AlarmManager alarmManager = (AlarmManager) getContext().getSystemService(Context.ALARM_SERVICE);
-            Intent intent = new Intent(getContext(), AlarmReceiver.class);
-            
-            PendingIntent pendingIntent = PendingIntent.getBroadcast(
-                getContext(),
-                prayer.hashCode(),
-                intent,
-                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
-            );
-
-            alarmManager.cancel(pendingIntent);
+            int prayerMask = (1 << PrayerTimeCalculator.PRAYER_COUNT) - 1;
+            JSArray prayers = call.getArray("prayers");
+            if (prayers != null) {
+                prayerMask = 0;
+                for (String key : prayers.<String>toList()) {
+                    int index = prayerIndex(key);
+                    if (index >= 0) {
+                        prayerMask |= 1 << index;
+                    }
+                }
+            }
+
+            PrayerScheduler scheduler = NativeAlarmScheduler.configure(
+                getContext(), enabled, locationId, latitude, longitude, prayerMask,
+                minutesByPrayer(call.getObject("offsets")),
+                minutesByPrayer(call.getObject("reminders")),
+                minutesByPrayer(call.getObject("followUps")));
 
             JSObject result = new JSObject();
             result.put("success", true);
-            result.put("message", "Alarm cancelled successfully");
+            if (scheduler != null && scheduler.getNextPrayer() >= 0) {
+                result.put("nextPrayer", PrayerTimeCalculator.PRAYER_KEYS[scheduler.getNextPrayer()]);
+                result.put("nextTriggerAt", scheduler.getNextTriggerAt());
+                result.put("nextKind", AlarmRegistry.KIND_NAMES[scheduler.getNextKind()]);
+                int mode = core.modeOf(NativeAlarmScheduler.ROLLING_REQUEST_CODE);
+                if (mode >= 0) {
+                    result.put("mode", AlarmMode.NAMES[mode]);
+                }
+            }
             call.resolve(result);
-            
+
         } catch (Exception e) {
-            call.reject("Failed to cancel alarm: " + e.getMessage());
+            call.reject("Failed to configure schedule: " + e.getMessage());
         }
     }
 
+    /** { imsak: 10, ... } biçimini vakit sırasına çevirir; eksik anahtar 0 */
+    private static int[] minutesByPrayer(JSObject object) {
+        int[] minutes = new int[PrayerTimeCalculator.PRAYER_COUNT];
+        if (object != null) {
+            for (int i = 0; i < PrayerTimeCalculator.PRAYER_COUNT; i++) {
+                minutes[i] = object.optInt(PrayerTimeCalculator.PRAYER_KEYS[i], 0);
+            }
+        }
+        return minutes;
+    }
+
+    /**
+     * Birden çok alarmı tek köprü çağrısında kurar; istekte olmayan alarmlara dokunmaz.
+     * { alarms: [{ prayer, timestamp, date? ("dd.MM.yyyy"), locationId?, kind? }] }
+     */
     @PluginMethod
-    public void cancelAllAlarms(PluginCall call) {
+    public void scheduleBatch(PluginCall call) {
+        applyBatch(call, false);
+    }
+
+    /**
+     * Kurulu alarm kümesini istekteki kümeyle değiştirir; yalnızca farklar iptal edilir veya kurulur.
+     */
+    @PluginMethod
+    public void replaceAll(PluginCall call) {
+        applyBatch(call, true);
+    }
+
+    private void applyBatch(PluginCall call, boolean replaceAll) {
+        JSArray alarms = call.getArray("alarms");
+        if (alarms == null) {
+            call.reject("Missing alarms");
+            return;
+        }
+
+        long start = System.nanoTime();
+        AlarmCore core = AlarmCore.get(getContext());
+        PluginCalls.run(call, replaceAll ? "DirectAlarm.replaceAll" : "DirectAlarm.scheduleBatch", core.executor(),
+            () -> applyBatch(call, core, alarms, replaceAll, start));
+    }
+
+    private void applyBatch(PluginCall call, AlarmCore core, JSArray alarms, boolean replaceAll, long start) {
         try {
-            // Tüm namaz vakitleri için alarmları iptal et
-            String[] prayers = {"imsak", "gunes", "ogle", "ikindi", "aksam", "yatsi"};
-            AlarmManager alarmManager = (AlarmManager) getContext().getSystemService(Context.ALARM_SERVICE);
-            
-            for (String prayer : prayers) {
-                Intent intent = new Intent(getContext(), AlarmReceiver.class);
-                PendingIntent pendingIntent = PendingIntent.getBroadcast(
-                    getContext(),
-                    prayer.hashCode(),
-                    intent,
-                    PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
-                );
-                alarmManager.cancel(pendingIntent);
+            List<AlarmBatchPlanner.Entry> entries = new ArrayList<>(alarms.length());
+            for (int i = 0; i < alarms.length(); i++) {
+                entries.add(parseBatchEntry(alarms.optJSONObject(i)));
+            }
+
+            AlarmBatchPlanner.Plan plan;
+            Map<Integer, Integer> modes = new HashMap<>();
+            // Planla-uygula arasında doğrudan çağıranlar (alıcılar) araya girmesin
+            synchronized (core) {
+                AlarmRegistry registry = core.registry();
+                long now = System.currentTimeMillis();
+                plan = AlarmBatchPlanner.plan(registry.snapshotTriggers(), registry.snapshotSlots(),
+                    entries, replaceAll, now);
+
+                for (int code : plan.toCancel) {
+                    core.disarm(code);
+                }
+                registry.pruneExpired(now);
+                for (AlarmBatchPlanner.Entry entry : plan.toCreate) {
+                    // Aynı istek kodu + FLAG_UPDATE_CURRENT eski alarmın yerine geçer
+                    modes.put(entry.requestCode(), core.arm(entry).mode);
+                }
+                core.save();
+            }
+
+            JSArray results = new JSArray();
+            for (int i = 0; i < entries.size(); i++) {
+                AlarmBatchPlanner.Entry entry = entries.get(i);
+                JSObject item = new JSObject();
+                item.put("index", i);
+                item.put("status", plan.statuses[i]);
+                if (entry != null && entry.prayer >= 0) {
+                    item.put("prayer", PrayerTimeCalculator.PRAYER_KEYS[entry.prayer]);
+                    item.put("timestamp", entry.triggerAt);
+                    item.put("id", plan.codes[i]);
+                    Integer mode = modes.get(plan.codes[i]);
+                    if (mode != null) {
+                        item.put("mode", AlarmMode.NAMES[mode]);
+                    }
+                }
+                results.put(item);
             }
 
             JSObject result = new JSObject();
             result.put("success", true);
-            result.put("message", "All alarms cancelled successfully");
+            result.put("results", results);
+            result.put("created", plan.toCreate.size());
+            result.put("cancelled", plan.toCancel.size());
+            result.put("armed", plan.armedAfter.size());
+            result.put("elapsedMs", (System.nanoTime() - start) / 1_000_000.0);
             call.resolve(result);
-            
+
         } catch (Exception e) {
-            call.reject("Failed to cancel all alarms: " + e.getMessage());
+            call.reject("Failed to schedule batch: " + e.getMessage());
+        }
+    }
+
+    private static AlarmBatchPlanner.Entry parseBatchEntry(JSONObject alarm) {
+        if (alarm == null) {
+            return null;
+        }
+        int prayer = prayerIndex(alarm.optString("prayer", null));
+        long timestamp = alarm.optLong("timestamp", -1);
+        if (prayer < 0 || timestamp <= 0) {
+            return null;
+        }
+        long epochDay;
+        int[] date = new int[3];
+        if (PrayerTable.parseDateKey(alarm.optString("date", null), date)) {
+            epochDay = PrayerTimeCalculator.epochDay(date[2], date[1], date[0]);
+        } else {
+            epochDay = AlarmRegistry.localEpochDay(timestamp, TimeZone.getDefault());
+        }
+        return new AlarmBatchPlanner.Entry(
+            alarm.optInt("locationId", 0),
+            prayer,
+            epochDay,
+            AlarmRegistry.kindFromName(alarm.optString("kind", null)),
+            timestamp);
+    }
+
+    static int prayerIndex(String key) {
+        for (int i = 0; i < PrayerTimeCalculator.PRAYER_COUNT; i++) {
+            if (PrayerTimeCalculator.PRAYER_KEYS[i].equals(key)) {
+                return i;
+            }
         }
+        return -1;
     }
 }
@@ -0,0 +1,164 @@
+package com.sadeezanvakti.app;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Vakit kaynaklarının gecikme ve başarı geçmişi.
+ *
+ * Her uç nokta için üstel ortalama gecikme ve başarı oranı tutulur. Puan, beklenen
+ * gecikmenin başarı olasılığına bölümüdür (düşük olan önce denenir); art arda
+ * hatalar ayrıca cezalandırılır. Yarışı kaybedip iptal edilen istekler kaydedilmez.
+ */
+public final class EndpointHealth {
+
+    public static final String FILE_NAME = "endpoint_health.bin";
+
+    /** Hiç ölçülmemiş uç nokta için varsayılan gecikme */
+    static final double UNKNOWN_LATENCY_MS = 1500;
+    private static final double ALPHA = 0.3;
+    private static final double MIN_SUCCESS = 0.05;
+    private static final long MIN_HEDGE_DELAY_MS = 250;
+    private static final long MAX_HEDGE_DELAY_MS = 2000;
+
+    private static final int MAGIC = 0x48455A45; // "EZEH"
+
+    public static final class Stats {
+        public final String name;
+        public double latencyMs = -1;
+        public double successRate = 1;
+        public int failuresInRow;
+        public int samples;
+
+        Stats(String name) {
+            this.name = name;
+        }
+
+        public double score() {
+            double latency = latencyMs < 0 ? UNKNOWN_LATENCY_MS : latencyMs;
+            return latency / Math.max(MIN_SUCCESS, successRate) * (1 + failuresInRow);
+        }
+    }
+
+    private final File file;
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+
+    public EndpointHealth(File file) {
+        this.file = file;
+        load();
+    }
+
+    public synchronized void record(String name, boolean success, long latencyMs) {
+        Stats s = statsFor(name);
+        s.samples++;
+        s.successRate = s.successRate * (1 - ALPHA) + (success ? ALPHA : 0);
+        if (success) {
+            s.latencyMs = s.latencyMs < 0 ? latencyMs : s.latencyMs * (1 - ALPHA) + latencyMs * ALPHA;
+            s.failuresInRow = 0;
+        } else {
+            s.failuresInRow++;
+        }
+    }
+
+    public synchronized double score(String name) {
+        Stats s = stats.get(name);
+        return s == null ? UNKNOWN_LATENCY_MS : s.score();
+    }
+
+    /** Adları puana göre sıralar; eşitlikte verilen sıra korunur */
+    public synchronized List<String> order(List<String> names) {
+        List<String> ordered = new ArrayList<>(names);
+        Collections.sort(ordered, (a, b) -> Double.compare(score(a), score(b)));
+        return ordered;
+    }
+
+    /**
+     * Bir sonraki uç noktayı başlatmadan önce beklenecek süre: ilk adayın olağan
+     * gecikmesinin iki katı. Ölçüm yoksa üst sınır kullanılır.
+     */
+    public synchronized long hedgeDelayMs(String first) {
+        Stats s = stats.get(first);
+        if (s == null || s.latencyMs < 0) {
+            return MAX_HEDGE_DELAY_MS;
+        }
+        return Math.max(MIN_HEDGE_DELAY_MS, Math.min(MAX_HEDGE_DELAY_MS, Math.round(s.latencyMs * 2)));
+    }
+
+    public synchronized List<Stats> snapshot() {
+        List<Stats> list = new ArrayList<>();
+        for (Stats s : stats.values()) {
+            Stats copy = new Stats(s.name);
+            copy.latencyMs = s.latencyMs;
+            copy.successRate = s.successRate;
+            copy.failuresInRow = s.failuresInRow;
+            copy.samples = s.samples;
+            list.add(copy);
+        }
+        return list;
+    }
+
+    private Stats statsFor(String name) {
+        Stats s = stats.get(name);
+        if (s == null) {
+            s = new Stats(name);
+            stats.put(name, s);
+        }
+        return s;
+    }
+
+    // ============================================================
+    // KALICILIK
+    // ============================================================
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            if (in.readInt() != MAGIC) {
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                Stats s = statsFor(in.readUTF());
+                s.latencyMs = in.readDouble();
+                s.successRate = in.readDouble();
+                s.failuresInRow = in.readInt();
+                s.samples = in.readInt();
+            }
+        } catch (IOException e) {
+            EventJournal.storageError(EventJournal.STORE_ENDPOINT_HEALTH, EventJournal.STORAGE_READ);
+        }
+    }
+
+    public synchronized void save() {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(tmp))) {
+            out.writeInt(MAGIC);
+            out.writeInt(stats.size());
+            for (Stats s : stats.values()) {
+                out.writeUTF(s.name);
+                out.writeDouble(s.latencyMs);
+                out.writeDouble(s.successRate);
+                out.writeInt(s.failuresInRow);
+                out.writeInt(s.samples);
+            }
+        } catch (IOException e) {
+            EventJournal.storageError(EventJournal.STORE_ENDPOINT_HEALTH, EventJournal.STORAGE_WRITE);
+            tmp.delete();
+            return;
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+        }
+    }
+}
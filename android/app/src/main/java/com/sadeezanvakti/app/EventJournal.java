@@ -0,0 +1,280 @@
+package com.sadeezanvakti.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Yerel olay günlüğü: sabit boyutlu ikili kayıtlardan oluşan halka tampon.
+ *
+ * Tampon dosyaya bellek eşlemli (mmap) açılır; her kayıt doğrudan sayfaya yazılır,
+ * süreç öldürülse de çekirdek sayfaları diske yazar. log metin birleştirmez ve
+ * ayırma yapmaz; seviye kapısı altındaki çağrılar tek bir karşılaştırmayla döner.
+ * Sürüm derlemelerinde de açıktır; "alarm geç çaldı" bildirimleri dışa aktarılan
+ * kayıtlardan incelenir.
+ *
+ * Kayıt (32 bayt, LE): zaman ms (8), değer (8), sıra (4), süre ms (4),
+ * tür (2), seviye (1), vakit (1), ek (4).
+ */
+public final class EventJournal {
+
+    public static final int DEBUG = 0;
+    public static final int INFO = 1;
+    public static final int WARN = 2;
+    public static final int ERROR = 3;
+    public static final int OFF = 4;
+
+    public static final String[] LEVEL_NAMES = {"debug", "info", "warn", "error", "off"};
+
+    // Kodlar dosyada saklanır; değiştirmeyin, yalnızca sona ekleyin
+    public static final int ALARM_SCHEDULED = 1;    // değer = tetiklenme, ek = AlarmMode
+    public static final int ALARM_FALLBACK = 2;     // değer = tetiklenme, ek = kullanılan AlarmMode
+    public static final int ALARM_CANCELLED = 3;    // ek = istek kodu
+    public static final int ALARM_FIRED = 4;        // süre = gecikme (bilinmiyorsa -1), değer = tetiklenme, ek = kimlik
+    public static final int NOTIFICATION_POSTED = 5; // ek = 1 gösterildi, 0 bildirim izni yok
+    public static final int ACTIVITY_FALLBACK = 6;  // ek = 1 başlatıldı, 0 hata
+    public static final int ACTIVITY_SHOWN = 7;     // süre = ilk kare, ek = yol (soğuk/ılık/yeniden)
+    public static final int ALARM_DISMISSED = 8;    // süre = son çalma, değer = toplam çalma, ek = 1 zaman aşımı
+    public static final int WAKELOCK_RELEASED = 9;  // süre = tutuş, ek = WakeLockLedger yolu
+    public static final int AUDIO_STARTED = 10;     // süre = ilk ses karesi, ek = 1 hazırdı
+    public static final int AUDIO_FAILED = 11;
+    public static final int APP_STARTED = 12;
+    public static final int ALARM_INTENT = 13;      // MainActivity'ye gelen alarm
+    public static final int WEB_FALLBACK = 14;      // el sıkışma gelmedi, JavaScript ile teslim
+    public static final int WEB_VISIBLE = 15;       // süre = intent → görünür
+    public static final int ROLLING_ARMED = 16;     // değer = tetiklenme, ek = kademe (AlarmRegistry.KIND_*)
+    public static final int RESCHEDULED = 17;       // süre = iş, değer = süreç başından, ek = 0 önyükleme, 1 diğer
+    public static final int TABLE_REFRESH = 18;     // süre = geçen, değer = indirilen bayt, ek = RefreshHistory sonucu
+    public static final int STORAGE_ERROR = 19;     // değer = STORE_* dosyası, ek = STORAGE_* işlemi
+    public static final int SCHEDULE_ERROR = 20;
+    public static final int ALARM_REPLACED = 21;    // kimlik başka konumla çakıştı, kaydırıldı; değer = ana kimlik, ek = kimlik
+    public static final int ALARM_SUPPRESSED = 22;  // tekrar bastırıldı, değer = FireGate anahtarı, ek = aşama
+    public static final int ALARM_SNOOZED = 23;     // süre = ertelemeden önce çalma, değer = yeniden çalma, ek = erteleme sayısı
+    public static final int ALARM_RERUNG = 24;      // süre = ertelemenin gecikmesi, değer = planlanan, ek = erteleme sayısı
+    public static final int STARTUP = 25;           // soğuk açılış; süre = süreç başından ilk kare, değer = PSS KB, ek = StartupTrace yolu
+
+    public static final String[] TYPE_NAMES = {
+        "unknown", "alarmScheduled", "alarmFallback", "alarmCancelled", "alarmFired",
+        "notificationPosted", "activityFallback", "activityShown", "alarmDismissed",
+        "wakeLockReleased", "audioStarted", "audioFailed", "appStarted", "alarmIntent",
+        "webFallback", "webVisible", "rollingArmed", "rescheduled", "tableRefresh",
+        "storageError", "scheduleError", "alarmReplaced", "alarmSuppressed", "alarmSnoozed",
+        "alarmRerung", "startup"
+    };
+
+    // STORAGE_ERROR değeri: hatanın geçtiği kalıcı dosya
+    public static final int STORE_ALARM_REGISTRY = 0;
+    public static final int STORE_PRAYER_TABLE = 1;
+    public static final int STORE_ALARM_SESSION = 2;
+    public static final int STORE_REFRESH_HISTORY = 3;
+    public static final int STORE_WAKE_LOCK_LEDGER = 4;
+    public static final int STORE_HTTP_VALIDATORS = 5;
+    public static final int STORE_ENDPOINT_HEALTH = 6;
+
+    // STORAGE_ERROR eki: başarısız işlem
+    public static final int STORAGE_READ = 0;
+    public static final int STORAGE_WRITE = 1;
+    public static final int STORAGE_DELETE = 2;
+
+    /** Vakit bilinmiyor veya vakte bağlı değil */
+    public static final int NO_PRAYER = 0xFF;
+
+    public static final String FILE_NAME = "event_journal.bin";
+    public static final int CAPACITY = 1024;
+
+    static final int RECORD_SIZE = 32;
+    static final int HEADER_SIZE = 16;
+    private static final int MAGIC = 0x4A455A45; // "EZEJ"
+
+    public static final class Entry {
+        public int seq;
+        public long timeMs;
+        public int level;
+        public int type;
+        public int prayer;
+        public int durationMs;
+        public long value;
+        public int arg;
+    }
+
+    // Seviye kapısı: kapalı seviyedeki log yalnızca bunu okur
+    private static volatile int minLevel = INFO;
+    private static EventJournal shared;
+
+    private final File file;
+    private final int capacity;
+    private ByteBuffer buffer;
+    private int nextSeq;
+
+    EventJournal(File file, int capacity) {
+        this.file = file;
+        this.capacity = capacity;
+        open();
+    }
+
+    /** Süreçteki ortak günlük; seviye dosyadan okunur. Tekrar çağrılabilir. */
+    public static synchronized EventJournal init(File filesDir) {
+        if (shared == null) {
+            shared = new EventJournal(new File(filesDir, FILE_NAME), CAPACITY);
+            minLevel = shared.storedLevel();
+        }
+        return shared;
+    }
+
+    /** init çağrılmadıysa null */
+    public static EventJournal shared() {
+        return shared;
+    }
+
+    public static boolean isEnabled(int level) {
+        return level >= minLevel;
+    }
+
+    public static int level() {
+        return minLevel;
+    }
+
+    /** Seviyeyi değiştirir ve dosyaya yazar; yeniden başlatmada korunur */
+    public static void setLevel(int level) {
+        minLevel = level;
+        EventJournal journal = shared;
+        if (journal != null) {
+            journal.storeLevel(level);
+        }
+    }
+
+    public static void log(int level, int type, int prayer) {
+        log(level, type, prayer, 0, 0, 0);
+    }
+
+    public static void log(int level, int type, int prayer, int durationMs, long value, int arg) {
+        if (level < minLevel) {
+            return;
+        }
+        EventJournal journal = shared;
+        if (journal != null) {
+            journal.append(System.currentTimeMillis(), level, type, prayer, durationMs, value, arg);
+        }
+    }
+
+    /** Kalıcı dosya okunamadı, yazılamadı veya silinemedi */
+    public static void storageError(int store, int operation) {
+        log(ERROR, STORAGE_ERROR, NO_PRAYER, 0, store, operation);
+    }
+
+    /** Vakit anahtarının sırası; bilinmiyorsa NO_PRAYER */
+    public static int prayerOf(String key) {
+        for (int i = 0; i < PrayerTimeCalculator.PRAYER_COUNT; i++) {
+            if (PrayerTimeCalculator.PRAYER_KEYS[i].equals(key)) {
+                return i;
+            }
+        }
+        return NO_PRAYER;
+    }
+
+    synchronized void append(long timeMs, int level, int type, int prayer, int durationMs, long value, int arg) {
+        int offset = HEADER_SIZE + Integer.remainderUnsigned(nextSeq, capacity) * RECORD_SIZE;
+        buffer.putLong(offset, timeMs);
+        buffer.putLong(offset + 8, value);
+        buffer.putInt(offset + 16, nextSeq);
+        buffer.putInt(offset + 20, durationMs);
+        buffer.putShort(offset + 24, (short) type);
+        buffer.put(offset + 26, (byte) level);
+        buffer.put(offset + 27, (byte) prayer);
+        buffer.putInt(offset + 28, arg);
+        nextSeq++;
+        buffer.putInt(8, nextSeq);
+    }
+
+    /** Sırası since ve sonrası olan kayıtlar, eskiden yeniye; en fazla limit tane (en yeniler) */
+    public synchronized List<Entry> snapshot(int since, int limit) {
+        int available = Math.min(nextSeq, capacity);
+        int first = nextSeq - available;
+        if (since > first) {
+            first = Math.min(since, nextSeq);
+        }
+        first = Math.max(first, nextSeq - Math.max(0, limit));
+
+        List<Entry> entries = new ArrayList<>(nextSeq - first);
+        for (int seq = first; seq < nextSeq; seq++) {
+            int offset = HEADER_SIZE + Integer.remainderUnsigned(seq, capacity) * RECORD_SIZE;
+            Entry entry = new Entry();
+            entry.timeMs = buffer.getLong(offset);
+            entry.value = buffer.getLong(offset + 8);
+            entry.seq = buffer.getInt(offset + 16);
+            entry.durationMs = buffer.getInt(offset + 20);
+            entry.type = buffer.getShort(offset + 24) & 0xFFFF;
+            entry.level = buffer.get(offset + 26);
+            entry.prayer = buffer.get(offset + 27) & 0xFF;
+            entry.arg = buffer.getInt(offset + 28);
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    public synchronized int nextSeq() {
+        return nextSeq;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /** Eşlenmiş sayfaları diske zorlar (msync); sıcak yolda çağırmayın */
+    public synchronized void flush() {
+        if (buffer instanceof MappedByteBuffer) {
+            ((MappedByteBuffer) buffer).force();
+        }
+    }
+
+    public synchronized void clear() {
+        int level = storedLevel();
+        for (int i = 0; i < buffer.capacity(); i++) {
+            buffer.put(i, (byte) 0);
+        }
+        writeHeader(0, level);
+    }
+
+    private void open() {
+        int size = HEADER_SIZE + capacity * RECORD_SIZE;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            // Eşleme kanal kapandıktan sonra da geçerli kalır
+            buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            System.err.println("Olay günlüğü eşlenemedi, bellekte tutuluyor: " + e.getMessage());
+            buffer = ByteBuffer.allocate(size);
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.getInt(0) == MAGIC && buffer.getInt(4) == capacity) {
+            nextSeq = buffer.getInt(8);
+        } else {
+            // Yeni, bozuk veya farklı kapasiteli dosya
+            clear();
+            writeHeader(0, INFO);
+        }
+    }
+
+    private void writeHeader(int seq, int level) {
+        nextSeq = seq;
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, capacity);
+        buffer.putInt(8, seq);
+        buffer.putInt(12, level);
+    }
+
+    synchronized int storedLevel() {
+        int level = buffer.getInt(12);
+        return level >= DEBUG && level <= OFF ? level : INFO;
+    }
+
+    synchronized void storeLevel(int level) {
+        buffer.putInt(12, level);
+    }
+}
@@ -0,0 +1,82 @@
+package com.sadeezanvakti.app;
+
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import java.util.Arrays;
+
+/**
+ * Yerel olay günlüğünü (EventJournal) JSON olarak dışa aktarır; seviyeyi ayarlar.
+ */
+@CapacitorPlugin(name = "EventJournal")
+public class EventJournalPlugin extends Plugin {
+
+    private EventJournal journal() {
+        return EventJournal.init(getContext().getFilesDir());
+    }
+
+    /**
+     * Kayıtlar eskiden yeniye. { since?: number (sıra), limit?: number }
+     * Bir sonraki çağrıda since olarak nextSeq verilirse yalnızca yeniler gelir.
+     */
+    @PluginMethod
+    public void export(PluginCall call) {
+        int since = call.getInt("since", 0);
+        int limit = call.getInt("limit", EventJournal.CAPACITY);
+        PluginCalls.run(call, "EventJournal.export", () -> {
+            EventJournal journal = journal();
+            JSArray records = new JSArray();
+            for (EventJournal.Entry entry : journal.snapshot(since, limit)) {
+                JSObject item = new JSObject();
+                item.put("seq", entry.seq);
+                item.put("at", entry.timeMs);
+                item.put("level", entry.level >= 0 && entry.level < EventJournal.LEVEL_NAMES.length
+                    ? EventJournal.LEVEL_NAMES[entry.level] : "unknown");
+                item.put("type", entry.type < EventJournal.TYPE_NAMES.length
+                    ? EventJournal.TYPE_NAMES[entry.type] : "unknown");
+                if (entry.prayer < PrayerTimeCalculator.PRAYER_COUNT) {
+                    item.put("prayer", PrayerTimeCalculator.PRAYER_KEYS[entry.prayer]);
+                }
+                item.put("durationMs", entry.durationMs);
+                item.put("value", entry.value);
+                item.put("arg", entry.arg);
+                records.put(item);
+            }
+
+            JSObject result = new JSObject();
+            result.put("level", EventJournal.LEVEL_NAMES[EventJournal.level()]);
+            result.put("capacity", journal.capacity());
+            result.put("nextSeq", journal.nextSeq());
+            result.put("records", records);
+            call.resolve(result);
+        });
+    }
+
+    /**
+     * { level: "debug" | "info" | "warn" | "error" | "off" }; yeniden başlatmada korunur.
+     */
+    @PluginMethod
+    public void setLevel(PluginCall call) {
+        int level = Arrays.asList(EventJournal.LEVEL_NAMES).indexOf(call.getString("level"));
+        if (level < 0) {
+            call.reject("Invalid level");
+            return;
+        }
+        PluginCalls.run(call, "EventJournal.setLevel", () -> {
+            journal();
+            EventJournal.setLevel(level);
+            call.resolve();
+        });
+    }
+
+    @PluginMethod
+    public void clear(PluginCall call) {
+        PluginCalls.run(call, "EventJournal.clear", () -> {
+            journal().clear();
+            call.resolve();
+        });
+    }
+}
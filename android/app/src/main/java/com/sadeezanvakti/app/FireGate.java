@@ -0,0 +1,145 @@
+package com.sadeezanvakti.app;
+
+/**
+ * Bir alarm tetiklenmesinin yan etkilerini (ekran, ses, web olayı) tekilleştirir.
+ *
+ * Aynı tetiklenme birden fazla yoldan gelebilir: yinelenen yayın, tam ekran
+ * bildirimi ile 500 ms yedek startActivity, bildirime dokunma, MainActivity'nin
+ * web yedeği. Her aşama anahtar başına bir kez talep edilir; sonraki denemeler
+ * bastırılır ve sayılır. Anahtar konumdan bağımsızdır (keyOf), böylece yuvarlanan
+ * zamanlayıcı ile toplu kurulan alarm aynı vakitte çakışırsa da tek alarm çalar.
+ * Test alarmı her basışta aynı gün/vakit/türü taşır; anahtarına tetiklenme saniyesi
+ * de girer, yalnızca aynı tetiklenmenin yolları birleşir.
+ *
+ * Kayıtlar WINDOW_MS sonra düşer; küçük sabit halka, ayırma yok.
+ */
+public final class FireGate {
+
+    public static final int STAGE_FIRED = 0;   // alıcıya gelen yayın
+    public static final int STAGE_SCREEN = 1;  // AlarmActivity gösterimi
+    public static final int STAGE_SOUND = 2;   // ses ve titreşim
+    public static final int STAGE_EVENT = 3;   // web katmanına alarm olayı
+
+    public static final String[] STAGE_NAMES = {"fired", "screen", "sound", "event"};
+
+    public static final String EXTRA_FIRE_KEY = "fireKey";
+    public static final int NO_KEY = -1;
+
+    // Otomatik kapanma (2 dk) ve MainActivity yedeğinden (5 sn) uzun
+    public static final long WINDOW_MS = 10 * 60_000L;
+    static final int CAPACITY = 16;
+
+    // alarmId'nin gün, vakit ve tür bitleri; konum özeti (üst 10 bit) atılır
+    private static final int KEY_BITS = 21;
+    private static final int KEY_MASK = (1 << KEY_BITS) - 1;
+
+    public static final FireGate SHARED = new FireGate(WINDOW_MS);
+
+    private final long windowMs;
+    private final int[] keys = new int[CAPACITY];
+    private final long[] firstAt = new long[CAPACITY];
+    private final int[] claimed = new int[CAPACITY];
+    private final long[] suppressed = new long[STAGE_NAMES.length];
+    private int next;
+
+    FireGate(long windowMs) {
+        this.windowMs = windowMs;
+        for (int i = 0; i < CAPACITY; i++) {
+            keys[i] = NO_KEY;
+        }
+    }
+
+    /** Vakit ve günden konumsuz anahtar (AlarmRegistry.alarmId düzeni, konum 0) */
+    public static int keyOf(long epochDay, int prayer, int kind) {
+        return AlarmRegistry.alarmId(0, epochDay, prayer, kind);
+    }
+
+    /**
+     * Intent'ten gelen bilgilerle anahtar: kayıtlı alarmda kimlikten, değilse
+     * (yuvarlanan, eski tip) gün, vakit ve kademeden. Vakit bilinmiyorsa NO_KEY.
+     * Test alarmında tetiklenme saniyesi üst 10 bite girer; triggerAt bilinmiyorsa
+     * (0) ayrı basışlar ayırt edilemez ve kapı uygulanmaz (NO_KEY).
+     */
+    public static int keyFor(int alarmId, long epochDay, int prayer, int kind, long triggerAt) {
+        int key;
+        if (alarmId >= 0) {
+            key = alarmId & KEY_MASK;
+        } else if (prayer < 0 || prayer >= PrayerTimeCalculator.PRAYER_COUNT) {
+            return NO_KEY;
+        } else {
+            key = keyOf(epochDay, prayer, kind);
+        }
+        if ((key & 3) != AlarmRegistry.KIND_TEST) {
+            return key;
+        }
+        if (triggerAt <= 0) {
+            return NO_KEY;
+        }
+        // 1024 sn'lik döngü WINDOW_MS'ten uzun; pencere içindeki ayrı tetiklenmeler ayrı anahtar alır
+        return key | ((int) ((triggerAt / 1000) & 0x3FF) << KEY_BITS);
+    }
+
+    /**
+     * Aşamayı bu anahtar için ilk kez isteyen true alır. Sonraki istekler false alır
+     * ve bastırılmış sayılır. NO_KEY her zaman geçer.
+     */
+    public synchronized boolean claim(int key, int stage, long now) {
+        if (key == NO_KEY) {
+            return true;
+        }
+        int slot = find(key, now);
+        if (slot < 0) {
+            slot = next;
+            next = (next + 1) % CAPACITY;
+            keys[slot] = key;
+            firstAt[slot] = now;
+            claimed[slot] = 0;
+        }
+        int bit = 1 << stage;
+        if ((claimed[slot] & bit) != 0) {
+            suppress(key, stage);
+            return false;
+        }
+        claimed[slot] |= bit;
+        return true;
+    }
+
+    /**
+     * Aşama başka bir yoldan zaten talep edildiyse true döner ve bastırılmış sayar;
+     * talep etmez. Yedek yollar kendisi çalışmadan önce bunu sorar.
+     */
+    public synchronized boolean alreadyClaimed(int key, int stage, long now) {
+        if (key == NO_KEY) {
+            return false;
+        }
+        int slot = find(key, now);
+        if (slot >= 0 && (claimed[slot] & (1 << stage)) != 0) {
+            suppress(key, stage);
+            return true;
+        }
+        return false;
+    }
+
+    private void suppress(int key, int stage) {
+        suppressed[stage]++;
+        EventJournal.log(EventJournal.WARN, EventJournal.ALARM_SUPPRESSED, (key >>> 2) & 0x7, 0, key, stage);
+    }
+
+    private int find(int key, long now) {
+        for (int i = 0; i < CAPACITY; i++) {
+            if (keys[i] == key && now - firstAt[i] < windowMs) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public synchronized long suppressed(int stage) {
+        return suppressed[stage];
+    }
+
+    /** Aşama başına süreç başından beri bastırılan tekrar sayısı */
+    public synchronized long[] suppressedCounts() {
+        return suppressed.clone();
+    }
+}
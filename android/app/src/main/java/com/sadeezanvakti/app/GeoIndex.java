@@ -0,0 +1,337 @@
+package com.sadeezanvakti.app;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Konum noktaları (il ve ilçe merkezleri) üzerinde en yakın nokta indeksi.
+ *
+ * Noktalar örtük, dengeli bir k-d ağacı sırasıyla paketlenir: [lo, hi) aralığının
+ * kökü ortadaki kayıttır, eksen derinliğe göre enlem/boylam değişir. İşaretçi
+ * tutulmaz; ikili dosya doğrudan sorgulanır. Mesafe haversine ile hesaplanır,
+ * budama için bölme düzlemine olan küresel alt sınır kullanılır.
+ *
+ * Dosya biçimi (little-endian): başlık 16 bayt, ardından RECORD_SIZE baytlık
+ * kayıtlar ve UTF-8 ad tablosu.
+ */
+public final class GeoIndex {
+
+    public static final int KIND_CITY = 0;
+    public static final int KIND_DISTRICT = 1;
+
+    public static final String ASSET_PATH = "geo/locations.bin";
+
+    static final int MAGIC = 0x49475A45; // "EZGI"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 20;
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double MICRO = 1e-6;
+
+    private final int count;
+    // Sorgu sıcak yolu için açılmış diziler (radyan)
+    private final double[] latRad;
+    private final double[] lngRad;
+    private final double[] cosLat;
+    private final int[] ids;
+    private final short[] cityIds;
+    private final byte[] kinds;
+    private final int[] nameOffsets;
+    private final byte[] names;
+
+    private GeoIndex(ByteBuffer buffer) {
+        buffer = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IllegalArgumentException("Geçersiz konum indeksi");
+        }
+        count = buffer.getInt();
+        int namesLength = buffer.getInt();
+        if (count < 0 || buffer.remaining() < (long) count * RECORD_SIZE + namesLength) {
+            throw new IllegalArgumentException("Konum indeksi kesik");
+        }
+
+        latRad = new double[count];
+        lngRad = new double[count];
+        cosLat = new double[count];
+        ids = new int[count];
+        cityIds = new short[count];
+        kinds = new byte[count];
+        nameOffsets = new int[count];
+        for (int i = 0; i < count; i++) {
+            latRad[i] = Math.toRadians(buffer.getInt() * MICRO);
+            lngRad[i] = Math.toRadians(buffer.getInt() * MICRO);
+            cosLat[i] = Math.cos(latRad[i]);
+            ids[i] = buffer.getInt();
+            cityIds[i] = buffer.getShort();
+            kinds[i] = buffer.get();
+            buffer.get();
+            nameOffsets[i] = buffer.getInt();
+        }
+        names = new byte[namesLength];
+        buffer.get(names);
+    }
+
+    public static GeoIndex fromBuffer(ByteBuffer buffer) {
+        return new GeoIndex(buffer);
+    }
+
+    public static GeoIndex fromBytes(byte[] bytes) {
+        return new GeoIndex(ByteBuffer.wrap(bytes));
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * En yakın kaydın sırası; indeks boşsa -1. Bellek ayırmaz.
+     * kind &lt; 0 ise tüm türler, değilse yalnızca o tür aranır.
+     */
+    public int nearest(double latitude, double longitude, int kind) {
+        if (count == 0) {
+            return -1;
+        }
+        double lat = Math.toRadians(latitude);
+        double lng = Math.toRadians(longitude);
+        Search search = SEARCH.get();
+        search.best = -1;
+        search.bestDistance = Double.MAX_VALUE;
+        search(lat, lng, Math.cos(lat), kind, 0, count, 0, search);
+        return search.best;
+    }
+
+    public int nearest(double latitude, double longitude) {
+        return nearest(latitude, longitude, -1);
+    }
+
+    /** Noktanın kayda haversine uzaklığı (km) */
+    public double distanceKm(int index, double latitude, double longitude) {
+        double lat = Math.toRadians(latitude);
+        return centralAngle(lat, Math.toRadians(longitude), Math.cos(lat), index) * EARTH_RADIUS_KM;
+    }
+
+    public int getId(int index) {
+        return ids[index];
+    }
+
+    public int getCityId(int index) {
+        return cityIds[index];
+    }
+
+    public int getKind(int index) {
+        return kinds[index];
+    }
+
+    public double getLatitude(int index) {
+        return Math.toDegrees(latRad[index]);
+    }
+
+    public double getLongitude(int index) {
+        return Math.toDegrees(lngRad[index]);
+    }
+
+    public String getName(int index) {
+        int start = nameOffsets[index];
+        int end = start;
+        while (end < names.length && names[end] != 0) {
+            end++;
+        }
+        return new String(names, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    // ============================================================
+    // SORGU
+    // ============================================================
+
+    private static final class Search {
+        int best;
+        double bestDistance; // merkez açı (radyan)
+    }
+
+    private static final ThreadLocal<Search> SEARCH = ThreadLocal.withInitial(Search::new);
+
+    private void search(double lat, double lng, double cos, int kind, int lo, int hi, int depth, Search search) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (kind < 0 || kinds[mid] == kind) {
+            double d = centralAngle(lat, lng, cos, mid);
+            if (d < search.bestDistance) {
+                search.bestDistance = d;
+                search.best = mid;
+            }
+        }
+
+        boolean byLat = (depth & 1) == 0;
+        double delta = byLat ? lat - latRad[mid] : lng - lngRad[mid];
+        int nearLo = delta < 0 ? lo : mid + 1;
+        int nearHi = delta < 0 ? mid : hi;
+        int farLo = delta < 0 ? mid + 1 : lo;
+        int farHi = delta < 0 ? hi : mid;
+
+        search(lat, lng, cos, kind, nearLo, nearHi, depth + 1, search);
+        if (planeBound(delta, byLat, cos) < search.bestDistance) {
+            search(lat, lng, cos, kind, farLo, farHi, depth + 1, search);
+        }
+    }
+
+    /**
+     * Bölme düzleminin öbür yanındaki herhangi bir noktaya olan merkez açının alt sınırı.
+     * Enlem için meridyen boyunca fark; boylam için meridyen büyük çemberine uzaklık.
+     */
+    private static double planeBound(double delta, boolean byLat, double cosLat) {
+        double abs = Math.abs(delta);
+        if (byLat) {
+            return abs;
+        }
+        if (abs >= Math.PI / 2) {
+            return 0;
+        }
+        return Math.asin(Math.min(1, Math.sin(abs) * cosLat));
+    }
+
+    private double centralAngle(double lat, double lng, double cos, int i) {
+        double sinDLat = Math.sin((latRad[i] - lat) * 0.5);
+        double sinDLng = Math.sin((lngRad[i] - lng) * 0.5);
+        double a = sinDLat * sinDLat + cos * cosLat[i] * sinDLng * sinDLng;
+        return 2 * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    // ============================================================
+    // YAZICI
+    // ============================================================
+
+    public static final class Builder {
+
+        private static final class Point {
+            final int latMicro;
+            final int lngMicro;
+            final int id;
+            final int cityId;
+            final int kind;
+            final String name;
+
+            Point(double lat, double lng, int id, int cityId, int kind, String name) {
+                this.latMicro = (int) Math.round(lat / MICRO);
+                this.lngMicro = (int) Math.round(lng / MICRO);
+                this.id = id;
+                this.cityId = cityId;
+                this.kind = kind;
+                this.name = name;
+            }
+        }
+
+        private final List<Point> points = new ArrayList<>();
+
+        /**
+         * "id,cityId,kind,lat,lng,name" satırları; '#' ile başlayanlar yorumdur.
+         * kind: "city" veya "district".
+         */
+        public Builder addCsv(Reader source) throws IOException {
+            BufferedReader reader = new BufferedReader(source);
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split(",", 6);
+                if (parts.length < 6) {
+                    throw new IOException("Satır " + lineNumber + ": eksik alan");
+                }
+                try {
+                    add(Double.parseDouble(parts[3]), Double.parseDouble(parts[4]),
+                        Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+                        "district".equals(parts[2]) ? KIND_DISTRICT : KIND_CITY, parts[5]);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Satır " + lineNumber + ": " + e.getMessage());
+                }
+            }
+            return this;
+        }
+
+        public Builder add(double latitude, double longitude, int id, int cityId, int kind, String name) {
+            if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+                throw new IllegalArgumentException("Geçersiz koordinat: " + latitude + "," + longitude);
+            }
+            points.add(new Point(latitude, longitude, id, cityId, kind, name));
+            return this;
+        }
+
+        /** Örtük k-d ağacı sırasıyla paketlenmiş ikili dosya */
+        public byte[] build() {
+            Point[] ordered = points.toArray(new Point[0]);
+            arrange(ordered, 0, ordered.length, 0);
+
+            ByteArrayOutputStream nameTable = new ByteArrayOutputStream();
+            int[] offsets = new int[ordered.length];
+            for (int i = 0; i < ordered.length; i++) {
+                offsets[i] = nameTable.size();
+                byte[] bytes = ordered[i].name.getBytes(StandardCharsets.UTF_8);
+                nameTable.write(bytes, 0, bytes.length);
+                nameTable.write(0);
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + ordered.length * RECORD_SIZE + nameTable.size())
+                .order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(ordered.length).putInt(nameTable.size());
+            for (int i = 0; i < ordered.length; i++) {
+                Point p = ordered[i];
+                buffer.putInt(p.latMicro).putInt(p.lngMicro).putInt(p.id);
+                buffer.putShort((short) p.cityId).put((byte) p.kind).put((byte) 0);
+                buffer.putInt(offsets[i]);
+            }
+            buffer.put(nameTable.toByteArray());
+            return buffer.array();
+        }
+
+        private static void arrange(Point[] points, int lo, int hi, int depth) {
+            if (hi - lo <= 1) {
+                return;
+            }
+            Comparator<Point> axis = (depth & 1) == 0
+                ? Comparator.comparingInt((Point p) -> p.latMicro)
+                : Comparator.comparingInt((Point p) -> p.lngMicro);
+            Arrays.sort(points, lo, hi, axis);
+            int mid = (lo + hi) >>> 1;
+            arrange(points, lo, mid, depth + 1);
+            arrange(points, mid + 1, hi, depth + 1);
+        }
+    }
+
+    /**
+     * Paketlenmiş varlığı CSV kaynağından üretir:
+     * java GeoIndex android/geo/locations.csv android/app/src/main/assets/geo/locations.bin
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Kullanım: GeoIndex <locations.csv> <locations.bin>");
+            System.exit(2);
+        }
+        byte[] bytes;
+        try (Reader reader = new InputStreamReader(new FileInputStream(args[0]), StandardCharsets.UTF_8)) {
+            bytes = new Builder().addCsv(reader).build();
+        }
+        try (OutputStream out = new FileOutputStream(args[1])) {
+            out.write(bytes);
+        }
+        System.out.println(fromBytes(bytes).size() + " konum, " + bytes.length + " bayt: " + args[1]);
+    }
+}
@@ -0,0 +1,93 @@
+package com.sadeezanvakti.app;
+
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+@CapacitorPlugin(name = "GeoIndex")
+public class GeoIndexPlugin extends Plugin {
+
+    private static GeoIndex index;
+    private static long loadMs;
+
+    /** Paketlenmiş varlık ilk sorguda bir kez okunur (birkaç KB) */
+    private synchronized GeoIndex getIndex() throws IOException {
+        if (index == null) {
+            long start = System.nanoTime();
+            try (InputStream in = getContext().getAssets().open(GeoIndex.ASSET_PATH)) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(in.available());
+                byte[] buffer = new byte[8 * 1024];
+                int n;
+                while ((n = in.read(buffer)) > 0) {
+                    out.write(buffer, 0, n);
+                }
+                index = GeoIndex.fromBytes(out.toByteArray());
+            }
+            loadMs = (System.nanoTime() - start) / 1_000_000;
+        }
+        return index;
+    }
+
+    /**
+     * En yakın il/ilçe merkezi.
+     * { latitude: number, longitude: number, kind?: "city" | "district" }
+     */
+    @PluginMethod
+    public void nearest(PluginCall call) {
+        Double latitude = call.getDouble("latitude");
+        Double longitude = call.getDouble("longitude");
+        if (latitude == null || longitude == null) {
+            call.reject("Missing latitude or longitude");
+            return;
+        }
+        String kindName = call.getString("kind");
+        int kind = kindName == null ? -1 : "district".equals(kindName) ? GeoIndex.KIND_DISTRICT : GeoIndex.KIND_CITY;
+
+        PluginCalls.run(call, "GeoIndex.nearest", () -> {
+            try {
+                GeoIndex geo = getIndex();
+                long start = System.nanoTime();
+                int i = geo.nearest(latitude, longitude, kind);
+                long queryNs = System.nanoTime() - start;
+                if (i < 0) {
+                    call.reject("Konum bulunamadı");
+                    return;
+                }
+
+                JSObject result = new JSObject();
+                result.put("id", geo.getId(i));
+                result.put("cityId", geo.getCityId(i));
+                result.put("kind", geo.getKind(i) == GeoIndex.KIND_DISTRICT ? "district" : "city");
+                result.put("name", geo.getName(i));
+                result.put("latitude", geo.getLatitude(i));
+                result.put("longitude", geo.getLongitude(i));
+                result.put("distanceKm", geo.distanceKm(i, latitude, longitude));
+                result.put("queryUs", queryNs / 1000.0);
+                call.resolve(result);
+
+            } catch (Exception e) {
+                call.reject("Konum indeksi okunamadı: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    @PluginMethod
+    public void getInfo(PluginCall call) {
+        PluginCalls.run(call, "GeoIndex.getInfo", () -> {
+            try {
+                GeoIndex geo = getIndex();
+                JSObject result = new JSObject();
+                result.put("size", geo.size());
+                result.put("loadMs", loadMs);
+                call.resolve(result);
+            } catch (Exception e) {
+                call.reject("Konum indeksi okunamadı: " + e.getMessage(), e);
+            }
+        });
+    }
+}
@@ -0,0 +1,291 @@
+package com.sadeezanvakti.app;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vakit kaynaklarını kademeli olarak yarıştırır (hedged request).
+ *
+ * En iyi puanlı uç nokta hemen başlatılır; yanıt gecikirse EndpointHealth'in önerdiği
+ * süre sonunda sıradaki de başlatılır, bir istek hata verirse sıradaki beklemeden
+ * başlar. İlk geçerli yanıt kazanır, diğer bağlantılar kesilir. Yanıt akıştan doğrudan
+ * PrayerTableStore.Batch'e ayrıştırılır; yazma kararı çağırana kalır.
+ *
+ * HttpValidators verilirse istekler koşulludur; 304 yanıtı boş bir batch ile kazanır
+ * (Result.notModified) ve gövde indirilmez.
+ */
+public final class HedgedFetcher {
+
+    public static final int STATUS_WON = 0;
+    public static final int STATUS_FAILED = 1;
+    public static final int STATUS_CANCELLED = 2;
+    public static final int STATUS_NOT_STARTED = 3;
+
+    public static final String[] STATUS_NAMES = {"won", "failed", "cancelled", "notStarted"};
+
+    public static final class Endpoint {
+        public final String name;
+        public final String url;
+        public final PrayerJsonStream.Format format;
+
+        public Endpoint(String name, String url, PrayerJsonStream.Format format) {
+            this.name = name;
+            this.url = url;
+            this.format = format;
+        }
+    }
+
+    public static final class Attempt {
+        public final String endpoint;
+        public int status = STATUS_NOT_STARTED;
+        public long startedAtMs = -1; // fetch başlangıcına göre
+        public long latencyMs = -1;
+        public long bytesRead;
+        public String error;
+
+        Attempt(String endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+
+    public static final class Result {
+        public final List<Attempt> attempts = new ArrayList<>();
+        public Endpoint winner;
+        public PrayerTableStore.Batch batch;
+        public boolean notModified;
+        public long elapsedMs;
+
+        /** Kaybedenlerin yarım okumaları dahil indirilen gövde baytları */
+        public long bytesDownloaded() {
+            long total = 0;
+            for (Attempt attempt : attempts) {
+                total += attempt.bytesRead;
+            }
+            return total;
+        }
+
+        public boolean isSuccess() {
+            return batch != null;
+        }
+    }
+
+    private final ExecutorService executor;
+    private final EndpointHealth health;
+    private final HttpValidators validators;
+    private final int connectTimeoutMs;
+    private final int readTimeoutMs;
+    private final long deadlineMs;
+
+    public HedgedFetcher(ExecutorService executor, EndpointHealth health,
+                         int connectTimeoutMs, int readTimeoutMs, long deadlineMs) {
+        this(executor, health, null, connectTimeoutMs, readTimeoutMs, deadlineMs);
+    }
+
+    public HedgedFetcher(ExecutorService executor, EndpointHealth health, HttpValidators validators,
+                         int connectTimeoutMs, int readTimeoutMs, long deadlineMs) {
+        this.executor = executor;
+        this.health = health;
+        this.validators = validators;
+        this.connectTimeoutMs = connectTimeoutMs;
+        this.readTimeoutMs = readTimeoutMs;
+        this.deadlineMs = deadlineMs;
+    }
+
+    /** Tek bir isteğin durumu; iptal bağlantıyı keserek engellenmiş okumayı da bitirir */
+    private final class Call implements Callable<Call> {
+        final Endpoint endpoint;
+        final Attempt attempt;
+        final int locationId;
+        final long startNanos;
+        volatile HttpURLConnection connection;
+        PrayerTableStore.Batch batch;
+        boolean notModified;
+        volatile long bytesRead;
+        Exception failure;
+        long finishedAtMs;
+
+        Call(Endpoint endpoint, Attempt attempt, int locationId, long startNanos) {
+            this.endpoint = endpoint;
+            this.attempt = attempt;
+            this.locationId = locationId;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public Call call() {
+            try {
+                HttpURLConnection conn = (HttpURLConnection) new URL(endpoint.url).openConnection();
+                connection = conn;
+                conn.setConnectTimeout(connectTimeoutMs);
+                conn.setReadTimeout(readTimeoutMs);
+                conn.setRequestProperty("Accept", "application/json");
+                HttpValidators.Entry known = validators != null ? validators.get(endpoint.url) : null;
+                if (known != null) {
+                    if (known.etag != null) {
+                        conn.setRequestProperty("If-None-Match", known.etag);
+                    }
+                    if (known.lastModified != null) {
+                        conn.setRequestProperty("If-Modified-Since", known.lastModified);
+                    }
+                }
+                int code = conn.getResponseCode();
+                PrayerTableStore.Batch parsed = new PrayerTableStore.Batch(locationId, endpoint.format.source);
+                if (code == HttpURLConnection.HTTP_NOT_MODIFIED && known != null) {
+                    notModified = true;
+                    batch = parsed;
+                    return this;
+                }
+                if (code != HttpURLConnection.HTTP_OK) {
+                    throw new IOException("HTTP " + code);
+                }
+                try (InputStream in = new FilterInputStream(conn.getInputStream()) {
+                         @Override
+                         public int read(byte[] b, int off, int len) throws IOException {
+                             int n = super.read(b, off, len);
+                             if (n > 0) {
+                                 bytesRead += n;
+                             }
+                             return n;
+                         }
+                     };
+                     Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                    if (PrayerJsonStream.parse(reader, endpoint.format, parsed) == 0) {
+                        throw new IOException("Boş veri");
+                    }
+                }
+                if (validators != null) {
+                    validators.put(endpoint.url, conn.getHeaderField("ETag"), conn.getHeaderField("Last-Modified"));
+                }
+                batch = parsed;
+            } catch (Exception e) {
+                failure = e;
+            } finally {
+                finishedAtMs = elapsedMs(startNanos);
+            }
+            return this;
+        }
+
+        void cancel() {
+            HttpURLConnection conn = connection;
+            if (conn != null) {
+                conn.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Uç noktaları sağlık puanına göre sıralayıp yarıştırır. Başarısızsa
+     * Result.batch null'dır; her denemenin durumu Result.attempts'tadır.
+     */
+    public Result fetch(List<Endpoint> endpoints, int locationId) throws InterruptedException {
+        long start = System.nanoTime();
+        Result result = new Result();
+
+        Map<String, Endpoint> byName = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            byName.put(endpoint.name, endpoint);
+            names.add(endpoint.name);
+        }
+        List<Endpoint> ordered = new ArrayList<>();
+        for (String name : health.order(names)) {
+            ordered.add(byName.get(name));
+            result.attempts.add(new Attempt(name));
+        }
+        if (ordered.isEmpty()) {
+            return result;
+        }
+        long hedgeDelayMs = health.hedgeDelayMs(ordered.get(0).name);
+
+        CompletionService<Call> completion = new ExecutorCompletionService<>(executor);
+        Map<Future<Call>, Call> running = new HashMap<>();
+        int next = 0;
+
+        try {
+            while (next < ordered.size() || !running.isEmpty()) {
+                if (running.isEmpty()) {
+                    next = launch(completion, running, ordered, result, next, locationId, start);
+                }
+                long remaining = deadlineMs - elapsedMs(start);
+                if (remaining <= 0) {
+                    break;
+                }
+                long wait = next < ordered.size() ? Math.min(hedgeDelayMs, remaining) : remaining;
+                Future<Call> done = completion.poll(wait, TimeUnit.MILLISECONDS);
+                if (done == null) {
+                    // Kademeli yedek: öncekiler hâlâ sürüyor, bir sonrakini de başlat
+                    if (next < ordered.size()) {
+                        next = launch(completion, running, ordered, result, next, locationId, start);
+                    }
+                    continue;
+                }
+
+                Call call = running.remove(done);
+                try {
+                    done.get();
+                } catch (ExecutionException e) {
+                    call.failure = e;
+                }
+                call.attempt.latencyMs = call.finishedAtMs - call.attempt.startedAtMs;
+                call.attempt.bytesRead = call.bytesRead;
+                if (call.batch != null) {
+                    call.attempt.status = STATUS_WON;
+                    health.record(call.endpoint.name, true, call.attempt.latencyMs);
+                    result.winner = call.endpoint;
+                    result.batch = call.batch;
+                    result.notModified = call.notModified;
+                    break;
+                }
+                call.attempt.status = STATUS_FAILED;
+                call.attempt.error = String.valueOf(call.failure != null ? call.failure.getMessage() : null);
+                health.record(call.endpoint.name, false, call.attempt.latencyMs);
+                // Hata: sıradakini beklemeden başlat
+                if (next < ordered.size()) {
+                    next = launch(completion, running, ordered, result, next, locationId, start);
+                }
+            }
+        } finally {
+            for (Map.Entry<Future<Call>, Call> entry : running.entrySet()) {
+                entry.getValue().cancel();
+                entry.getKey().cancel(true);
+                Attempt attempt = entry.getValue().attempt;
+                attempt.status = STATUS_CANCELLED;
+                attempt.latencyMs = elapsedMs(start) - attempt.startedAtMs;
+                attempt.bytesRead = entry.getValue().bytesRead;
+            }
+            result.elapsedMs = elapsedMs(start);
+            health.save();
+        }
+        return result;
+    }
+
+    private int launch(CompletionService<Call> completion, Map<Future<Call>, Call> running,
+                       List<Endpoint> ordered, Result result, int index, int locationId, long start) {
+        Attempt attempt = result.attempts.get(index);
+        attempt.startedAtMs = elapsedMs(start);
+        Call call = new Call(ordered.get(index), attempt, locationId, start);
+        running.put(completion.submit(call), call);
+        return index + 1;
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,107 @@
+package com.sadeezanvakti.app;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * URL başına son ETag ve Last-Modified değerleri. Koşullu istekte gönderilir;
+ * sunucu 304 dönerse gövde hiç indirilmez.
+ */
+public final class HttpValidators {
+
+    public static final String FILE_NAME = "http_validators.bin";
+    static final int CAPACITY = 16;
+
+    private static final int MAGIC = 0x56485A45; // "EZHV"
+
+    public static final class Entry {
+        public final String etag;
+        public final String lastModified;
+
+        Entry(String etag, String lastModified) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+    }
+
+    private final File file;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    public HttpValidators(File file) {
+        this.file = file;
+        load();
+    }
+
+    public synchronized Entry get(String url) {
+        return entries.get(url);
+    }
+
+    /** İkisi de yoksa kayıt silinir */
+    public synchronized void put(String url, String etag, String lastModified) {
+        if (etag == null && lastModified == null) {
+            entries.remove(url);
+        } else {
+            entries.put(url, new Entry(etag, lastModified));
+            Iterator<String> it = entries.keySet().iterator();
+            while (entries.size() > CAPACITY && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        save();
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            if (in.readInt() != MAGIC) {
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String url = in.readUTF();
+                String etag = in.readBoolean() ? in.readUTF() : null;
+                String lastModified = in.readBoolean() ? in.readUTF() : null;
+                entries.put(url, new Entry(etag, lastModified));
+            }
+        } catch (IOException e) {
+            EventJournal.storageError(EventJournal.STORE_HTTP_VALIDATORS, EventJournal.STORAGE_READ);
+        }
+    }
+
+    private void save() {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(tmp))) {
+            out.writeInt(MAGIC);
+            out.writeInt(entries.size());
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                out.writeUTF(entry.getKey());
+                writeOptional(out, entry.getValue().etag);
+                writeOptional(out, entry.getValue().lastModified);
+            }
+        } catch (IOException e) {
+            EventJournal.storageError(EventJournal.STORE_HTTP_VALIDATORS, EventJournal.STORAGE_WRITE);
+            tmp.delete();
+            return;
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+        }
+    }
+
+    private static void writeOptional(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+}
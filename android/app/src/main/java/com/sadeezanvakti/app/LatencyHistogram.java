@@ -0,0 +1,90 @@
+package com.sadeezanvakti.app;
+
+import java.util.Arrays;
+
+/**
+ * Sabit kovalı gecikme histogramı (mikrosaniye).
+ *
+ * HdrHistogram düzeni: her ikinin kuvveti aralığı SUB_BUCKETS eşit kovaya bölünür,
+ * göreli hata %6'nın altında kalır. Kova dizisi baştan ayrılır; record hiçbir şey
+ * ayırmaz. MAX_MICROS üstü son kovaya yazılır, en büyük değer ayrıca tam tutulur.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BITS;
+    // 2^28 µs ≈ 4,5 dakika; köprü çağrısı için fazlasıyla yeterli
+    private static final int MAX_EXPONENT = 27;
+    public static final long MAX_MICROS = (1L << (MAX_EXPONENT + 1)) - 1;
+    static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BITS + 2) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long count;
+    private long sum;
+    private long max;
+
+    /** Değerin kovası; küçük değerler (< SUB_BUCKETS) birebir */
+    static int bucketOf(long micros) {
+        long value = Math.max(0, Math.min(micros, MAX_MICROS));
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /** Kovanın kapsadığı en büyük değer */
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    public synchronized void record(long micros) {
+        counts[bucketOf(micros)]++;
+        count++;
+        sum += Math.max(0, micros);
+        max = Math.max(max, micros);
+    }
+
+    public synchronized long count() {
+        return count;
+    }
+
+    public synchronized long max() {
+        return max;
+    }
+
+    public synchronized double mean() {
+        return count > 0 ? (double) sum / count : 0;
+    }
+
+    /**
+     * q (0..1) yüzdelik dilimi: sıraya düşen kovanın üst sınırı, en büyük değerle kırpılır.
+     * Örnek yoksa 0.
+     */
+    public synchronized long percentile(double q) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    public synchronized void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+        max = 0;
+    }
+}
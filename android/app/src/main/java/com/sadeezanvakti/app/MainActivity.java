@@ -1,135 +1,81 @@
 package com.sadeezanvakti.app;
 
-import android.content.Intent;
 import android.os.Bundle;
-import android.os.Handler;
-import android.os.Looper;
-import android.app.AlarmManager;
-import android.content.Context;
-import android.os.Build;
+import android.os.Debug;
+import android.os.Process;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.view.View;
+import android.view.ViewTreeObserver;
 import com.getcapacitor.BridgeActivity;
 import com.getcapacitor.JSObject;
 import com.getcapacitor.PluginCall;
-import org.json.JSONException;
-import org.json.JSONObject;
 
 public class MainActivity extends BridgeActivity {
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
-        super.onCreate(savedInstanceState);
+        boolean cold = StartupTrace.claimColdLaunch(Process.getStartUptimeMillis(), SystemClock.uptimeMillis());
+        EventJournal.init(getFilesDir());
         
-        System.out.println("MainActivity onCreate çağrıldı");
+        // Yerel eklentiler super.onCreate'ten önce kaydedilmeli
+        registerPlugin(DirectAlarmPlugin.class);
+        registerPlugin(PrayerTablePlugin.class);
+        registerPlugin(AlarmSoundPlugin.class);
+        registerPlugin(GeoIndexPlugin.class);
+        registerPlugin(PrayerFetchPlugin.class);
+        registerPlugin(MetricsPlugin.class);
+        registerPlugin(EventJournalPlugin.class);
+
+        // Köprü, WebView ve web paketi burada yüklenir; alarm yolu (AlarmActivity) bunu hiç çalıştırmaz
+        Trace.beginSection("EzanStartup:bridge");
+        try {
+            super.onCreate(savedInstanceState);
+        } finally {
+            Trace.endSection();
+        }
         
-        // Alarm intent'ini kontrol et
-        handleAlarmIntent(getIntent());
-    }
-    
-    @Override
-    protected void onNewIntent(Intent intent) {
-        super.onNewIntent(intent);
-        System.out.println("MainActivity onNewIntent çağrıldı");
-        handleAlarmIntent(intent);
+        EventJournal.log(EventJournal.DEBUG, EventJournal.APP_STARTED, EventJournal.NO_PRAYER);
+        if (cold) {
+            traceFirstFrame();
+        }
     }
     
-    private void handleAlarmIntent(Intent intent) {
-        if (intent != null) {
-            String prayer = intent.getStringExtra("prayer");
-            String autoTrigger = intent.getStringExtra("autoTrigger");
-            String directLaunch = intent.getStringExtra("directLaunch");
-            
-            System.out.println("Intent verileri: prayer=" + prayer + ", autoTrigger=" + autoTrigger + ", directLaunch=" + directLaunch);
-            
-            if (prayer != null && "true".equals(autoTrigger) && "true".equals(directLaunch)) {
-                System.out.println("Alarm intent'i algılandı, alarm ekranı gösterilecek");
-                
-                // WebView yüklendikten sonra alarm ekranını göster
-                new Handler(Looper.getMainLooper()).postDelayed(() -> {
-                    if (bridge != null && bridge.getWebView() != null) {
-                        String js = String.format(
-                            "console.log('Alarm JavaScript çalıştırılıyor: %s');" +
-                            "if (window.showAlarmEvent) {" +
-                            "  console.log('showAlarmEvent mevcut, çağrılıyor');" +
-                            "  window.showAlarmEvent('%s');" +
-                            "} else {" +
-                            "  console.log('showAlarmEvent oluşturuluyor');" +
-                            "  window.showAlarmEvent = function(prayer) {" +
-                            "    console.log('showAlarmEvent çağrıldı: ' + prayer);" +
-                            "    const event = new CustomEvent('showAlarm', { detail: { prayer: prayer } });" +
-                            "    window.dispatchEvent(event);" +
-                            "  };" +
-                            "  window.showAlarmEvent('%s');" +
-                            "}", prayer, prayer, prayer
-                        );
-                        
-                        System.out.println("JavaScript çalıştırılıyor: " + js);
-                        bridge.getWebView().evaluateJavascript(js, null);
-                        
-                        // Ekstra kontrol - 2 saniye sonra tekrar dene
-                        new Handler(Looper.getMainLooper()).postDelayed(() -> {
-                            String retryJs = String.format(
-                                "console.log('Alarm tekrar deneniyor: %s');" +
-                                "if (window.showAlarmEvent) {" +
-                                "  window.showAlarmEvent('%s');" +
-                                "} else {" +
-                                "  console.log('showAlarmEvent hala mevcut değil');" +
-                                "}", prayer, prayer
-                            );
-                            bridge.getWebView().evaluateJavascript(retryJs, null);
-                        },2000);
-                    } else {
-                        System.err.println("Bridge veya WebView null!");
-                    }
-                }, 5000); // 5 saniye bekle WebView'in kesin yüklenmesi için
+    /** Soğuk açılışın ilk karesi; StartupTrace'te alarm yoluyla karşılaştırılır */
+    private void traceFirstFrame() {
+        View decor = getWindow().getDecorView();
+        decor.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                decor.getViewTreeObserver().removeOnPreDrawListener(this);
+                decor.post(() -> {
+                    long sinceStart = SystemClock.uptimeMillis() - Process.getStartUptimeMillis();
+                    // PSS ölçümü birkaç ms sürer; ana iş parçacığında yapılmaz
+                    AlarmCore.get(getApplicationContext()).systemExecutor().execute(
+                        () -> StartupTrace.record(StartupTrace.PATH_UI, sinceStart, Debug.getPss()));
+                });
+                return true;
             }
-        }
+        });
     }
     
     // Doğrudan AlarmManager metodu
     public void setDirectAlarm(PluginCall call) {
         try {
-            System.out.println("setDirectAlarm çağrıldı!");
-            
             JSObject data = call.getData();
             long time = data.getLong("time");
             String prayer = data.getString("prayer");
             
-            System.out.println("Doğrudan alarm verileri: time=" + time + ", prayer=" + prayer);
-            
-            AlarmManager alarmManager = (AlarmManager) getSystemService(Context.ALARM_SERVICE);
-            
-            Intent intent = new Intent(this, AlarmReceiver.class);
-            intent.putExtra("prayer", prayer);
-            intent.putExtra("autoTrigger", "true");
-            intent.putExtra("directLaunch", "true");
-            intent.putExtra("testMode", "true");
-            
-            android.app.PendingIntent pendingIntent = android.app.PendingIntent.getBroadcast(
-                this,
-                (int) (time / 1000),
-                intent,
-                android.app.PendingIntent.FLAG_UPDATE_CURRENT | android.app.PendingIntent.FLAG_IMMUTABLE
-            );
-            
-            // En güçlü alarm tipi
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
-                alarmManager.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, time, pendingIntent);
-            } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-                alarmManager.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, time, pendingIntent);
-            } else {
-                alarmManager.setExact(AlarmManager.RTC_WAKEUP, time, pendingIntent);
-            }
-            
-            System.out.println("Doğrudan AlarmManager ile alarm planlandı: " + new java.util.Date(time));
+            int mode = AlarmCore.get(this).armPrayer(prayer, time, AlarmRegistry.KIND_TEST);
             
             JSObject result = new JSObject();
             result.put("success", true);
+            result.put("mode", AlarmMode.NAMES[mode]);
             result.put("message", "Doğrudan alarm planlandı");
             call.resolve(result);
             
         } catch (Exception e) {
-            System.err.println("setDirectAlarm hatası: " + e.getMessage());
-            e.printStackTrace();
+            EventJournal.log(EventJournal.ERROR, EventJournal.SCHEDULE_ERROR, EventJournal.NO_PRAYER);
             call.reject("Doğrudan alarm planlanamadı: " + e.getMessage(), e);
         }
     }
@@ -137,45 +83,20 @@ public class MainActivity extends BridgeActivity {
     // En basit alarm metodu
     public void setSimpleAlarm(PluginCall call) {
         try {
-            System.out.println("setSimpleAlarm çağrıldı!");
-            
             JSObject data = call.getData();
             long time = data.getLong("time");
             String prayer = data.getString("prayer");
             
-            System.out.println("Alarm verileri: time=" + time + ", prayer=" + prayer);
-            
-            AlarmManager alarmManager = (AlarmManager) getSystemService(Context.ALARM_SERVICE);
-            
-            Intent intent = new Intent(this, AlarmReceiver.class);
-            intent.putExtra("prayer", prayer);
-            intent.putExtra("autoTrigger", "true");
-            intent.putExtra("directLaunch", "true");
-            intent.putExtra("testMode", "true");
-            
-            android.app.PendingIntent pendingIntent = android.app.PendingIntent.getBroadcast(
-                this,
-                (int) (time / 1000),
-                intent,
-                android.app.PendingIntent.FLAG_UPDATE_CURRENT | android.app.PendingIntent.FLAG_IMMUTABLE
-            );
-            
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-                alarmManager.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, time, pendingIntent);
-            } else {
-                alarmManager.setExact(AlarmManager.RTC_WAKEUP, time, pendingIntent);
-            }
-            
-            System.out.println("Basit alarm planlandı: " + new java.util.Date(time));
+            int mode = AlarmCore.get(this).armPrayer(prayer, time, AlarmRegistry.KIND_TEST);
             
             JSObject result = new JSObject();
             result.put("success", true);
+            result.put("mode", AlarmMode.NAMES[mode]);
             result.put("message", "Basit alarm planlandı");
             call.resolve(result);
             
         } catch (Exception e) {
-            System.err.println("setSimpleAlarm hatası: " + e.getMessage());
-            e.printStackTrace();
+            EventJournal.log(EventJournal.ERROR, EventJournal.SCHEDULE_ERROR, EventJournal.NO_PRAYER);
             call.reject("Basit alarm planlanamadı: " + e.getMessage(), e);
         }
     }
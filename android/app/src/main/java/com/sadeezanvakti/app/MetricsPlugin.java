@@ -0,0 +1,106 @@
+package com.sadeezanvakti.app;
+
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+
+/**
+ * Yerel eklenti çağrılarının gecikme yüzdelikleri (PluginMetrics), soğuk başlangıç izi
+ * ve alarm yolunun durumu.
+ */
+@CapacitorPlugin(name = "Metrics")
+public class MetricsPlugin extends Plugin {
+
+    /**
+     * Metot başına çalışma ve sırada bekleme yüzdelikleri, ilk çağrılma sırasıyla.
+     * { log?: boolean (logcat'e de yazar), reset?: boolean (okuduktan sonra sıfırlar) }
+     */
+    @PluginMethod
+    public void getMetrics(PluginCall call) {
+        PluginCalls.inline("Metrics.getMetrics", () -> {
+            JSArray methods = new JSArray();
+            for (PluginMetrics.Method method : PluginMetrics.SHARED.snapshot()) {
+                JSObject item = new JSObject();
+                item.put("method", method.name);
+                item.put("count", method.run.count());
+                item.put("p50Ms", method.run.percentile(0.50) / 1000.0);
+                item.put("p95Ms", method.run.percentile(0.95) / 1000.0);
+                item.put("p99Ms", method.run.percentile(0.99) / 1000.0);
+                item.put("maxMs", method.run.max() / 1000.0);
+                item.put("meanMs", method.run.mean() / 1000.0);
+                item.put("waitP95Ms", method.wait.percentile(0.95) / 1000.0);
+                item.put("rejected", method.rejected());
+                item.put("firstAtMs", method.firstAtMs);
+                methods.put(item);
+            }
+
+            if (call.getBoolean("log", false)) {
+                PluginCalls.dump();
+            }
+            if (call.getBoolean("reset", false)) {
+                PluginMetrics.SHARED.reset();
+            }
+
+            JSObject result = new JSObject();
+            result.put("methods", methods);
+            call.resolve(result);
+        });
+    }
+
+    /**
+     * Soğuk açılışların yol başına medyanı: ana arayüz (köprü + WebView) ve yalnız yerel alarm.
+     * Kaynak olay günlüğüdür; kaydı olmayan yolun sayıları 0'dır.
+     */
+    @PluginMethod
+    public void getStartupTrace(PluginCall call) {
+        PluginCalls.run(call, "Metrics.getStartupTrace", () -> {
+            EventJournal journal = EventJournal.init(getContext().getFilesDir());
+            StartupTrace.Summary[] summaries =
+                StartupTrace.summarize(journal.snapshot(0, EventJournal.CAPACITY));
+
+            JSObject result = new JSObject();
+            for (StartupTrace.Summary summary : summaries) {
+                JSObject item = new JSObject();
+                item.put("count", summary.count);
+                item.put("p50Ms", summary.p50Ms);
+                item.put("maxMs", summary.maxMs);
+                item.put("p50PssKb", summary.p50PssKb);
+                result.put(StartupTrace.PATH_NAMES[summary.path], item);
+            }
+            call.resolve(result);
+        });
+    }
+
+    /**
+     * FireGate'in aşama başına bastırdığı tekrarlar (boşa giden uyanmalar) ve son alarmın
+     * oturumu; ayrıntılı geçişler olay günlüğündedir.
+     */
+    @PluginMethod
+    public void getAlarmStats(PluginCall call) {
+        PluginCalls.inline("Metrics.getAlarmStats", () -> {
+            long[] counts = FireGate.SHARED.suppressedCounts();
+            JSObject suppressed = new JSObject();
+            for (int i = 0; i < counts.length; i++) {
+                suppressed.put(FireGate.STAGE_NAMES[i], counts[i]);
+            }
+
+            AlarmSession session = AlarmSession.shared(getContext().getFilesDir(),
+                AlarmCore.get(getContext()).systemExecutor());
+            JSObject data = new JSObject();
+            data.put("state", AlarmSession.STATE_NAMES[session.state()]);
+            data.put("snoozeCount", session.snoozeCount());
+            data.put("totalRingMs", session.totalRingMs());
+            if (session.state() == AlarmSession.STATE_SNOOZED) {
+                data.put("snoozeUntil", session.snoozeUntil());
+            }
+
+            JSObject result = new JSObject();
+            result.put("suppressed", suppressed);
+            result.put("session", data);
+            call.resolve(result);
+        });
+    }
+}
@@ -0,0 +1,178 @@
+package com.sadeezanvakti.app;
+
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import java.util.TimeZone;
+
+/**
+ * PrayerScheduler'ı AlarmManager'a ve kalıcı ayarlara bağlayan Android katmanı.
+ * Ayarlar SharedPreferences'ta tutulur; AlarmReceiver her tetiklenmede rearm çağırır.
+ */
+public final class NativeAlarmScheduler {
+
+    public static final String PREFS_NAME = "ezan_native_schedule";
+
+    static final String KEY_ENABLED = "enabled";
+    static final String KEY_LOCATION_ID = "locationId";
+    static final String KEY_LATITUDE = "latitude";
+    static final String KEY_LONGITUDE = "longitude";
+    static final String KEY_PRAYER_MASK = "prayerMask";
+    static final String KEY_OFFSET_PREFIX = "offset_";
+    static final String KEY_REMINDER_PREFIX = "reminder_";
+    static final String KEY_FOLLOW_UP_PREFIX = "followUp_";
+    // epochDay * 8 + vakit; kapatılan ana alarmın takibi kurulmaz
+    static final String KEY_ACKNOWLEDGED = "acknowledged";
+
+    // Sabit istek kodu: aynı anda yalnızca bir yuvarlanan PendingIntent olur.
+    // Negatiftir; AlarmRegistry kimlikleri her zaman pozitif olduğundan çakışmaz.
+    static final int ROLLING_REQUEST_CODE = 0xC55A0001;
+
+    public static final String EXTRA_ROLLING = "rolling";
+    public static final String EXTRA_TRIGGER_AT = "triggerAt";
+    public static final String EXTRA_EPOCH_DAY = "epochDay";
+    public static final String EXTRA_KIND = "kind";
+
+    private NativeAlarmScheduler() {
+    }
+
+    public static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    public static boolean isEnabled(Context context) {
+        return prefs(context).getBoolean(KEY_ENABLED, false);
+    }
+
+    /**
+     * Kalıcı ayarlardan bir zamanlayıcı kurar; etkin değilse veya konum yoksa null döner.
+     */
+    public static PrayerScheduler create(Context context) {
+        SharedPreferences prefs = prefs(context);
+        if (!prefs.getBoolean(KEY_ENABLED, false)) {
+            return null;
+        }
+        int locationId = prefs.getInt(KEY_LOCATION_ID, 0);
+        PrayerTimeCalculator calculator = null;
+        if (prefs.contains(KEY_LATITUDE) && prefs.contains(KEY_LONGITUDE)) {
+            calculator = new PrayerTimeCalculator(
+                Double.longBitsToDouble(prefs.getLong(KEY_LATITUDE, 0)),
+                Double.longBitsToDouble(prefs.getLong(KEY_LONGITUDE, 0))
+            );
+        }
+        if (locationId <= 0 && calculator == null) {
+            return null;
+        }
+
+        Context appContext = context.getApplicationContext();
+        TimeZone timeZone = TimeZone.getDefault();
+        PrayerTableStore store = PrayerTableStore.shared(appContext.getFilesDir());
+        // Alarm konumunun tabloları LRU tahliyesinden korunur
+        store.pin(locationId);
+        PrayerTimesSource source = new StorePrayerTimesSource(store, locationId, timeZone, calculator);
+
+        PrayerScheduler scheduler = new PrayerScheduler(
+            source, new AlarmManagerSink(appContext), PrayerScheduler.SYSTEM_CLOCK, timeZone);
+        scheduler.setEnabledMask(prefs.getInt(KEY_PRAYER_MASK, (1 << PrayerTimeCalculator.PRAYER_COUNT) - 1));
+        for (int i = 0; i < PrayerTimeCalculator.PRAYER_COUNT; i++) {
+            String key = PrayerTimeCalculator.PRAYER_KEYS[i];
+            scheduler.setOffsetMinutes(i, prefs.getInt(KEY_OFFSET_PREFIX + key, 0));
+            scheduler.setReminderMinutes(i, prefs.getInt(KEY_REMINDER_PREFIX + key, 0));
+            scheduler.setFollowUpMinutes(i, prefs.getInt(KEY_FOLLOW_UP_PREFIX + key, 0));
+        }
+        long acknowledged = prefs.getLong(KEY_ACKNOWLEDGED, -1);
+        if (acknowledged >= 0) {
+            scheduler.acknowledge(acknowledged >> 3, (int) (acknowledged & 7));
+        }
+        return scheduler;
+    }
+
+    /** Bir sonraki vakit için alarmı kurar; zamanlayıcı kapalıysa bekleyen alarmı iptal eder */
+    public static PrayerScheduler rearm(Context context) {
+        return rearmAfter(context, 0);
+    }
+
+    public static PrayerScheduler rearmAfter(Context context, long firedAtMillis) {
+        PrayerScheduler scheduler = create(context);
+        if (scheduler == null) {
+            new AlarmManagerSink(context.getApplicationContext()).cancel();
+            return null;
+        }
+        if (scheduler.scheduleNextAfter(firedAtMillis)) {
+            EventJournal.log(EventJournal.INFO, EventJournal.ROLLING_ARMED, scheduler.getNextPrayer(),
+                0, scheduler.getNextTriggerAt(), scheduler.getNextKind());
+        }
+        return scheduler;
+    }
+
+    /**
+     * Kullanıcı ana alarmı kapattı: o vaktin takip hatırlatması kurulmaz.
+     * Bekleyen kademe takipse sıradakine geçilir.
+     */
+    public static PrayerScheduler acknowledge(Context context, long epochDay, int prayer) {
+        prefs(context).edit().putLong(KEY_ACKNOWLEDGED, epochDay * 8 + prayer).apply();
+        return rearm(context);
+    }
+
+    /**
+     * Ayarları kaydeder ve alarmı hemen yeniden kurar.
+     * offsets, reminders ve followUps PRAYER_COUNT uzunluğunda dakika dizileridir,
+     * null olabilir: sırasıyla vakte ofset, ana alarmdan önceki sessiz hatırlatma
+     * ve ana alarmdan sonraki takip (0 kapalı).
+     */
+    public static PrayerScheduler configure(Context context, boolean enabled, int locationId,
+                                            Double latitude, Double longitude,
+                                            int prayerMask, int[] offsets,
+                                            int[] reminders, int[] followUps) {
+        SharedPreferences.Editor editor = prefs(context).edit()
+            .putBoolean(KEY_ENABLED, enabled)
+            .putInt(KEY_LOCATION_ID, locationId)
+            .putInt(KEY_PRAYER_MASK, prayerMask);
+        if (latitude != null && longitude != null) {
+            editor.putLong(KEY_LATITUDE, Double.doubleToLongBits(latitude));
+            editor.putLong(KEY_LONGITUDE, Double.doubleToLongBits(longitude));
+        } else {
+            editor.remove(KEY_LATITUDE).remove(KEY_LONGITUDE);
+        }
+        for (int i = 0; i < PrayerTimeCalculator.PRAYER_COUNT; i++) {
+            String key = PrayerTimeCalculator.PRAYER_KEYS[i];
+            editor.putInt(KEY_OFFSET_PREFIX + key, offsets != null ? offsets[i] : 0);
+            editor.putInt(KEY_REMINDER_PREFIX + key, reminders != null ? reminders[i] : 0);
+            editor.putInt(KEY_FOLLOW_UP_PREFIX + key, followUps != null ? followUps[i] : 0);
+        }
+        editor.apply();
+        return rearm(context);
+    }
+
+    /**
+     * Tek sabit istek kodlu PendingIntent ile AlarmCore üzerinden AlarmManager'a yazar.
+     */
+    static final class AlarmManagerSink implements PrayerScheduler.AlarmSink {
+        private final Context context;
+
+        AlarmManagerSink(Context context) {
+            this.context = context;
+        }
+
+        @Override
+        public void setExact(long triggerAtMillis, int prayer, long epochDay, int kind) {
+            AlarmCore core = AlarmCore.get(context);
+            Intent intent = core.intentFor(PrayerTimeCalculator.PRAYER_KEYS[prayer], -1, false);
+            intent.putExtra(EXTRA_ROLLING, "true");
+            intent.putExtra(EXTRA_TRIGGER_AT, triggerAtMillis);
+            intent.putExtra(EXTRA_EPOCH_DAY, epochDay);
+            intent.putExtra(EXTRA_KIND, kind);
+
+            core.schedule(ROLLING_REQUEST_CODE, triggerAtMillis, intent);
+            // Sessiz hatırlatma ses çalmaz; ön ısıtma yalnızca sesli kademeler için
+            if (kind != AlarmRegistry.KIND_REMINDER) {
+                AlarmAudio.schedulePrewarm(context, triggerAtMillis);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            AlarmCore.get(context).cancel(ROLLING_REQUEST_CODE);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.sadeezanvakti.app;
+
+import android.appwidget.AppWidgetManager;
+import android.appwidget.AppWidgetProvider;
+import android.content.Context;
+import android.content.Intent;
+
+/**
+ * Sıradaki vakit ve geri sayım bileşeni. updatePeriodMillis 0'dır; güncellemeyi
+ * PrayerCountdown'ın vakit sınırı alarmı (ACTION_BOUNDARY) tetikler.
+ */
+public class NextPrayerWidget extends AppWidgetProvider {
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        if (PrayerCountdown.ACTION_BOUNDARY.equals(intent.getAction())) {
+            refresh(context);
+            return;
+        }
+        super.onReceive(context, intent);
+    }
+
+    @Override
+    public void onUpdate(Context context, AppWidgetManager appWidgetManager, int[] appWidgetIds) {
+        refresh(context);
+    }
+
+    @Override
+    public void onDisabled(Context context) {
+        // Son bileşen kaldırıldı; bildirim de kapalıysa sınır alarmı iptal edilir
+        refresh(context);
+    }
+
+    private void refresh(Context context) {
+        Context appContext = context.getApplicationContext();
+        PendingResult pendingResult = goAsync();
+        AlarmCore.get(appContext).systemExecutor().execute(() -> {
+            try {
+                PrayerCountdown.refresh(appContext);
+            } finally {
+                pendingResult.finish();
+            }
+        });
+    }
+}
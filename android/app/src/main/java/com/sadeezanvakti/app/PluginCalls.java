@@ -0,0 +1,81 @@
+package com.sadeezanvakti.app;
+
+import com.getcapacitor.PluginCall;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Eklenti metotlarını sınırlı sıralı havuzlarda çalıştırır ve süreleri PluginMetrics'e yazar.
+ *
+ * Köprü iş parçacığı yalnızca işi sıraya koyar; binder çağrıları (AlarmManager,
+ * PendingIntent) ve disk erişimi orada yapılmaz. Sıra doluysa çağrı beklemeden
+ * BUSY koduyla reddedilir.
+ */
+final class PluginCalls {
+
+    static final int POOL_THREADS = 2;
+    static final int QUEUE_CAPACITY = 32;
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static final ThreadPoolExecutor POOL = bounded("EzanPlugin", POOL_THREADS);
+
+    private PluginCalls() {
+    }
+
+    /** Sırası QUEUE_CAPACITY ile sınırlı havuz; boşta kalan iş parçacıkları kapanır */
+    static ThreadPoolExecutor bounded(String name, int threads) {
+        AtomicInteger created = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+            r -> new Thread(r, threads == 1 ? name : name + "-" + created.incrementAndGet()));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /** Ortak havuzda çalıştırır; method "Eklenti.metot" biçiminde */
+    static void run(PluginCall call, String method, Runnable task) {
+        run(call, method, POOL, task);
+    }
+
+    /** Sıralı olması gereken işler için eklentinin kendi yürütücüsünde çalıştırır */
+    static void run(PluginCall call, String method, Executor executor, Runnable task) {
+        long queuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                long startedAt = System.nanoTime();
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    call.reject(method + " başarısız: " + e.getMessage(), e);
+                } finally {
+                    PluginMetrics.SHARED.record(method, queuedAt, startedAt, System.nanoTime());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            PluginMetrics.SHARED.rejected(method, queuedAt);
+            call.reject("Çok fazla bekleyen çağrı: " + method, "BUSY");
+        }
+    }
+
+    /** Yalnızca bellekteki durumu okuyan kısa metotlar: çağıranda çalışır, süresi yine ölçülür */
+    static void inline(String method, Runnable task) {
+        long startedAt = System.nanoTime();
+        try {
+            task.run();
+        } finally {
+            PluginMetrics.SHARED.record(method, startedAt, startedAt, System.nanoTime());
+        }
+    }
+
+    /** logcat'e (System.out) metot başına bir satır */
+    static void dump() {
+        for (String line : PluginMetrics.SHARED.dumpLines()) {
+            System.out.println(line);
+        }
+    }
+}
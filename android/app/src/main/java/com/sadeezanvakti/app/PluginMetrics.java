@@ -0,0 +1,94 @@
+package com.sadeezanvakti.app;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Eklenti metotlarının gecikme sayaçları.
+ *
+ * Her metot için iki histogram tutulur: sırada bekleme (wait) ve iş parçacığında
+ * çalışma (run). Metot ilk çağrıldığında bir kez oluşturulur, sonraki örnekler
+ * ayırma yapmaz. Metotlar ilk çağrılma sırasıyla listelenir; firstAtMs ile
+ * açılışta hangi köprü çağrılarının geldiği görülür.
+ */
+public final class PluginMetrics {
+
+    public static final PluginMetrics SHARED = new PluginMetrics(System.nanoTime());
+
+    public static final class Method {
+        public final String name;
+        public final LatencyHistogram run = new LatencyHistogram();
+        public final LatencyHistogram wait = new LatencyHistogram();
+        public final long firstAtMs;
+        volatile long rejected;
+
+        Method(String name, long firstAtMs) {
+            this.name = name;
+            this.firstAtMs = firstAtMs;
+        }
+
+        public long rejected() {
+            return rejected;
+        }
+    }
+
+    private final long startNanos;
+    private final Map<String, Method> methods = new LinkedHashMap<>();
+
+    public PluginMetrics(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    synchronized Method method(String name, long nowNanos) {
+        Method method = methods.get(name);
+        if (method == null) {
+            method = new Method(name, (nowNanos - startNanos) / 1_000_000);
+            methods.put(name, method);
+        }
+        return method;
+    }
+
+    /** Süreler nanosaniye; histogramlar mikrosaniye tutar */
+    public void record(String name, long queuedAt, long startedAt, long finishedAt) {
+        Method method = method(name, queuedAt);
+        method.wait.record((startedAt - queuedAt) / 1000);
+        method.run.record((finishedAt - startedAt) / 1000);
+    }
+
+    /** Sıra dolu olduğu için reddedilen çağrı */
+    public void rejected(String name, long nowNanos) {
+        Method method = method(name, nowNanos);
+        synchronized (method) {
+            method.rejected++;
+        }
+    }
+
+    public synchronized List<Method> snapshot() {
+        return new ArrayList<>(methods.values());
+    }
+
+    public synchronized void reset() {
+        for (Method method : methods.values()) {
+            method.run.reset();
+            method.wait.reset();
+            method.rejected = 0;
+        }
+    }
+
+    /** logcat için satır başına bir metot, anahtar=değer biçiminde */
+    public List<String> dumpLines() {
+        List<String> lines = new ArrayList<>();
+        for (Method method : snapshot()) {
+            lines.add(String.format(Locale.ROOT,
+                "plugin_metrics method=%s n=%d p50_us=%d p95_us=%d p99_us=%d max_us=%d"
+                    + " wait_p95_us=%d rejected=%d first_ms=%d",
+                method.name, method.run.count(),
+                method.run.percentile(0.50), method.run.percentile(0.95), method.run.percentile(0.99),
+                method.run.max(), method.wait.percentile(0.95), method.rejected, method.firstAtMs));
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,241 @@
+package com.sadeezanvakti.app;
+
+import android.app.AlarmManager;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.appwidget.AppWidgetManager;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.content.pm.PackageManager;
+import android.os.Build;
+import android.os.SystemClock;
+import android.widget.RemoteViews;
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+import androidx.core.content.ContextCompat;
+import java.util.TimeZone;
+
+/**
+ * Ana ekran bileşeni ve isteğe bağlı süren bildirim için sıradaki vakit geri sayımı.
+ *
+ * Vakit yerel tablodan (NextPrayerIndex) okunur; WebView ve köprü açılmaz. Saniyeleri
+ * sistemin Chronometer'ı çizer, uygulama kodu çalışmaz. Yeniden hesaplama yalnızca
+ * vakit sınırında, tek bir uyandırmayan (RTC) alarmla yapılır: cihaz uyurken alarm
+ * bekler, ekran açılınca teslim edilir. Yoklama yoktur.
+ *
+ * Konum, web katmanı getNextPrayer çağırdığında buraya kaydedilir.
+ */
+public final class PrayerCountdown {
+
+    public static final String PREFS_NAME = "ezan_countdown";
+
+    static final String KEY_LOCATION_ID = "locationId";
+    static final String KEY_LATITUDE = "latitude";
+    static final String KEY_LONGITUDE = "longitude";
+    static final String KEY_NOTIFICATION = "notification";
+
+    static final String ACTION_BOUNDARY = "com.sadeezanvakti.app.COUNTDOWN_BOUNDARY";
+    static final String CHANNEL_ID = "ezan_countdown";
+
+    // Negatif sabit kodlar; AlarmRegistry kimlikleri ve diğer sabit kodlarla çakışmaz
+    static final int BOUNDARY_REQUEST_CODE = 0xC55A0003;
+    static final int NOTIFICATION_ID = 0xC55A0003;
+
+    // Sınırdan sonra en geç bu kadar içinde yenilenir; pencere kesin alarm izni gerektirmez
+    static final long BOUNDARY_WINDOW_MS = 30_000;
+
+    // Yalnızca sınıf kilidiyle kullanılır
+    private static final NextPrayerIndex index = new NextPrayerIndex();
+    private static boolean stale = true;
+
+    private PrayerCountdown() {
+    }
+
+    public static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /** Web katmanının konumu; değiştiyse kaydeder ve yeniler */
+    public static synchronized void setLocation(Context context, int locationId, double latitude, double longitude) {
+        SharedPreferences prefs = prefs(context);
+        if (prefs.getInt(KEY_LOCATION_ID, 0) == locationId
+            && prefs.getLong(KEY_LATITUDE, 0) == Double.doubleToLongBits(latitude)
+            && prefs.getLong(KEY_LONGITUDE, 0) == Double.doubleToLongBits(longitude)) {
+            return;
+        }
+        prefs.edit()
+            .putInt(KEY_LOCATION_ID, locationId)
+            .putLong(KEY_LATITUDE, Double.doubleToLongBits(latitude))
+            .putLong(KEY_LONGITUDE, Double.doubleToLongBits(longitude))
+            .apply();
+        stale = true;
+        refresh(context);
+    }
+
+    public static synchronized void setNotificationEnabled(Context context, boolean enabled) {
+        prefs(context).edit().putBoolean(KEY_NOTIFICATION, enabled).apply();
+        refresh(context);
+    }
+
+    /** Tablolar değişti; sıradaki yenilemede indeks yeniden yüklenir */
+    public static synchronized void markStale() {
+        stale = true;
+    }
+
+    /** refresh'i tek alarm iş parçacığında çalıştırır */
+    public static void refreshAsync(Context context) {
+        Context appContext = context.getApplicationContext();
+        AlarmCore.get(appContext).systemExecutor().execute(() -> refresh(appContext));
+    }
+
+    /**
+     * Bileşenleri ve bildirimi günceller, sıradaki vakte tek sınır alarmı kurar.
+     * Gösterilecek yüzey yoksa alarm ve bildirim kaldırılır. Disk okur; ana iş parçacığında çağırmayın.
+     */
+    public static synchronized void refresh(Context context) {
+        Context appContext = context.getApplicationContext();
+        SharedPreferences prefs = prefs(appContext);
+        AppWidgetManager widgetManager = AppWidgetManager.getInstance(appContext);
+        int[] widgetIds = widgetManager.getAppWidgetIds(new ComponentName(appContext, NextPrayerWidget.class));
+        boolean notify = prefs.getBoolean(KEY_NOTIFICATION, false);
+
+        if (!notify) {
+            NotificationManagerCompat.from(appContext).cancel(NOTIFICATION_ID);
+        }
+        if (widgetIds.length == 0 && !notify) {
+            cancelBoundary(appContext);
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        int slot = nextSlot(appContext, prefs, now);
+        if (slot < 0) {
+            // Konum veya tablo yok; bileşen uygulamayı açmaya davet eder
+            widgetManager.updateAppWidget(widgetIds, emptyViews(appContext));
+            NotificationManagerCompat.from(appContext).cancel(NOTIFICATION_ID);
+            cancelBoundary(appContext);
+            return;
+        }
+
+        long triggerAt = index.timeAt(slot);
+        String name = appContext.getResources().getStringArray(R.array.countdown_prayer_names)[index.prayerAt(slot)];
+        long localMinute = Math.floorDiv(triggerAt + TimeZone.getDefault().getOffset(triggerAt), 60_000L);
+        String time = PrayerTable.formatTime(
+            (int) Math.floorMod(localMinute, (long) PrayerTimeCalculator.MINUTES_PER_DAY));
+
+        if (widgetIds.length > 0) {
+            widgetManager.updateAppWidget(widgetIds, widgetViews(appContext, name, time, triggerAt - now));
+        }
+        if (notify) {
+            postNotification(appContext, name, time, triggerAt);
+        }
+        scheduleBoundary(appContext, triggerAt);
+    }
+
+    private static int nextSlot(Context context, SharedPreferences prefs, long now) {
+        TimeZone timeZone = TimeZone.getDefault();
+        if (stale || !index.coversDay(now, timeZone) || index.indexAfter(now) < 0) {
+            int locationId = prefs.getInt(KEY_LOCATION_ID, 0);
+            PrayerTimeCalculator calculator = null;
+            if (prefs.contains(KEY_LATITUDE) && prefs.contains(KEY_LONGITUDE)) {
+                double latitude = Double.longBitsToDouble(prefs.getLong(KEY_LATITUDE, 0));
+                double longitude = Double.longBitsToDouble(prefs.getLong(KEY_LONGITUDE, 0));
+                if (!Double.isNaN(latitude) && !Double.isNaN(longitude)) {
+                    calculator = new PrayerTimeCalculator(latitude, longitude);
+                }
+            }
+            if (locationId <= 0 && calculator == null) {
+                return -1;
+            }
+            stale = false;
+            PrayerTableStore store = PrayerTableStore.shared(context.getFilesDir());
+            index.load(new StorePrayerTimesSource(store, locationId, timeZone, calculator),
+                AlarmRegistry.localEpochDay(now, timeZone));
+        }
+        return index.indexAfter(now);
+    }
+
+    private static RemoteViews widgetViews(Context context, String name, String time, long remainingMs) {
+        RemoteViews views = new RemoteViews(context.getPackageName(), R.layout.widget_next_prayer);
+        views.setTextViewText(R.id.widget_prayer, name);
+        views.setTextViewText(R.id.widget_time, time);
+        // Taban elapsedRealtime'dadır; duvar saati değişince RescheduleReceiver yeniden kurar
+        views.setChronometer(R.id.widget_countdown, SystemClock.elapsedRealtime() + remainingMs, null, true);
+        views.setChronometerCountDown(R.id.widget_countdown, true);
+        views.setOnClickPendingIntent(R.id.widget_root, openApp(context));
+        return views;
+    }
+
+    private static RemoteViews emptyViews(Context context) {
+        RemoteViews views = new RemoteViews(context.getPackageName(), R.layout.widget_next_prayer);
+        views.setTextViewText(R.id.widget_prayer, context.getString(R.string.countdown_no_data));
+        views.setTextViewText(R.id.widget_time, "");
+        views.setChronometer(R.id.widget_countdown, SystemClock.elapsedRealtime(), null, false);
+        views.setOnClickPendingIntent(R.id.widget_root, openApp(context));
+        return views;
+    }
+
+    private static void postNotification(Context context, String name, String time, long triggerAt) {
+        if (ContextCompat.checkSelfPermission(context, android.Manifest.permission.POST_NOTIFICATIONS)
+            != PackageManager.PERMISSION_GRANTED) {
+            return;
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(
+                CHANNEL_ID,
+                context.getString(R.string.countdown_channel),
+                NotificationManager.IMPORTANCE_LOW
+            );
+            channel.setShowBadge(false);
+            channel.setSound(null, null);
+            context.getSystemService(NotificationManager.class).createNotificationChannel(channel);
+        }
+
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
+            .setSmallIcon(android.R.drawable.ic_lock_idle_alarm)
+            .setContentTitle(context.getString(R.string.countdown_title, name))
+            .setContentText(time)
+            .setWhen(triggerAt)
+            .setShowWhen(true)
+            .setUsesChronometer(true)
+            .setChronometerCountDown(true)
+            .setOngoing(true)
+            .setOnlyAlertOnce(true)
+            .setSilent(true)
+            .setPriority(NotificationCompat.PRIORITY_LOW)
+            .setCategory(NotificationCompat.CATEGORY_STATUS)
+            .setVisibility(NotificationCompat.VISIBILITY_PUBLIC)
+            .setContentIntent(openApp(context));
+        NotificationManagerCompat.from(context).notify(NOTIFICATION_ID, builder.build());
+    }
+
+    private static PendingIntent openApp(Context context) {
+        Intent intent = new Intent(context, MainActivity.class);
+        intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
+        return PendingIntent.getActivity(context, 0, intent,
+            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
+
+    private static PendingIntent boundaryIntent(Context context, int flags) {
+        Intent intent = new Intent(context, NextPrayerWidget.class).setAction(ACTION_BOUNDARY);
+        return PendingIntent.getBroadcast(context, BOUNDARY_REQUEST_CODE, intent, flags | PendingIntent.FLAG_IMMUTABLE);
+    }
+
+    private static void scheduleBoundary(Context context, long triggerAt) {
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        // Aynı istek kodu önceki sınır alarmının yerine geçer
+        alarmManager.setWindow(AlarmManager.RTC, triggerAt, BOUNDARY_WINDOW_MS,
+            boundaryIntent(context, PendingIntent.FLAG_UPDATE_CURRENT));
+    }
+
+    private static void cancelBoundary(Context context) {
+        PendingIntent pendingIntent = boundaryIntent(context, PendingIntent.FLAG_NO_CREATE);
+        if (pendingIntent != null) {
+            ((AlarmManager) context.getSystemService(Context.ALARM_SERVICE)).cancel(pendingIntent);
+            pendingIntent.cancel();
+        }
+    }
+}
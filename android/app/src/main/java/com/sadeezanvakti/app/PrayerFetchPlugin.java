@@ -0,0 +1,241 @@
+package com.sadeezanvakti.app;
+
+import android.content.Context;
+import androidx.work.WorkInfo;
+import androidx.work.WorkManager;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@CapacitorPlugin(name = "PrayerFetch")
+public class PrayerFetchPlugin extends Plugin {
+
+    static final String DIYANET_BASE = "https://ezanvakti.emushaf.net";
+    static final String[] PROXY_BASES = {
+        "https://vakit.vercel.app",
+        "https://ezanvaktitapi.vercel.app",
+        "https://namaz-vakitleri.vercel.app"
+    };
+
+    private static final int CONNECT_TIMEOUT_MS = 5000;
+    private static final int READ_TIMEOUT_MS = 10000;
+    private static final long DEADLINE_MS = 15000;
+
+    private static EndpointHealth health;
+    private static HttpValidators validators;
+
+    // Yarışan istekler; her fetch en fazla uç nokta sayısı kadar iş parçacığı kullanır
+    private static final ExecutorService requests =
+        Executors.newCachedThreadPool(r -> new Thread(r, "EzanFetch"));
+    private final ThreadPoolExecutor coordinator = PluginCalls.bounded("EzanFetchCoordinator", 1);
+
+    static synchronized EndpointHealth health(Context context) {
+        if (health == null) {
+            health = new EndpointHealth(
+                new File(context.getApplicationContext().getFilesDir(), EndpointHealth.FILE_NAME));
+        }
+        return health;
+    }
+
+    /** Diyanet ilçe uç noktası ve il adıyla çalışan yedek kaynaklar */
+    static List<HedgedFetcher.Endpoint> endpointsFor(String ilceId, String citySlug) {
+        List<HedgedFetcher.Endpoint> endpoints = new ArrayList<>();
+        if (ilceId != null && !ilceId.isEmpty()) {
+            endpoints.add(new HedgedFetcher.Endpoint("diyanet",
+                DIYANET_BASE + "/vakitler/" + ilceId, PrayerJsonStream.Format.DIYANET));
+        }
+        if (citySlug != null && !citySlug.isEmpty()) {
+            for (String base : PROXY_BASES) {
+                endpoints.add(new HedgedFetcher.Endpoint(base.substring(base.indexOf("//") + 2),
+                    base + "/api/timesFromCity?city=" + citySlug, PrayerJsonStream.Format.PROXY));
+            }
+        }
+        return endpoints;
+    }
+
+    static synchronized HttpValidators validators(Context context) {
+        if (validators == null) {
+            validators = new HttpValidators(
+                new File(context.getApplicationContext().getFilesDir(), HttpValidators.FILE_NAME));
+        }
+        return validators;
+    }
+
+    /**
+     * Kaynakları yarıştırır, kazanan yanıtı yerel tabloya birleştirir.
+     * { locationId: number, ilceId?: string, citySlug?: string }
+     */
+    @PluginMethod
+    public void fetch(PluginCall call) {
+        refresh(call, true);
+    }
+
+    /**
+     * fetch gibi, ama önümüzdeki günler tabloda ve yakın zamanda doğrulanmışsa ağa gitmez.
+     * { locationId: number, ilceId?: string, citySlug?: string, force?: boolean }
+     */
+    @PluginMethod
+    public void refresh(PluginCall call) {
+        refresh(call, call.getBoolean("force", false));
+    }
+
+    private void refresh(PluginCall call, boolean force) {
+        Integer locationId = call.getInt("locationId");
+        List<HedgedFetcher.Endpoint> endpoints = endpointsFor(call.getString("ilceId"), call.getString("citySlug"));
+        if (locationId == null || endpoints.isEmpty()) {
+            call.reject("Missing locationId or endpoints");
+            return;
+        }
+
+        Context context = getContext();
+        String ilceId = call.getString("ilceId");
+        String citySlug = call.getString("citySlug");
+        PluginCalls.run(call, force ? "PrayerFetch.fetch" : "PrayerFetch.refresh", coordinator, () -> {
+            try {
+                // Arka plan işi aynı konumu aynı kaynaklarla yeniler
+                RefreshScheduler.remember(context, locationId, ilceId, citySlug);
+                TableRefresher.Outcome outcome = refresher(context).refresh(locationId, endpoints,
+                    AlarmRegistry.localEpochDay(System.currentTimeMillis(), TimeZone.getDefault()),
+                    System.currentTimeMillis(), force);
+                int result = RefreshHistory.outcomeOf(outcome);
+                EventJournal.log(result == RefreshHistory.OUTCOME_FAILED ? EventJournal.WARN : EventJournal.INFO,
+                    EventJournal.TABLE_REFRESH, EventJournal.NO_PRAYER,
+                    (int) outcome.elapsedMs, outcome.bytesDownloaded, result);
+                call.resolve(toJson(outcome));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                call.reject("Vakit indirme kesildi");
+            } catch (Exception e) {
+                call.reject("Vakitler indirilemedi: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    static TableRefresher refresher(Context context) {
+        HttpValidators httpValidators = validators(context);
+        HedgedFetcher fetcher = new HedgedFetcher(requests, health(context), httpValidators,
+            CONNECT_TIMEOUT_MS, READ_TIMEOUT_MS, DEADLINE_MS);
+        return new TableRefresher(PrayerTableStore.shared(context.getFilesDir()), fetcher, httpValidators);
+    }
+
+    static JSObject toJson(TableRefresher.Outcome outcome) {
+        JSObject response = new JSObject();
+        response.put("success", outcome.success);
+        response.put("skipped", outcome.skipped);
+        response.put("notModified", outcome.notModified);
+        response.put("elapsedMs", outcome.elapsedMs);
+        response.put("bytesDownloaded", outcome.bytesDownloaded);
+        response.put("bytesWritten", outcome.bytesWritten);
+        if (outcome.endpoint != null) {
+            HedgedFetcher.Result result = outcome.fetch;
+            response.put("endpoint", outcome.endpoint);
+            response.put("source", result.winner.format == PrayerJsonStream.Format.DIYANET ? "diyanet" : "proxy");
+            response.put("days", outcome.days);
+            response.put("daysChanged", outcome.daysChanged);
+        }
+
+        JSArray attempts = new JSArray();
+        if (outcome.fetch != null) {
+            for (HedgedFetcher.Attempt attempt : outcome.fetch.attempts) {
+                JSObject item = new JSObject();
+                item.put("endpoint", attempt.endpoint);
+                item.put("status", HedgedFetcher.STATUS_NAMES[attempt.status]);
+                item.put("startedAtMs", attempt.startedAtMs);
+                item.put("latencyMs", attempt.latencyMs);
+                item.put("bytesRead", attempt.bytesRead);
+                if (attempt.error != null) {
+                    item.put("error", attempt.error);
+                }
+                attempts.put(item);
+            }
+        }
+        response.put("attempts", attempts);
+        return response;
+    }
+
+    @PluginMethod
+    public void getEndpointHealth(PluginCall call) {
+        PluginCalls.run(call, "PrayerFetch.getEndpointHealth", () -> {
+            JSArray endpoints = new JSArray();
+            EndpointHealth endpointHealth = health(getContext());
+            for (EndpointHealth.Stats stats : endpointHealth.snapshot()) {
+                JSObject item = new JSObject();
+                item.put("endpoint", stats.name);
+                item.put("latencyMs", stats.latencyMs < 0 ? null : Math.round(stats.latencyMs));
+                item.put("successRate", stats.successRate);
+                item.put("failuresInRow", stats.failuresInRow);
+                item.put("samples", stats.samples);
+                item.put("score", stats.score());
+                endpoints.put(item);
+            }
+            JSObject result = new JSObject();
+            result.put("endpoints", endpoints);
+            call.resolve(result);
+        });
+    }
+
+    /**
+     * Arka plan yenilemelerinin son çalışmaları (en yeni önce) ve işlerin durumu.
+     */
+    @PluginMethod
+    public void getRefreshHistory(PluginCall call) {
+        Context context = getContext();
+        PluginCalls.run(call, "PrayerFetch.getRefreshHistory", coordinator, () -> {
+            JSArray runs = new JSArray();
+            for (RefreshHistory.Run run : RefreshScheduler.history(context).snapshot()) {
+                JSObject item = new JSObject();
+                item.put("startedAt", run.startedAt);
+                item.put("durationMs", run.durationMs);
+                item.put("outcome", RefreshHistory.OUTCOME_NAMES[run.outcome]);
+                item.put("locationId", run.locationId);
+                item.put("daysChanged", run.daysChanged);
+                item.put("bytesDownloaded", run.bytesDownloaded);
+                item.put("bytesWritten", run.bytesWritten);
+                item.put("rearmed", run.rearmed);
+                item.put("attempt", run.attempt);
+                if (run.endpoint != null) {
+                    item.put("endpoint", run.endpoint);
+                }
+                if (run.error != null) {
+                    item.put("error", run.error);
+                }
+                runs.put(item);
+            }
+
+            JSArray work = new JSArray();
+            try {
+                for (WorkInfo info : WorkManager.getInstance(context).getWorkInfosByTag(RefreshScheduler.TAG).get()) {
+                    JSObject item = new JSObject();
+                    item.put("state", info.getState().name());
+                    item.put("requiresCharging", info.getConstraints().requiresCharging());
+                    item.put("network", info.getConstraints().getRequiredNetworkType().name());
+                    item.put("nextRunAt", info.getNextScheduleTimeMillis());
+                    item.put("attempt", info.getRunAttemptCount());
+                    work.put(item);
+                }
+            } catch (Exception e) {
+                System.err.println("Yenileme işleri okunamadı: " + e.getMessage());
+            }
+
+            JSObject result = new JSObject();
+            result.put("runs", runs);
+            result.put("work", work);
+            call.resolve(result);
+        });
+    }
+
+    @Override
+    protected void handleOnDestroy() {
+        coordinator.shutdown();
+    }
+}
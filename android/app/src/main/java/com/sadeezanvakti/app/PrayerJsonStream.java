@@ -0,0 +1,279 @@
+package com.sadeezanvakti.app;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+
+/**
+ * Vakit yanıtlarını ağaç kurmadan, akıştan doğrudan PrayerTableStore.Batch'e okur.
+ *
+ * Beklenen biçim düz nesnelerden oluşan bir dizidir. Tanınmayan alanlar ve iç içe
+ * değerler atlanır; yalnızca tarih ve altı vakit alanı okunur. Bozuk JSON IOException,
+ * iş parçacığının kesilmesi InterruptedIOException fırlatır.
+ */
+public final class PrayerJsonStream {
+
+    /** Bir kaynağın alan adları */
+    public static final class Format {
+        public static final Format DIYANET = new Format("MiladiTarihKisa",
+            new String[]{"Imsak", "Gunes", "Ogle", "Ikindi", "Aksam", "Yatsi"}, PrayerTable.SOURCE_DIYANET);
+        public static final Format PROXY = new Format("date",
+            PrayerTimeCalculator.PRAYER_KEYS, PrayerTable.SOURCE_PROXY);
+
+        final String dateKey;
+        final String[] prayerKeys;
+        public final byte source;
+
+        public Format(String dateKey, String[] prayerKeys, byte source) {
+            this.dateKey = dateKey;
+            this.prayerKeys = prayerKeys;
+            this.source = source;
+        }
+    }
+
+    private static final int FIELD_UNKNOWN = -2;
+    private static final int FIELD_DATE = -1;
+
+    private final Reader reader;
+    private final char[] buffer = new char[8 * 1024];
+    private int pos;
+    private int limit;
+    private final StringBuilder text = new StringBuilder(32);
+
+    private PrayerJsonStream(Reader reader) {
+        this.reader = reader;
+    }
+
+    /** Geçerli günleri out'a ekler ve sayısını döndürür */
+    public static int parse(Reader reader, Format format, PrayerTableStore.Batch out) throws IOException {
+        return new PrayerJsonStream(reader).parseArray(format, out);
+    }
+
+    private int parseArray(Format format, PrayerTableStore.Batch out) throws IOException {
+        expect('[');
+        int[] date = new int[3];
+        int[] minutes = new int[PrayerTimeCalculator.PRAYER_COUNT];
+        int added = 0;
+
+        if (peek() == ']') {
+            next();
+            return 0;
+        }
+        while (true) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Ayrıştırma iptal edildi");
+            }
+            if (peek() == '{') {
+                if (parseDay(format, date, minutes)) {
+                    out.add(date[2], date[1], date[0], minutes);
+                    added++;
+                }
+            } else {
+                skipValue();
+            }
+            char c = next();
+            if (c == ']') {
+                return added;
+            }
+            if (c != ',') {
+                throw error("',' veya ']' bekleniyordu");
+            }
+        }
+    }
+
+    /** Bir gün nesnesi; tarih ve altı vaktin hepsi geçerliyse true */
+    private boolean parseDay(Format format, int[] date, int[] minutes) throws IOException {
+        expect('{');
+        boolean hasDate = false;
+        int found = 0;
+        if (peek() == '}') {
+            next();
+            return false;
+        }
+        while (true) {
+            readString();
+            int field = fieldOf(format);
+            expect(':');
+            if (field != FIELD_UNKNOWN && peek() == '"') {
+                readString();
+                String value = text.toString();
+                if (field == FIELD_DATE) {
+                    hasDate = PrayerTable.parseDateKey(value, date);
+                } else {
+                    int minute = PrayerTable.parseTime(value);
+                    if (minute != PrayerTable.MISSING) {
+                        minutes[field] = minute;
+                        found |= 1 << field;
+                    }
+                }
+            } else {
+                skipValue();
+            }
+            char c = next();
+            if (c == '}') {
+                return hasDate && found == (1 << PrayerTimeCalculator.PRAYER_COUNT) - 1;
+            }
+            if (c != ',') {
+                throw error("',' veya '}' bekleniyordu");
+            }
+        }
+    }
+
+    private int fieldOf(Format format) {
+        if (contentEquals(format.dateKey)) {
+            return FIELD_DATE;
+        }
+        for (int i = 0; i < format.prayerKeys.length; i++) {
+            if (contentEquals(format.prayerKeys[i])) {
+                return i;
+            }
+        }
+        return FIELD_UNKNOWN;
+    }
+
+    private boolean contentEquals(String key) {
+        if (text.length() != key.length()) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (text.charAt(i) != key.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ============================================================
+    // BELİRTEÇLER
+    // ============================================================
+
+    private void skipValue() throws IOException {
+        char c = peek();
+        switch (c) {
+            case '"':
+                readString();
+                return;
+            case '{':
+            case '[': {
+                next();
+                char close = c == '{' ? '}' : ']';
+                if (peek() == close) {
+                    next();
+                    return;
+                }
+                while (true) {
+                    if (c == '{') {
+                        readString();
+                        expect(':');
+                    }
+                    skipValue();
+                    char sep = next();
+                    if (sep == close) {
+                        return;
+                    }
+                    if (sep != ',') {
+                        throw error("Beklenmeyen karakter: " + sep);
+                    }
+                }
+            }
+            default:
+                // sayı, true, false, null
+                if (!isLiteral(c)) {
+                    throw error("Beklenmeyen karakter: " + c);
+                }
+                while (pos < limit || fill()) {
+                    if (!isLiteral(buffer[pos])) {
+                        return;
+                    }
+                    pos++;
+                }
+        }
+    }
+
+    private static boolean isLiteral(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || c == '-' || c == '+' || c == '.' || c == 'E';
+    }
+
+    /** Tırnaklı metni text'e okur */
+    private void readString() throws IOException {
+        expect('"');
+        text.setLength(0);
+        while (true) {
+            char c = raw();
+            if (c == '"') {
+                return;
+            }
+            if (c != '\\') {
+                text.append(c);
+                continue;
+            }
+            char escaped = raw();
+            switch (escaped) {
+                case 'n': text.append('\n'); break;
+                case 't': text.append('\t'); break;
+                case 'r': text.append('\r'); break;
+                case 'b': text.append('\b'); break;
+                case 'f': text.append('\f'); break;
+                case 'u': {
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(raw(), 16);
+                        if (digit < 0) {
+                            throw error("Geçersiz \\u kaçışı");
+                        }
+                        code = (code << 4) | digit;
+                    }
+                    text.append((char) code);
+                    break;
+                }
+                default: text.append(escaped);
+            }
+        }
+    }
+
+    private void expect(char expected) throws IOException {
+        char c = next();
+        if (c != expected) {
+            throw error("'" + expected + "' bekleniyordu, '" + c + "' geldi");
+        }
+    }
+
+    /** Boşlukları atlayıp sonraki karaktere bakar */
+    private char peek() throws IOException {
+        while (pos < limit || fill()) {
+            char c = buffer[pos];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t' && c != '\uFEFF') {
+                return c;
+            }
+            pos++;
+        }
+        throw error("Beklenmeyen son");
+    }
+
+    private char next() throws IOException {
+        char c = peek();
+        pos++;
+        return c;
+    }
+
+    private char raw() throws IOException {
+        if (pos >= limit && !fill()) {
+            throw error("Metin kapanmadı");
+        }
+        return buffer[pos++];
+    }
+
+    private boolean fill() throws IOException {
+        limit = reader.read(buffer, 0, buffer.length);
+        pos = 0;
+        if (limit <= 0) {
+            limit = 0;
+            return false;
+        }
+        return true;
+    }
+
+    private IOException error(String message) {
+        return new IOException("Geçersiz vakit yanıtı: " + message);
+    }
+}
@@ -0,0 +1,278 @@
+package com.sadeezanvakti.app;
+
+import android.os.Handler;
+import android.os.Looper;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import java.util.TimeZone;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.json.JSONObject;
+
+@CapacitorPlugin(name = "PrayerTable")
+public class PrayerTablePlugin extends Plugin {
+
+    public static final String EVENT_NEXT_PRAYER = "nextPrayer";
+
+    // Sıradaki vakit: indeks günde bir yüklenir, sorgu ayırmasızdır. Alanlar yalnızca
+    // nextExecutor üzerinde kullanılır; vakit sınırı olayı da oradan gönderilir.
+    private final ThreadPoolExecutor nextExecutor = PluginCalls.bounded("EzanNextPrayer", 1);
+    private final Handler boundaryHandler = new Handler(Looper.getMainLooper());
+    private final Runnable boundaryTick = () -> nextExecutor.execute(this::onBoundary);
+    private final NextPrayerIndex nextIndex = new NextPrayerIndex();
+    private int nextLocationId;
+    private double nextLatitude = Double.NaN;
+    private double nextLongitude = Double.NaN;
+    private PrayerTimeCalculator nextCalculator;
+    private long lastBoundaryAt;
+    private boolean watching;
+    private volatile boolean nextStale = true;
+
+    @Override
+    protected void handleOnDestroy() {
+        boundaryHandler.removeCallbacks(boundaryTick);
+    }
+
+    private PrayerTableStore getStore() {
+        return PrayerTableStore.shared(getContext().getFilesDir());
+    }
+
+    /**
+     * localStorage'daki yıllık JSON önbelleğini ikili tabloya aktarır.
+     * { json: string, locationId: number }
+     */
+    @PluginMethod
+    public void importJson(PluginCall call) {
+        String json = call.getString("json");
+        Integer locationId = call.getInt("locationId");
+
+        if (json == null || locationId == null) {
+            call.reject("Missing json or locationId");
+            return;
+        }
+
+        PluginCalls.run(call, "PrayerTable.importJson", () -> {
+            try {
+                long start = System.nanoTime();
+                int days = getStore().importCache(new JSONObject(json), locationId);
+                nextStale = true;
+                PrayerCountdown.markStale();
+                PrayerCountdown.refreshAsync(getContext());
+
+                JSObject result = new JSObject();
+                result.put("success", true);
+                result.put("days", days);
+                result.put("elapsedMs", (System.nanoTime() - start) / 1_000_000.0);
+                call.resolve(result);
+
+            } catch (Exception e) {
+                call.reject("Vakit tablosu aktarılamadı: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Tek günün vakitlerini "HH:mm" olarak döndürür.
+     * { locationId: number, date: "dd.MM.yyyy" }
+     */
+    @PluginMethod
+    public void getDay(PluginCall call) {
+        String dateKey = call.getString("date");
+        Integer locationId = call.getInt("locationId");
+
+        int[] date = new int[3];
+        if (locationId == null || !PrayerTable.parseDateKey(dateKey, date)) {
+            call.reject("Missing locationId or invalid date");
+            return;
+        }
+
+        PluginCalls.run(call, "PrayerTable.getDay", () -> {
+            int[] minutes = new int[PrayerTimeCalculator.PRAYER_COUNT];
+            if (!getStore().readDay(locationId, date[2], date[1], date[0], minutes)) {
+                call.reject("Bu tarih için vakit bulunamadı: " + dateKey);
+                return;
+            }
+
+            JSObject times = new JSObject();
+            for (int i = 0; i < PrayerTimeCalculator.PRAYER_COUNT; i++) {
+                times.put(PrayerTimeCalculator.PRAYER_KEYS[i], PrayerTable.formatTime(minutes[i]));
+            }
+
+            JSObject result = new JSObject();
+            result.put("date", dateKey);
+            result.put("times", times);
+            call.resolve(result);
+        });
+    }
+
+    /**
+     * { locationId: number, year: number } için tablo var mı?
+     */
+    @PluginMethod
+    public void hasYear(PluginCall call) {
+        Integer locationId = call.getInt("locationId");
+        Integer year = call.getInt("year");
+
+        if (locationId == null || year == null) {
+            call.reject("Missing locationId or year");
+            return;
+        }
+
+        PluginCalls.run(call, "PrayerTable.hasYear", () -> {
+            JSObject result = new JSObject();
+            result.put("exists", getStore().get(locationId, year) != null);
+            call.resolve(result);
+        });
+    }
+
+    /**
+     * Çok konumlu önbelleğin sayaçları ve içeriği (en yeniden eskiye).
+     */
+    @PluginMethod
+    public void getCacheStats(PluginCall call) {
+        PluginCalls.run(call, "PrayerTable.getCacheStats", () -> {
+            PrayerTableStore store = getStore();
+            PrayerTableStore.Stats stats = store.stats();
+
+            JSArray tables = new JSArray();
+            for (int[] table : store.cachedTables()) {
+                JSObject item = new JSObject();
+                item.put("locationId", table[0]);
+                item.put("year", table[1]);
+                tables.put(item);
+            }
+
+            JSObject result = new JSObject();
+            result.put("hits", stats.hits);
+            result.put("misses", stats.misses);
+            result.put("evictions", stats.evictions);
+            result.put("tableCount", stats.tables);
+            result.put("bytes", stats.bytes);
+            result.put("maxTables", stats.maxTables);
+            result.put("budgetBytes", stats.budgetBytes);
+            result.put("pinnedLocationId", stats.pinnedLocationId);
+            result.put("bytesWritten", stats.bytesWritten);
+            result.put("daysChanged", stats.daysChanged);
+            result.put("tables", tables);
+            call.resolve(result);
+        });
+    }
+
+    /**
+     * Sıradaki vakit ve epoch ms zamanı; geri sayım her saniye yalnızca çıkarma yapar.
+     * { locationId?: number, latitude?: number, longitude?: number, watch?: boolean }
+     * watch açıksa her vakit sınırında bir kez "nextPrayer" olayı gönderilir.
+     */
+    @PluginMethod
+    public void getNextPrayer(PluginCall call) {
+        int locationId = call.getInt("locationId", 0);
+        Double latitude = call.getDouble("latitude");
+        Double longitude = call.getDouble("longitude");
+        boolean watch = call.getBoolean("watch", false);
+
+        if (locationId <= 0 && (latitude == null || longitude == null)) {
+            call.reject("Missing locationId or coordinates");
+            return;
+        }
+
+        PluginCalls.run(call, "PrayerTable.getNextPrayer", nextExecutor, () -> {
+            configureNext(locationId,
+                latitude != null ? latitude : Double.NaN,
+                longitude != null ? longitude : Double.NaN);
+            // Bileşen ve süren bildirim aynı konumu WebView'siz kullanır
+            PrayerCountdown.setLocation(getContext(), locationId, nextLatitude, nextLongitude);
+            long now = System.currentTimeMillis();
+            JSObject result = nextPrayer(now);
+            if (watch) {
+                watching = true;
+                lastBoundaryAt = result.optLong("triggerAt", -1);
+                scheduleBoundary(now);
+            }
+            call.resolve(result);
+        });
+    }
+
+    /**
+     * Sıradaki vakti geri sayımla gösteren süren bildirim (ana ekran bileşeninden bağımsız).
+     * { enabled: boolean }
+     */
+    @PluginMethod
+    public void setCountdownNotification(PluginCall call) {
+        boolean enabled = call.getBoolean("enabled", false);
+        PluginCalls.run(call, "PrayerTable.setCountdownNotification",
+            AlarmCore.get(getContext()).executor(), () -> {
+                PrayerCountdown.setNotificationEnabled(getContext(), enabled);
+                JSObject result = new JSObject();
+                result.put("success", true);
+                call.resolve(result);
+            });
+    }
+
+    private void configureNext(int locationId, double latitude, double longitude) {
+        if (locationId == nextLocationId
+            && Double.compare(latitude, nextLatitude) == 0
+            && Double.compare(longitude, nextLongitude) == 0) {
+            return;
+        }
+        nextLocationId = locationId;
+        nextLatitude = latitude;
+        nextLongitude = longitude;
+        nextCalculator = Double.isNaN(latitude) || Double.isNaN(longitude)
+            ? null : new PrayerTimeCalculator(latitude, longitude);
+        nextStale = true;
+    }
+
+    /** Gün değiştiyse, tablo yenilendiyse veya yüklü vakitler bittiyse indeksi yeniden yükler */
+    private int nextSlot(long now) {
+        TimeZone timeZone = TimeZone.getDefault();
+        if (nextStale || !nextIndex.coversDay(now, timeZone) || nextIndex.indexAfter(now) < 0) {
+            nextStale = false;
+            nextIndex.load(new StorePrayerTimesSource(getStore(), nextLocationId, timeZone, nextCalculator),
+                AlarmRegistry.localEpochDay(now, timeZone));
+        }
+        return nextIndex.indexAfter(now);
+    }
+
+    private JSObject nextPrayer(long now) {
+        int slot = nextSlot(now);
+        JSObject result = new JSObject();
+        result.put("found", slot >= 0);
+        if (slot >= 0) {
+            long triggerAt = nextIndex.timeAt(slot);
+            long localMinute = Math.floorDiv(triggerAt + TimeZone.getDefault().getOffset(triggerAt), 60_000L);
+            result.put("prayer", PrayerTimeCalculator.PRAYER_KEYS[nextIndex.prayerAt(slot)]);
+            result.put("triggerAt", triggerAt);
+            result.put("time", PrayerTable.formatTime(
+                (int) Math.floorMod(localMinute, (long) PrayerTimeCalculator.MINUTES_PER_DAY)));
+            result.put("isTomorrow", nextIndex.isTomorrow(slot));
+        }
+        return result;
+    }
+
+    /** Sıradaki vakte tek bir gecikmeli ileti; yoklama yok */
+    private void scheduleBoundary(long now) {
+        boundaryHandler.removeCallbacks(boundaryTick);
+        int slot = nextSlot(now);
+        if (slot >= 0) {
+            boundaryHandler.postDelayed(boundaryTick, Math.max(0, nextIndex.timeAt(slot) - now));
+        }
+    }
+
+    private void onBoundary() {
+        if (!watching) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        JSObject result = nextPrayer(now);
+        // Handler erken uyanırsa (uptime ile duvar saati kayması) aynı vakit tekrar gönderilmez
+        long triggerAt = result.optLong("triggerAt", -1);
+        if (triggerAt != lastBoundaryAt) {
+            lastBoundaryAt = triggerAt;
+            notifyListeners(EVENT_NEXT_PRAYER, result);
+        }
+        scheduleBoundary(now);
+    }
+}
@@ -0,0 +1,577 @@
+package com.sadeezanvakti.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Konum ve yıl başına bir PrayerTable dosyası tutan dizin.
+ * Açılan tablolar bellekte eşlenmiş olarak saklanır; tekrar açılmaz.
+ *
+ * Birden çok konum (ev, iş, yolculuk) aynı anda tutulur. Tablo sayısı ve toplam
+ * boyut sınırı aşılınca en uzun süredir kullanılmayan tablo silinir (LRU). Sıra
+ * dosyaların değişiklik zamanında saklanır, böylece süreç yeniden başlasa da korunur.
+ * Alarmların kullandığı konum (pin) hiçbir zaman silinmez.
+ *
+ * Var olan tabloya gelen yeni veri yerinde yamanır: yalnızca farklı günler yazılır,
+ * hiçbir şey değişmediyse tablo yeniden yazılmaz. Aylık özetler ve doğrulama
+ * zamanları TableMeta'da tutulur; needsRefresh bunlara bakarak ağa gitmeyi atlatır.
+ */
+public class PrayerTableStore {
+
+    public static final String DIR_NAME = "vakitler";
+
+    /** Örn. dört konumun bu yılı ve gelecek yılı */
+    public static final int DEFAULT_MAX_TABLES = 8;
+    public static final long DEFAULT_BUDGET_BYTES = 64 * 1024;
+
+    private static PrayerTableStore shared;
+
+    private final File dir;
+    private final int maxTables;
+    private final long budgetBytes;
+    private final Map<Long, PrayerTable> openTables = new HashMap<>();
+    private final Map<Long, TableMeta> metas = new HashMap<>();
+    // Erişim sıralı: ilk eleman en eski. Değer dosya boyutu
+    private final LinkedHashMap<Long, Long> lru = new LinkedHashMap<>(16, 0.75f, true);
+    private boolean indexed;
+    private long totalBytes;
+    private long recentKey = -1;
+    private int pinnedLocationId;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long bytesWritten;
+    private long daysChanged;
+
+    /** Önbellek sayaçlarının anlık görüntüsü */
+    public static final class Stats {
+        public long hits;
+        public long misses;
+        public long evictions;
+        public int tables;
+        public long bytes;
+        public int maxTables;
+        public long budgetBytes;
+        public int pinnedLocationId;
+        public long bytesWritten;
+        public long daysChanged;
+    }
+
+    /** Tek commit'in etkisi */
+    public static final class CommitResult {
+        public int days;          // batch'teki gün sayısı
+        public int daysChanged;   // yeni veya farklı olup diske yazılan gün
+        public long bytesWritten; // tablo ve özet dosyaları
+    }
+
+    public PrayerTableStore(File dir) {
+        this(dir, DEFAULT_MAX_TABLES, DEFAULT_BUDGET_BYTES);
+    }
+
+    public PrayerTableStore(File dir, int maxTables, long budgetBytes) {
+        this.dir = dir;
+        this.maxTables = maxTables;
+        this.budgetBytes = budgetBytes;
+    }
+
+    /** Uygulama genelinde tek örnek; filesDir genelde Context.getFilesDir() */
+    public static synchronized PrayerTableStore shared(File filesDir) {
+        if (shared == null) {
+            shared = new PrayerTableStore(new File(filesDir, DIR_NAME));
+        }
+        return shared;
+    }
+
+    public File getDir() {
+        return dir;
+    }
+
+    /** Tablo yoksa veya okunamıyorsa null döner */
+    public synchronized PrayerTable get(int locationId, int year) {
+        PrayerTable table = lookup(locationId, year);
+        if (table != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return table;
+    }
+
+    /** Alarmların okuduğu konum; tabloları tahliye edilmez */
+    public synchronized void pin(int locationId) {
+        pinnedLocationId = locationId;
+    }
+
+    /** En yeniden eskiye saklanan (locationId, year) çiftleri */
+    public synchronized List<int[]> cachedTables() {
+        ensureIndexed();
+        List<int[]> list = new ArrayList<>(lru.size());
+        for (long key : lru.keySet()) {
+            list.add(new int[]{(int) (key >>> 16), (int) (key & 0xFFFF)});
+        }
+        Collections.reverse(list);
+        return list;
+    }
+
+    public synchronized Stats stats() {
+        ensureIndexed();
+        Stats stats = new Stats();
+        stats.hits = hits;
+        stats.misses = misses;
+        stats.evictions = evictions;
+        stats.tables = lru.size();
+        stats.bytes = totalBytes;
+        stats.maxTables = maxTables;
+        stats.budgetBytes = budgetBytes;
+        stats.pinnedLocationId = pinnedLocationId;
+        stats.bytesWritten = bytesWritten;
+        stats.daysChanged = daysChanged;
+        return stats;
+    }
+
+    /**
+     * Günün altı vaktini gün içi dakika olarak out'a yazar.
+     * Tablo veya gün yoksa false döner.
+     */
+    public boolean readDay(int locationId, int year, int month, int day, int[] out) {
+        PrayerTable table = get(locationId, year);
+        if (table == null) {
+            return false;
+        }
+        int dayOfYear = PrayerTimeCalculator.dayOfYear(year, month, day);
+        if (!table.hasDay(dayOfYear)) {
+            return false;
+        }
+        table.readDay(dayOfYear, out, 0);
+        return true;
+    }
+
+    public synchronized void write(int locationId, PrayerTable.Builder builder, int year) throws IOException {
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Dizin oluşturulamadı: " + dir);
+        }
+        ensureIndexed();
+        File file = PrayerTable.fileFor(dir, locationId, year);
+        builder.writeTo(file);
+
+        long key = key(locationId, year);
+        openTables.remove(key);
+        metas.remove(key);
+        TableMeta.fileFor(dir, locationId, year).delete();
+        bytesWritten += PrayerTable.FILE_SIZE;
+        Long previous = lru.put(key, file.length());
+        totalBytes += file.length() - (previous != null ? previous : 0);
+        recentKey = -1;
+        touch(key, locationId, year);
+        evict(key);
+    }
+
+    /**
+     * prayerService.ts'nin localStorage'a yazdığı
+     * {city, source, days: {"dd.MM.yyyy": {imsak: "HH:mm", ...}}} nesnesini içe aktarır.
+     * Her yıl için ayrı dosya yazılır. Aktarılan gün sayısını döndürür.
+     */
+    public int importCache(JSONObject cache, int locationId) throws IOException, JSONException {
+        JSONObject days = cache.getJSONObject("days");
+        byte source = PrayerTable.sourceFromLabel(cache.optString("source", null));
+
+        Batch batch = new Batch(locationId, source);
+        int[] date = new int[3];
+        int[] minutes = new int[PrayerTimeCalculator.PRAYER_COUNT];
+
+        Iterator<String> keys = days.keys();
+        while (keys.hasNext()) {
+            String dateKey = keys.next();
+            if (!PrayerTable.parseDateKey(dateKey, date)) {
+                continue;
+            }
+            JSONObject times = days.optJSONObject(dateKey);
+            if (times == null || !parseTimes(times, minutes)) {
+                continue;
+            }
+            batch.add(date[2], date[1], date[0], minutes);
+        }
+        return commit(batch).days;
+    }
+
+    public CommitResult commit(Batch batch) throws IOException {
+        return commit(batch, System.currentTimeMillis());
+    }
+
+    /**
+     * Batch'teki yılları tablolara işler. Tablo yoksa tamamı yazılır; varsa yalnızca
+     * farklı günler yerinde yamanır. Kısmi yanıtlar (ör. Aralık'ta gelecek yılın ilk
+     * günleri) tabloda zaten olan günleri silmez. Batch'in kapsadığı aylar doğrulanmış sayılır.
+     */
+    public synchronized CommitResult commit(Batch batch, long now) throws IOException {
+        CommitResult result = new CommitResult();
+        result.days = batch.getDayCount();
+        long before = bytesWritten;
+
+        for (Map.Entry<Integer, PrayerTable.Builder> entry : batch.builders.entrySet()) {
+            int year = entry.getKey();
+            PrayerTable.Builder incoming = entry.getValue();
+            boolean[] changedMonths = new boolean[12];
+            int changed;
+
+            PrayerTable existing = lookup(batch.locationId, year);
+            if (existing == null) {
+                write(batch.locationId, incoming.setSource(batch.source), year);
+                changed = incoming.getDayCount();
+                Arrays.fill(changedMonths, true);
+            } else {
+                changed = patch(batch.locationId, year, existing, incoming, batch.source, changedMonths);
+            }
+            result.daysChanged += changed;
+
+            boolean[] coveredMonths = new boolean[12];
+            for (int d = 0; d < PrayerTimeCalculator.MAX_DAYS_PER_YEAR; d++) {
+                if (incoming.hasDay(d)) {
+                    coveredMonths[PrayerTable.monthOfDay(year, d) - 1] = true;
+                }
+            }
+            updateMeta(batch.locationId, year, changedMonths, coveredMonths, now);
+        }
+
+        daysChanged += result.daysChanged;
+        result.bytesWritten = bytesWritten - before;
+        return result;
+    }
+
+    /**
+     * Yalnızca farklı günleri, ardışık aralıklar halinde dosyanın yerinde yazar.
+     * Değişen gün sayısını döndürür.
+     */
+    private int patch(int locationId, int year, PrayerTable existing, PrayerTable.Builder incoming,
+                      byte source, boolean[] changedMonths) throws IOException {
+        int[] current = new int[PrayerTimeCalculator.PRAYER_COUNT];
+        int[] next = new int[PrayerTimeCalculator.PRAYER_COUNT];
+        ByteBuffer run = ByteBuffer.allocate(PrayerTable.FILE_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        int runStart = -1;
+        int changed = 0;
+        long written = 0;
+        FileChannel channel = null;
+        RandomAccessFile raf = null;
+
+        try {
+            for (int d = 0; d <= PrayerTimeCalculator.MAX_DAYS_PER_YEAR; d++) {
+                boolean differs = false;
+                if (d < PrayerTimeCalculator.MAX_DAYS_PER_YEAR && incoming.hasDay(d)) {
+                    incoming.readDay(d, next);
+                    existing.readDay(d, current, 0);
+                    differs = !Arrays.equals(current, next);
+                }
+                if (differs) {
+                    if (runStart < 0) {
+                        runStart = d;
+                        run.clear();
+                    }
+                    for (int minute : next) {
+                        run.putShort((short) minute);
+                    }
+                    changed++;
+                    changedMonths[PrayerTable.monthOfDay(year, d) - 1] = true;
+                } else if (runStart >= 0) {
+                    if (channel == null) {
+                        raf = new RandomAccessFile(PrayerTable.fileFor(dir, locationId, year), "rw");
+                        channel = raf.getChannel();
+                    }
+                    run.flip();
+                    written += writeFully(channel, run, PrayerTable.offsetOfDay(runStart));
+                    runStart = -1;
+                }
+            }
+            if (source != PrayerTable.SOURCE_UNKNOWN && source != existing.getSource()) {
+                if (channel == null) {
+                    raf = new RandomAccessFile(PrayerTable.fileFor(dir, locationId, year), "rw");
+                    channel = raf.getChannel();
+                }
+                written += writeFully(channel, ByteBuffer.wrap(new byte[]{source}), 12);
+            }
+            if (channel != null) {
+                channel.force(false);
+            }
+        } finally {
+            if (raf != null) {
+                raf.close();
+            }
+        }
+
+        if (written > 0) {
+            // Kaynak etiketi dahil yeniden eşlenir
+            openTables.remove(key(locationId, year));
+            bytesWritten += written;
+        }
+        return changed;
+    }
+
+    private static long writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        return written;
+    }
+
+    private void updateMeta(int locationId, int year, boolean[] changedMonths, boolean[] verifiedMonths,
+                            long now) throws IOException {
+        PrayerTable table = lookup(locationId, year);
+        if (table == null) {
+            return;
+        }
+        TableMeta meta = meta(locationId, year);
+        if (meta == null) {
+            meta = TableMeta.of(table);
+        } else {
+            for (int m = 0; m < 12; m++) {
+                if (changedMonths[m]) {
+                    meta.checksums[m] = table.monthChecksum(m + 1);
+                }
+            }
+        }
+        for (int m = 0; m < 12; m++) {
+            if (verifiedMonths[m]) {
+                meta.verifiedAt[m] = now;
+            }
+        }
+        bytesWritten += meta.save(TableMeta.fileFor(dir, locationId, year));
+        metas.put(key(locationId, year), meta);
+    }
+
+    private TableMeta meta(int locationId, int year) {
+        long key = key(locationId, year);
+        TableMeta meta = metas.get(key);
+        if (meta == null) {
+            meta = TableMeta.load(TableMeta.fileFor(dir, locationId, year));
+            if (meta != null) {
+                metas.put(key, meta);
+            }
+        }
+        return meta;
+    }
+
+    /**
+     * [fromEpochDay, fromEpochDay + days) aralığında eksik gün, hiç doğrulanmamış,
+     * maxAgeMs'ten eski veya özeti tutmayan bir ay varsa true. false ise yenileme
+     * ağa hiç gitmeden atlanabilir.
+     */
+    public synchronized boolean needsRefresh(int locationId, long fromEpochDay, int days, long now, long maxAgeMs) {
+        int[] civil = new int[3];
+        int checkedMonth = -1;
+        for (long epochDay = fromEpochDay; epochDay < fromEpochDay + days; epochDay++) {
+            PrayerTimeCalculator.civilFromEpochDay(epochDay, civil);
+            PrayerTable table = lookup(locationId, civil[0]);
+            if (table == null || !table.hasDay(PrayerTimeCalculator.dayOfYear(civil[0], civil[1], civil[2]))) {
+                return true;
+            }
+            int month = civil[0] * 12 + civil[1];
+            if (month != checkedMonth) {
+                checkedMonth = month;
+                TableMeta meta = meta(locationId, civil[0]);
+                if (meta == null || !meta.isFresh(table, civil[1], now, maxAgeMs)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sunucu "değişmedi" (304) dediğinde aralıktaki ayları yeniden indirmeden
+     * doğrulanmış sayar. Yazılan bayt sayısını döndürür.
+     */
+    public synchronized long markVerified(int locationId, long fromEpochDay, int days, long now) throws IOException {
+        long before = bytesWritten;
+        int[] civil = new int[3];
+        Map<Integer, boolean[]> months = new HashMap<>();
+        for (long epochDay = fromEpochDay; epochDay < fromEpochDay + days; epochDay++) {
+            PrayerTimeCalculator.civilFromEpochDay(epochDay, civil);
+            boolean[] verified = months.get(civil[0]);
+            if (verified == null) {
+                verified = new boolean[12];
+                months.put(civil[0], verified);
+            }
+            verified[civil[1] - 1] = true;
+        }
+        for (Map.Entry<Integer, boolean[]> entry : months.entrySet()) {
+            updateMeta(locationId, entry.getKey(), new boolean[12], entry.getValue(), now);
+        }
+        return bytesWritten - before;
+    }
+
+    /**
+     * Tek kaynaktan gelen günleri yıl yıl bellekte toplar; diske commit ile yazılır.
+     * Böylece yarışan indirmeler ayrı ayrı doldurulur, yalnızca kazanan yazılır.
+     */
+    public static final class Batch {
+        private final int locationId;
+        private final byte source;
+        private final Map<Integer, PrayerTable.Builder> builders = new HashMap<>();
+
+        public Batch(int locationId, byte source) {
+            this.locationId = locationId;
+            this.source = source;
+        }
+
+        public int getLocationId() {
+            return locationId;
+        }
+
+        public void add(int year, int month, int day, int[] minutes) {
+            PrayerTable.Builder builder = builders.get(year);
+            if (builder == null) {
+                builder = new PrayerTable.Builder(year, locationId);
+                builders.put(year, builder);
+            }
+            builder.setDay(month, day, minutes);
+        }
+
+        public int getDayCount() {
+            int count = 0;
+            for (PrayerTable.Builder builder : builders.values()) {
+                count += builder.getDayCount();
+            }
+            return count;
+        }
+    }
+
+    private static boolean parseTimes(JSONObject times, int[] out) {
+        for (int i = 0; i < PrayerTimeCalculator.PRAYER_COUNT; i++) {
+            int minute = PrayerTable.parseTime(times.optString(PrayerTimeCalculator.PRAYER_KEYS[i], null));
+            if (minute == PrayerTable.MISSING) {
+                return false;
+            }
+            out[i] = minute;
+        }
+        return true;
+    }
+
+    // ============================================================
+    // LRU
+    // ============================================================
+
+    private void ensureIndexed() {
+        if (indexed) {
+            return;
+        }
+        indexed = true;
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        List<File> tables = new ArrayList<>();
+        for (File file : files) {
+            if (parseFileName(file.getName()) != null) {
+                tables.add(file);
+            }
+        }
+        // Değişiklik zamanı son erişimdir; eskiden yeniye ekle
+        Collections.sort(tables, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File file : tables) {
+            int[] parsed = parseFileName(file.getName());
+            lru.put(key(parsed[0], parsed[1]), file.length());
+            totalBytes += file.length();
+        }
+    }
+
+    /** Sayaçlara dokunmadan tabloyu açar ve en yeni olarak işaretler */
+    private PrayerTable lookup(int locationId, int year) {
+        ensureIndexed();
+        long key = key(locationId, year);
+        if (lru.get(key) == null) {
+            return null;
+        }
+        touch(key, locationId, year);
+        PrayerTable table = openTables.get(key);
+        if (table != null) {
+            return table;
+        }
+        File file = PrayerTable.fileFor(dir, locationId, year);
+        try {
+            table = PrayerTable.open(file);
+        } catch (IOException e) {
+            EventJournal.storageError(EventJournal.STORE_PRAYER_TABLE, EventJournal.STORAGE_READ);
+            forget(key);
+            return null;
+        }
+        openTables.put(key, table);
+        return table;
+    }
+
+    /** Erişim sırasını diskte de günceller; zaten en yeniyse dosyaya dokunmaz */
+    private void touch(long key, int locationId, int year) {
+        if (recentKey == key) {
+            return;
+        }
+        recentKey = key;
+        PrayerTable.fileFor(dir, locationId, year).setLastModified(System.currentTimeMillis());
+    }
+
+    /** Sınırlar aşıldıkça en eski tabloyu siler; yeni yazılanı ve pinlenmiş konumu korur */
+    private void evict(long keep) {
+        Iterator<Map.Entry<Long, Long>> it = lru.entrySet().iterator();
+        while ((lru.size() > maxTables || totalBytes > budgetBytes) && it.hasNext()) {
+            Map.Entry<Long, Long> eldest = it.next();
+            long key = eldest.getKey();
+            int locationId = (int) (key >>> 16);
+            if (key == keep || (pinnedLocationId > 0 && locationId == pinnedLocationId)) {
+                continue;
+            }
+            it.remove();
+            totalBytes -= eldest.getValue();
+            openTables.remove(key);
+            metas.remove(key);
+            evictions++;
+            TableMeta.fileFor(dir, locationId, (int) (key & 0xFFFF)).delete();
+            File file = PrayerTable.fileFor(dir, locationId, (int) (key & 0xFFFF));
+            if (!file.delete()) {
+                EventJournal.storageError(EventJournal.STORE_PRAYER_TABLE, EventJournal.STORAGE_DELETE);
+            }
+        }
+    }
+
+    private void forget(long key) {
+        Long bytes = lru.remove(key);
+        if (bytes != null) {
+            totalBytes -= bytes;
+        }
+        openTables.remove(key);
+        metas.remove(key);
+    }
+
+    /** "vakit_<locationId>_<year>.bin" → {locationId, year}; eşleşmezse null */
+    static int[] parseFileName(String name) {
+        if (!name.startsWith("vakit_") || !name.endsWith(".bin")) {
+            return null;
+        }
+        String body = name.substring(6, name.length() - 4);
+        int split = body.lastIndexOf('_');
+        if (split <= 0) {
+            return null;
+        }
+        try {
+            return new int[]{Integer.parseInt(body.substring(0, split)), Integer.parseInt(body.substring(split + 1))};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static long key(int locationId, int year) {
+        return ((long) locationId << 16) | (year & 0xFFFF);
+    }
+}
@@ -0,0 +1,170 @@
+package com.sadeezanvakti.app;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Arka plan yenilemelerinin son çalışmaları: süre, bayt ve sonuç.
+ * En yeni CAPACITY kayıt tutulur; her kayıttan sonra dosyaya yazılır.
+ */
+public final class RefreshHistory {
+
+    public static final String FILE_NAME = "refresh_history.bin";
+    static final int CAPACITY = 32;
+
+    public static final int OUTCOME_SKIPPED = 0;      // tablo güncel, ağa gidilmedi
+    public static final int OUTCOME_NOT_MODIFIED = 1; // 304
+    public static final int OUTCOME_UPDATED = 2;      // yeni veri işlendi
+    public static final int OUTCOME_FAILED = 3;
+    public static final int OUTCOME_NO_LOCATION = 4;  // henüz konum seçilmedi
+    public static final String[] OUTCOME_NAMES = {"skipped", "notModified", "updated", "failed", "noLocation"};
+
+    private static final int MAGIC = 0x48525A45; // "EZRH"
+
+    public static final class Run {
+        public long startedAt;
+        public long durationMs;
+        public int outcome;
+        public int locationId;
+        public int daysChanged;
+        public long bytesDownloaded;
+        public long bytesWritten;
+        public boolean rearmed;
+        public int attempt;        // WorkManager deneme sayısı, 0'dan
+        public String endpoint;    // kazanan kaynak; yoksa null
+        public String error;
+    }
+
+    private final File file;
+    // İlk eleman en eski
+    private final ArrayDeque<Run> runs = new ArrayDeque<>();
+
+    public RefreshHistory(File file) {
+        this.file = file;
+        load();
+    }
+
+    /** Çalışmayı en yeni kayıt olarak ekler ve kaydeder */
+    public synchronized void record(Run run) {
+        runs.addLast(run);
+        while (runs.size() > CAPACITY) {
+            runs.removeFirst();
+        }
+        save();
+    }
+
+    /** En yeni önce */
+    public synchronized List<Run> snapshot() {
+        List<Run> list = new ArrayList<>(runs.size());
+        Iterator<Run> it = runs.descendingIterator();
+        while (it.hasNext()) {
+            list.add(it.next());
+        }
+        return list;
+    }
+
+    /** TableRefresher sonucunun OUTCOME_* kodu */
+    static int outcomeOf(TableRefresher.Outcome outcome) {
+        return outcome.skipped ? OUTCOME_SKIPPED
+            : !outcome.success ? OUTCOME_FAILED
+            : outcome.notModified ? OUTCOME_NOT_MODIFIED
+            : OUTCOME_UPDATED;
+    }
+
+    /** Çalışmanın sonucu; outcome.fetch'teki ilk hata error'a yazılır */
+    static Run from(TableRefresher.Outcome outcome, int locationId, long startedAt) {
+        Run run = new Run();
+        run.startedAt = startedAt;
+        run.locationId = locationId;
+        run.outcome = outcomeOf(outcome);
+        run.daysChanged = outcome.daysChanged;
+        run.bytesDownloaded = outcome.bytesDownloaded;
+        run.bytesWritten = outcome.bytesWritten;
+        run.endpoint = outcome.endpoint;
+        if (!outcome.success && outcome.fetch != null) {
+            for (HedgedFetcher.Attempt attempt : outcome.fetch.attempts) {
+                if (attempt.error != null) {
+                    run.error = attempt.endpoint + ": " + attempt.error;
+                    break;
+                }
+            }
+        }
+        return run;
+    }
+
+    // ============================================================
+    // KALICILIK
+    // ============================================================
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            if (in.readInt() != MAGIC) {
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                Run run = new Run();
+                run.startedAt = in.readLong();
+                run.durationMs = in.readLong();
+                run.outcome = in.readByte();
+                run.locationId = in.readInt();
+                run.daysChanged = in.readInt();
+                run.bytesDownloaded = in.readLong();
+                run.bytesWritten = in.readLong();
+                run.rearmed = in.readBoolean();
+                run.attempt = in.readInt();
+                run.endpoint = in.readBoolean() ? in.readUTF() : null;
+                run.error = in.readBoolean() ? in.readUTF() : null;
+                runs.addLast(run);
+            }
+        } catch (IOException e) {
+            EventJournal.storageError(EventJournal.STORE_REFRESH_HISTORY, EventJournal.STORAGE_READ);
+        }
+    }
+
+    private void save() {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(tmp))) {
+            out.writeInt(MAGIC);
+            out.writeInt(runs.size());
+            for (Run run : runs) {
+                out.writeLong(run.startedAt);
+                out.writeLong(run.durationMs);
+                out.writeByte(run.outcome);
+                out.writeInt(run.locationId);
+                out.writeInt(run.daysChanged);
+                out.writeLong(run.bytesDownloaded);
+                out.writeLong(run.bytesWritten);
+                out.writeBoolean(run.rearmed);
+                out.writeInt(run.attempt);
+                writeOptional(out, run.endpoint);
+                writeOptional(out, run.error);
+            }
+        } catch (IOException e) {
+            EventJournal.storageError(EventJournal.STORE_REFRESH_HISTORY, EventJournal.STORAGE_WRITE);
+            tmp.delete();
+            return;
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+        }
+    }
+
+    private static void writeOptional(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.sadeezanvakti.app;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vakit tablosunun arka plan yenilemesini WorkManager'a kurar.
+ *
+ * WorkManager kısıtları "ve" ile birleşir; "şarjda veya ücretsiz Wi-Fi'da" için iki
+ * periyodik iş kurulur. Hangisi önce çalışırsa yeniler, diğeri tabloyu güncel bulur
+ * ve ağa gitmeden biter (TableRefresher). İlk çalışma periyot içinde rastgele
+ * ertelenir; böylece cihazlar kaynaklara aynı anda gitmez.
+ */
+public final class RefreshScheduler {
+
+    public static final String PREFS_NAME = "ezan_refresh";
+
+    static final String KEY_LOCATION_ID = "locationId";
+    static final String KEY_ILCE_ID = "ilceId";
+    static final String KEY_CITY_SLUG = "citySlug";
+
+    static final String WORK_CHARGING = "ezan_table_refresh_charging";
+    static final String WORK_UNMETERED = "ezan_table_refresh_unmetered";
+    static final String TAG = "ezan_table_refresh";
+
+    static final long INTERVAL_HOURS = 12;
+    static final long FLEX_HOURS = 3;
+    static final long BACKOFF_MINUTES = 30;
+
+    private static RefreshHistory history;
+
+    private RefreshScheduler() {
+    }
+
+    static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    static synchronized RefreshHistory history(Context context) {
+        if (history == null) {
+            history = new RefreshHistory(
+                new File(context.getApplicationContext().getFilesDir(), RefreshHistory.FILE_NAME));
+        }
+        return history;
+    }
+
+    /**
+     * Yenilenecek konumu ve kaynak parametrelerini kaydeder, işleri kurar.
+     * Uygulama her yeni indirmede çağırır; işler zaten kuruluysa dokunulmaz.
+     */
+    public static void remember(Context context, int locationId, String ilceId, String citySlug) {
+        prefs(context).edit()
+            .putInt(KEY_LOCATION_ID, locationId)
+            .putString(KEY_ILCE_ID, ilceId)
+            .putString(KEY_CITY_SLUG, citySlug)
+            .apply();
+        schedule(context);
+    }
+
+    public static void schedule(Context context) {
+        WorkManager workManager = WorkManager.getInstance(context.getApplicationContext());
+        Random random = new Random();
+        // KEEP: yeniden kurulumda sıra ve gecikme korunur, periyot sıfırlanmaz
+        workManager.enqueueUniquePeriodicWork(WORK_CHARGING, ExistingPeriodicWorkPolicy.KEEP,
+            request(chargingConstraints(), jitterMs(random)));
+        workManager.enqueueUniquePeriodicWork(WORK_UNMETERED, ExistingPeriodicWorkPolicy.KEEP,
+            request(unmeteredConstraints(), jitterMs(random)));
+    }
+
+    public static void cancel(Context context) {
+        WorkManager.getInstance(context.getApplicationContext()).cancelAllWorkByTag(TAG);
+    }
+
+    static Constraints chargingConstraints() {
+        return new Constraints.Builder()
+            .setRequiredNetworkType(NetworkType.CONNECTED)
+            .setRequiresCharging(true)
+            .build();
+    }
+
+    static Constraints unmeteredConstraints() {
+        return new Constraints.Builder()
+            .setRequiredNetworkType(NetworkType.UNMETERED)
+            .setRequiresBatteryNotLow(true)
+            .build();
+    }
+
+    static PeriodicWorkRequest request(Constraints constraints, long jitterMs) {
+        return new PeriodicWorkRequest.Builder(TableRefreshWorker.class,
+                INTERVAL_HOURS, TimeUnit.HOURS, FLEX_HOURS, TimeUnit.HOURS)
+            .setConstraints(constraints)
+            .setInitialDelay(jitterMs, TimeUnit.MILLISECONDS)
+            .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BACKOFF_MINUTES, TimeUnit.MINUTES)
+            .addTag(TAG)
+            .build();
+    }
+
+    /** [0, INTERVAL) aralığında düzgün dağılmış ilk gecikme */
+    static long jitterMs(Random random) {
+        return (long) (random.nextDouble() * TimeUnit.HOURS.toMillis(INTERVAL_HOURS));
+    }
+
+    static int locationId(Context context) {
+        return prefs(context).getInt(KEY_LOCATION_ID, 0);
+    }
+
+    static List<HedgedFetcher.Endpoint> endpoints(Context context) {
+        SharedPreferences prefs = prefs(context);
+        if (!prefs.contains(KEY_LOCATION_ID)) {
+            return Collections.emptyList();
+        }
+        return PrayerFetchPlugin.endpointsFor(prefs.getString(KEY_ILCE_ID, null), prefs.getString(KEY_CITY_SLUG, null));
+    }
+}
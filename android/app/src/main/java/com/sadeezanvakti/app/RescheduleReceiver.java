@@ -0,0 +1,70 @@
+package com.sadeezanvakti.app;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Process;
+import android.os.SystemClock;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Yeniden başlatma, saat/saat dilimi değişimi ve güncelleme sonrası alarmları
+ * kalıcı yerel durumdan yeniden kurar: yuvarlanan alarm ve AlarmRegistry'deki
+ * gelecek kayıtlar. MainActivity, köprü veya WebView açılmaz; iş goAsync() ile
+ * tek bir arka plan iş parçacığında yapılır.
+ */
+public class RescheduleReceiver extends BroadcastReceiver {
+
+    // Soğuk süreçte hedeflenen üst sınır; aşılırsa günlükte işaretlenir
+    static final long BUDGET_MS = 50;
+
+    private static ExecutorService executor;
+
+    private static synchronized ExecutorService executor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "EzanReschedule"));
+        }
+        return executor;
+    }
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        String action = intent.getAction();
+        if (!isRescheduleAction(action)) {
+            return;
+        }
+
+        long receivedAt = SystemClock.uptimeMillis();
+        long sinceProcessStart = receivedAt - Process.getStartUptimeMillis();
+        Context appContext = context.getApplicationContext();
+        EventJournal.init(appContext.getFilesDir());
+        PendingResult pendingResult = goAsync();
+
+        executor().execute(() -> {
+            try {
+                NativeAlarmScheduler.rearm(appContext);
+                // Kayıtlı alarmlar (DirectAlarm, AlarmManager eklentisi) yeniden başlatmada silinmiştir
+                AlarmCore.get(appContext).restore(System.currentTimeMillis());
+                long elapsed = SystemClock.uptimeMillis() - receivedAt;
+                // Bütçe aşımı uyarı; değer süreç başlangıcından geçen süre
+                EventJournal.log(elapsed > BUDGET_MS ? EventJournal.WARN : EventJournal.INFO,
+                    EventJournal.RESCHEDULED, EventJournal.NO_PRAYER, (int) elapsed, sinceProcessStart + elapsed,
+                    Intent.ACTION_BOOT_COMPLETED.equals(action) ? 0 : 1);
+                // Geri sayım tabanı ve sınır alarmı da duvar saatine bağlıdır; alarm bütçesine sayılmaz
+                PrayerCountdown.refresh(appContext);
+            } catch (Exception e) {
+                EventJournal.log(EventJournal.ERROR, EventJournal.SCHEDULE_ERROR, EventJournal.NO_PRAYER);
+            } finally {
+                pendingResult.finish();
+            }
+        });
+    }
+
+    static boolean isRescheduleAction(String action) {
+        return Intent.ACTION_BOOT_COMPLETED.equals(action)
+            || Intent.ACTION_TIME_CHANGED.equals(action)
+            || Intent.ACTION_TIMEZONE_CHANGED.equals(action)
+            || Intent.ACTION_MY_PACKAGE_REPLACED.equals(action);
+    }
+}
@@ -0,0 +1,93 @@
+package com.sadeezanvakti.app;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Soğuk başlangıç izi: ana arayüz (Capacitor köprüsü + WebView) ile yalnız yerel
+ * alarm yolunun (AlarmActivity, köprü yok) karşılaştırması.
+ *
+ * Her soğuk açılış EventJournal'a STARTUP olarak yazılır: süre = süreç başından ilk
+ * kareye, değer = o andaki PSS (KB), ek = yol. summarize günlükten yol başına medyanı
+ * çıkarır; kayıtlar süreçler arası kalıcı olduğundan karşılaştırma cihaz yeniden
+ * başlasa da sürer.
+ */
+public final class StartupTrace {
+
+    public static final int PATH_UI = 0;     // MainActivity, köprü ve WebView
+    public static final int PATH_ALARM = 1;  // AlarmActivity, köprü yüklenmez
+
+    public static final String[] PATH_NAMES = {"ui", "alarm"};
+
+    // Süreç bu açılış için başlatıldıysa soğuk sayılır; alarm yolunda önce alıcı çalışır
+    static final long COLD_WINDOW_MS = 5_000;
+
+    private static boolean activityCreated;
+
+    public static final class Summary {
+        public final int path;
+        public final int count;
+        public final long p50Ms;
+        public final long maxMs;
+        public final long p50PssKb;
+
+        Summary(int path, int count, long p50Ms, long maxMs, long p50PssKb) {
+            this.path = path;
+            this.count = count;
+            this.p50Ms = p50Ms;
+            this.maxMs = maxMs;
+            this.p50PssKb = p50PssKb;
+        }
+    }
+
+    private StartupTrace() {
+    }
+
+    /**
+     * Etkinlik onCreate başında çağırır. Süreçteki ilk etkinlikse ve süreç son
+     * COLD_WINDOW_MS içinde başladıysa true; süreç başına en fazla bir kez true döner.
+     */
+    public static synchronized boolean claimColdLaunch(long processStartUptimeMs, long createdUptimeMs) {
+        boolean first = !activityCreated;
+        activityCreated = true;
+        return first && createdUptimeMs - processStartUptimeMs < COLD_WINDOW_MS;
+    }
+
+    /** Soğuk açılışı günlüğe yazar; pssKb ölçülemediyse 0 */
+    public static void record(int path, long sinceProcessStartMs, long pssKb) {
+        EventJournal.log(EventJournal.INFO, EventJournal.STARTUP, EventJournal.NO_PRAYER,
+            (int) sinceProcessStartMs, pssKb, path);
+    }
+
+    /** Günlük kayıtlarından yol başına özet, PATH_NAMES sırasıyla; kaydı olmayan yolun count'u 0 */
+    public static Summary[] summarize(List<EventJournal.Entry> entries) {
+        Summary[] summaries = new Summary[PATH_NAMES.length];
+        for (int path = 0; path < PATH_NAMES.length; path++) {
+            int count = 0;
+            for (EventJournal.Entry entry : entries) {
+                if (entry.type == EventJournal.STARTUP && entry.arg == path) {
+                    count++;
+                }
+            }
+            long[] durations = new long[count];
+            long[] pss = new long[count];
+            int i = 0;
+            for (EventJournal.Entry entry : entries) {
+                if (entry.type == EventJournal.STARTUP && entry.arg == path) {
+                    durations[i] = entry.durationMs;
+                    pss[i] = entry.value;
+                    i++;
+                }
+            }
+            Arrays.sort(durations);
+            Arrays.sort(pss);
+            summaries[path] = new Summary(path, count, median(durations),
+                count > 0 ? durations[count - 1] : 0, median(pss));
+        }
+        return summaries;
+    }
+
+    private static long median(long[] sorted) {
+        return sorted.length == 0 ? 0 : sorted[(sorted.length - 1) / 2];
+    }
+}
@@ -0,0 +1,57 @@
+package com.sadeezanvakti.app;
+
+import java.util.TimeZone;
+
+/**
+ * Önce ikili Diyanet tablosuna bakar; tablo yoksa ve konum biliniyorsa
+ * vakitleri PrayerTimeCalculator ile hesaplar.
+ */
+public class StorePrayerTimesSource implements PrayerTimesSource {
+
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+
+    private final PrayerTableStore store;
+    private final int locationId;
+    private final TimeZone timeZone;
+    private final PrayerTimeCalculator calculator;
+
+    private final int[] civil = new int[3];
+
+    /** calculator null olabilir; o zaman yalnızca tablo kullanılır */
+    public StorePrayerTimesSource(PrayerTableStore store, int locationId, TimeZone timeZone,
+                                  PrayerTimeCalculator calculator) {
+        this.store = store;
+        this.locationId = locationId;
+        this.timeZone = timeZone;
+        this.calculator = calculator;
+    }
+
+    @Override
+    public boolean getDay(long epochDay, int[] out) {
+        PrayerTimeCalculator.civilFromEpochDay(epochDay, civil);
+        if (store != null && locationId > 0) {
+            PrayerTable table = store.get(locationId, civil[0]);
+            if (table != null) {
+                int dayOfYear = (int) (epochDay - PrayerTimeCalculator.epochDay(civil[0], 1, 1));
+                if (table.hasDay(dayOfYear)) {
+                    table.readDay(dayOfYear, out, 0);
+                    for (int i = 0; i < PrayerTimeCalculator.PRAYER_COUNT; i++) {
+                        out[i] = localToEpochMinute(epochDay, out[i]);
+                    }
+                    return true;
+                }
+            }
+        }
+        if (calculator != null) {
+            calculator.computeDay(epochDay, out, 0);
+            return true;
+        }
+        return false;
+    }
+
+    /** Yerel gün + gün içi dakikayı, yaz saati dahil, UTC epoch-dakikaya çevirir */
+    private int localToEpochMinute(long epochDay, int minuteOfDay) {
+        long utcMillis = NextPrayerIndex.localToEpochMillis(epochDay, minuteOfDay, timeZone);
+        return (int) Math.floorDiv(utcMillis, MILLIS_PER_MINUTE);
+    }
+}
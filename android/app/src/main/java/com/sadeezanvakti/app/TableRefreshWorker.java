@@ -0,0 +1,85 @@
+package com.sadeezanvakti.app;
+
+import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * RefreshScheduler'ın kurduğu periyodik iş. Kayıtlı konumun tablosunu yeniler,
+ * değişen gün varsa yerel alarmı yeni veriden yeniden kurar ve çalışmayı
+ * RefreshHistory'ye yazar. WebView veya köprü açılmaz.
+ */
+public class TableRefreshWorker extends Worker {
+
+    // Bu kadar başarısız denemeden sonra bir sonraki periyoda kalır
+    static final int MAX_ATTEMPTS = 3;
+
+    private final TableRefresher refresher;
+    private final List<HedgedFetcher.Endpoint> endpoints;
+
+    public TableRefreshWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        this(context, params, null, null);
+    }
+
+    /** Testler için: refresher ve endpoints null ise kalıcı ayarlardan kurulur */
+    TableRefreshWorker(Context context, WorkerParameters params,
+                       TableRefresher refresher, List<HedgedFetcher.Endpoint> endpoints) {
+        super(context, params);
+        this.refresher = refresher;
+        this.endpoints = endpoints;
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        long startedAt = System.currentTimeMillis();
+        long start = System.nanoTime();
+        int locationId = RefreshScheduler.locationId(context);
+        List<HedgedFetcher.Endpoint> targets = endpoints != null ? endpoints : RefreshScheduler.endpoints(context);
+
+        RefreshHistory.Run run;
+        if (locationId <= 0 || targets.isEmpty()) {
+            run = new RefreshHistory.Run();
+            run.startedAt = startedAt;
+            run.outcome = RefreshHistory.OUTCOME_NO_LOCATION;
+        } else {
+            try {
+                TableRefresher.Outcome outcome = (refresher != null ? refresher : PrayerFetchPlugin.refresher(context))
+                    .refresh(locationId, targets, AlarmRegistry.localEpochDay(startedAt, TimeZone.getDefault()),
+                        startedAt, false);
+                run = RefreshHistory.from(outcome, locationId, startedAt);
+                if (outcome.daysChanged > 0) {
+                    // Alarm, eski tablodan kurulmuş olabilir
+                    NativeAlarmScheduler.rearm(context);
+                    run.rearmed = true;
+                }
+            } catch (InterruptedException e) {
+                // WorkManager işi durdurdu (kısıt kalktı); kayıt tutulmaz
+                Thread.currentThread().interrupt();
+                return Result.retry();
+            } catch (Exception e) {
+                run = new RefreshHistory.Run();
+                run.startedAt = startedAt;
+                run.locationId = locationId;
+                run.outcome = RefreshHistory.OUTCOME_FAILED;
+                run.error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            }
+        }
+        run.durationMs = (System.nanoTime() - start) / 1_000_000;
+        run.attempt = getRunAttemptCount();
+        RefreshScheduler.history(context).record(run);
+
+        EventJournal.init(context.getFilesDir());
+        EventJournal.log(run.outcome == RefreshHistory.OUTCOME_FAILED ? EventJournal.WARN : EventJournal.INFO,
+            EventJournal.TABLE_REFRESH, EventJournal.NO_PRAYER, (int) run.durationMs, run.bytesDownloaded, run.outcome);
+
+        if (run.outcome == RefreshHistory.OUTCOME_FAILED) {
+            return getRunAttemptCount() + 1 < MAX_ATTEMPTS ? Result.retry() : Result.failure();
+        }
+        return Result.success();
+    }
+}
@@ -0,0 +1,91 @@
+package com.sadeezanvakti.app;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Yerel tabloyu gerektiği kadar yeniler.
+ *
+ * Önümüzdeki günler tabloda varsa ve ayları yakın zamanda doğrulandıysa ağa hiç
+ * gidilmez. Aksi halde kaynaklar yarıştırılır (koşullu istekle); 304 yanıtı yalnızca
+ * doğrulama zamanını günceller, yeni veri ise tabloya yerinde yamanır. 304'e rağmen
+ * pencerede eksik gün kalırsa doğrulayıcılar silinip bir kez koşulsuz istenir.
+ */
+public class TableRefresher {
+
+    /** Yenilemenin baktığı pencere: bugünden itibaren */
+    public static final int WINDOW_DAYS = 30;
+    /** Bu süreden eski doğrulama bayat sayılır */
+    public static final long MAX_AGE_MS = 7L * 24 * 60 * 60 * 1000;
+
+    public static final class Outcome {
+        public boolean skipped;
+        public boolean success;
+        public boolean notModified;
+        public String endpoint;
+        public int days;
+        public int daysChanged;
+        public long bytesWritten;
+        public long bytesDownloaded;
+        public long elapsedMs;
+        public HedgedFetcher.Result fetch; // atlandıysa null
+    }
+
+    private final PrayerTableStore store;
+    private final HedgedFetcher fetcher;
+    private final HttpValidators validators;
+
+    /** validators, fetcher'a verilenle aynı olmalı (yoksa null) */
+    public TableRefresher(PrayerTableStore store, HedgedFetcher fetcher, HttpValidators validators) {
+        this.store = store;
+        this.fetcher = fetcher;
+        this.validators = validators;
+    }
+
+    public Outcome refresh(int locationId, List<HedgedFetcher.Endpoint> endpoints,
+                           long todayEpochDay, long now, boolean force)
+            throws IOException, InterruptedException {
+        Outcome outcome = new Outcome();
+        if (!force && !store.needsRefresh(locationId, todayEpochDay, WINDOW_DAYS, now, MAX_AGE_MS)) {
+            outcome.skipped = true;
+            outcome.success = true;
+            return outcome;
+        }
+
+        HedgedFetcher.Result result = fetch(outcome, endpoints, locationId);
+        if (result.notModified) {
+            outcome.bytesWritten += store.markVerified(locationId, todayEpochDay, WINDOW_DAYS, now);
+            if (validators != null && store.needsRefresh(locationId, todayEpochDay, WINDOW_DAYS, now, MAX_AGE_MS)) {
+                // Sunucudaki sürüm bizde yok (ör. tablo silinmiş); koşulsuz yeniden iste
+                for (HedgedFetcher.Endpoint endpoint : endpoints) {
+                    validators.put(endpoint.url, null, null);
+                }
+                result = fetch(outcome, endpoints, locationId);
+            }
+        }
+        if (!result.isSuccess()) {
+            return outcome;
+        }
+
+        outcome.endpoint = result.winner.name;
+        if (result.notModified) {
+            outcome.notModified = true;
+        } else {
+            PrayerTableStore.CommitResult commit = store.commit(result.batch, now);
+            outcome.days = commit.days;
+            outcome.daysChanged = commit.daysChanged;
+            outcome.bytesWritten += commit.bytesWritten;
+        }
+        return outcome;
+    }
+
+    private HedgedFetcher.Result fetch(Outcome outcome, List<HedgedFetcher.Endpoint> endpoints, int locationId)
+            throws InterruptedException {
+        HedgedFetcher.Result result = fetcher.fetch(endpoints, locationId);
+        outcome.fetch = result;
+        outcome.success = result.isSuccess();
+        outcome.elapsedMs += result.elapsedMs;
+        outcome.bytesDownloaded += result.bytesDownloaded();
+        return result;
+    }
+}
@@ -0,0 +1,159 @@
+package com.sadeezanvakti.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Alarm wake lock tutuşlarının küçük halka tamponu.
+ *
+ * Her tutuş alındığında "açık" olarak diske yazılır. Bırakılınca süre ve yol
+ * (normal / zaman aşımı) işlenir. Süreç arada öldürülürse kayıt açık kalır; bir
+ * sonraki yüklemede "killed" olarak kapatılır ve süre tavan kabul edilir.
+ */
+public final class WakeLockLedger {
+
+    public static final int PATH_OPEN = 0;
+    public static final int PATH_NORMAL = 1;
+    public static final int PATH_TIMEOUT = 2;
+    public static final int PATH_KILLED = 3;
+
+    public static final String[] PATH_NAMES = {"open", "normal", "timeout", "killed"};
+
+    public static final String FILE_NAME = "wakelock_ledger.bin";
+    public static final int CAPACITY = 32;
+
+    private static final int MAGIC = 0x4B575A45; // "EZWK"
+    private static final int HEADER_SIZE = 12;
+    private static final int RECORD_SIZE = 24;
+
+    public static final class Record {
+        public final long acquiredAt;
+        public final int prayer;
+        public long holdMs = -1;
+        public int path = PATH_OPEN;
+
+        Record(long acquiredAt, int prayer) {
+            this.acquiredAt = acquiredAt;
+            this.prayer = prayer;
+        }
+    }
+
+    private final File file;
+    private final long ceilingMs;
+    private final Record[] ring = new Record[CAPACITY];
+    private int count;
+
+    public WakeLockLedger(File file, long ceilingMs) {
+        this.file = file;
+        this.ceilingMs = ceilingMs;
+        load();
+    }
+
+    /** Yeni tutuşu açık olarak kaydeder; dönen kayıt release'e verilir */
+    public synchronized Record open(long now, int prayer) {
+        Record record = new Record(now, prayer);
+        ring[count++ % CAPACITY] = record;
+        persist();
+        return record;
+    }
+
+    /** Kaydı kapatır; zaten kapalıysa false (ör. zaman aşımından sonra geç gelen ilk kare) */
+    public synchronized boolean close(Record record, long now, int path) {
+        if (record.path != PATH_OPEN) {
+            return false;
+        }
+        record.holdMs = Math.max(0, Math.min(now - record.acquiredAt, ceilingMs));
+        record.path = path;
+        persist();
+        return true;
+    }
+
+    /** Eskiden yeniye kayıtlar */
+    public synchronized List<Record> records() {
+        int size = Math.min(count, CAPACITY);
+        List<Record> list = new ArrayList<>(size);
+        for (int i = count - size; i < count; i++) {
+            list.add(ring[i % CAPACITY]);
+        }
+        return list;
+    }
+
+    // ============================================================
+    // KALICILIK
+    // ============================================================
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        boolean recovered = false;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+                // tamamını oku
+            }
+            buffer.flip();
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+                return;
+            }
+            int stored = buffer.getInt();
+            buffer.getInt(); // ayrılmış
+            for (int i = 0; i < stored && buffer.remaining() >= RECORD_SIZE; i++) {
+                Record record = new Record(buffer.getLong(), buffer.get());
+                record.path = buffer.get();
+                buffer.getShort();
+                record.holdMs = buffer.getLong();
+                buffer.getInt();
+                if (record.path == PATH_OPEN) {
+                    // Önceki süreç bırakamadan öldü; çekirdek kilidi en geç tavanda bıraktı
+                    record.path = PATH_KILLED;
+                    record.holdMs = ceilingMs;
+                    recovered = true;
+                }
+                ring[count++ % CAPACITY] = record;
+            }
+        } catch (IOException e) {
+            EventJournal.storageError(EventJournal.STORE_WAKE_LOCK_LEDGER, EventJournal.STORAGE_READ);
+        }
+        if (recovered) {
+            persist();
+        }
+    }
+
+    private void persist() {
+        List<Record> list = records();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + list.size() * RECORD_SIZE)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(list.size()).putInt(0);
+        for (Record record : list) {
+            buffer.putLong(record.acquiredAt);
+            buffer.put((byte) record.prayer);
+            buffer.put((byte) record.path);
+            buffer.putShort((short) 0);
+            buffer.putLong(record.holdMs);
+            buffer.putInt(0);
+        }
+        buffer.flip();
+        File tmp = new File(file.getPath() + ".tmp");
+        try (RandomAccessFile raf = new RandomAccessFile(tmp, "rw");
+             FileChannel channel = raf.getChannel()) {
+            channel.truncate(0);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            EventJournal.storageError(EventJournal.STORE_WAKE_LOCK_LEDGER, EventJournal.STORAGE_WRITE);
+            return;
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.sadeezanvakti.app;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AlarmSessionTest {
+
+    private static final long NOW = 1_770_000_000_000L;
+    private static final long DAY = PrayerTimeCalculator.epochDay(2026, 2, 1);
+    private static final int KEY = FireGate.keyOf(DAY, PrayerTimeCalculator.OGLE, AlarmRegistry.KIND_EXACT);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file() {
+        return new File(folder.getRoot(), AlarmSession.FILE_NAME);
+    }
+
+    private AlarmSession ringing() {
+        AlarmSession session = new AlarmSession(file());
+        session.ring(PrayerTimeCalculator.OGLE, AlarmRegistry.KIND_EXACT, DAY, KEY, NOW);
+        return session;
+    }
+
+    @Test
+    public void snooze_thenReRing_thenDismiss_accumulatesRingTime() {
+        AlarmSession session = ringing();
+        assertEquals(AlarmSession.STATE_RINGING, session.state());
+        assertEquals(NOW + AlarmSession.RING_MS, session.ringDeadline());
+
+        long ringAt = session.snooze(NOW + 20_000);
+        assertEquals(NOW + 20_000 + AlarmSession.SNOOZE_MS, ringAt);
+        assertEquals(AlarmSession.STATE_SNOOZED, session.state());
+        assertEquals(1, session.snoozeCount());
+
+        assertTrue(session.reRing(KEY, ringAt + 300));
+        assertEquals(AlarmSession.STATE_RINGING, session.state());
+        // Yeniden çalış süreyi baştan başlatır
+        assertEquals(ringAt + 300 + AlarmSession.RING_MS, session.ringDeadline());
+
+        assertTrue(session.dismiss(ringAt + 10_300));
+        assertEquals(AlarmSession.STATE_DISMISSED, session.state());
+        assertEquals(30_000, session.totalRingMs());
+        assertFalse(session.dismiss(ringAt + 20_000));
+    }
+
+    @Test
+    public void reRing_onlyOnceAndOnlyForSameAlarm() {
+        AlarmSession session = ringing();
+        long ringAt = session.snooze(NOW + 1_000);
+
+        assertFalse(session.reRing(KEY + 4, ringAt));
+        assertTrue(session.reRing(KEY, ringAt));
+        // Yinelenen erteleme yayını
+        assertFalse(session.reRing(KEY, ringAt + 50));
+
+        // Ertelemedeyken yeni vakit geldi; eski erteleme yok sayılır
+        session.snooze(ringAt + 1_000);
+        int other = FireGate.keyOf(DAY, PrayerTimeCalculator.IKINDI, AlarmRegistry.KIND_EXACT);
+        session.ring(PrayerTimeCalculator.IKINDI, AlarmRegistry.KIND_EXACT, DAY, other, ringAt + 2_000);
+        assertFalse(session.reRing(KEY, ringAt + 1_000 + AlarmSession.SNOOZE_MS));
+        assertEquals(0, session.snoozeCount());
+    }
+
+    @Test
+    public void snooze_limitedToMaxSnoozes() {
+        AlarmSession session = ringing();
+        long now = NOW;
+        for (int i = 0; i < AlarmSession.MAX_SNOOZES; i++) {
+            assertTrue(session.canSnooze());
+            now = session.snooze(now + 1_000);
+            assertTrue(session.reRing(KEY, now));
+        }
+        assertFalse(session.canSnooze());
+        assertEquals(-1, session.snooze(now + 1_000));
+        assertEquals(AlarmSession.STATE_RINGING, session.state());
+    }
+
+    @Test
+    public void timeout_onlyWhileRinging() {
+        AlarmSession session = ringing();
+        session.snooze(NOW + 1_000);
+        assertFalse(session.timeout(NOW + AlarmSession.RING_MS));
+
+        assertTrue(session.reRing(KEY, session.snoozeUntil()));
+        assertTrue(session.timeout(session.ringDeadline()));
+        assertEquals(AlarmSession.STATE_TIMED_OUT, session.state());
+        assertEquals(1_000 + AlarmSession.RING_MS, session.totalRingMs());
+    }
+
+    @Test
+    public void state_survivesReload() {
+        AlarmSession session = ringing();
+        long ringAt = session.snooze(NOW + 5_000);
+
+        // Süreç ertelemede öldürüldü; erteleme alarmı yeni süreçte gelir
+        AlarmSession reloaded = new AlarmSession(file());
+        assertEquals(AlarmSession.STATE_SNOOZED, reloaded.state());
+        assertEquals(PrayerTimeCalculator.OGLE, reloaded.prayer());
+        assertEquals(DAY, reloaded.epochDay());
+        assertEquals(KEY, reloaded.fireKey());
+        assertEquals(ringAt, reloaded.snoozeUntil());
+        assertEquals(1, reloaded.snoozeCount());
+        assertEquals(5_000, reloaded.totalRingMs());
+        assertTrue(reloaded.reRing(KEY, ringAt));
+    }
+
+    @Test
+    public void writes_deferredToWriterInOrder() {
+        List<Runnable> queued = new ArrayList<>();
+        AlarmSession session = new AlarmSession(file(), queued::add);
+        session.ring(PrayerTimeCalculator.OGLE, AlarmRegistry.KIND_EXACT, DAY, KEY, NOW);
+        long ringAt = session.snooze(NOW + 5_000);
+
+        // Geçiş bellekte hemen geçerli, dosya yazılmadı
+        assertEquals(AlarmSession.STATE_SNOOZED, session.state());
+        assertFalse(file().exists());
+
+        for (Runnable write : queued) {
+            write.run();
+        }
+        AlarmSession reloaded = new AlarmSession(file());
+        assertEquals(AlarmSession.STATE_SNOOZED, reloaded.state());
+        assertEquals(ringAt, reloaded.snoozeUntil());
+    }
+
+    @Test
+    public void missingOrCorruptFile_startsIdle() throws Exception {
+        assertEquals(AlarmSession.STATE_IDLE, new AlarmSession(file()).state());
+
+        java.nio.file.Files.write(file().toPath(), new byte[] {1, 2, 3});
+        AlarmSession session = new AlarmSession(file());
+        assertEquals(AlarmSession.STATE_IDLE, session.state());
+        assertFalse(session.canSnooze());
+        assertFalse(session.reRing(FireGate.NO_KEY, NOW));
+    }
+}
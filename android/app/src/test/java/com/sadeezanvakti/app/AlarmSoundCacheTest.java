@@ -0,0 +1,82 @@
+package com.sadeezanvakti.app;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AlarmSoundCacheTest {
+
+    private static final String EZAN_URL = "https://example.invalid/ezan.mp3";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private AlarmSoundCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new AlarmSoundCache(new File(folder.getRoot(), AlarmSoundCache.DIR_NAME));
+    }
+
+    @Test
+    public void store_makesSoundCurrent_untilSourceChanges() throws Exception {
+        String key = AlarmSoundCache.keyFor("ezan", EZAN_URL);
+        assertFalse(cache.isCurrent(key));
+
+        File file = cache.store(key, new ByteArrayInputStream(new byte[4096]));
+        assertEquals(4096, file.length());
+        assertTrue(cache.isCurrent(key));
+        assertFalse(cache.isCurrent(AlarmSoundCache.keyFor("custom", "data:audio/mp3;base64,AAAA")));
+    }
+
+    @Test
+    public void failedCopy_keepsPreviousSound() throws Exception {
+        String key = AlarmSoundCache.keyFor("ezan", EZAN_URL);
+        cache.store(key, new ByteArrayInputStream(new byte[100]));
+
+        InputStream broken = new InputStream() {
+            private int left = 10;
+
+            @Override
+            public int read() throws IOException {
+                if (left-- > 0) {
+                    return 0;
+                }
+                throw new IOException("bağlantı koptu");
+            }
+        };
+        try {
+            cache.store(AlarmSoundCache.keyFor("custom", "x"), broken);
+            fail();
+        } catch (IOException expected) {
+            // beklenen
+        }
+        assertTrue(cache.isCurrent(key));
+        assertEquals(100, cache.soundFile().length());
+    }
+
+    @Test
+    public void emptySource_isRejected() {
+        try {
+            cache.store("ezan", new ByteArrayInputStream(new byte[0]));
+            fail();
+        } catch (IOException expected) {
+            assertNull(cache.soundFile());
+        }
+    }
+
+    @Test
+    public void clear_fallsBackToSystemSound() throws Exception {
+        cache.store(AlarmSoundCache.keyFor("ezan", EZAN_URL), new ByteArrayInputStream(new byte[10]));
+        cache.clear("beep");
+        assertNull(cache.soundFile());
+        assertEquals("beep", cache.currentKey());
+    }
+}
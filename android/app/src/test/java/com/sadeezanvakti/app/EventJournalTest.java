@@ -0,0 +1,102 @@
+package com.sadeezanvakti.app;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class EventJournalTest {
+
+    private static final long NOW = 1_770_000_000_000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void records_surviveReopen() {
+        File file = new File(folder.getRoot(), EventJournal.FILE_NAME);
+        EventJournal journal = new EventJournal(file, 8);
+        journal.append(NOW, EventJournal.INFO, EventJournal.ALARM_FIRED, PrayerTimeCalculator.OGLE,
+            4200, NOW - 4200, 12345);
+        journal.append(NOW + 900, EventJournal.WARN, EventJournal.ACTIVITY_FALLBACK, PrayerTimeCalculator.OGLE,
+            900, 0, 1);
+
+        // Kapatma/flush olmadan yeniden açılış: eşlenmiş sayfalar dosyada
+        List<EventJournal.Entry> entries = new EventJournal(file, 8).snapshot(0, 100);
+        assertEquals(2, entries.size());
+        EventJournal.Entry fired = entries.get(0);
+        assertEquals(0, fired.seq);
+        assertEquals(NOW, fired.timeMs);
+        assertEquals(EventJournal.INFO, fired.level);
+        assertEquals(EventJournal.ALARM_FIRED, fired.type);
+        assertEquals(PrayerTimeCalculator.OGLE, fired.prayer);
+        assertEquals(4200, fired.durationMs);
+        assertEquals(NOW - 4200, fired.value);
+        assertEquals(12345, fired.arg);
+        assertEquals(EventJournal.ACTIVITY_FALLBACK, entries.get(1).type);
+        assertEquals(EventJournal.WARN, entries.get(1).level);
+    }
+
+    @Test
+    public void ring_keepsNewestAndHonoursSinceAndLimit() {
+        EventJournal journal = new EventJournal(new File(folder.getRoot(), EventJournal.FILE_NAME), 8);
+        for (int i = 0; i < 20; i++) {
+            journal.append(NOW + i, EventJournal.INFO, EventJournal.ALARM_SCHEDULED, EventJournal.NO_PRAYER, 0, i, 0);
+        }
+        assertEquals(20, journal.nextSeq());
+
+        List<EventJournal.Entry> all = journal.snapshot(0, 100);
+        assertEquals(8, all.size());
+        assertEquals(12, all.get(0).seq);
+        assertEquals(19, all.get(7).value);
+        assertEquals(EventJournal.NO_PRAYER, all.get(0).prayer);
+
+        assertEquals(3, journal.snapshot(17, 100).size());
+        assertEquals(18, journal.snapshot(17, 2).get(0).seq);
+        assertTrue(journal.snapshot(20, 100).isEmpty());
+        assertTrue(journal.snapshot(99, 100).isEmpty());
+    }
+
+    @Test
+    public void levelGate_dropsBelowLevelAndPersists() throws Exception {
+        File dir = folder.newFolder("files");
+        EventJournal journal = EventJournal.init(dir);
+        journal.clear();
+        try {
+            EventJournal.setLevel(EventJournal.WARN);
+            assertFalse(EventJournal.isEnabled(EventJournal.INFO));
+            EventJournal.log(EventJournal.INFO, EventJournal.ALARM_SCHEDULED, 0);
+            EventJournal.log(EventJournal.ERROR, EventJournal.STORAGE_ERROR, EventJournal.NO_PRAYER);
+            List<EventJournal.Entry> entries = journal.snapshot(0, 100);
+            assertEquals(1, entries.size());
+            assertEquals(EventJournal.STORAGE_ERROR, entries.get(0).type);
+
+            assertEquals(EventJournal.WARN,
+                new EventJournal(new File(dir, EventJournal.FILE_NAME), EventJournal.CAPACITY).storedLevel());
+        } finally {
+            EventJournal.setLevel(EventJournal.INFO);
+        }
+    }
+
+    @Test
+    public void corruptOrResizedFile_startsEmpty() throws Exception {
+        File file = new File(folder.getRoot(), EventJournal.FILE_NAME);
+        Files.write(file.toPath(), new byte[]{1, 2, 3});
+        assertEquals(0, new EventJournal(file, 8).nextSeq());
+
+        EventJournal journal = new EventJournal(file, 8);
+        journal.append(NOW, EventJournal.INFO, EventJournal.APP_STARTED, EventJournal.NO_PRAYER, 0, 0, 0);
+        assertEquals(0, new EventJournal(file, 16).snapshot(0, 100).size());
+    }
+
+    @Test
+    public void prayerOf_mapsKeys() {
+        assertEquals(PrayerTimeCalculator.IMSAK, EventJournal.prayerOf("imsak"));
+        assertEquals(EventJournal.NO_PRAYER, EventJournal.prayerOf("Öğle"));
+        assertEquals(EventJournal.NO_PRAYER, EventJournal.prayerOf(null));
+    }
+}
@@ -0,0 +1,97 @@
+package com.sadeezanvakti.app;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FireGateTest {
+
+    private static final long DAY = PrayerTimeCalculator.epochDay(2024, 6, 10);
+
+    @Test
+    public void claim_allowsEachStageOncePerKey() {
+        FireGate gate = new FireGate(FireGate.WINDOW_MS);
+        int key = FireGate.keyOf(DAY, PrayerTimeCalculator.OGLE, AlarmRegistry.KIND_EXACT);
+
+        assertTrue(gate.claim(key, FireGate.STAGE_SCREEN, 1000));
+        assertTrue(gate.claim(key, FireGate.STAGE_SOUND, 1000));
+        // Tam ekran bildirimi + 500 ms yedek başlatma
+        assertFalse(gate.claim(key, FireGate.STAGE_SCREEN, 1500));
+        assertTrue(gate.alreadyClaimed(key, FireGate.STAGE_SCREEN, 1500));
+        assertFalse(gate.alreadyClaimed(key, FireGate.STAGE_EVENT, 1500));
+
+        assertEquals(2, gate.suppressed(FireGate.STAGE_SCREEN));
+        assertEquals(0, gate.suppressed(FireGate.STAGE_EVENT));
+
+        // Farklı vakit ayrı anahtardır
+        int other = FireGate.keyOf(DAY, PrayerTimeCalculator.IKINDI, AlarmRegistry.KIND_EXACT);
+        assertTrue(gate.claim(other, FireGate.STAGE_SCREEN, 1600));
+    }
+
+    @Test
+    public void claim_expiresAfterWindow() {
+        FireGate gate = new FireGate(60_000);
+        int key = FireGate.keyOf(DAY, PrayerTimeCalculator.AKSAM, AlarmRegistry.KIND_EXACT);
+        assertTrue(gate.claim(key, FireGate.STAGE_FIRED, 0));
+        assertFalse(gate.claim(key, FireGate.STAGE_FIRED, 59_999));
+        assertTrue(gate.claim(key, FireGate.STAGE_FIRED, 60_000));
+    }
+
+    @Test
+    public void testAlarms_scheduledSeparately_eachRing() {
+        FireGate gate = new FireGate(FireGate.WINDOW_MS);
+        long now = 1_770_000_000_000L;
+        // Test düğmesi her seferinde 'ogle' kurar; kayıtlı kimlik aynı günde hep aynıdır
+        int alarmId = AlarmRegistry.alarmId(0, DAY, PrayerTimeCalculator.OGLE, AlarmRegistry.KIND_TEST);
+        int first = FireGate.keyFor(alarmId, DAY, PrayerTimeCalculator.OGLE, AlarmRegistry.KIND_TEST, now + 5_000);
+        assertTrue(gate.claim(first, FireGate.STAGE_FIRED, now + 5_000));
+        // Aynı tetiklenmenin yinelenen yayını bastırılır
+        assertFalse(gate.claim(first, FireGate.STAGE_FIRED, now + 5_200));
+
+        // Pencere içinde ikinci basış: ayrı kurulan alarm çalar
+        int second = FireGate.keyFor(alarmId, DAY, PrayerTimeCalculator.OGLE, AlarmRegistry.KIND_TEST, now + 65_000);
+        assertNotEquals(first, second);
+        assertTrue(gate.claim(second, FireGate.STAGE_FIRED, now + 65_000));
+        assertTrue(gate.claim(second, FireGate.STAGE_SCREEN, now + 65_100));
+        assertEquals(AlarmRegistry.KIND_TEST, second & 3);
+
+        // Planlanan zaman bilinmiyorsa test alarmı kapıdan geçmez
+        assertEquals(FireGate.NO_KEY,
+            FireGate.keyFor(-1, DAY, PrayerTimeCalculator.OGLE, AlarmRegistry.KIND_TEST, 0));
+    }
+
+    @Test
+    public void noKey_isNeverSuppressed() {
+        FireGate gate = new FireGate(FireGate.WINDOW_MS);
+        assertTrue(gate.claim(FireGate.NO_KEY, FireGate.STAGE_SCREEN, 0));
+        assertTrue(gate.claim(FireGate.NO_KEY, FireGate.STAGE_SCREEN, 0));
+        assertFalse(gate.alreadyClaimed(FireGate.NO_KEY, FireGate.STAGE_SCREEN, 0));
+        assertArrayEquals(new long[FireGate.STAGE_NAMES.length], gate.suppressedCounts());
+    }
+
+    @Test
+    public void keyFor_ignoresLocationAndMatchesRollingAlarm() {
+        // Toplu kurulan kayıt (konumlu) ile yuvarlanan alarm (kimliksiz) aynı vakitte çakışır
+        int registered = AlarmRegistry.alarmId(9541, DAY, PrayerTimeCalculator.OGLE, AlarmRegistry.KIND_EXACT);
+        int fromId = FireGate.keyFor(registered, 0, EventJournal.NO_PRAYER, AlarmRegistry.KIND_EXACT, 0);
+        int rolling = FireGate.keyFor(-1, DAY, PrayerTimeCalculator.OGLE, AlarmRegistry.KIND_EXACT, 0);
+        assertEquals(rolling, fromId);
+
+        // Kademeler ayrı anahtardır: ön hatırlatma asıl alarmı bastırmaz
+        assertNotEquals(rolling, FireGate.keyFor(-1, DAY, PrayerTimeCalculator.OGLE, AlarmRegistry.KIND_TEST, 1_000));
+        assertNotEquals(rolling, FireGate.keyFor(-1, DAY, PrayerTimeCalculator.OGLE, AlarmRegistry.KIND_REMINDER, 0));
+        assertEquals(FireGate.NO_KEY,
+            FireGate.keyFor(-1, DAY, EventJournal.NO_PRAYER, AlarmRegistry.KIND_EXACT, 0));
+    }
+
+    @Test
+    public void ring_reusesOldestSlot() {
+        FireGate gate = new FireGate(FireGate.WINDOW_MS);
+        for (int i = 0; i <= FireGate.CAPACITY; i++) {
+            assertTrue(gate.claim(FireGate.keyOf(DAY + i, 0, 0), FireGate.STAGE_FIRED, i));
+        }
+        // İlk anahtar halkadan düştü, son anahtar hâlâ kayıtlı
+        assertTrue(gate.claim(FireGate.keyOf(DAY, 0, 0), FireGate.STAGE_FIRED, 100));
+        assertFalse(gate.claim(FireGate.keyOf(DAY + FireGate.CAPACITY, 0, 0), FireGate.STAGE_FIRED, 100));
+    }
+}
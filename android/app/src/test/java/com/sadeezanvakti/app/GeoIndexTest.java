@@ -0,0 +1,133 @@
+package com.sadeezanvakti.app;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+import org.junit.Test;
+
+public class GeoIndexTest {
+
+    // Gradle birim testleri modül dizininde (android/app) çalışır
+    private static final File SOURCE_CSV = new File("../geo/locations.csv");
+    private static final File BUNDLED_ASSET = new File("src/main/assets/" + GeoIndex.ASSET_PATH);
+
+    private static GeoIndex bundled() throws Exception {
+        return GeoIndex.fromBytes(Files.readAllBytes(BUNDLED_ASSET.toPath()));
+    }
+
+    private static int bruteForce(GeoIndex index, double lat, double lng, int kind) {
+        int best = -1;
+        double bestDistance = Double.MAX_VALUE;
+        for (int i = 0; i < index.size(); i++) {
+            if (kind >= 0 && index.getKind(i) != kind) {
+                continue;
+            }
+            double d = index.distanceKm(i, lat, lng);
+            if (d < bestDistance) {
+                bestDistance = d;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    @Test
+    public void bundledAsset_matchesSourceCsv() throws Exception {
+        byte[] expected;
+        try (Reader reader = new InputStreamReader(new FileInputStream(SOURCE_CSV), StandardCharsets.UTF_8)) {
+            expected = new GeoIndex.Builder().addCsv(reader).build();
+        }
+        assertArrayEquals("locations.bin güncel değil; GeoIndex.main ile yeniden üretin",
+            expected, Files.readAllBytes(BUNDLED_ASSET.toPath()));
+        assertEquals(81, bundled().size());
+    }
+
+    @Test
+    public void nearest_resolvesKnownPoints() throws Exception {
+        GeoIndex index = bundled();
+
+        // Kadıköy -> İstanbul
+        int i = index.nearest(40.9900, 29.0300);
+        assertEquals("İstanbul", index.getName(i));
+        assertEquals(539, index.getId(i));
+        assertEquals(GeoIndex.KIND_CITY, index.getKind(i));
+
+        // Kızılay -> Ankara
+        assertEquals("Ankara", index.getName(index.nearest(39.9208, 32.8541)));
+        // Alsancak -> İzmir
+        assertEquals("İzmir", index.getName(index.nearest(38.4370, 27.1430)));
+    }
+
+    @Test
+    public void nearest_agreesWithBruteForce() throws Exception {
+        GeoIndex.Builder builder = new GeoIndex.Builder();
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            builder.add(36 + random.nextDouble() * 6, 26 + random.nextDouble() * 19, 10_000 + i, 500 + i % 81,
+                i % 5 == 0 ? GeoIndex.KIND_CITY : GeoIndex.KIND_DISTRICT, "ilçe-" + i);
+        }
+        GeoIndex index = GeoIndex.fromBytes(builder.build());
+
+        for (int q = 0; q < 2000; q++) {
+            double lat = 35 + random.nextDouble() * 8;
+            double lng = 25 + random.nextDouble() * 21;
+            assertEquals(bruteForce(index, lat, lng, -1), index.nearest(lat, lng));
+            assertEquals(bruteForce(index, lat, lng, GeoIndex.KIND_CITY),
+                index.nearest(lat, lng, GeoIndex.KIND_CITY));
+        }
+    }
+
+    @Test
+    public void csv_parsesDistrictRowsAndComments() throws Exception {
+        String csv = "# id,cityId,kind,lat,lng,name\n"
+            + "539,539,city,41.0082,28.9784,İstanbul\n"
+            + "9541,539,district,40.9819,29.0576,Kadıköy\n";
+        GeoIndex index = GeoIndex.fromBytes(new GeoIndex.Builder().addCsv(new StringReader(csv)).build());
+
+        int i = index.nearest(40.9900, 29.0500);
+        assertEquals("Kadıköy", index.getName(i));
+        assertEquals(9541, index.getId(i));
+        assertEquals(539, index.getCityId(i));
+        assertEquals(GeoIndex.KIND_DISTRICT, index.getKind(i));
+        assertEquals("İstanbul", index.getName(index.nearest(40.9900, 29.0500, GeoIndex.KIND_CITY)));
+        assertEquals(1.07, index.distanceKm(i, 40.9900, 29.0500), 0.05);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void corruptAsset_isRejected() {
+        GeoIndex.fromBytes(new byte[] {'E', 'Z', 'G', 'X', 1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0});
+    }
+
+    @Test
+    public void query_takesMicroseconds() throws Exception {
+        GeoIndex index = bundled();
+        Random random = new Random(7);
+        int queries = 100_000;
+        double[] lat = new double[queries];
+        double[] lng = new double[queries];
+        for (int i = 0; i < queries; i++) {
+            lat[i] = 36 + random.nextDouble() * 6;
+            lng[i] = 26 + random.nextDouble() * 19;
+        }
+
+        int sink = 0;
+        for (int i = 0; i < queries; i++) {
+            sink += index.nearest(lat[i], lng[i]); // ısınma
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            sink += index.nearest(lat[i], lng[i]);
+        }
+        double perQueryUs = (System.nanoTime() - start) / 1000.0 / queries;
+
+        System.out.println("GeoIndex sorgu: " + String.format("%.2f", perQueryUs) + " µs (" + sink + ")");
+        assertTrue("Sorgu çok yavaş: " + perQueryUs + " µs", perQueryUs < 50);
+    }
+}
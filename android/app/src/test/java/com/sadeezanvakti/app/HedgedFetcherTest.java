@@ -0,0 +1,156 @@
+package com.sadeezanvakti.app;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class HedgedFetcherTest {
+
+    private static final int LOCATION = 9541;
+    private static final long SLOW_MS = 3000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockPrayerServer server;
+    private ExecutorService executor;
+    private EndpointHealth health;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockPrayerServer();
+        executor = Executors.newCachedThreadPool();
+        health = new EndpointHealth(new File(folder.getRoot(), EndpointHealth.FILE_NAME));
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        server.close();
+    }
+
+    private HedgedFetcher fetcher() {
+        return new HedgedFetcher(executor, health, 2000, 5000, 8000);
+    }
+
+    private HedgedFetcher.Endpoint diyanet(String path) {
+        return new HedgedFetcher.Endpoint(path, server.url(path), PrayerJsonStream.Format.DIYANET);
+    }
+
+    private HedgedFetcher.Endpoint proxy(String path) {
+        return new HedgedFetcher.Endpoint(path, server.url(path), PrayerJsonStream.Format.PROXY);
+    }
+
+    /** Diyanet biçiminde Ocak 2026'nın ilk günleri */
+    static String diyanetBody(int days) {
+        StringBuilder json = new StringBuilder("[");
+        for (int d = 1; d <= days; d++) {
+            if (d > 1) {
+                json.append(',');
+            }
+            json.append(String.format(
+                "{\"MiladiTarihKisa\":\"%02d.01.2026\",\"HicriTarihUzun\":\"12 Receb 1447\",\"Imsak\":\"06:4%d\","
+                    + "\"Gunes\":\"08:19\",\"Ogle\":\"13:08\",\"Ikindi\":\"15:26\",\"Aksam\":\"17:47\","
+                    + "\"Yatsi\":\"19:14\",\"GreenwichOrtalamaZamani\":3.0,\"AyinSekliURL\":null}",
+                d, d % 10));
+        }
+        return json.append(']').toString();
+    }
+
+    private static HedgedFetcher.Attempt attempt(HedgedFetcher.Result result, String endpoint) {
+        for (HedgedFetcher.Attempt attempt : result.attempts) {
+            if (attempt.endpoint.equals(endpoint)) {
+                return attempt;
+            }
+        }
+        throw new AssertionError("Deneme yok: " + endpoint);
+    }
+
+    @Test
+    public void slowPrimary_isHedgedAndCancelled() throws Exception {
+        server.respond("/slow", 200, diyanetBody(5), SLOW_MS);
+        server.respond("/fast", 200, diyanetBody(5), 0);
+        health.record("/slow", true, 100); // geçmişte hızlıydı, önce o denenir
+
+        HedgedFetcher.Result result = fetcher().fetch(Arrays.asList(diyanet("/fast"), diyanet("/slow")), LOCATION);
+
+        assertTrue(result.isSuccess());
+        assertEquals("/fast", result.winner.name);
+        assertEquals(5, result.batch.getDayCount());
+        assertEquals(HedgedFetcher.STATUS_CANCELLED, attempt(result, "/slow").status);
+        // Yedek, ilk adayın olağan gecikmesinin iki katında (200 ms) başladı
+        assertTrue(attempt(result, "/fast").startedAtMs >= 150);
+        assertTrue("Yavaş kaynak beklendi: " + result.elapsedMs, result.elapsedMs < SLOW_MS);
+    }
+
+    @Test
+    public void failure_startsNextEndpointWithoutWaiting() throws Exception {
+        server.respond("/down", 503, "", 0);
+        server.respond("/proxy", 200,
+            "[{\"date\":\"01.01.2026\",\"imsak\":\"06:47\",\"gunes\":\"08:19\",\"ogle\":\"13:08\","
+                + "\"ikindi\":\"15:26\",\"aksam\":\"17:47\",\"yatsi\":\"19:14\"}]", 0);
+
+        // Ölçüm yok: kademe gecikmesi üst sınırda (2 s); hata bunu beklemeden geçmeli
+        HedgedFetcher.Result result = fetcher().fetch(Arrays.asList(diyanet("/down"), proxy("/proxy")), LOCATION);
+
+        assertTrue(result.isSuccess());
+        assertEquals("/proxy", result.winner.name);
+        assertEquals(HedgedFetcher.STATUS_FAILED, attempt(result, "/down").status);
+        assertEquals("HTTP 503", attempt(result, "/down").error);
+        assertTrue("Hata sonrası beklendi: " + result.elapsedMs, result.elapsedMs < 1000);
+    }
+
+    @Test
+    public void malformedOrEmptyResponses_fail() throws Exception {
+        server.respond("/garbage", 200, "<html>bakım</html>", 0);
+        server.respond("/empty", 200, "[]", 0);
+
+        HedgedFetcher.Result result = fetcher().fetch(Arrays.asList(diyanet("/garbage"), diyanet("/empty")), LOCATION);
+
+        assertFalse(result.isSuccess());
+        assertEquals(HedgedFetcher.STATUS_FAILED, attempt(result, "/garbage").status);
+        assertEquals(HedgedFetcher.STATUS_FAILED, attempt(result, "/empty").status);
+    }
+
+    @Test
+    public void winner_commitsIntoStore() throws Exception {
+        server.respond("/fast", 200, diyanetBody(31), 0);
+        HedgedFetcher.Result result = fetcher().fetch(Arrays.asList(diyanet("/fast")), LOCATION);
+
+        PrayerTableStore store = new PrayerTableStore(folder.newFolder("vakitler"));
+        assertEquals(31, store.commit(result.batch).days);
+
+        int[] out = new int[PrayerTimeCalculator.PRAYER_COUNT];
+        assertTrue(store.readDay(LOCATION, 2026, 1, 31, out));
+        assertEquals(6 * 60 + 41, out[PrayerTimeCalculator.IMSAK]);
+        assertEquals(PrayerTable.SOURCE_DIYANET, store.get(LOCATION, 2026).getSource());
+    }
+
+    @Test
+    public void health_ordersByHistoryAndPersists() throws Exception {
+        server.respond("/down", 500, "", 0);
+        server.respond("/ok", 200, diyanetBody(1), 0);
+        List<HedgedFetcher.Endpoint> endpoints = Arrays.asList(diyanet("/down"), diyanet("/ok"));
+
+        fetcher().fetch(endpoints, LOCATION);
+        assertEquals(1, server.hits("/down"));
+
+        // Yeniden yüklenen geçmişle sağlıklı kaynak önce denenir, hatalı olana hiç gidilmez
+        health = new EndpointHealth(new File(folder.getRoot(), EndpointHealth.FILE_NAME));
+        assertEquals(Arrays.asList("/ok", "/down"), health.order(Arrays.asList("/down", "/ok")));
+
+        HedgedFetcher.Result result = fetcher().fetch(endpoints, LOCATION);
+        assertEquals("/ok", result.winner.name);
+        assertEquals(HedgedFetcher.STATUS_NOT_STARTED, attempt(result, "/down").status);
+        assertEquals(1, server.hits("/down"));
+    }
+}
@@ -0,0 +1,55 @@
+package com.sadeezanvakti.app;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void buckets_areContiguousAndWithinSixPercent() {
+        int previous = -1;
+        for (long value = 0; value < 1_000_000; value += 1 + value / 50) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(bucket >= previous);
+            assertTrue(value <= LatencyHistogram.upperBound(bucket));
+            assertTrue(LatencyHistogram.upperBound(bucket) - value <= Math.max(1, value / 16));
+            previous = bucket;
+        }
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketOf(LatencyHistogram.MAX_MICROS));
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+        assertEquals(0, LatencyHistogram.bucketOf(-5));
+    }
+
+    @Test
+    public void percentiles_trackUniformSamples() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.record(i);
+        }
+        assertEquals(10_000, histogram.count());
+        assertEquals(10_000, histogram.max());
+        assertEquals(5000.5, histogram.mean(), 1e-9);
+        assertEquals(5000, histogram.percentile(0.50), 5000 / 16);
+        assertEquals(9500, histogram.percentile(0.95), 9500 / 16);
+        assertEquals(9900, histogram.percentile(0.99), 9900 / 16);
+        assertEquals(10_000, histogram.percentile(1.0));
+    }
+
+    @Test
+    public void outlier_isReportedExactlyAsMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(200);
+        }
+        histogram.record(1_234_567);
+        assertEquals(200, histogram.percentile(0.50), 200 / 16);
+        assertEquals(200, histogram.percentile(0.99), 200 / 16);
+        assertEquals(1_234_567, histogram.percentile(1.0));
+        assertEquals(1_234_567, histogram.max());
+
+        histogram.reset();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.percentile(0.5));
+    }
+}
@@ -0,0 +1,100 @@
+package com.sadeezanvakti.app;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Testler için yerel HTTP sunucusu (MockWebServer yerine). Her yol için durum kodu,
+ * gövde ve yapay gecikme verilir; istek sayıları tutulur. ETag verilen yolda eşleşen
+ * If-None-Match isteğine 304 döner.
+ */
+final class MockPrayerServer implements AutoCloseable {
+
+    private static final class Route {
+        final int status;
+        final String body;
+        final long delayMs;
+        final String etag;
+
+        Route(int status, String body, long delayMs, String etag) {
+            this.status = status;
+            this.body = body;
+            this.delayMs = delayMs;
+            this.etag = etag;
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+
+    MockPrayerServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            hits.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+            Route route = routes.get(path);
+            try {
+                if (route == null) {
+                    exchange.sendResponseHeaders(404, -1);
+                    return;
+                }
+                if (route.delayMs > 0) {
+                    Thread.sleep(route.delayMs);
+                }
+                if (route.etag != null) {
+                    if (route.etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                        exchange.sendResponseHeaders(304, -1);
+                        return;
+                    }
+                    exchange.getResponseHeaders().set("ETag", route.etag);
+                }
+                byte[] body = route.body.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(route.status, body.length == 0 ? -1 : body.length);
+                if (body.length > 0) {
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body);
+                    }
+                }
+            } catch (InterruptedException | IOException e) {
+                // istemci bağlantıyı kesti
+            } finally {
+                exchange.close();
+            }
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    void respond(String path, int status, String body, long delayMs) {
+        routes.put(path, new Route(status, body, delayMs, null));
+    }
+
+    void respond(String path, int status, String body, long delayMs, String etag) {
+        routes.put(path, new Route(status, body, delayMs, etag));
+    }
+
+    String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    int hits(String path) {
+        AtomicInteger count = hits.get(path);
+        return count == null ? 0 : count.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
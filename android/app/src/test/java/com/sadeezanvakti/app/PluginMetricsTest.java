@@ -0,0 +1,48 @@
+package com.sadeezanvakti.app;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import org.junit.Test;
+
+public class PluginMetricsTest {
+
+    private static final long START = 1_000_000_000L;
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void methods_keepFirstCallOrderAndSplitWaitFromRun() {
+        PluginMetrics metrics = new PluginMetrics(START);
+        metrics.record("PrayerTable.getDay", START + 800 * MS, START + 801 * MS, START + 803 * MS);
+        metrics.record("DirectAlarm.listPending", START + 900 * MS, START + 950 * MS, START + 960 * MS);
+        metrics.record("PrayerTable.getDay", START + 1000 * MS, START + 1000 * MS, START + 1004 * MS);
+        metrics.rejected("DirectAlarm.listPending", START + 1100 * MS);
+
+        List<PluginMetrics.Method> methods = metrics.snapshot();
+        assertEquals(2, methods.size());
+        PluginMetrics.Method getDay = methods.get(0);
+        assertEquals("PrayerTable.getDay", getDay.name);
+        assertEquals(800, getDay.firstAtMs);
+        assertEquals(2, getDay.run.count());
+        assertEquals(4000, getDay.run.max());
+        assertEquals(1000, getDay.wait.max());
+
+        PluginMetrics.Method listPending = methods.get(1);
+        assertEquals(50_000, listPending.wait.max());
+        assertEquals(10_000, listPending.run.max());
+        assertEquals(1, listPending.rejected());
+    }
+
+    @Test
+    public void dumpLines_areKeyValue() {
+        PluginMetrics metrics = new PluginMetrics(START);
+        metrics.record("GeoIndex.nearest", START, START, START + 2 * MS);
+        List<String> lines = metrics.dumpLines();
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0), lines.get(0).startsWith("plugin_metrics method=GeoIndex.nearest n=1 p50_us=2000 "));
+        assertTrue(lines.get(0), lines.get(0).endsWith(" rejected=0 first_ms=0"));
+
+        metrics.reset();
+        assertTrue(metrics.dumpLines().get(0).contains(" n=0 "));
+    }
+}
@@ -0,0 +1,66 @@
+package com.sadeezanvakti.app;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import org.junit.Test;
+
+public class PrayerJsonStreamTest {
+
+    private static PrayerTableStore.Batch batch() {
+        return new PrayerTableStore.Batch(9541, PrayerTable.SOURCE_DIYANET);
+    }
+
+    @Test
+    public void diyanetResponse_skipsUnknownAndNestedFields() throws Exception {
+        String json = " [ {\"IlceAdi\":\"KAD\\u0130K\\u00d6Y\",\"MiladiTarihKisa\":\"13.02.2026\","
+            + "\"Extra\":{\"a\":[1,2,{\"b\":true}],\"c\":\"x\\\"y\"},"
+            + "\"Imsak\":\"06:10\",\"Gunes\":\"07:35\",\"Ogle\":\"13:18\",\"Ikindi\":\"16:14\","
+            + "\"Aksam\":\"18:50\",\"Yatsi\":\"20:09\",\"GreenwichOrtalamaZamani\":-3.5e0,\"Kible\":null} ]";
+
+        PrayerTableStore.Batch out = batch();
+        assertEquals(1, PrayerJsonStream.parse(new StringReader(json), PrayerJsonStream.Format.DIYANET, out));
+        assertEquals(1, out.getDayCount());
+    }
+
+    @Test
+    public void incompleteDays_areDroppedNotFatal() throws Exception {
+        String json = "[{\"date\":\"01.01.2026\",\"imsak\":\"06:47\"},"
+            + "{\"date\":\"bozuk\",\"imsak\":\"06:47\",\"gunes\":\"08:19\",\"ogle\":\"13:08\","
+            + "\"ikindi\":\"15:26\",\"aksam\":\"17:47\",\"yatsi\":\"19:14\"},"
+            + "{\"date\":\"02.01.2026\",\"imsak\":\"06:47\",\"gunes\":\"08:19\",\"ogle\":\"13:08\","
+            + "\"ikindi\":\"15:26\",\"aksam\":\"17:47\",\"yatsi\":\"19:14\"}, 42]";
+
+        PrayerTableStore.Batch out = batch();
+        assertEquals(1, PrayerJsonStream.parse(new StringReader(json), PrayerJsonStream.Format.PROXY, out));
+    }
+
+    @Test
+    public void largeResponse_isReadAcrossBufferBoundaries() throws Exception {
+        // Bir karakterlik parçalarla okuyan akış, tampon sınırlarını zorlar
+        String json = HedgedFetcherTest.diyanetBody(31);
+        Reader trickle = new StringReader(json) {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                return super.read(cbuf, off, Math.min(len, 1));
+            }
+        };
+        PrayerTableStore.Batch out = batch();
+        assertEquals(31, PrayerJsonStream.parse(trickle, PrayerJsonStream.Format.DIYANET, out));
+    }
+
+    @Test
+    public void truncatedOrWrongShape_throws() {
+        String[] bad = {"{\"error\":\"bakım\"}", "[{\"MiladiTarihKisa\":\"13.02.2026\"", "<html>", ""};
+        for (String json : bad) {
+            try {
+                PrayerJsonStream.parse(new StringReader(json), PrayerJsonStream.Format.DIYANET, batch());
+                fail("Hata bekleniyordu: " + json);
+            } catch (IOException expected) {
+                // beklenen
+            }
+        }
+    }
+}
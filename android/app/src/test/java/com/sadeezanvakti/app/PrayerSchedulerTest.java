@@ -0,0 +1,216 @@
+package com.sadeezanvakti.app;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.TimeZone;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PrayerSchedulerTest {
+
+    private static final TimeZone ISTANBUL = TimeZone.getTimeZone("Europe/Istanbul");
+    private static final long MINUTE = 60_000L;
+
+    // 13.02.2026 için örnek İstanbul tablosu (yerel saat)
+    private static final int[] DAY_1 = {6 * 60 + 23, 7 * 60 + 50, 13 * 60 + 20, 16 * 60 + 13, 18 * 60 + 40, 20 * 60 + 1};
+    // 14.02.2026
+    private static final int[] DAY_2 = {6 * 60 + 22, 7 * 60 + 49, 13 * 60 + 20, 16 * 60 + 14, 18 * 60 + 41, 20 * 60 + 2};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FakeClock clock;
+    private FakeAlarmManager alarmManager;
+    private PrayerScheduler scheduler;
+
+    @Before
+    public void setUp() throws Exception {
+        File dir = folder.newFolder("vakitler");
+        PrayerTableStore store = new PrayerTableStore(dir);
+        PrayerTable.Builder builder = new PrayerTable.Builder(2026, 9541)
+            .setDay(2, 13, DAY_1)
+            .setDay(2, 14, DAY_2);
+        store.write(9541, builder, 2026);
+
+        clock = new FakeClock();
+        alarmManager = new FakeAlarmManager();
+        scheduler = new PrayerScheduler(
+            new StorePrayerTimesSource(store, 9541, ISTANBUL, null), alarmManager, clock, ISTANBUL);
+    }
+
+    @Test
+    public void schedulesNextPrayerOfToday() {
+        clock.now = local(2026, 2, 13, 12 * 60);
+        assertTrue(scheduler.scheduleNext());
+
+        assertEquals(PrayerTimeCalculator.OGLE, alarmManager.pendingPrayer);
+        assertEquals(local(2026, 2, 13, DAY_1[PrayerTimeCalculator.OGLE]), alarmManager.pendingAt);
+    }
+
+    @Test
+    public void firingRearmsFollowingPrayer_singlePendingIntent() {
+        clock.now = local(2026, 2, 13, 12 * 60);
+        scheduler.scheduleNext();
+
+        // Alarm tetiklendi; AlarmReceiver tetiklenen zamanı verir
+        long firedAt = alarmManager.pendingAt;
+        clock.now = firedAt + 15;
+        scheduler.scheduleNextAfter(firedAt);
+
+        assertEquals(PrayerTimeCalculator.IKINDI, alarmManager.pendingPrayer);
+        assertEquals(1, alarmManager.pendingCount());
+        assertEquals(2, alarmManager.setCalls);
+    }
+
+    @Test
+    public void earlyDelivery_doesNotRearmSamePrayer() {
+        long ogle = local(2026, 2, 13, DAY_1[PrayerTimeCalculator.OGLE]);
+        clock.now = ogle - 200;
+        scheduler.scheduleNextAfter(ogle);
+        assertEquals(PrayerTimeCalculator.IKINDI, alarmManager.pendingPrayer);
+    }
+
+    @Test
+    public void afterYatsi_rollsOverToTomorrowsImsak() {
+        clock.now = local(2026, 2, 13, 21 * 60);
+        assertTrue(scheduler.scheduleNext());
+        assertEquals(PrayerTimeCalculator.IMSAK, alarmManager.pendingPrayer);
+        assertEquals(local(2026, 2, 14, DAY_2[PrayerTimeCalculator.IMSAK]), alarmManager.pendingAt);
+    }
+
+    @Test
+    public void disabledPrayersAreSkipped_andOffsetsApplied() {
+        scheduler.setEnabledMask((1 << PrayerTimeCalculator.AKSAM) | (1 << PrayerTimeCalculator.YATSI));
+        scheduler.setOffsetMinutes(PrayerTimeCalculator.AKSAM, 10);
+        clock.now = local(2026, 2, 13, 12 * 60);
+
+        scheduler.scheduleNext();
+        assertEquals(PrayerTimeCalculator.AKSAM, alarmManager.pendingPrayer);
+        assertEquals(local(2026, 2, 13, DAY_1[PrayerTimeCalculator.AKSAM]) - 10 * MINUTE, alarmManager.pendingAt);
+    }
+
+    @Test
+    public void noData_cancelsPendingAlarm() {
+        clock.now = local(2026, 2, 14, 21 * 60);
+        scheduler.scheduleNext();
+        assertFalse(alarmManager.hasPending());
+        assertEquals(-1, scheduler.getNextTriggerAt());
+    }
+
+    @Test
+    public void missingTable_fallsBackToCalculator() {
+        PrayerScheduler calculated = new PrayerScheduler(
+            new StorePrayerTimesSource(null, 0, ISTANBUL, new PrayerTimeCalculator(41.0082, 28.9784)),
+            alarmManager, clock, ISTANBUL);
+        clock.now = local(2026, 2, 13, 12 * 60);
+        assertTrue(calculated.scheduleNext());
+        assertEquals(PrayerTimeCalculator.OGLE, alarmManager.pendingPrayer);
+        long expected = local(2026, 2, 13, DAY_1[PrayerTimeCalculator.OGLE]);
+        assertTrue(Math.abs(alarmManager.pendingAt - expected) <= 3 * MINUTE);
+    }
+
+    @Test
+    public void tiers_areArmedOneAtATime_inOrder() {
+        scheduler.setEnabledMask(1 << PrayerTimeCalculator.OGLE);
+        scheduler.setOffsetMinutes(PrayerTimeCalculator.OGLE, 5);
+        scheduler.setReminderMinutes(PrayerTimeCalculator.OGLE, 15);
+        scheduler.setFollowUpMinutes(PrayerTimeCalculator.OGLE, 10);
+        long alarm = local(2026, 2, 13, DAY_1[PrayerTimeCalculator.OGLE]) - 5 * MINUTE;
+
+        clock.now = local(2026, 2, 13, 12 * 60);
+        scheduler.scheduleNext();
+        assertEquals(AlarmRegistry.KIND_REMINDER, alarmManager.pendingKind);
+        assertEquals(alarm - 15 * MINUTE, alarmManager.pendingAt);
+
+        scheduler.scheduleNextAfter(alarmManager.pendingAt);
+        assertEquals(AlarmRegistry.KIND_EXACT, alarmManager.pendingKind);
+        assertEquals(alarm, alarmManager.pendingAt);
+
+        scheduler.scheduleNextAfter(alarmManager.pendingAt);
+        assertEquals(AlarmRegistry.KIND_FOLLOW_UP, alarmManager.pendingKind);
+        assertEquals(alarm + 10 * MINUTE, alarmManager.pendingAt);
+
+        // Üç kademe, tek bekleyen alarm
+        assertEquals(1, alarmManager.pendingCount());
+        assertEquals(3, alarmManager.setCalls);
+
+        // Takipten sonra ertesi günün ön hatırlatması
+        scheduler.scheduleNextAfter(alarmManager.pendingAt);
+        assertEquals(AlarmRegistry.KIND_REMINDER, alarmManager.pendingKind);
+        assertEquals(local(2026, 2, 14, DAY_2[PrayerTimeCalculator.OGLE]) - 20 * MINUTE, alarmManager.pendingAt);
+    }
+
+    @Test
+    public void acknowledgedAlarm_skipsFollowUp() {
+        scheduler.setEnabledMask(1 << PrayerTimeCalculator.OGLE | 1 << PrayerTimeCalculator.IKINDI);
+        scheduler.setFollowUpMinutes(PrayerTimeCalculator.OGLE, 10);
+        long ogle = local(2026, 2, 13, DAY_1[PrayerTimeCalculator.OGLE]);
+
+        clock.now = ogle + MINUTE;
+        scheduler.acknowledge(PrayerTimeCalculator.epochDay(2026, 2, 13), PrayerTimeCalculator.OGLE);
+        scheduler.scheduleNext();
+        assertEquals(PrayerTimeCalculator.IKINDI, alarmManager.pendingPrayer);
+        assertEquals(AlarmRegistry.KIND_EXACT, alarmManager.pendingKind);
+    }
+
+    @Test
+    public void reminderBeforeMidnight_forTomorrowsImsak() {
+        // İmsak 06:22, hatırlatma 7 saat önce → bugün 23:22; yatsıdan sonra ilk kademe odur
+        scheduler.setEnabledMask(1 << PrayerTimeCalculator.IMSAK);
+        scheduler.setReminderMinutes(PrayerTimeCalculator.IMSAK, 7 * 60);
+        clock.now = local(2026, 2, 13, 21 * 60);
+        scheduler.scheduleNext();
+        assertEquals(AlarmRegistry.KIND_REMINDER, alarmManager.pendingKind);
+        assertEquals(local(2026, 2, 14, DAY_2[PrayerTimeCalculator.IMSAK]) - 7 * 60 * MINUTE, alarmManager.pendingAt);
+    }
+
+    private static long local(int year, int month, int day, int minuteOfDay) {
+        long localMillis = (PrayerTimeCalculator.epochDay(year, month, day) * 1440 + minuteOfDay) * MINUTE;
+        return localMillis - ISTANBUL.getOffset(localMillis);
+    }
+
+    static final class FakeClock implements PrayerScheduler.Clock {
+        long now;
+
+        @Override
+        public long currentTimeMillis() {
+            return now;
+        }
+    }
+
+    /**
+     * Tek istek kodlu PendingIntent davranışını taklit eder: yeni set eskisinin yerine geçer.
+     */
+    static final class FakeAlarmManager implements PrayerScheduler.AlarmSink {
+        long pendingAt = -1;
+        int pendingPrayer = -1;
+        int pendingKind = -1;
+        int setCalls;
+
+        @Override
+        public void setExact(long triggerAtMillis, int prayer, long epochDay, int kind) {
+            pendingAt = triggerAtMillis;
+            pendingPrayer = prayer;
+            pendingKind = kind;
+            setCalls++;
+        }
+
+        @Override
+        public void cancel() {
+            pendingAt = -1;
+            pendingPrayer = -1;
+            pendingKind = -1;
+        }
+
+        boolean hasPending() {
+            return pendingAt >= 0;
+        }
+
+        int pendingCount() {
+            return hasPending() ? 1 : 0;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.sadeezanvakti.app;
+
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import org.json.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * İkili tablo okumasını App.tsx'teki JSON yoluyla (her gün için tüm önbelleği
+ * yeniden ayrıştırma) karşılaştırır. Süre ve tahsis edilen bellek konsola yazılır.
+ */
+public class PrayerTableBenchmarkTest {
+
+    private static final int LOCATION_ID = 9541;
+    private static final int YEAR = 2024;
+    private static final int JSON_LOOKUPS = 50;
+    private static final int BINARY_LOOKUPS = 100_000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void binaryLookup_isFasterAndAllocatesLessThanJson() throws Exception {
+        String raw = buildYearJson();
+        PrayerTableStore store = new PrayerTableStore(folder.newFolder("vakitler"));
+        assertEquals(366, store.importCache(new JSONObject(raw), LOCATION_ID));
+        PrayerTable table = store.get(LOCATION_ID, YEAR);
+
+        // Isınma
+        long sink = jsonLookups(raw, JSON_LOOKUPS) + binaryLookups(table, BINARY_LOOKUPS);
+
+        long allocStart = allocatedBytes();
+        long start = System.nanoTime();
+        sink += jsonLookups(raw, JSON_LOOKUPS);
+        double jsonNs = (System.nanoTime() - start) / (double) JSON_LOOKUPS;
+        double jsonBytes = (allocatedBytes() - allocStart) / (double) JSON_LOOKUPS;
+
+        allocStart = allocatedBytes();
+        start = System.nanoTime();
+        sink += binaryLookups(table, BINARY_LOOKUPS);
+        double binaryNs = (System.nanoTime() - start) / (double) BINARY_LOOKUPS;
+        double binaryBytes = (allocatedBytes() - allocStart) / (double) BINARY_LOOKUPS;
+
+        System.out.printf("JSON:  %.0f ns/okuma, %.0f bayt/okuma (json %d bayt)%n", jsonNs, jsonBytes, raw.length());
+        System.out.printf("Ikili: %.1f ns/okuma, %.2f bayt/okuma (dosya %d bayt)%n", binaryNs, binaryBytes, PrayerTable.FILE_SIZE);
+
+        assertTrue(sink != 0);
+        assertTrue(binaryNs < jsonNs);
+        if (jsonBytes >= 0) {
+            assertTrue(binaryBytes < 1);
+            assertTrue(jsonBytes > raw.length());
+        }
+    }
+
+    private static long jsonLookups(String raw, int count) throws Exception {
+        long sum = 0;
+        int[] date = new int[3];
+        for (int i = 0; i < count; i++) {
+            String key = dateKey(i % 366);
+            JSONObject days = new JSONObject(raw).getJSONObject("days");
+            PrayerTable.parseDateKey(key, date);
+            sum += PrayerTable.parseTime(days.getJSONObject(key).getString("ogle"));
+        }
+        return sum;
+    }
+
+    private static long binaryLookups(PrayerTable table, int count) {
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += table.getMinuteOfDay(i % 366, PrayerTimeCalculator.OGLE);
+        }
+        return sum;
+    }
+
+    private static String buildYearJson() throws Exception {
+        PrayerTimeCalculator calculator = new PrayerTimeCalculator(41.0082, 28.9784);
+        int[] year = new int[PrayerTimeCalculator.MAX_DAYS_PER_YEAR * PrayerTimeCalculator.PRAYER_COUNT];
+        int days = calculator.computeYear(YEAR, year);
+
+        JSONObject daysJson = new JSONObject();
+        for (int d = 0; d < days; d++) {
+            JSONObject times = new JSONObject();
+            for (int i = 0; i < PrayerTimeCalculator.PRAYER_COUNT; i++) {
+                int local = Math.floorMod(year[d * PrayerTimeCalculator.PRAYER_COUNT + i] + 180,
+                    PrayerTimeCalculator.MINUTES_PER_DAY);
+                times.put(PrayerTimeCalculator.PRAYER_KEYS[i], PrayerTable.formatTime(local));
+            }
+            daysJson.put(dateKey(d), times);
+        }
+        JSONObject cache = new JSONObject();
+        cache.put("city", "İstanbul");
+        cache.put("source", "Diyanet İşleri Başkanlığı (Resmi)");
+        cache.put("days", daysJson);
+        return cache.toString();
+    }
+
+    private static String dateKey(int dayOfYear) {
+        long epochDay = PrayerTimeCalculator.epochDay(YEAR, 1, 1) + dayOfYear;
+        int month = 1;
+        while (month < 12 && PrayerTimeCalculator.epochDay(YEAR, month + 1, 1) <= epochDay) {
+            month++;
+        }
+        int day = (int) (epochDay - PrayerTimeCalculator.epochDay(YEAR, month, 1)) + 1;
+        return (day < 10 ? "0" : "") + day + "." + (month < 10 ? "0" : "") + month + "." + YEAR;
+    }
+
+    /** HotSpot dışı JVM'lerde -1 döner; bellek karşılaştırması o zaman atlanır */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean)
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,189 @@
+package com.sadeezanvakti.app;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import org.json.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PrayerTableStoreTest {
+
+    private static final int HOME = 9541;
+    private static final int WORK = 9206;
+    private static final int TRIP = 9620;
+    private static final int[] DAY = {330, 430, 790, 1030, 1180, 1270};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static void put(PrayerTableStore store, int locationId, int year) throws Exception {
+        store.write(locationId, new PrayerTable.Builder(year, locationId).setDay(1, 1, DAY), year);
+    }
+
+    @Test
+    public void switchingBetweenCachedLocations_hitsWithoutEviction() throws Exception {
+        PrayerTableStore store = new PrayerTableStore(folder.newFolder("vakitler"), 4, 64 * 1024);
+        put(store, HOME, 2026);
+        put(store, WORK, 2026);
+
+        int[] out = new int[PrayerTimeCalculator.PRAYER_COUNT];
+        for (int i = 0; i < 5; i++) {
+            assertTrue(store.readDay(HOME, 2026, 1, 1, out));
+            assertTrue(store.readDay(WORK, 2026, 1, 1, out));
+        }
+        assertFalse(store.readDay(TRIP, 2026, 1, 1, out));
+
+        PrayerTableStore.Stats stats = store.stats();
+        assertEquals(10, stats.hits);
+        assertEquals(1, stats.misses);
+        assertEquals(0, stats.evictions);
+        assertEquals(2, stats.tables);
+        assertEquals(2L * PrayerTable.FILE_SIZE, stats.bytes);
+    }
+
+    @Test
+    public void tableLimit_evictsLeastRecentlyUsed() throws Exception {
+        File dir = folder.newFolder("vakitler");
+        PrayerTableStore store = new PrayerTableStore(dir, 2, 64 * 1024);
+        put(store, HOME, 2026);
+        put(store, WORK, 2026);
+        assertNotNull(store.get(HOME, 2026)); // WORK artık en eski
+
+        put(store, TRIP, 2026);
+
+        assertNotNull(store.get(HOME, 2026));
+        assertNotNull(store.get(TRIP, 2026));
+        assertNull(store.get(WORK, 2026));
+        assertFalse(PrayerTable.fileFor(dir, WORK, 2026).exists());
+        assertEquals(1, store.stats().evictions);
+    }
+
+    @Test
+    public void byteBudget_evictsButKeepsPinnedLocation() throws Exception {
+        PrayerTableStore store = new PrayerTableStore(folder.newFolder("vakitler"), 8, 2L * PrayerTable.FILE_SIZE);
+        store.pin(HOME);
+        put(store, HOME, 2026);
+        put(store, WORK, 2026);
+        put(store, TRIP, 2026);
+
+        assertNotNull(store.get(HOME, 2026));
+        assertNull(store.get(WORK, 2026));
+        assertNotNull(store.get(TRIP, 2026));
+        assertTrue(store.stats().bytes <= 2L * PrayerTable.FILE_SIZE);
+    }
+
+    @Test
+    public void recencyOrder_survivesNewStoreInstance() throws Exception {
+        File dir = folder.newFolder("vakitler");
+        PrayerTableStore first = new PrayerTableStore(dir, 2, 64 * 1024);
+        put(first, HOME, 2026);
+        put(first, WORK, 2026);
+        // Dosya zaman damgası çözünürlüğüne bağlı kalmamak için sırayı açıkça ver
+        PrayerTable.fileFor(dir, HOME, 2026).setLastModified(2_000_000_000_000L);
+        PrayerTable.fileFor(dir, WORK, 2026).setLastModified(1_000_000_000_000L);
+
+        PrayerTableStore second = new PrayerTableStore(dir, 2, 64 * 1024);
+        assertEquals(2, second.stats().tables);
+        put(second, TRIP, 2026);
+
+        assertNull(second.get(WORK, 2026));
+        assertNotNull(second.get(HOME, 2026));
+        assertArrayEquals(new int[]{HOME, 2026}, second.cachedTables().get(0));
+    }
+
+    @Test
+    public void partialImport_mergesIntoExistingYear() throws Exception {
+        PrayerTableStore store = new PrayerTableStore(folder.newFolder("vakitler"));
+        put(store, HOME, 2026);
+
+        // Aralık ön yüklemesi: bu yılın sonu ve gelecek yılın başı
+        JSONObject days = new JSONObject();
+        days.put("31.12.2026", times("06:46", "08:19", "13:07", "15:25", "17:46", "19:13"));
+        days.put("01.01.2027", times("06:47", "08:19", "13:08", "15:26", "17:47", "19:14"));
+        JSONObject cache = new JSONObject();
+        cache.put("days", days);
+        assertEquals(2, store.importCache(cache, HOME));
+
+        int[] out = new int[PrayerTimeCalculator.PRAYER_COUNT];
+        assertTrue(store.readDay(HOME, 2026, 1, 1, out));
+        assertArrayEquals(DAY, out);
+        assertTrue(store.readDay(HOME, 2026, 12, 31, out));
+        assertTrue(store.readDay(HOME, 2027, 1, 1, out));
+    }
+
+    private static PrayerTableStore.Batch january(int changedDay, int imsak) {
+        PrayerTableStore.Batch batch = new PrayerTableStore.Batch(HOME, PrayerTable.SOURCE_DIYANET);
+        for (int d = 1; d <= 31; d++) {
+            int[] minutes = DAY.clone();
+            if (d == changedDay) {
+                minutes[PrayerTimeCalculator.IMSAK] = imsak;
+            }
+            batch.add(2026, 1, d, minutes);
+        }
+        return batch;
+    }
+
+    @Test
+    public void unchangedRefresh_rewritesNoTableBytes() throws Exception {
+        File dir = folder.newFolder("vakitler");
+        PrayerTableStore store = new PrayerTableStore(dir);
+
+        PrayerTableStore.CommitResult first = store.commit(january(0, 0), 1000);
+        assertEquals(31, first.daysChanged);
+        assertEquals(PrayerTable.FILE_SIZE + TableMeta.SIZE, first.bytesWritten);
+
+        // Aynı yanıt: tabloya dokunulmaz, yalnızca doğrulama zamanı güncellenir
+        PrayerTableStore.CommitResult same = store.commit(january(0, 0), 2000);
+        assertEquals(31, same.days);
+        assertEquals(0, same.daysChanged);
+        assertEquals(TableMeta.SIZE, same.bytesWritten);
+
+        // Tek gün farklı: yalnızca o günün altı vakti yazılır
+        PrayerTableStore.CommitResult oneDay = store.commit(january(15, 341), 3000);
+        assertEquals(1, oneDay.daysChanged);
+        assertEquals(PrayerTimeCalculator.PRAYER_COUNT * 2 + TableMeta.SIZE, oneDay.bytesWritten);
+
+        int[] out = new int[PrayerTimeCalculator.PRAYER_COUNT];
+        assertTrue(new PrayerTableStore(dir).readDay(HOME, 2026, 1, 15, out));
+        assertEquals(341, out[PrayerTimeCalculator.IMSAK]);
+        assertTrue(store.readDay(HOME, 2026, 1, 16, out));
+        assertArrayEquals(DAY, out);
+        assertEquals(32, store.stats().daysChanged);
+    }
+
+    @Test
+    public void needsRefresh_followsVerificationAgeAndChecksums() throws Exception {
+        File dir = folder.newFolder("vakitler");
+        PrayerTableStore store = new PrayerTableStore(dir);
+        long jan1 = PrayerTimeCalculator.epochDay(2026, 1, 1);
+        long maxAge = 1000;
+
+        assertTrue(store.needsRefresh(HOME, jan1, 31, 0, maxAge));
+        store.commit(january(0, 0), 5000);
+        assertFalse(store.needsRefresh(HOME, jan1, 31, 5500, maxAge));
+        assertTrue(store.needsRefresh(HOME, jan1, 32, 5500, maxAge)); // Şubat yok
+        assertTrue(store.needsRefresh(HOME, jan1, 31, 7000, maxAge));
+
+        // 304: tablo yazılmadan yeniden doğrulanır
+        assertEquals(TableMeta.SIZE, store.markVerified(HOME, jan1, 31, 7000));
+        assertFalse(store.needsRefresh(HOME, jan1, 31, 7500, maxAge));
+
+        // Yarıda kalmış yama: ay özeti tutmaz, ay yeniden istenir
+        try (RandomAccessFile raf = new RandomAccessFile(PrayerTable.fileFor(dir, HOME, 2026), "rw")) {
+            raf.seek(PrayerTable.offsetOfDay(9));
+            raf.writeShort(0x7F00);
+        }
+        assertTrue(new PrayerTableStore(dir).needsRefresh(HOME, jan1, 31, 7500, maxAge));
+    }
+
+    private static JSONObject times(String... values) throws Exception {
+        JSONObject times = new JSONObject();
+        for (int i = 0; i < values.length; i++) {
+            times.put(PrayerTimeCalculator.PRAYER_KEYS[i], values[i]);
+        }
+        return times;
+    }
+}
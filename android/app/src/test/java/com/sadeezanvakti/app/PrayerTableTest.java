@@ -0,0 +1,96 @@
+package com.sadeezanvakti.app;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import org.json.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PrayerTableTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void builder_roundTripsThroughMappedFile() throws Exception {
+        File file = new File(folder.getRoot(), "tablo.bin");
+        int[] day = {330, 430, 790, 1030, 1180, 1270};
+        new PrayerTable.Builder(2024, 9541)
+            .setSource(PrayerTable.SOURCE_DIYANET)
+            .setDay(2, 29, day)
+            .writeTo(file);
+
+        assertEquals(PrayerTable.FILE_SIZE, file.length());
+
+        PrayerTable table = PrayerTable.open(file);
+        assertEquals(2024, table.getYear());
+        assertEquals(9541, table.getLocationId());
+        assertEquals(PrayerTable.SOURCE_DIYANET, table.getSource());
+
+        int dayOfYear = PrayerTimeCalculator.dayOfYear(2024, 2, 29);
+        assertTrue(table.hasDay(dayOfYear));
+        assertFalse(table.hasDay(dayOfYear + 1));
+        assertEquals(790, table.getMinuteOfDay(2, 29, PrayerTimeCalculator.OGLE));
+        assertEquals(PrayerTable.MISSING, table.getMinuteOfDay(0, PrayerTimeCalculator.IMSAK));
+
+        int[] out = new int[PrayerTimeCalculator.PRAYER_COUNT];
+        table.readDay(dayOfYear, out, 0);
+        assertArrayEquals(day, out);
+    }
+
+    @Test
+    public void store_importsJsCacheFormatPerYear() throws Exception {
+        JSONObject days = new JSONObject();
+        days.put("31.12.2024", times("06:46", "08:19", "13:07", "15:25", "17:46", "19:13"));
+        days.put("01.01.2025", times("06:47", "08:19", "13:08", "15:26", "17:47", "19:14"));
+        days.put("bozuk", times("06:47", "08:19", "13:08", "15:26", "17:47", "19:14"));
+        JSONObject cache = new JSONObject();
+        cache.put("city", "İstanbul");
+        cache.put("source", "Diyanet İşleri Başkanlığı (Resmi)");
+        cache.put("days", days);
+
+        PrayerTableStore store = new PrayerTableStore(folder.newFolder("vakitler"));
+        assertEquals(2, store.importCache(cache, 9541));
+
+        int[] out = new int[PrayerTimeCalculator.PRAYER_COUNT];
+        assertTrue(store.readDay(9541, 2025, 1, 1, out));
+        assertEquals(6 * 60 + 47, out[PrayerTimeCalculator.IMSAK]);
+        assertTrue(store.readDay(9541, 2024, 12, 31, out));
+        assertEquals(19 * 60 + 13, out[PrayerTimeCalculator.YATSI]);
+        assertFalse(store.readDay(9541, 2025, 1, 2, out));
+        assertFalse(store.readDay(1, 2025, 1, 1, out));
+        assertEquals(PrayerTable.SOURCE_DIYANET, store.get(9541, 2025).getSource());
+    }
+
+    @Test
+    public void parseHelpers_rejectMalformedInput() {
+        assertEquals(5 * 60 + 7, PrayerTable.parseTime("05:07"));
+        assertEquals(PrayerTable.MISSING, PrayerTable.parseTime("24:00"));
+        assertEquals(PrayerTable.MISSING, PrayerTable.parseTime("ab:cd"));
+        assertEquals(PrayerTable.MISSING, PrayerTable.parseTime(null));
+
+        int[] date = new int[3];
+        assertTrue(PrayerTable.parseDateKey("13.02.2026", date));
+        assertArrayEquals(new int[]{13, 2, 2026}, date);
+        assertFalse(PrayerTable.parseDateKey("2026-02-13", date));
+        assertFalse(PrayerTable.parseDateKey("32.01.2026", date));
+        // Ayın gerçek uzunluğu; kabul edilse komşu ayın gününe yazılırdı
+        assertFalse(PrayerTable.parseDateKey("30.02.2028", date));
+        assertFalse(PrayerTable.parseDateKey("29.02.2026", date));
+        assertFalse(PrayerTable.parseDateKey("31.04.2026", date));
+        assertTrue(PrayerTable.parseDateKey("29.02.2028", date));
+        assertTrue(PrayerTable.parseDateKey("31.12.2026", date));
+
+        assertEquals("05:07", PrayerTable.formatTime(5 * 60 + 7));
+    }
+
+    static JSONObject times(String... values) throws Exception {
+        JSONObject times = new JSONObject();
+        for (int i = 0; i < values.length; i++) {
+            times.put(PrayerTimeCalculator.PRAYER_KEYS[i], values[i]);
+        }
+        return times;
+    }
+}
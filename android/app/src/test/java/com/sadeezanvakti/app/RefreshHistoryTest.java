@@ -0,0 +1,94 @@
+package com.sadeezanvakti.app;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RefreshHistoryTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static RefreshHistory.Run run(long startedAt, int outcome) {
+        RefreshHistory.Run run = new RefreshHistory.Run();
+        run.startedAt = startedAt;
+        run.outcome = outcome;
+        return run;
+    }
+
+    @Test
+    public void runs_persistNewestFirst() throws Exception {
+        File file = new File(folder.getRoot(), RefreshHistory.FILE_NAME);
+        RefreshHistory history = new RefreshHistory(file);
+        RefreshHistory.Run updated = run(1000, RefreshHistory.OUTCOME_UPDATED);
+        updated.durationMs = 420;
+        updated.locationId = 9541;
+        updated.daysChanged = 3;
+        updated.bytesDownloaded = 9120;
+        updated.bytesWritten = 188;
+        updated.rearmed = true;
+        updated.endpoint = "diyanet";
+        history.record(updated);
+        RefreshHistory.Run failed = run(2000, RefreshHistory.OUTCOME_FAILED);
+        failed.attempt = 1;
+        failed.error = "diyanet: HTTP 503";
+        history.record(failed);
+
+        List<RefreshHistory.Run> runs = new RefreshHistory(file).snapshot();
+        assertEquals(2, runs.size());
+        assertEquals(RefreshHistory.OUTCOME_FAILED, runs.get(0).outcome);
+        assertEquals("diyanet: HTTP 503", runs.get(0).error);
+        assertEquals(1, runs.get(0).attempt);
+        assertNull(runs.get(0).endpoint);
+
+        RefreshHistory.Run loaded = runs.get(1);
+        assertEquals(1000, loaded.startedAt);
+        assertEquals(420, loaded.durationMs);
+        assertEquals(9541, loaded.locationId);
+        assertEquals(3, loaded.daysChanged);
+        assertEquals(9120, loaded.bytesDownloaded);
+        assertEquals(188, loaded.bytesWritten);
+        assertTrue(loaded.rearmed);
+        assertEquals("diyanet", loaded.endpoint);
+    }
+
+    @Test
+    public void capacity_dropsOldestRuns() throws Exception {
+        RefreshHistory history = new RefreshHistory(new File(folder.getRoot(), RefreshHistory.FILE_NAME));
+        for (int i = 0; i < RefreshHistory.CAPACITY + 5; i++) {
+            history.record(run(i, RefreshHistory.OUTCOME_SKIPPED));
+        }
+        List<RefreshHistory.Run> runs = history.snapshot();
+        assertEquals(RefreshHistory.CAPACITY, runs.size());
+        assertEquals(RefreshHistory.CAPACITY + 4, runs.get(0).startedAt);
+        assertEquals(5, runs.get(runs.size() - 1).startedAt);
+    }
+
+    @Test
+    public void outcome_mapsFromRefresh() {
+        TableRefresher.Outcome skipped = new TableRefresher.Outcome();
+        skipped.skipped = true;
+        skipped.success = true;
+        assertEquals(RefreshHistory.OUTCOME_SKIPPED, RefreshHistory.from(skipped, 1, 0).outcome);
+
+        TableRefresher.Outcome notModified = new TableRefresher.Outcome();
+        notModified.success = true;
+        notModified.notModified = true;
+        assertEquals(RefreshHistory.OUTCOME_NOT_MODIFIED, RefreshHistory.from(notModified, 1, 0).outcome);
+
+        TableRefresher.Outcome failed = new TableRefresher.Outcome();
+        assertEquals(RefreshHistory.OUTCOME_FAILED, RefreshHistory.from(failed, 1, 0).outcome);
+    }
+
+    @Test
+    public void corruptFile_startsEmpty() throws Exception {
+        File file = folder.newFile(RefreshHistory.FILE_NAME);
+        Files.write(file.toPath(), new byte[]{1, 2, 3});
+        assertTrue(new RefreshHistory(file).snapshot().isEmpty());
+    }
+}
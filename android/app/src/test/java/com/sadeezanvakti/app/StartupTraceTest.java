@@ -0,0 +1,67 @@
+package com.sadeezanvakti.app;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class StartupTraceTest {
+
+    private static final long NOW = 1_770_000_000_000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static void startup(EventJournal journal, long at, int path, int ms, long pssKb) {
+        journal.append(at, EventJournal.INFO, EventJournal.STARTUP, EventJournal.NO_PRAYER, ms, pssKb, path);
+    }
+
+    @Test
+    public void summarize_mediansPerPath() {
+        EventJournal journal = new EventJournal(new File(folder.getRoot(), EventJournal.FILE_NAME), 32);
+        startup(journal, NOW, StartupTrace.PATH_UI, 1_900, 182_000);
+        startup(journal, NOW + 1, StartupTrace.PATH_ALARM, 420, 61_000);
+        startup(journal, NOW + 2, StartupTrace.PATH_UI, 1_400, 175_000);
+        startup(journal, NOW + 3, StartupTrace.PATH_UI, 2_600, 190_000);
+        startup(journal, NOW + 4, StartupTrace.PATH_ALARM, 380, 58_000);
+        // Başka türdeki kayıt sayılmaz
+        journal.append(NOW + 5, EventJournal.INFO, EventJournal.ACTIVITY_SHOWN, PrayerTimeCalculator.OGLE,
+            9_000, 0, StartupTrace.PATH_ALARM);
+
+        StartupTrace.Summary[] summaries = StartupTrace.summarize(journal.snapshot(0, 100));
+        assertEquals(StartupTrace.PATH_NAMES.length, summaries.length);
+
+        StartupTrace.Summary ui = summaries[StartupTrace.PATH_UI];
+        assertEquals(StartupTrace.PATH_UI, ui.path);
+        assertEquals(3, ui.count);
+        assertEquals(1_900, ui.p50Ms);
+        assertEquals(2_600, ui.maxMs);
+        assertEquals(182_000, ui.p50PssKb);
+
+        // Çift sayıda kayıtta alttaki orta değer
+        StartupTrace.Summary alarm = summaries[StartupTrace.PATH_ALARM];
+        assertEquals(2, alarm.count);
+        assertEquals(380, alarm.p50Ms);
+        assertEquals(420, alarm.maxMs);
+        assertEquals(58_000, alarm.p50PssKb);
+    }
+
+    @Test
+    public void summarize_emptyJournal_zeroCounts() {
+        EventJournal journal = new EventJournal(new File(folder.getRoot(), EventJournal.FILE_NAME), 8);
+        for (StartupTrace.Summary summary : StartupTrace.summarize(journal.snapshot(0, 100))) {
+            assertEquals(0, summary.count);
+            assertEquals(0, summary.p50Ms);
+            assertEquals(0, summary.maxMs);
+        }
+    }
+
+    @Test
+    public void claimColdLaunch_atMostOncePerProcess() {
+        StartupTrace.claimColdLaunch(10_000, 10_500);
+        // Sonraki etkinlik süreç yeni başlamış olsa da soğuk sayılmaz
+        assertFalse(StartupTrace.claimColdLaunch(10_000, 10_600));
+    }
+}
@@ -0,0 +1,205 @@
+package com.sadeezanvakti.app;
+
+import static org.junit.Assert.*;
+
+import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.work.Configuration;
+import androidx.work.ListenableWorker;
+import androidx.work.NetworkType;
+import androidx.work.WorkInfo;
+import androidx.work.WorkManager;
+import androidx.work.WorkerFactory;
+import androidx.work.WorkerParameters;
+import androidx.work.testing.SynchronousExecutor;
+import androidx.work.testing.TestDriver;
+import androidx.work.testing.TestWorkerBuilder;
+import androidx.work.testing.WorkManagerTestInitHelper;
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class TableRefreshWorkerTest {
+
+    private static final int LOCATION = 9541;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Context context;
+    private MockPrayerServer server;
+    private ExecutorService executor;
+    private PrayerTableStore store;
+    private TableRefresher refresher;
+    private List<HedgedFetcher.Endpoint> endpoints;
+
+    @Before
+    public void setUp() throws Exception {
+        context = ApplicationProvider.getApplicationContext();
+        Configuration config = new Configuration.Builder()
+            .setExecutor(new SynchronousExecutor())
+            .build();
+        WorkManagerTestInitHelper.initializeTestWorkManager(context, config);
+
+        server = new MockPrayerServer();
+        executor = Executors.newCachedThreadPool();
+        File root = folder.getRoot();
+        HttpValidators validators = new HttpValidators(new File(root, HttpValidators.FILE_NAME));
+        HedgedFetcher fetcher = new HedgedFetcher(executor,
+            new EndpointHealth(new File(root, EndpointHealth.FILE_NAME)), validators, 2000, 5000, 8000);
+        store = new PrayerTableStore(folder.newFolder("vakitler"));
+        refresher = new TableRefresher(store, fetcher, validators);
+        endpoints = Arrays.asList(new HedgedFetcher.Endpoint("diyanet", server.url("/vakitler/9541"),
+            PrayerJsonStream.Format.DIYANET));
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        server.close();
+    }
+
+    /** Bugünden başlayarak Diyanet biçiminde günler */
+    private static String upcomingDays(int days) {
+        long today = AlarmRegistry.localEpochDay(System.currentTimeMillis(), TimeZone.getDefault());
+        int[] civil = new int[3];
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < days; i++) {
+            PrayerTimeCalculator.civilFromEpochDay(today + i, civil);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(String.format(
+                "{\"MiladiTarihKisa\":\"%02d.%02d.%d\",\"Imsak\":\"05:4%d\",\"Gunes\":\"07:08\","
+                    + "\"Ogle\":\"12:58\",\"Ikindi\":\"16:01\",\"Aksam\":\"18:38\",\"Yatsi\":\"19:56\"}",
+                civil[2], civil[1], civil[0], i % 10));
+        }
+        return json.append(']').toString();
+    }
+
+    private TableRefreshWorker worker(int runAttemptCount) {
+        return TestWorkerBuilder.from(context, TableRefreshWorker.class, executor)
+            .setRunAttemptCount(runAttemptCount)
+            .setWorkerFactory(new WorkerFactory() {
+                @Override
+                public ListenableWorker createWorker(@NonNull Context appContext, @NonNull String workerClassName,
+                                                     @NonNull WorkerParameters params) {
+                    return new TableRefreshWorker(appContext, params, refresher, endpoints);
+                }
+            })
+            .build();
+    }
+
+    private static WorkInfo onlyWork(Context context, String name) throws Exception {
+        List<WorkInfo> infos = WorkManager.getInstance(context).getWorkInfosForUniqueWork(name).get();
+        assertEquals(1, infos.size());
+        return infos.get(0);
+    }
+
+    @Test
+    public void remember_enqueuesChargingAndUnmeteredWorkOnce() throws Exception {
+        RefreshScheduler.remember(context, LOCATION, "9541", "istanbul");
+        WorkInfo charging = onlyWork(context, RefreshScheduler.WORK_CHARGING);
+        WorkInfo unmetered = onlyWork(context, RefreshScheduler.WORK_UNMETERED);
+
+        assertEquals(WorkInfo.State.ENQUEUED, charging.getState());
+        assertTrue(charging.getConstraints().requiresCharging());
+        assertEquals(NetworkType.CONNECTED, charging.getConstraints().getRequiredNetworkType());
+        assertFalse(unmetered.getConstraints().requiresCharging());
+        assertEquals(NetworkType.UNMETERED, unmetered.getConstraints().getRequiredNetworkType());
+
+        // Yeniden kayıt işleri değiştirmez (KEEP); gecikme ve periyot korunur
+        RefreshScheduler.remember(context, LOCATION, "9541", "istanbul");
+        assertEquals(charging.getId(), onlyWork(context, RefreshScheduler.WORK_CHARGING).getId());
+        assertEquals(2, WorkManager.getInstance(context).getWorkInfosByTag(RefreshScheduler.TAG).get().size());
+        assertEquals(1 + PrayerFetchPlugin.PROXY_BASES.length, RefreshScheduler.endpoints(context).size());
+    }
+
+    @Test
+    public void jitter_staysWithinOnePeriod() {
+        Random random = new Random(42);
+        long period = TimeUnit.HOURS.toMillis(RefreshScheduler.INTERVAL_HOURS);
+        long min = Long.MAX_VALUE;
+        long max = 0;
+        for (int i = 0; i < 1000; i++) {
+            long jitter = RefreshScheduler.jitterMs(random);
+            assertTrue(jitter >= 0 && jitter < period);
+            min = Math.min(min, jitter);
+            max = Math.max(max, jitter);
+        }
+        // Yayılmış olmalı, hep aynı ana yığılmamalı
+        assertTrue(max - min > period / 2);
+    }
+
+    @Test
+    public void periodicRun_withoutLocation_isRecordedAndRescheduled() throws Exception {
+        RefreshScheduler.schedule(context);
+        WorkInfo before = onlyWork(context, RefreshScheduler.WORK_UNMETERED);
+        int runsBefore = RefreshScheduler.history(context).snapshot().size();
+
+        TestDriver driver = WorkManagerTestInitHelper.getTestDriver(context);
+        driver.setAllConstraintsMet(before.getId());
+        driver.setInitialDelayMet(before.getId());
+        driver.setPeriodDelayMet(before.getId());
+
+        WorkInfo after = onlyWork(context, RefreshScheduler.WORK_UNMETERED);
+        assertEquals(WorkInfo.State.ENQUEUED, after.getState()); // bir sonraki periyot
+        List<RefreshHistory.Run> runs = RefreshScheduler.history(context).snapshot();
+        assertEquals(runsBefore + 1, runs.size());
+        assertEquals(RefreshHistory.OUTCOME_NO_LOCATION, runs.get(0).outcome);
+    }
+
+    @Test
+    public void changedData_rearmsAlarmAndRecordsBytes() throws Exception {
+        server.respond("/vakitler/9541", 200, upcomingDays(31), 0, "\"v1\"");
+        RefreshScheduler.remember(context, LOCATION, "9541", null);
+        NativeAlarmScheduler.configure(context, true, LOCATION, 41.01, 28.97,
+            (1 << PrayerTimeCalculator.PRAYER_COUNT) - 1, null);
+
+        assertEquals(ListenableWorker.Result.success(), worker(0).doWork());
+        RefreshHistory.Run run = RefreshScheduler.history(context).snapshot().get(0);
+        assertEquals(RefreshHistory.OUTCOME_UPDATED, run.outcome);
+        assertEquals(31, run.daysChanged);
+        assertTrue(run.rearmed);
+        assertTrue(run.bytesDownloaded > 0);
+        assertEquals(PrayerTable.FILE_SIZE + TableMeta.SIZE, run.bytesWritten);
+
+        // Tablo artık güncel: ağa gidilmez, alarm yeniden kurulmaz
+        assertEquals(ListenableWorker.Result.success(), worker(0).doWork());
+        run = RefreshScheduler.history(context).snapshot().get(0);
+        assertEquals(RefreshHistory.OUTCOME_SKIPPED, run.outcome);
+        assertFalse(run.rearmed);
+        assertEquals(0, run.bytesDownloaded);
+        assertEquals(1, server.hits("/vakitler/9541"));
+    }
+
+    @Test
+    public void failure_retriesThenGivesUpUntilNextPeriod() throws Exception {
+        server.respond("/vakitler/9541", 503, "", 0);
+        RefreshScheduler.remember(context, LOCATION, "9541", null);
+
+        assertEquals(ListenableWorker.Result.retry(), worker(0).doWork());
+        RefreshHistory.Run run = RefreshScheduler.history(context).snapshot().get(0);
+        assertEquals(RefreshHistory.OUTCOME_FAILED, run.outcome);
+        assertEquals("diyanet: HTTP 503", run.error);
+
+        assertEquals(ListenableWorker.Result.failure(), worker(TableRefreshWorker.MAX_ATTEMPTS - 1).doWork());
+        assertEquals(TableRefreshWorker.MAX_ATTEMPTS - 1, RefreshScheduler.history(context).snapshot().get(0).attempt);
+    }
+}
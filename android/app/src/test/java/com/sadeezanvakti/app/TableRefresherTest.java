@@ -0,0 +1,130 @@
+package com.sadeezanvakti.app;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TableRefresherTest {
+
+    private static final int LOCATION = 9541;
+    private static final long JAN_1 = PrayerTimeCalculator.epochDay(2026, 1, 1);
+    private static final long NOW = 1_767_225_600_000L;
+    private static final long DAY_MS = 24 * 60 * 60 * 1000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockPrayerServer server;
+    private ExecutorService executor;
+    private File dir;
+    private HttpValidators validators;
+    private HedgedFetcher fetcher;
+    private PrayerTableStore store;
+    private TableRefresher refresher;
+    private List<HedgedFetcher.Endpoint> endpoints;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockPrayerServer();
+        executor = Executors.newCachedThreadPool();
+        File root = folder.getRoot();
+        validators = new HttpValidators(new File(root, HttpValidators.FILE_NAME));
+        fetcher = new HedgedFetcher(executor,
+            new EndpointHealth(new File(root, EndpointHealth.FILE_NAME)), validators, 2000, 5000, 8000);
+        dir = folder.newFolder("vakitler");
+        store = new PrayerTableStore(dir);
+        refresher = new TableRefresher(store, fetcher, validators);
+        endpoints = Arrays.asList(new HedgedFetcher.Endpoint("diyanet", server.url("/vakitler/9541"),
+            PrayerJsonStream.Format.DIYANET));
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        server.close();
+    }
+
+    @Test
+    public void freshTable_skipsNetwork() throws Exception {
+        server.respond("/vakitler/9541", 200, HedgedFetcherTest.diyanetBody(31), 0, "\"v1\"");
+
+        TableRefresher.Outcome first = refresher.refresh(LOCATION, endpoints, JAN_1, NOW, false);
+        assertTrue(first.success);
+        assertEquals(31, first.daysChanged);
+        assertEquals(PrayerTable.FILE_SIZE + TableMeta.SIZE, first.bytesWritten);
+
+        TableRefresher.Outcome second = refresher.refresh(LOCATION, endpoints, JAN_1 + 1, NOW + DAY_MS, false);
+        assertTrue(second.skipped);
+        assertEquals(0, second.bytesDownloaded);
+        assertEquals(0, second.bytesWritten);
+        assertEquals(1, server.hits("/vakitler/9541"));
+    }
+
+    @Test
+    public void staleButUnchanged_costsOnlyA304() throws Exception {
+        String body = HedgedFetcherTest.diyanetBody(31);
+        server.respond("/vakitler/9541", 200, body, 0, "\"v1\"");
+        TableRefresher.Outcome first = refresher.refresh(LOCATION, endpoints, JAN_1, NOW, false);
+        assertEquals(body.length(), first.bytesDownloaded);
+
+        long later = NOW + TableRefresher.MAX_AGE_MS + 1;
+        TableRefresher.Outcome stale = refresher.refresh(LOCATION, endpoints, JAN_1, later, false);
+        assertTrue(stale.success);
+        assertTrue(stale.notModified);
+        assertEquals(0, stale.bytesDownloaded);
+        assertEquals(TableMeta.SIZE, stale.bytesWritten);
+        assertEquals(2, server.hits("/vakitler/9541"));
+
+        // Yeniden doğrulandı; bir sonraki yenileme ağa gitmez
+        assertTrue(refresher.refresh(LOCATION, endpoints, JAN_1, later + 1, false).skipped);
+    }
+
+    @Test
+    public void changedResponse_patchesOnlyDifferingDays() throws Exception {
+        server.respond("/vakitler/9541", 200, HedgedFetcherTest.diyanetBody(31), 0, "\"v1\"");
+        refresher.refresh(LOCATION, endpoints, JAN_1, NOW, false);
+
+        // Sunucu tek günün imsakini düzeltti
+        String fixed = HedgedFetcherTest.diyanetBody(31).replace(
+            "\"MiladiTarihKisa\":\"20.01.2026\",\"HicriTarihUzun\":\"12 Receb 1447\",\"Imsak\":\"06:40\"",
+            "\"MiladiTarihKisa\":\"20.01.2026\",\"HicriTarihUzun\":\"12 Receb 1447\",\"Imsak\":\"06:39\"");
+        server.respond("/vakitler/9541", 200, fixed, 0, "\"v2\"");
+
+        TableRefresher.Outcome outcome = refresher.refresh(LOCATION, endpoints, JAN_1, NOW, true);
+        assertFalse(outcome.notModified);
+        assertEquals(31, outcome.days);
+        assertEquals(1, outcome.daysChanged);
+        assertEquals(PrayerTimeCalculator.PRAYER_COUNT * 2 + TableMeta.SIZE, outcome.bytesWritten);
+
+        int[] out = new int[PrayerTimeCalculator.PRAYER_COUNT];
+        assertTrue(store.readDay(LOCATION, 2026, 1, 20, out));
+        assertEquals(6 * 60 + 39, out[PrayerTimeCalculator.IMSAK]);
+    }
+
+    @Test
+    public void notModifiedWithMissingTable_refetchesUnconditionally() throws Exception {
+        server.respond("/vakitler/9541", 200, HedgedFetcherTest.diyanetBody(31), 0, "\"v1\"");
+        refresher.refresh(LOCATION, endpoints, JAN_1, NOW, false);
+        // Tablo silindi ama doğrulayıcı duruyor: ilk yanıt 304 olur
+        assertTrue(PrayerTable.fileFor(dir, LOCATION, 2026).delete());
+        assertTrue(TableMeta.fileFor(dir, LOCATION, 2026).delete());
+        store = new PrayerTableStore(dir);
+        refresher = new TableRefresher(store, fetcher, validators);
+
+        TableRefresher.Outcome outcome = refresher.refresh(LOCATION, endpoints, JAN_1, NOW, false);
+        assertTrue(outcome.success);
+        assertFalse(outcome.notModified);
+        assertEquals(31, outcome.daysChanged);
+        assertEquals(3, server.hits("/vakitler/9541"));
+        assertFalse(store.needsRefresh(LOCATION, JAN_1, 31, NOW, TableRefresher.MAX_AGE_MS));
+    }
+}
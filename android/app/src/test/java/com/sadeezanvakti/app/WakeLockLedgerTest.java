@@ -0,0 +1,73 @@
+package com.sadeezanvakti.app;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class WakeLockLedgerTest {
+
+    private static final long CEILING = 30_000;
+    private static final long NOW = 1_770_000_000_000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file() {
+        return new File(folder.getRoot(), WakeLockLedger.FILE_NAME);
+    }
+
+    @Test
+    public void normalRelease_recordsHoldTime() {
+        WakeLockLedger ledger = new WakeLockLedger(file(), CEILING);
+        WakeLockLedger.Record record = ledger.open(NOW, PrayerTimeCalculator.OGLE);
+
+        assertTrue(ledger.close(record, NOW + 420, WakeLockLedger.PATH_NORMAL));
+        assertEquals(420, record.holdMs);
+        assertEquals(WakeLockLedger.PATH_NORMAL, record.path);
+    }
+
+    @Test
+    public void lateFirstFrame_afterTimeout_isIgnored() {
+        WakeLockLedger ledger = new WakeLockLedger(file(), CEILING);
+        WakeLockLedger.Record record = ledger.open(NOW, PrayerTimeCalculator.AKSAM);
+
+        assertTrue(ledger.close(record, NOW + CEILING, WakeLockLedger.PATH_TIMEOUT));
+        assertFalse(ledger.close(record, NOW + CEILING + 50, WakeLockLedger.PATH_NORMAL));
+        assertEquals(WakeLockLedger.PATH_TIMEOUT, record.path);
+        assertEquals(CEILING, record.holdMs);
+    }
+
+    @Test
+    public void openRecordFromPreviousProcess_isRecoveredAsKilled() {
+        WakeLockLedger first = new WakeLockLedger(file(), CEILING);
+        first.close(first.open(NOW, PrayerTimeCalculator.IMSAK), NOW + 300, WakeLockLedger.PATH_NORMAL);
+        first.open(NOW + 86_400_000L, PrayerTimeCalculator.IMSAK);
+        // süreç burada öldürüldü
+
+        List<WakeLockLedger.Record> records = new WakeLockLedger(file(), CEILING).records();
+        assertEquals(2, records.size());
+        assertEquals(WakeLockLedger.PATH_NORMAL, records.get(0).path);
+        assertEquals(300, records.get(0).holdMs);
+        assertEquals(WakeLockLedger.PATH_KILLED, records.get(1).path);
+        assertEquals(CEILING, records.get(1).holdMs);
+        assertEquals(PrayerTimeCalculator.IMSAK, records.get(1).prayer);
+    }
+
+    @Test
+    public void ring_keepsOnlyMostRecentHolds() {
+        WakeLockLedger ledger = new WakeLockLedger(file(), CEILING);
+        for (int i = 0; i < WakeLockLedger.CAPACITY + 3; i++) {
+            WakeLockLedger.Record record = ledger.open(NOW + i, -1);
+            ledger.close(record, NOW + i + 10, WakeLockLedger.PATH_NORMAL);
+        }
+
+        List<WakeLockLedger.Record> records = new WakeLockLedger(file(), CEILING).records();
+        assertEquals(WakeLockLedger.CAPACITY, records.size());
+        assertEquals(NOW + 3, records.get(0).acquiredAt);
+        assertEquals(-1, records.get(0).prayer);
+    }
+}
@@ -0,0 +1,51 @@
+package com.sadeezanvakti.app;
+
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * PendingIntent istek kodunun türetilmesi. AlarmCore.armPrayer yolu zaman
+ * damgasından yerel günü hesaplar (TimeZone.getOffset), toplu kurma yolu hazır
+ * Entry'den doğrudan kimlik üretir.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AlarmIdBenchmark {
+
+    private static final int LOCATION_ID = 9541;
+
+    private TimeZone timeZone;
+    private AlarmBatchPlanner.Entry entry;
+    private long triggerAt;
+    private int prayer;
+
+    @Setup
+    public void setUp() {
+        timeZone = TimeZone.getTimeZone("Europe/Istanbul");
+        triggerAt = 1_718_000_000_000L;
+        entry = new AlarmBatchPlanner.Entry(LOCATION_ID, PrayerTimeCalculator.OGLE,
+            AlarmRegistry.localEpochDay(triggerAt, timeZone), AlarmRegistry.KIND_EXACT, triggerAt);
+    }
+
+    @Benchmark
+    public int fromTimestamp() {
+        // Sabit katlamayı önlemek için zaman ve vakit her çağrıda değişir
+        triggerAt += 3_600_000L;
+        prayer = (prayer + 1) % PrayerTimeCalculator.PRAYER_COUNT;
+        return AlarmRegistry.alarmId(LOCATION_ID, AlarmRegistry.localEpochDay(triggerAt, timeZone),
+            prayer, AlarmRegistry.KIND_EXACT);
+    }
+
+    @Benchmark
+    public int fromEntry() {
+        return entry.requestCode();
+    }
+}
@@ -0,0 +1,97 @@
+package com.sadeezanvakti.app;
+
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * AlarmReceiver'ın her tetiklenmede yaptığı arama: PrayerScheduler.scheduleNextAfter.
+ * Kaynak önceden hesaplanmış yıl dizisidir; ölçülen yalnızca arama ve sink çağrısıdır.
+ * Zaman yıl boyunca adım adım ilerler, "yatsıdan sonra" gibi ertesi güne taşan
+ * durumlar da örneklenir. indexAfter geri sayımın kullandığı NextPrayerIndex
+ * aramasıdır; gün değişince yeniden yükleme de ölçüme dahildir.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NextPrayerBenchmark {
+
+    private static final int YEAR = 2024;
+    private static final long STEP_MILLIS = 37 * 60_000L;
+
+    /** Bit maskesi: 63 tüm vakitler, 16 yalnız akşam (ileri bakışın en kötü hali) */
+    @Param({"63", "16"})
+    public int enabledMask;
+
+    private PrayerScheduler scheduler;
+    private PrayerTimesSource source;
+    private final NextPrayerIndex index = new NextPrayerIndex();
+    private final TimeZone timeZone = TimeZone.getTimeZone("Europe/Istanbul");
+    private long start;
+    private long end;
+    private long now;
+
+    @Setup
+    public void setUp() {
+        PrayerTimeCalculator calculator = new PrayerTimeCalculator(41.0082, 28.9784);
+        final int[] year = new int[PrayerTimeCalculator.MAX_DAYS_PER_YEAR * PrayerTimeCalculator.PRAYER_COUNT];
+        final int days = calculator.computeYear(YEAR, year);
+        final long firstDay = PrayerTimeCalculator.epochDay(YEAR, 1, 1);
+
+        source = (epochDay, out) -> {
+            long d = epochDay - firstDay;
+            if (d < 0 || d >= days) {
+                return false;
+            }
+            System.arraycopy(year, (int) d * PrayerTimeCalculator.PRAYER_COUNT, out, 0, PrayerTimeCalculator.PRAYER_COUNT);
+            return true;
+        };
+        PrayerScheduler.AlarmSink sink = new PrayerScheduler.AlarmSink() {
+            @Override
+            public void setExact(long triggerAtMillis, int prayer, long epochDay, int kind) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        };
+        scheduler = new PrayerScheduler(source, sink, () -> 0L, timeZone);
+        scheduler.setEnabledMask(enabledMask);
+        scheduler.setOffsetMinutes(PrayerTimeCalculator.IMSAK, 45);
+
+        start = firstDay * 86_400_000L;
+        // Son günlerde ileri bakış yıl dışına taşmasın
+        end = start + (days - 5) * 86_400_000L;
+        now = start;
+    }
+
+    @Benchmark
+    public long scheduleNextAfter() {
+        now += STEP_MILLIS;
+        if (now >= end) {
+            now = start;
+        }
+        scheduler.scheduleNextAfter(now);
+        return scheduler.getNextTriggerAt();
+    }
+
+    @Benchmark
+    public long indexAfter() {
+        now += STEP_MILLIS;
+        if (now >= end) {
+            now = start;
+        }
+        if (!index.coversDay(now, timeZone)) {
+            index.load(source, AlarmRegistry.localEpochDay(now, timeZone));
+        }
+        int slot = index.indexAfter(now);
+        return slot >= 0 ? index.timeAt(slot) : -1;
+    }
+}
@@ -0,0 +1,84 @@
+package com.sadeezanvakti.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Yıllık ikili tablonun çözülmesi: dosyayı açıp 366 günü okumak (soğuk yol,
+ * alıcı süreç yeni başladığında) ve açık tablodan tek vakit okumak (sıcak yol).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PrayerTableDecodeBenchmark {
+
+    private static final int LOCATION_ID = 9541;
+    private static final int YEAR = 2024;
+
+    private File dir;
+    private File file;
+    private PrayerTable table;
+    private final int[] out = new int[PrayerTimeCalculator.MAX_DAYS_PER_YEAR * PrayerTimeCalculator.PRAYER_COUNT];
+    private int dayIndex;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("ezan-jmh").toFile();
+        file = PrayerTable.fileFor(dir, LOCATION_ID, YEAR);
+
+        PrayerTimeCalculator calculator = new PrayerTimeCalculator(41.0082, 28.9784);
+        int days = calculator.computeYear(YEAR, out);
+        PrayerTable.Builder builder = new PrayerTable.Builder(YEAR, LOCATION_ID)
+            .setSource(PrayerTable.SOURCE_CALCULATED);
+        int[] minutesOfDay = new int[PrayerTimeCalculator.PRAYER_COUNT];
+        for (int d = 0; d < days; d++) {
+            for (int i = 0; i < PrayerTimeCalculator.PRAYER_COUNT; i++) {
+                minutesOfDay[i] = Math.floorMod(out[d * PrayerTimeCalculator.PRAYER_COUNT + i],
+                    PrayerTimeCalculator.MINUTES_PER_DAY);
+            }
+            builder.setDay(d, minutesOfDay);
+        }
+        builder.writeTo(file);
+        table = PrayerTable.open(file);
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+        dir.delete();
+    }
+
+    @Benchmark
+    public int openAndDecodeYear() throws IOException {
+        PrayerTable opened = PrayerTable.open(file);
+        for (int d = 0; d < PrayerTimeCalculator.MAX_DAYS_PER_YEAR; d++) {
+            opened.readDay(d, out, d * PrayerTimeCalculator.PRAYER_COUNT);
+        }
+        return out[out.length - 1];
+    }
+
+    @Benchmark
+    public int decodeYear() {
+        for (int d = 0; d < PrayerTimeCalculator.MAX_DAYS_PER_YEAR; d++) {
+            table.readDay(d, out, d * PrayerTimeCalculator.PRAYER_COUNT);
+        }
+        return out[out.length - 1];
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int minuteOfDay() {
+        dayIndex = (dayIndex + 1) % PrayerTimeCalculator.MAX_DAYS_PER_YEAR;
+        return table.getMinuteOfDay(dayIndex, PrayerTimeCalculator.OGLE);
+    }
+}
@@ -0,0 +1,48 @@
+package com.sadeezanvakti.app;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Alarm yolundaki yerel hesaplama: tablo yokken vakitler PrayerTimeCalculator ile
+ * üretilir. Tek gün (yeniden kurma) ve tüm yıl (tablo doldurma) ayrı ölçülür.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PrayerTimeCalculatorBenchmark {
+
+    private static final int YEAR = 2024;
+
+    private PrayerTimeCalculator calculator;
+    private final int[] day = new int[PrayerTimeCalculator.PRAYER_COUNT];
+    private final int[] year = new int[PrayerTimeCalculator.MAX_DAYS_PER_YEAR * PrayerTimeCalculator.PRAYER_COUNT];
+    private long firstDay;
+    private int dayIndex;
+
+    @Setup
+    public void setUp() {
+        calculator = new PrayerTimeCalculator(41.0082, 28.9784);
+        firstDay = PrayerTimeCalculator.epochDay(YEAR, 1, 1);
+    }
+
+    @Benchmark
+    public int computeDay() {
+        // Güneşin konumu güne bağlı; aynı günü tekrar etmemek için yıl boyunca dolaşılır
+        dayIndex = (dayIndex + 1) % PrayerTimeCalculator.MAX_DAYS_PER_YEAR;
+        calculator.computeDay(firstDay + dayIndex, day, 0);
+        return day[PrayerTimeCalculator.YATSI];
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int computeYear() {
+        return calculator.computeYear(YEAR, year);
+    }
+}
@@ -0,0 +1,175 @@
+package com.sadeezanvakti.app;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Toplu alarm isteğini kurulu alarmlarla karşılaştırır ve yalnızca değişen
+ * PendingIntent'ler için iptal/oluşturma listesi çıkarır.
+ *
+ * Alarm kimliği AlarmRegistry.alarmId ile (konum, gün, vakit, tür) dörtlüsünden
+ * türetilir; aynı vakit farklı günlerde birbirinin üzerine yazmaz ve kimlik aynı
+ * zamanda PendingIntent istek kodudur. Başka konumun kurulu dörtlüsüyle çakışan
+ * kimlik AlarmRegistry.nextProbe ile kaydırılır; kurulu alarm yerinden edilmez.
+ */
+public final class AlarmBatchPlanner {
+
+    public static final String STATUS_CREATED = "created";
+    public static final String STATUS_UPDATED = "updated";
+    public static final String STATUS_UNCHANGED = "unchanged";
+    public static final String STATUS_PAST = "past";
+    public static final String STATUS_INVALID = "invalid";
+
+    public static final class Entry {
+        public final int locationId;
+        public final int prayer;
+        public final long epochDay;
+        public final int kind;
+        public final long triggerAt;
+        private final int requestCode;
+
+        public Entry(int prayer, long epochDay, long triggerAt) {
+            this(0, prayer, epochDay, AlarmRegistry.KIND_EXACT, triggerAt);
+        }
+
+        public Entry(int locationId, int prayer, long epochDay, int kind, long triggerAt) {
+            this.locationId = locationId;
+            this.prayer = prayer;
+            this.epochDay = epochDay;
+            this.kind = kind;
+            this.triggerAt = triggerAt;
+            this.requestCode = AlarmRegistry.alarmId(locationId, epochDay, prayer, kind);
+        }
+
+        private Entry(Entry entry, int requestCode) {
+            this.locationId = entry.locationId;
+            this.prayer = entry.prayer;
+            this.epochDay = entry.epochDay;
+            this.kind = entry.kind;
+            this.triggerAt = entry.triggerAt;
+            this.requestCode = requestCode;
+        }
+
+        /** Ana kimlik; plan çakışma yüzünden kaydırdıysa toCreate'teki girdi kaydırılmış kimliği taşır */
+        public int requestCode() {
+            return requestCode;
+        }
+
+        public long slot() {
+            return AlarmRegistry.slotKey(locationId, epochDay, prayer, kind);
+        }
+
+        public AlarmRegistry.Record toRecord() {
+            return new AlarmRegistry.Record(requestCode, locationId, epochDay, prayer, kind, triggerAt, AlarmMode.EXACT);
+        }
+    }
+
+    public static final class Plan {
+        /** İstekteki her girdi için durum; sıra korunur */
+        public final String[] statuses;
+        /** İstekteki her girdinin istek kodu; geçersiz girdide -1 */
+        public final int[] codes;
+        public final List<Entry> toCreate = new ArrayList<>();
+        public final List<Integer> toCancel = new ArrayList<>();
+        /** Uygulandıktan sonra kurulu olacak alarmlar: istek kodu → tetiklenme zamanı */
+        public final Map<Integer, Long> armedAfter;
+
+        Plan(int size, Map<Integer, Long> armed) {
+            this.statuses = new String[size];
+            this.codes = new int[size];
+            this.armedAfter = new HashMap<>(armed);
+        }
+    }
+
+    private AlarmBatchPlanner() {
+    }
+
+    /**
+     * Kurulu kimliklerin hepsi ana kimlik kabul edilir; tek konumlu çağıranlar ve testler içindir.
+     */
+    public static Plan plan(Map<Integer, Long> armed, List<Entry> entries, boolean replaceAll, long now) {
+        return plan(armed, null, entries, replaceAll, now);
+    }
+
+    /**
+     * entries içindeki null girdiler geçersiz sayılır.
+     * replaceAll true ise istekte olmayan tüm kurulu alarmlar iptal listesine girer.
+     * slots kurulu kimlik → AlarmRegistry.slotKey'dir (AlarmRegistry.snapshotSlots); null ise
+     * çakışma denetimi yapılmaz.
+     */
+    public static Plan plan(Map<Integer, Long> armed, Map<Integer, Long> slots,
+                            List<Entry> entries, boolean replaceAll, long now) {
+        Plan plan = new Plan(entries.size(), armed);
+        Map<Integer, Long> requested = new HashMap<>();
+        // Kurulu ve bu istekte yer ayrılmış kimlikler; istekteki ikinci çakışan dörtlü de kaydırılır
+        Map<Integer, Long> slotById = slots != null ? new HashMap<>(slots) : null;
+        Map<Long, Integer> idBySlot = new HashMap<>();
+        if (slots != null) {
+            for (Map.Entry<Integer, Long> slot : slots.entrySet()) {
+                idBySlot.put(slot.getValue(), slot.getKey());
+            }
+        }
+
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            plan.codes[i] = -1;
+            if (entry == null || entry.prayer < 0 || entry.prayer >= PrayerTimeCalculator.PRAYER_COUNT) {
+                plan.statuses[i] = STATUS_INVALID;
+                continue;
+            }
+            if (entry.triggerAt <= now) {
+                plan.statuses[i] = STATUS_PAST;
+                plan.codes[i] = entry.requestCode();
+                continue;
+            }
+            int code = slotById != null ? resolve(entry, slotById, idBySlot) : entry.requestCode();
+            if (code < 0) {
+                // Aynı gün/vakit/tür için PROBE_LIMIT konum dolu
+                plan.statuses[i] = STATUS_INVALID;
+                continue;
+            }
+            plan.codes[i] = code;
+            requested.put(code, entry.triggerAt);
+            Long current = armed.get(code);
+            if (current != null && current == entry.triggerAt) {
+                plan.statuses[i] = STATUS_UNCHANGED;
+                continue;
+            }
+            plan.statuses[i] = current == null ? STATUS_CREATED : STATUS_UPDATED;
+            plan.toCreate.add(code == entry.requestCode() ? entry : new Entry(entry, code));
+            plan.armedAfter.put(code, entry.triggerAt);
+        }
+
+        for (Map.Entry<Integer, Long> existing : armed.entrySet()) {
+            int code = existing.getKey();
+            boolean expired = existing.getValue() <= now;
+            if (expired || (replaceAll && !requested.containsKey(code))) {
+                plan.armedAfter.remove(code);
+                if (!expired) {
+                    plan.toCancel.add(code);
+                }
+            }
+        }
+        return plan;
+    }
+
+    private static int resolve(Entry entry, Map<Integer, Long> slotById, Map<Long, Integer> idBySlot) {
+        long slot = entry.slot();
+        Integer existing = idBySlot.get(slot);
+        if (existing != null) {
+            return existing;
+        }
+        int code = entry.requestCode();
+        for (int i = 0; i < AlarmRegistry.PROBE_LIMIT; i++) {
+            if (!slotById.containsKey(code)) {
+                slotById.put(code, slot);
+                idBySlot.put(slot, code);
+                return code;
+            }
+            code = AlarmRegistry.nextProbe(code);
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,36 @@
+package com.sadeezanvakti.app;
+
+/**
+ * Bir alarmın AlarmManager'a hangi yolla kurulduğu.
+ *
+ * Android 12+ (S) kesin alarm izni yoksa hem setExactAndAllowWhileIdle hem
+ * setAlarmClock SecurityException atar; o zaman doğrudan kesin olmayan
+ * setAndAllowWhileIdle kullanılır. İzin varken bir yol hata verirse sıradakine geçilir.
+ */
+public final class AlarmMode {
+
+    // 0: eski kayıtlarda alan boştu ve o sürümler her zaman kesin kuruyordu
+    public static final int EXACT = 0;        // setExactAndAllowWhileIdle
+    public static final int ALARM_CLOCK = 1;  // setAlarmClock
+    public static final int INEXACT = 2;      // setAndAllowWhileIdle, dakikalarca kayabilir
+
+    public static final String[] NAMES = {"exact", "alarmClock", "inexact"};
+
+    /** Android 12 */
+    static final int SDK_S = 31;
+
+    private static final int[] FULL_LADDER = {EXACT, ALARM_CLOCK, INEXACT};
+    private static final int[] INEXACT_ONLY = {INEXACT};
+
+    private AlarmMode() {
+    }
+
+    /** Denenecek yollar, sırayla */
+    public static int[] ladder(int sdkInt, boolean canScheduleExact) {
+        return sdkInt >= SDK_S && !canScheduleExact ? INEXACT_ONLY : FULL_LADDER;
+    }
+
+    public static boolean isExact(int mode) {
+        return mode != INEXACT;
+    }
+}
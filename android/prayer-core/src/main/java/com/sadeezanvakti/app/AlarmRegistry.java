@@ -0,0 +1,334 @@
+package com.sadeezanvakti.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Kurulu alarmların kalıcı kaydı.
+ *
+ * Her alarmın kimliği (konum, tarih, vakit, tür) dörtlüsünden deterministik olarak
+ * türetilir ve PendingIntent istek kodu olarak kullanılır. Böylece aynı vakit farklı
+ * günlerde çakışmaz ve "kurulu mu?" sorusu O(1) cevaplanır. Konum kimliğe yalnızca
+ * 10 bitlik özet olarak girer; iki konumun özeti çakışırsa ikinci dörtlü bir sonraki
+ * boş özete kaydırılır (nextProbe), kimlik kayıtta saklanır. Kayıtlar küçük sabit
+ * boyutlu bir ikili dosyada tutulur.
+ */
+public final class AlarmRegistry {
+
+    public static final int KIND_EXACT = 0;
+    public static final int KIND_REMINDER = 1;
+    public static final int KIND_FOLLOW_UP = 2;
+    public static final int KIND_TEST = 3;
+
+    public static final String[] KIND_NAMES = {"exact", "reminder", "followUp", "test"};
+
+    /** Vakit anahtarı bilinmeyen alarmlar (ör. test) için vakit alanı */
+    public static final int PRAYER_OTHER = 7;
+
+    public static final String EXTRA_ALARM_ID = "alarmId";
+
+    public static final String FILE_NAME = "alarm_registry.bin";
+
+    private static final int MAGIC = 0x47525A45; // "EZRG"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+    private static final int RECORD_SIZE = 24;
+
+    // Konum özeti alanı; yoklama yalnızca bu alanı değiştirir, gün/vakit/tür bitleri korunur
+    private static final int LOCATION_SHIFT = 21;
+    private static final int SLOT_MASK = (1 << LOCATION_SHIFT) - 1;
+    static final int PROBE_LIMIT = 1 << 10;
+
+    public static final class Record {
+        public final int id;
+        public final int locationId;
+        public final long epochDay;
+        public final int prayer;
+        public final int kind;
+        public final long triggerAt;
+        /** AlarmMode; kimliğe girmez */
+        public final int mode;
+
+        public Record(int locationId, long epochDay, int prayer, int kind, long triggerAt) {
+            this(locationId, epochDay, prayer, kind, triggerAt, AlarmMode.EXACT);
+        }
+
+        public Record(int locationId, long epochDay, int prayer, int kind, long triggerAt, int mode) {
+            this(alarmId(locationId, epochDay, prayer, kind), locationId, epochDay, prayer, kind, triggerAt, mode);
+        }
+
+        /** Çakışma yoklamasıyla ana kimlikten farklı bir kimlik almış kayıt */
+        public Record(int id, int locationId, long epochDay, int prayer, int kind, long triggerAt, int mode) {
+            this.id = id;
+            this.locationId = locationId;
+            this.epochDay = epochDay;
+            this.prayer = prayer;
+            this.kind = kind;
+            this.triggerAt = triggerAt;
+            this.mode = mode;
+        }
+
+        public Record withMode(int mode) {
+            return new Record(id, locationId, epochDay, prayer, kind, triggerAt, mode);
+        }
+
+        public long slot() {
+            return slotKey(locationId, epochDay, prayer, kind);
+        }
+
+        boolean sameSlot(Record other) {
+            return slot() == other.slot();
+        }
+    }
+
+    private static AlarmRegistry shared;
+
+    private final File file;
+    private final Map<Integer, Record> records = new HashMap<>();
+    // Dosya vardı ama okunamadı; kayıtlar boş başladı
+    private boolean loadFailed;
+
+    public AlarmRegistry(File file) {
+        this.file = file;
+        load();
+    }
+
+    public static synchronized AlarmRegistry shared(File filesDir) {
+        if (shared == null) {
+            shared = new AlarmRegistry(new File(filesDir, FILE_NAME));
+        }
+        return shared;
+    }
+
+    /**
+     * 31 bitlik kimlik: [konum özeti 10][gün 16][vakit 3][tür 2].
+     * Gün 16 bitle 179 yıllık pencerede tekildir; konum yalnızca özet olarak girer.
+     * Negatif değerler diğer sabit istek kodlarına (ör. yuvarlanan alarm) ayrılmıştır.
+     */
+    public static int alarmId(int locationId, long epochDay, int prayer, int kind) {
+        int locationHash = (locationId * 0x9E3779B1) >>> 22;
+        int day = (int) (epochDay & 0xFFFF);
+        return (locationHash << 21) | (day << 5) | ((prayer & 0x7) << 2) | (kind & 0x3);
+    }
+
+    /**
+     * Dörtlünün 64 bitlik anahtarı: [konum 32][gün 16][vakit 3][tür 2]. Kimliğin
+     * aksine konumu tam taşır; çakışma denetimi bununla yapılır.
+     */
+    public static long slotKey(int locationId, long epochDay, int prayer, int kind) {
+        return ((long) locationId << 32) | ((epochDay & 0xFFFF) << 5) | ((prayer & 0x7) << 2) | (kind & 0x3);
+    }
+
+    /** Yoklama dizisinde sıradaki kimlik: konum özeti bir artar, alt 21 bit aynı kalır */
+    public static int nextProbe(int id) {
+        int location = ((id >>> LOCATION_SHIFT) + 1) & (PROBE_LIMIT - 1);
+        return (location << LOCATION_SHIFT) | (id & SLOT_MASK);
+    }
+
+    /**
+     * Dörtlünün kimliği. Kayıtlıysa mevcut kimliği, değilse ana kimlikten başlayıp
+     * başka dörtlüye ait olmayan ilk kimliği döndürür; boş kimlik yoksa -1.
+     */
+    public synchronized int idFor(int locationId, long epochDay, int prayer, int kind) {
+        long slot = slotKey(locationId, epochDay, prayer, kind);
+        for (Record record : records.values()) {
+            if (record.slot() == slot) {
+                return record.id;
+            }
+        }
+        int id = alarmId(locationId, epochDay, prayer, kind);
+        for (int i = 0; i < PROBE_LIMIT; i++) {
+            if (!records.containsKey(id)) {
+                return id;
+            }
+            id = nextProbe(id);
+        }
+        return -1;
+    }
+
+    public synchronized boolean isArmed(int id) {
+        return records.containsKey(id);
+    }
+
+    public synchronized Record get(int id) {
+        return records.get(id);
+    }
+
+    /**
+     * Kaydı ekler veya günceller. Kimlik başka bir dörtlüye aitse
+     * eski kayıt döndürülür ki çağıran önce onu iptal edebilsin.
+     */
+    public synchronized Record put(Record record) {
+        Record previous = records.put(record.id, record);
+        return previous != null && !previous.sameSlot(record) ? previous : null;
+    }
+
+    public synchronized Record remove(int id) {
+        return records.remove(id);
+    }
+
+    public synchronized int size() {
+        return records.size();
+    }
+
+    public synchronized void clear() {
+        records.clear();
+    }
+
+    /** Tetiklenme zamanına göre sıralı kopya */
+    public synchronized List<Record> list() {
+        List<Record> list = new ArrayList<>(records.values());
+        Collections.sort(list, (a, b) -> Long.compare(a.triggerAt, b.triggerAt));
+        return list;
+    }
+
+    public synchronized List<Record> findByPrayer(int prayer) {
+        List<Record> list = new ArrayList<>();
+        for (Record record : records.values()) {
+            if (record.prayer == prayer) {
+                list.add(record);
+            }
+        }
+        return list;
+    }
+
+    /** Kimlik → dörtlü anahtarı (slotKey); AlarmBatchPlanner çakışma denetimi girdisi */
+    public synchronized Map<Integer, Long> snapshotSlots() {
+        Map<Integer, Long> map = new HashMap<>(records.size() * 2);
+        for (Record record : records.values()) {
+            map.put(record.id, record.slot());
+        }
+        return map;
+    }
+
+    /** Kimlik → tetiklenme zamanı; AlarmBatchPlanner girdisi */
+    public synchronized Map<Integer, Long> snapshotTriggers() {
+        Map<Integer, Long> map = new HashMap<>(records.size() * 2);
+        for (Record record : records.values()) {
+            map.put(record.id, record.triggerAt);
+        }
+        return map;
+    }
+
+    /** Zamanı geçmiş kayıtları siler, silinen sayısını döndürür */
+    public synchronized int pruneExpired(long now) {
+        int before = records.size();
+        records.values().removeIf(record -> record.triggerAt <= now);
+        return before - records.size();
+    }
+
+    // ============================================================
+    // KALICILIK
+    // ============================================================
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+                // tamamını oku
+            }
+            buffer.flip();
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                loadFailed = true;
+                return;
+            }
+            int count = buffer.getInt();
+            for (int i = 0; i < count && buffer.remaining() >= RECORD_SIZE; i++) {
+                int locationId = buffer.getInt();
+                int epochDay = buffer.getInt();
+                int prayer = buffer.get();
+                int kind = buffer.get();
+                int mode = buffer.get();
+                if (mode < 0 || mode >= AlarmMode.NAMES.length) {
+                    mode = AlarmMode.EXACT;
+                }
+                buffer.get(); // hizalama
+                long triggerAt = buffer.getLong();
+                int id = buffer.getInt();
+                int home = alarmId(locationId, epochDay, prayer, kind);
+                // Eski dosyalarda alan 0'dır; alt bitleri dörtlüyle uyuşmayan kimlik ana kimliğe döner
+                if (id < 0 || (id & SLOT_MASK) != (home & SLOT_MASK)) {
+                    id = home;
+                }
+                Record record = new Record(id, locationId, epochDay, prayer, kind, triggerAt, mode);
+                records.put(record.id, record);
+            }
+        } catch (IOException e) {
+            loadFailed = true;
+        }
+    }
+
+    /**
+     * Yükleme başarısız olduysa bir kez true döner. Çekirdek modül olay günlüğüne
+     * bağlı değildir; hatayı çağıran kaydeder.
+     */
+    public synchronized boolean takeLoadFailure() {
+        boolean failed = loadFailed;
+        loadFailed = false;
+        return failed;
+    }
+
+    /** Geçici dosyaya yazıp yeniden adlandırır */
+    public synchronized void save() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + records.size() * RECORD_SIZE)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(records.size());
+        for (Record record : records.values()) {
+            buffer.putInt(record.locationId);
+            buffer.putInt((int) record.epochDay);
+            buffer.put((byte) record.prayer);
+            buffer.put((byte) record.kind);
+            buffer.put((byte) record.mode);
+            buffer.put((byte) 0);
+            buffer.putLong(record.triggerAt);
+            buffer.putInt(record.id);
+        }
+        buffer.flip();
+
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Dizin oluşturulamadı: " + dir);
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        try (RandomAccessFile raf = new RandomAccessFile(tmp, "rw");
+             FileChannel channel = raf.getChannel()) {
+            channel.truncate(0);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            throw new IOException("Alarm kaydı yazılamadı: " + file);
+        }
+    }
+
+    /** Zaman damgasının verilen dilimdeki yerel günü */
+    public static long localEpochDay(long timestamp, TimeZone tz) {
+        return Math.floorDiv(timestamp + tz.getOffset(timestamp), 86_400_000L);
+    }
+
+    public static int kindFromName(String name) {
+        for (int i = 0; i < KIND_NAMES.length; i++) {
+            if (KIND_NAMES[i].equals(name)) {
+                return i;
+            }
+        }
+        return KIND_EXACT;
+    }
+}
@@ -0,0 +1,127 @@
+package com.sadeezanvakti.app;
+
+import java.util.TimeZone;
+
+/**
+ * Bugün ve yarının vakitleri üzerinde "sıradaki vakit" araması.
+ *
+ * load gün içi dakikaları yaz saati dahil epoch milisaniyeye bir kez çevirir ve
+ * sıralı tek diziye koyar; indexAfter ikili aramayla yuvayı bulur, hiçbir şey
+ * ayırmaz. Yatsıdan sonra yarının imsakı döner. Yerel gün değişince
+ * (coversDay false) yeniden yüklenmelidir. Kilitsizdir; çağıran senkronize eder.
+ */
+public final class NextPrayerIndex {
+
+    static final int SLOTS = 2 * PrayerTimeCalculator.PRAYER_COUNT;
+
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+
+    private final long[] times = new long[SLOTS];
+    private final byte[] prayers = new byte[SLOTS];
+    private final boolean[] tomorrow = new boolean[SLOTS];
+    private final int[] scratch = new int[PrayerTimeCalculator.PRAYER_COUNT];
+    private int size;
+    private long epochDay = Long.MIN_VALUE;
+
+    /**
+     * Yerel epochDay ve ertesi gün için gün içi dakikalar (PrayerTable düzeni).
+     * PrayerTable.MISSING olan vakitler ve null günler atlanır.
+     */
+    public void load(long epochDay, int[] todayMinutes, int[] tomorrowMinutes, TimeZone timeZone) {
+        size = 0;
+        this.epochDay = epochDay;
+        addMinutesOfDay(epochDay, todayMinutes, false, timeZone);
+        addMinutesOfDay(epochDay + 1, tomorrowMinutes, true, timeZone);
+    }
+
+    /** Kaynaktan (UTC epoch-dakika) bugün ve yarın; kaynağın bilmediği gün atlanır */
+    public void load(PrayerTimesSource source, long epochDay) {
+        size = 0;
+        this.epochDay = epochDay;
+        for (int d = 0; d < 2; d++) {
+            if (source.getDay(epochDay + d, scratch)) {
+                for (int i = 0; i < PrayerTimeCalculator.PRAYER_COUNT; i++) {
+                    insert(scratch[i] * MILLIS_PER_MINUTE, i, d == 1);
+                }
+            }
+        }
+    }
+
+    private void addMinutesOfDay(long day, int[] minutes, boolean isTomorrow, TimeZone timeZone) {
+        if (minutes == null) {
+            return;
+        }
+        for (int i = 0; i < PrayerTimeCalculator.PRAYER_COUNT; i++) {
+            if (minutes[i] != PrayerTable.MISSING) {
+                insert(localToEpochMillis(day, minutes[i], timeZone), i, isTomorrow);
+            }
+        }
+    }
+
+    // Vakitler normalde zaten sıralıdır; yaz saati geçişi sırayı bozabilir diye sıralı eklenir
+    private void insert(long millis, int prayer, boolean isTomorrow) {
+        int i = size++;
+        while (i > 0 && times[i - 1] > millis) {
+            times[i] = times[i - 1];
+            prayers[i] = prayers[i - 1];
+            tomorrow[i] = tomorrow[i - 1];
+            i--;
+        }
+        times[i] = millis;
+        prayers[i] = (byte) prayer;
+        tomorrow[i] = isTomorrow;
+    }
+
+    /** nowMillis'ten kesin olarak sonraki ilk vaktin yuvası; yüklü vakitler bittiyse -1 */
+    public int indexAfter(long nowMillis) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] <= nowMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < size ? low : -1;
+    }
+
+    /** Yuvanın vakti (PrayerTimeCalculator sırası) */
+    public int prayerAt(int index) {
+        return prayers[index];
+    }
+
+    /** Yuvanın zamanı, epoch milisaniye */
+    public long timeAt(int index) {
+        return times[index];
+    }
+
+    public boolean isTomorrow(int index) {
+        return tomorrow[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Yüklü "bugün"; hiç yüklenmediyse Long.MIN_VALUE */
+    public long getEpochDay() {
+        return epochDay;
+    }
+
+    /** Zaman damgasının yerel günü yüklü gün mü */
+    public boolean coversDay(long nowMillis, TimeZone timeZone) {
+        return AlarmRegistry.localEpochDay(nowMillis, timeZone) == epochDay;
+    }
+
+    /**
+     * Yerel gün + gün içi dakikayı, yaz saati dahil, UTC epoch milisaniyeye çevirir.
+     * İleri alınan saatteki (var olmayan) dakikalar geçişten sonraya düşer.
+     */
+    public static long localToEpochMillis(long epochDay, int minuteOfDay, TimeZone timeZone) {
+        long localMillis = (epochDay * PrayerTimeCalculator.MINUTES_PER_DAY + minuteOfDay) * MILLIS_PER_MINUTE;
+        long guess = localMillis - timeZone.getOffset(localMillis);
+        return localMillis - timeZone.getOffset(guess);
+    }
+}
@@ -0,0 +1,194 @@
+package com.sadeezanvakti.app;
+
+import java.util.TimeZone;
+
+/**
+ * Kendini yeniden kuran tek alarmlı zamanlayıcı.
+ *
+ * Her tetiklenmede yerel vakit kaynağından bir sonraki etkin vakti bulur ve
+ * AlarmSink'e tek bir alarm olarak verir. Aynı anda yalnızca bir bekleyen alarm
+ * vardır; WebView'e ya da JS köprüsüne ihtiyaç duyulmaz.
+ *
+ * Vakit başına üç kademe olabilir: sessiz ön hatırlatma (KIND_REMINDER), asıl alarm
+ * (KIND_EXACT) ve takip (KIND_FOLLOW_UP). Hepsi aynı tablodan türetilir ve yine
+ * yalnızca sıradaki kademe kurulur; kademe eklemek AlarmManager kaydını çoğaltmaz.
+ */
+public class PrayerScheduler {
+
+    /** Test edilebilirlik için saat soyutlaması */
+    public interface Clock {
+        long currentTimeMillis();
+    }
+
+    /** AlarmManager'ın yerini tutan hedef; tek bir PendingIntent'i yönetir */
+    public interface AlarmSink {
+        /** kind AlarmRegistry.KIND_* kademesidir */
+        void setExact(long triggerAtMillis, int prayer, long epochDay, int kind);
+
+        void cancel();
+    }
+
+    public static final Clock SYSTEM_CLOCK = System::currentTimeMillis;
+
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    // Bugünden sonra en fazla kaç gün ileriye bakılır
+    private static final int LOOKAHEAD_DAYS = 3;
+
+    private final PrayerTimesSource source;
+    private final AlarmSink sink;
+    private final Clock clock;
+    private final TimeZone timeZone;
+
+    private int enabledMask = (1 << PrayerTimeCalculator.PRAYER_COUNT) - 1;
+    private final int[] offsetMinutes = new int[PrayerTimeCalculator.PRAYER_COUNT];
+    private final int[] reminderMinutes = new int[PrayerTimeCalculator.PRAYER_COUNT];
+    private final int[] followUpMinutes = new int[PrayerTimeCalculator.PRAYER_COUNT];
+
+    // Kullanıcının kapattığı asıl alarm; takibi kurulmaz
+    private long acknowledgedDay = Long.MIN_VALUE;
+    private int acknowledgedPrayer = -1;
+
+    private final int[] dayTimes = new int[PrayerTimeCalculator.PRAYER_COUNT];
+
+    private long nextTriggerAt = -1;
+    private int nextPrayer = -1;
+    private int nextKind = AlarmRegistry.KIND_EXACT;
+    private long nextEpochDay;
+
+    public PrayerScheduler(PrayerTimesSource source, AlarmSink sink, Clock clock, TimeZone timeZone) {
+        this.source = source;
+        this.sink = sink;
+        this.clock = clock;
+        this.timeZone = timeZone;
+    }
+
+    /** Bit i açıksa PRAYER_KEYS[i] için alarm kurulur */
+    public void setEnabledMask(int mask) {
+        this.enabledMask = mask;
+    }
+
+    /** Vakitten kaç dakika önce çalınacağı (prayerReminders) */
+    public void setOffsetMinutes(int prayer, int minutes) {
+        offsetMinutes[prayer] = Math.max(0, minutes);
+    }
+
+    /** Asıl alarmdan kaç dakika önce sessiz hatırlatma; 0 kapalı */
+    public void setReminderMinutes(int prayer, int minutes) {
+        reminderMinutes[prayer] = Math.max(0, minutes);
+    }
+
+    /** Asıl alarmdan kaç dakika sonra takip alarmı; 0 kapalı */
+    public void setFollowUpMinutes(int prayer, int minutes) {
+        followUpMinutes[prayer] = Math.max(0, minutes);
+    }
+
+    /** Kullanıcı o günün vaktini kapattı; takip kademesi atlanır */
+    public void acknowledge(long epochDay, int prayer) {
+        acknowledgedDay = epochDay;
+        acknowledgedPrayer = prayer;
+    }
+
+    /**
+     * Şu andan sonraki ilk vakit için alarm kurar.
+     * Kurulacak vakit yoksa bekleyen alarmı iptal eder ve false döner.
+     */
+    public boolean scheduleNext() {
+        return scheduleNextAfter(clock.currentTimeMillis());
+    }
+
+    /**
+     * afterMillis'ten kesin olarak sonraki ilk vakit için alarm kurar.
+     * AlarmReceiver, tetiklenen alarmın zamanını verir ki erken teslimde aynı vakit tekrar kurulmasın.
+     */
+    public boolean scheduleNextAfter(long afterMillis) {
+        long now = Math.max(afterMillis, clock.currentTimeMillis());
+        if (!findNext(now)) {
+            nextTriggerAt = -1;
+            nextPrayer = -1;
+            sink.cancel();
+            return false;
+        }
+        sink.setExact(nextTriggerAt, nextPrayer, nextEpochDay, nextKind);
+        return true;
+    }
+
+    public void cancel() {
+        nextTriggerAt = -1;
+        nextPrayer = -1;
+        sink.cancel();
+    }
+
+    private boolean findNext(long now) {
+        if (enabledMask == 0) {
+            return false;
+        }
+        long today = Math.floorDiv(now + timeZone.getOffset(now), MILLIS_PER_DAY);
+        long best = Long.MAX_VALUE;
+        long bestDay = 0;
+        int bestPrayer = -1;
+        int bestKind = AlarmRegistry.KIND_EXACT;
+        for (long day = today; day <= today + LOOKAHEAD_DAYS; day++) {
+            // Ön hatırlatma ertesi günün kademesini öne çekebilir; bulunan günden bir gün fazla bakılır
+            if (bestPrayer >= 0 && day > bestDay + 1) {
+                break;
+            }
+            if (!source.getDay(day, dayTimes)) {
+                continue;
+            }
+            // Farklı ön hatırlatma süreleri sırayı bozabilir; en erken kademe seçilir
+            for (int i = 0; i < PrayerTimeCalculator.PRAYER_COUNT; i++) {
+                if ((enabledMask & (1 << i)) == 0) {
+                    continue;
+                }
+                long alarm = (dayTimes[i] - (long) offsetMinutes[i]) * MILLIS_PER_MINUTE;
+                for (int kind = AlarmRegistry.KIND_EXACT; kind <= AlarmRegistry.KIND_FOLLOW_UP; kind++) {
+                    long trigger;
+                    if (kind == AlarmRegistry.KIND_EXACT) {
+                        trigger = alarm;
+                    } else if (kind == AlarmRegistry.KIND_REMINDER) {
+                        if (reminderMinutes[i] == 0) {
+                            continue;
+                        }
+                        trigger = alarm - reminderMinutes[i] * MILLIS_PER_MINUTE;
+                    } else {
+                        if (followUpMinutes[i] == 0 || (day == acknowledgedDay && i == acknowledgedPrayer)) {
+                            continue;
+                        }
+                        trigger = alarm + followUpMinutes[i] * MILLIS_PER_MINUTE;
+                    }
+                    if (trigger > now && trigger < best) {
+                        best = trigger;
+                        bestDay = day;
+                        bestPrayer = i;
+                        bestKind = kind;
+                    }
+                }
+            }
+        }
+        if (bestPrayer < 0) {
+            return false;
+        }
+        nextTriggerAt = best;
+        nextPrayer = bestPrayer;
+        nextKind = bestKind;
+        nextEpochDay = bestDay;
+        return true;
+    }
+
+    /** Son kurulan alarmın zamanı; kurulu alarm yoksa -1 */
+    public long getNextTriggerAt() {
+        return nextTriggerAt;
+    }
+
+    /** Son kurulan alarmın vakti (PrayerTimeCalculator sırası); yoksa -1 */
+    public int getNextPrayer() {
+        return nextPrayer;
+    }
+
+    /** Son kurulan alarmın kademesi (AlarmRegistry.KIND_*) */
+    public int getNextKind() {
+        return nextKind;
+    }
+}
@@ -0,0 +1,338 @@
+package com.sadeezanvakti.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Bir konumun bir yıllık namaz vakitlerini tutan sabit düzenli ikili dosya.
+ *
+ * Düzen (little-endian):
+ *   0  int   magic "EZVT"
+ *   4  short sürüm
+ *   6  short yıl
+ *   8  int   konum (Diyanet ilçe) ID
+ *   12 byte  kaynak (SOURCE_*)
+ *   13..31   ayrılmış
+ *   32 366 × 6 short - gün içindeki dakika, eksik gün için MISSING
+ *
+ * Dosya MappedByteBuffer ile okunur; herhangi bir tarih için erişim O(1) ve ayrıştırmasızdır.
+ */
+public final class PrayerTable {
+
+    public static final int MAGIC = 0x54565A45; // "EZVT" little-endian
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+    public static final int FILE_SIZE = HEADER_SIZE
+        + PrayerTimeCalculator.MAX_DAYS_PER_YEAR * PrayerTimeCalculator.PRAYER_COUNT * 2;
+
+    public static final short MISSING = -1;
+
+    public static final byte SOURCE_UNKNOWN = 0;
+    public static final byte SOURCE_DIYANET = 1;
+    public static final byte SOURCE_PROXY = 2;
+    public static final byte SOURCE_CALCULATED = 3;
+
+    private final ByteBuffer buffer;
+    private final int year;
+    private final int locationId;
+    private final byte source;
+
+    private PrayerTable(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < FILE_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Geçersiz vakit tablosu");
+        }
+        if (buffer.getShort(4) != VERSION) {
+            throw new IOException("Desteklenmeyen tablo sürümü: " + buffer.getShort(4));
+        }
+        this.year = buffer.getShort(6);
+        this.locationId = buffer.getInt(8);
+        this.source = buffer.get(12);
+    }
+
+    /**
+     * Dosyayı salt okunur olarak belleğe eşler. Kanal hemen kapatılır, eşleme geçerli kalır.
+     */
+    public static PrayerTable open(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            return new PrayerTable(mapped);
+        }
+    }
+
+    public static File fileFor(File dir, int locationId, int year) {
+        return new File(dir, "vakit_" + locationId + "_" + year + ".bin");
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public int getLocationId() {
+        return locationId;
+    }
+
+    public byte getSource() {
+        return source;
+    }
+
+    /** dayOfYear 0 tabanlıdır; eksikse MISSING döner */
+    public int getMinuteOfDay(int dayOfYear, int prayer) {
+        return buffer.getShort(offsetOf(dayOfYear, prayer));
+    }
+
+    public int getMinuteOfDay(int month, int day, int prayer) {
+        return getMinuteOfDay(PrayerTimeCalculator.dayOfYear(year, month, day), prayer);
+    }
+
+    public boolean hasDay(int dayOfYear) {
+        return dayOfYear >= 0
+            && dayOfYear < PrayerTimeCalculator.MAX_DAYS_PER_YEAR
+            && buffer.getShort(offsetOf(dayOfYear, 0)) != MISSING;
+    }
+
+    /** Günün altı vaktini out[offset..] içine kopyalar */
+    public void readDay(int dayOfYear, int[] out, int offset) {
+        int base = offsetOf(dayOfYear, 0);
+        for (int i = 0; i < PrayerTimeCalculator.PRAYER_COUNT; i++) {
+            out[offset + i] = buffer.getShort(base + i * 2);
+        }
+    }
+
+    /**
+     * Ayın vakit bölgesinin CRC32 özeti (eksik günler dahil). TableMeta'daki değerle
+     * karşılaştırılarak yarım kalmış yerinde yamalar ve değişmemiş aylar anlaşılır.
+     */
+    public int monthChecksum(int month) {
+        int from = offsetOf(monthStart(year, month), 0);
+        int to = offsetOf(monthStart(year, month + 1), 0);
+        byte[] bytes = new byte[to - from];
+        ByteBuffer view = buffer.duplicate();
+        view.position(from);
+        view.get(bytes);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+        return (int) crc.getValue();
+    }
+
+    /** Ayın ilk gününün yıl içi sırası (0 tabanlı); month 13 yılın gün sayısını verir */
+    public static int monthStart(int year, int month) {
+        if (month > 12) {
+            return PrayerTimeCalculator.isLeapYear(year) ? 366 : 365;
+        }
+        return PrayerTimeCalculator.dayOfYear(year, month, 1);
+    }
+
+    /** Yıl içi günün ayı (1..12) */
+    public static int monthOfDay(int year, int dayOfYear) {
+        int month = 1;
+        while (month < 12 && dayOfYear >= monthStart(year, month + 1)) {
+            month++;
+        }
+        return month;
+    }
+
+    /** Günün dosyadaki konumu; yerinde yama için */
+    static int offsetOfDay(int dayOfYear) {
+        return offsetOf(dayOfYear, 0);
+    }
+
+    private static int offsetOf(int dayOfYear, int prayer) {
+        return HEADER_SIZE + (dayOfYear * PrayerTimeCalculator.PRAYER_COUNT + prayer) * 2;
+    }
+
+    // ============================================================
+    // YAZMA
+    // ============================================================
+
+    /**
+     * Bir yıllık tabloyu bellekte toplar ve tek seferde diske yazar.
+     */
+    public static final class Builder {
+        private final int year;
+        private final int locationId;
+        private byte source = SOURCE_UNKNOWN;
+        private final short[] minutes =
+            new short[PrayerTimeCalculator.MAX_DAYS_PER_YEAR * PrayerTimeCalculator.PRAYER_COUNT];
+        private int dayCount;
+
+        public Builder(int year, int locationId) {
+            this.year = year;
+            this.locationId = locationId;
+            Arrays.fill(minutes, MISSING);
+        }
+
+        public Builder setSource(byte source) {
+            this.source = source;
+            return this;
+        }
+
+        public int getDayCount() {
+            return dayCount;
+        }
+
+        /** minutesOfDay dizisi PRAYER_COUNT uzunluğunda gün içi dakikalardır */
+        public Builder setDay(int dayOfYear, int[] minutesOfDay) {
+            int base = dayOfYear * PrayerTimeCalculator.PRAYER_COUNT;
+            if (minutes[base] == MISSING) {
+                dayCount++;
+            }
+            for (int i = 0; i < PrayerTimeCalculator.PRAYER_COUNT; i++) {
+                minutes[base + i] = (short) minutesOfDay[i];
+            }
+            return this;
+        }
+
+        public Builder setDay(int month, int day, int[] minutesOfDay) {
+            return setDay(PrayerTimeCalculator.dayOfYear(year, month, day), minutesOfDay);
+        }
+
+        /** Mevcut tablonun dolu günlerini kopyalar; kaynak etiketi de devralınır */
+        public Builder copyDays(PrayerTable table) {
+            int[] day = new int[PrayerTimeCalculator.PRAYER_COUNT];
+            for (int d = 0; d < PrayerTimeCalculator.MAX_DAYS_PER_YEAR; d++) {
+                if (table.hasDay(d)) {
+                    table.readDay(d, day, 0);
+                    setDay(d, day);
+                }
+            }
+            source = table.getSource();
+            return this;
+        }
+
+        public boolean hasDay(int dayOfYear) {
+            return minutes[dayOfYear * PrayerTimeCalculator.PRAYER_COUNT] != MISSING;
+        }
+
+        public void readDay(int dayOfYear, int[] out) {
+            int base = dayOfYear * PrayerTimeCalculator.PRAYER_COUNT;
+            for (int i = 0; i < PrayerTimeCalculator.PRAYER_COUNT; i++) {
+                out[i] = minutes[base + i];
+            }
+        }
+
+        /** Diğer derleyicinin dolu günleri bunun üzerine yazılır */
+        public Builder mergeFrom(Builder other) {
+            int[] day = new int[PrayerTimeCalculator.PRAYER_COUNT];
+            for (int d = 0; d < PrayerTimeCalculator.MAX_DAYS_PER_YEAR; d++) {
+                int base = d * PrayerTimeCalculator.PRAYER_COUNT;
+                if (other.minutes[base] != MISSING) {
+                    for (int i = 0; i < PrayerTimeCalculator.PRAYER_COUNT; i++) {
+                        day[i] = other.minutes[base + i];
+                    }
+                    setDay(d, day);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Önce geçici dosyaya yazar, sonra yeniden adlandırır; yarım kalan yazma
+         * eski tabloyu bozmaz.
+         */
+        public void writeTo(File file) throws IOException {
+            ByteBuffer out = ByteBuffer.allocate(FILE_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            out.putInt(MAGIC);
+            out.putShort(VERSION);
+            out.putShort((short) year);
+            out.putInt(locationId);
+            out.put(source);
+            out.position(HEADER_SIZE);
+            out.asShortBuffer().put(minutes);
+            out.rewind();
+
+            File tmp = new File(file.getPath() + ".tmp");
+            try (RandomAccessFile raf = new RandomAccessFile(tmp, "rw");
+                 FileChannel channel = raf.getChannel()) {
+                channel.truncate(0);
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+                channel.force(false);
+            }
+            if (!tmp.renameTo(file)) {
+                tmp.delete();
+                throw new IOException("Tablo yazılamadı: " + file);
+            }
+        }
+    }
+
+    // ============================================================
+    // JS ÖNBELLEK FORMATI YARDIMCILARI
+    // ============================================================
+
+    /** "HH:mm" → gün içi dakika; geçersizse MISSING */
+    public static int parseTime(String time) {
+        if (time == null || time.length() < 4) {
+            return MISSING;
+        }
+        int colon = time.indexOf(':');
+        if (colon <= 0 || colon == time.length() - 1) {
+            return MISSING;
+        }
+        int h = parseDigits(time, 0, colon);
+        int m = parseDigits(time, colon + 1, Math.min(time.length(), colon + 3));
+        if (h < 0 || h > 23 || m < 0 || m > 59) {
+            return MISSING;
+        }
+        return h * 60 + m;
+    }
+
+    /** "dd.MM.yyyy" → {gün, ay, yıl}; geçersizse false */
+    public static boolean parseDateKey(String key, int[] out) {
+        if (key == null || key.length() != 10 || key.charAt(2) != '.' || key.charAt(5) != '.') {
+            return false;
+        }
+        int day = parseDigits(key, 0, 2);
+        int month = parseDigits(key, 3, 5);
+        int year = parseDigits(key, 6, 10);
+        if (month < 1 || month > 12 || year < 1970
+            || day < 1 || day > monthStart(year, month + 1) - monthStart(year, month)) {
+            return false;
+        }
+        out[0] = day;
+        out[1] = month;
+        out[2] = year;
+        return true;
+    }
+
+    public static String formatTime(int minuteOfDay) {
+        int h = minuteOfDay / 60;
+        int m = minuteOfDay % 60;
+        return (h < 10 ? "0" : "") + h + ":" + (m < 10 ? "0" : "") + m;
+    }
+
+    public static byte sourceFromLabel(String label) {
+        if (label == null) {
+            return SOURCE_UNKNOWN;
+        }
+        if (label.contains("Proxy")) {
+            return SOURCE_PROXY;
+        }
+        if (label.contains("Diyanet")) {
+            return SOURCE_DIYANET;
+        }
+        return SOURCE_UNKNOWN;
+    }
+
+    private static int parseDigits(String s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
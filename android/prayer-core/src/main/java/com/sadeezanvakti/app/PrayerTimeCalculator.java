@@ -0,0 +1,233 @@
+package com.sadeezanvakti.app;
+
+/**
+ * Cihaz üzerinde namaz vakti hesaplayan saf Java motoru.
+ *
+ * Diyanet İşleri Başkanlığı'nın kullandığı açılar (imsak 18°, yatsı 17°, Şafii ikindi)
+ * ve temkin düzeltmeleri (güneş -7, öğle +5, ikindi +4, akşam +7 dakika) uygulanır.
+ * Sonuçlar UTC epoch-dakika olarak ilkel int dizilere yazılır; gün başına nesne
+ * oluşturulmaz, böylece bütün bir yıl birkaç milisaniyede hesaplanır.
+ */
+public final class PrayerTimeCalculator {
+
+    public static final int IMSAK = 0;
+    public static final int GUNES = 1;
+    public static final int OGLE = 2;
+    public static final int IKINDI = 3;
+    public static final int AKSAM = 4;
+    public static final int YATSI = 5;
+    public static final int PRAYER_COUNT = 6;
+
+    /** JS tarafındaki PrayerKeys ile aynı sıra */
+    public static final String[] PRAYER_KEYS = {"imsak", "gunes", "ogle", "ikindi", "aksam", "yatsi"};
+
+    public static final int MAX_DAYS_PER_YEAR = 366;
+    public static final int MINUTES_PER_DAY = 1440;
+
+    // Diyanet parametreleri
+    private static final double IMSAK_ANGLE = 18.0;
+    private static final double YATSI_ANGLE = 17.0;
+    private static final double SUN_ALTITUDE = 0.833;
+    private static final double ASR_SHADOW_FACTOR = 1.0;
+    private static final int[] TEMKIN_MINUTES = {0, -7, 5, 4, 7, 0};
+
+    private static final double DEG = Math.PI / 180.0;
+
+    private final double latitude;
+    private final double longitude;
+    private final double sinLat;
+    private final double cosLat;
+
+    // computeDay ara sonuçları - alan olarak tutulur ki gün başına tahsis olmasın
+    private final double[] hours = new double[PRAYER_COUNT];
+    private double declination;
+    private double equationOfTime;
+
+    public PrayerTimeCalculator(double latitude, double longitude) {
+        if (Double.isNaN(latitude) || latitude < -90 || latitude > 90) {
+            throw new IllegalArgumentException("Geçersiz enlem: " + latitude);
+        }
+        if (Double.isNaN(longitude) || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Geçersiz boylam: " + longitude);
+        }
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.sinLat = Math.sin(latitude * DEG);
+        this.cosLat = Math.cos(latitude * DEG);
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * Verilen yerel tarih için altı vakti hesaplar ve out[offset..offset+5] içine
+     * UTC epoch-dakika olarak yazar. Ay 1-12 aralığındadır.
+     */
+    public void computeDay(int year, int month, int day, int[] out, int offset) {
+        computeDay(epochDay(year, month, day), out, offset);
+    }
+
+    /**
+     * epochDay (1970-01-01 = 0) günü için altı vakti hesaplar.
+     */
+    public void computeDay(long epochDay, int[] out, int offset) {
+        // Julian gün, boylama göre yerel öğlene kaydırılmış
+        double jd = epochDay + 2440587.5 - longitude / 360.0;
+
+        // Vakitlerin kaba tahminleri (gün kesri) - tek iterasyon yeterli
+        hours[IMSAK] = angleTime(IMSAK_ANGLE, jd + 5.0 / 24, true);
+        hours[GUNES] = angleTime(SUN_ALTITUDE, jd + 6.0 / 24, true);
+        hours[OGLE] = midDay(jd + 12.0 / 24);
+        hours[IKINDI] = asrTime(jd + 13.0 / 24);
+        hours[AKSAM] = angleTime(SUN_ALTITUDE, jd + 18.0 / 24, false);
+        hours[YATSI] = angleTime(YATSI_ANGLE, jd + 18.0 / 24, false);
+
+        adjustHighLatitudes();
+
+        long dayStartMinute = epochDay * MINUTES_PER_DAY;
+        double lngHours = longitude / 15.0;
+        for (int i = 0; i < PRAYER_COUNT; i++) {
+            double utcMinutes = (hours[i] - lngHours) * 60.0 + TEMKIN_MINUTES[i];
+            out[offset + i] = (int) (dayStartMinute + Math.round(utcMinutes));
+        }
+    }
+
+    /**
+     * Yılın tüm günlerini out dizisine gün*6 + vakit düzeninde yazar.
+     * out en az 366*6 uzunluğunda olmalıdır. Hesaplanan gün sayısını döndürür.
+     */
+    public int computeYear(int year, int[] out) {
+        int days = isLeapYear(year) ? 366 : 365;
+        if (out.length < days * PRAYER_COUNT) {
+            throw new IllegalArgumentException("Dizi çok küçük: " + out.length);
+        }
+        long firstDay = epochDay(year, 1, 1);
+        for (int d = 0; d < days; d++) {
+            computeDay(firstDay + d, out, d * PRAYER_COUNT);
+        }
+        return days;
+    }
+
+    // ============================================================
+    // ASTRONOMİ
+    // ============================================================
+
+    private void sunPosition(double jd) {
+        double d = jd - 2451545.0;
+        double g = fixAngle(357.529 + 0.98560028 * d);
+        double q = fixAngle(280.459 + 0.98564736 * d);
+        double l = fixAngle(q + 1.915 * Math.sin(g * DEG) + 0.020 * Math.sin(2 * g * DEG));
+        double e = 23.439 - 0.00000036 * d;
+
+        double ra = Math.atan2(Math.cos(e * DEG) * Math.sin(l * DEG), Math.cos(l * DEG)) / DEG / 15.0;
+        equationOfTime = q / 15.0 - fixHour(ra);
+        declination = Math.asin(Math.sin(e * DEG) * Math.sin(l * DEG));
+    }
+
+    private double midDay(double jd) {
+        sunPosition(jd);
+        return fixHour(12 - equationOfTime);
+    }
+
+    /** Güneşin ufkun angle derece altında olduğu saat; NaN kutup bölgelerinde döner */
+    private double angleTime(double angle, double jd, boolean beforeNoon) {
+        double noon = midDay(jd);
+        double cosT = (-Math.sin(angle * DEG) - Math.sin(declination) * sinLat)
+            / (Math.cos(declination) * cosLat);
+        if (cosT < -1 || cosT > 1) {
+            return Double.NaN;
+        }
+        double t = Math.acos(cosT) / DEG / 15.0;
+        return beforeNoon ? noon - t : noon + t;
+    }
+
+    private double asrTime(double jd) {
+        sunPosition(jd);
+        double angle = -Math.atan(1.0 / (ASR_SHADOW_FACTOR + Math.tan(Math.abs(latitude * DEG - declination)))) / DEG;
+        return angleTime(angle, jd, false);
+    }
+
+    /**
+     * Yüksek enlemlerde imsak/yatsı hesaplanamazsa gece süresinin açıya
+     * oranlı kısmı kullanılır (AngleBased yöntemi).
+     */
+    private void adjustHighLatitudes() {
+        double sunrise = hours[GUNES];
+        double sunset = hours[AKSAM];
+        if (Double.isNaN(sunrise) || Double.isNaN(sunset)) {
+            // Gece yarısı güneşi / kutup gecesi: öğleye göre sabit aralıklar
+            double noon = hours[OGLE];
+            sunrise = noon - 6;
+            sunset = noon + 6;
+            hours[GUNES] = sunrise;
+            hours[AKSAM] = sunset;
+            if (Double.isNaN(hours[IKINDI])) {
+                hours[IKINDI] = noon + 3;
+            }
+        }
+        double night = 24 - (sunset - sunrise);
+
+        double imsakPortion = night * IMSAK_ANGLE / 60.0;
+        if (Double.isNaN(hours[IMSAK]) || sunrise - hours[IMSAK] > imsakPortion) {
+            hours[IMSAK] = sunrise - imsakPortion;
+        }
+        double yatsiPortion = night * YATSI_ANGLE / 60.0;
+        if (Double.isNaN(hours[YATSI]) || hours[YATSI] - sunset > yatsiPortion) {
+            hours[YATSI] = sunset + yatsiPortion;
+        }
+    }
+
+    // ============================================================
+    // TAKVİM YARDIMCILARI
+    // ============================================================
+
+    /** Proleptik Gregoryen tarihten 1970-01-01'e göre gün sayısı (java.time kullanmadan) */
+    public static long epochDay(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = (y >= 0 ? y : y - 399) / 400;
+        long yoe = y - era * 400;
+        long mp = (month + 9) % 12;
+        long doy = (153 * mp + 2) / 5 + day - 1;
+        long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+    /** epochDay → {yıl, ay, gün} */
+    public static void civilFromEpochDay(long epochDay, int[] out) {
+        long z = epochDay + 719468;
+        long era = (z >= 0 ? z : z - 146096) / 146097;
+        long doe = z - era * 146097;
+        long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        int day = (int) (doy - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        out[0] = (int) (yoe + era * 400 + (month <= 2 ? 1 : 0));
+        out[1] = month;
+        out[2] = day;
+    }
+
+    public static boolean isLeapYear(int year) {
+        return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+    }
+
+    /** Yılın kaçıncı günü olduğunu (0 tabanlı) döndürür */
+    public static int dayOfYear(int year, int month, int day) {
+        return (int) (epochDay(year, month, day) - epochDay(year, 1, 1));
+    }
+
+    private static double fixAngle(double a) {
+        a = a - 360.0 * Math.floor(a / 360.0);
+        return a < 0 ? a + 360.0 : a;
+    }
+
+    private static double fixHour(double h) {
+        h = h - 24.0 * Math.floor(h / 24.0);
+        return h < 0 ? h + 24.0 : h;
+    }
+}
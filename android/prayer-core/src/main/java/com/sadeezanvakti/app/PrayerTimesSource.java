@@ -0,0 +1,13 @@
+package com.sadeezanvakti.app;
+
+/**
+ * Zamanlayıcının vakitleri okuduğu yerel kaynak.
+ */
+public interface PrayerTimesSource {
+
+    /**
+     * Yerel epochDay günü için altı vakti UTC epoch-dakika olarak out'a yazar.
+     * Gün bilinmiyorsa false döner.
+     */
+    boolean getDay(long epochDay, int[] out);
+}
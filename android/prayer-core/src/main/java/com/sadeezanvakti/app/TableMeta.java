@@ -0,0 +1,102 @@
+package com.sadeezanvakti.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Bir vakit tablosunun yanındaki küçük özet dosyası: her ay için CRC32 ve son
+ * doğrulama zamanı.
+ *
+ * Ayın özeti tablodakiyle uyuşmuyorsa (ör. yerinde yama yarıda kaldıysa) ay bayat
+ * sayılır. Doğrulama zamanı, yenilemenin ağa hiç gitmeden atlanıp atlanamayacağını
+ * belirler.
+ */
+public final class TableMeta {
+
+    private static final int MAGIC = 0x544D5A45; // "EZMT"
+    private static final int MONTHS = 12;
+    public static final int SIZE = 8 + MONTHS * 12;
+
+    /** İndeks 0 = Ocak */
+    final int[] checksums = new int[MONTHS];
+    final long[] verifiedAt = new long[MONTHS];
+
+    public static File fileFor(File dir, int locationId, int year) {
+        return new File(dir, "vakit_" + locationId + "_" + year + ".meta");
+    }
+
+    /** Tablonun şu anki özetleriyle; hiçbir ay doğrulanmamış */
+    static TableMeta of(PrayerTable table) {
+        TableMeta meta = new TableMeta();
+        for (int month = 1; month <= MONTHS; month++) {
+            meta.checksums[month - 1] = table.monthChecksum(month);
+        }
+        return meta;
+    }
+
+    public long getVerifiedAt(int month) {
+        return verifiedAt[month - 1];
+    }
+
+    /** Ay doğrulanmış ve tablo hâlâ aynı mı? */
+    public boolean isFresh(PrayerTable table, int month, long now, long maxAgeMs) {
+        return verifiedAt[month - 1] > 0
+            && now - verifiedAt[month - 1] <= maxAgeMs
+            && checksums[month - 1] == table.monthChecksum(month);
+    }
+
+    /** Bozuk veya eksikse null */
+    static TableMeta load(File file) {
+        if (!file.isFile() || file.length() != SIZE) {
+            return null;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            ByteBuffer buffer = ByteBuffer.allocate(SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+                // tamamını oku
+            }
+            buffer.flip();
+            if (buffer.getInt() != MAGIC) {
+                return null;
+            }
+            buffer.getInt(); // ayrılmış
+            TableMeta meta = new TableMeta();
+            for (int i = 0; i < MONTHS; i++) {
+                meta.checksums[i] = buffer.getInt();
+                meta.verifiedAt[i] = buffer.getLong();
+            }
+            return meta;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /** Yazılan bayt sayısını döndürür */
+    int save(File file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(0);
+        for (int i = 0; i < MONTHS; i++) {
+            buffer.putInt(checksums[i]).putLong(verifiedAt[i]);
+        }
+        buffer.flip();
+
+        File tmp = new File(file.getPath() + ".tmp");
+        try (RandomAccessFile raf = new RandomAccessFile(tmp, "rw");
+             FileChannel channel = raf.getChannel()) {
+            channel.truncate(0);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            throw new IOException("Tablo özeti yazılamadı: " + file);
+        }
+        return SIZE;
+    }
+}
@@ -0,0 +1,141 @@
+package com.sadeezanvakti.app;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class AlarmBatchPlannerTest {
+
+    private static final long NOW = 1_770_000_000_000L;
+    private static final long DAY = PrayerTimeCalculator.epochDay(2026, 2, 13);
+
+    @Test
+    public void samePrayerOnDifferentDays_getDistinctIds() {
+        assertNotEquals(
+            new AlarmBatchPlanner.Entry(PrayerTimeCalculator.OGLE, DAY, NOW).requestCode(),
+            new AlarmBatchPlanner.Entry(PrayerTimeCalculator.OGLE, DAY + 1, NOW).requestCode());
+    }
+
+    @Test
+    public void reminderAndExact_forSameSlot_getDistinctIds() {
+        assertNotEquals(
+            new AlarmBatchPlanner.Entry(9541, PrayerTimeCalculator.OGLE, DAY, AlarmRegistry.KIND_EXACT, NOW).requestCode(),
+            new AlarmBatchPlanner.Entry(9541, PrayerTimeCalculator.OGLE, DAY, AlarmRegistry.KIND_REMINDER, NOW).requestCode());
+    }
+
+    @Test
+    public void weekOfAlarms_createdOnce_thenUnchanged() {
+        List<AlarmBatchPlanner.Entry> week = new ArrayList<>();
+        for (int d = 0; d < 7; d++) {
+            for (int p = 0; p < PrayerTimeCalculator.PRAYER_COUNT; p++) {
+                week.add(new AlarmBatchPlanner.Entry(p, DAY + d, NOW + (d * 6 + p + 1) * 3_600_000L));
+            }
+        }
+
+        AlarmBatchPlanner.Plan first = AlarmBatchPlanner.plan(new HashMap<>(), week, true, NOW);
+        assertEquals(42, first.toCreate.size());
+        assertEquals(0, first.toCancel.size());
+        assertEquals(42, first.armedAfter.size());
+
+        AlarmBatchPlanner.Plan second = AlarmBatchPlanner.plan(first.armedAfter, week, true, NOW);
+        assertEquals(0, second.toCreate.size());
+        assertEquals(0, second.toCancel.size());
+        for (String status : second.statuses) {
+            assertEquals(AlarmBatchPlanner.STATUS_UNCHANGED, status);
+        }
+    }
+
+    @Test
+    public void replaceAll_cancelsOnlyMissing_andUpdatesChanged() {
+        Map<Integer, Long> armed = new HashMap<>();
+        armed.put(code(DAY, PrayerTimeCalculator.OGLE), NOW + 1000);
+        armed.put(code(DAY, PrayerTimeCalculator.IKINDI), NOW + 2000);
+
+        List<AlarmBatchPlanner.Entry> request = Arrays.asList(
+            new AlarmBatchPlanner.Entry(PrayerTimeCalculator.OGLE, DAY, NOW + 1500),
+            new AlarmBatchPlanner.Entry(PrayerTimeCalculator.AKSAM, DAY, NOW + 3000),
+            new AlarmBatchPlanner.Entry(PrayerTimeCalculator.IMSAK, DAY, NOW - 10),
+            null
+        );
+
+        AlarmBatchPlanner.Plan plan = AlarmBatchPlanner.plan(armed, request, true, NOW);
+        assertArrayEquals(new String[]{
+            AlarmBatchPlanner.STATUS_UPDATED,
+            AlarmBatchPlanner.STATUS_CREATED,
+            AlarmBatchPlanner.STATUS_PAST,
+            AlarmBatchPlanner.STATUS_INVALID
+        }, plan.statuses);
+        assertEquals(2, plan.toCreate.size());
+        assertEquals(Arrays.asList(code(DAY, PrayerTimeCalculator.IKINDI)), plan.toCancel);
+        assertEquals(2, plan.armedAfter.size());
+    }
+
+    @Test
+    public void scheduleBatch_keepsUnrelatedAlarms() {
+        Map<Integer, Long> armed = new HashMap<>();
+        armed.put(code(DAY, PrayerTimeCalculator.IKINDI), NOW + 2000);
+
+        AlarmBatchPlanner.Plan plan = AlarmBatchPlanner.plan(armed,
+            Arrays.asList(new AlarmBatchPlanner.Entry(PrayerTimeCalculator.AKSAM, DAY, NOW + 3000)), false, NOW);
+        assertTrue(plan.toCancel.isEmpty());
+        assertEquals(2, plan.armedAfter.size());
+    }
+
+    @Test
+    public void expiredArmedEntries_areDroppedWithoutCancel() {
+        Map<Integer, Long> armed = new HashMap<>();
+        armed.put(code(DAY - 1, PrayerTimeCalculator.YATSI), NOW - 5000);
+
+        AlarmBatchPlanner.Plan plan = AlarmBatchPlanner.plan(armed, new ArrayList<>(), true, NOW);
+        assertTrue(plan.toCancel.isEmpty());
+        assertTrue(plan.armedAfter.isEmpty());
+    }
+
+    @Test
+    public void collidingLocation_isShifted_notReplaced() {
+        // 9541 ve 192'nin konum özeti aynı; 192'nin öğle alarmı kurulu
+        AlarmRegistry.Record other = new AlarmRegistry.Record(
+            192, DAY, PrayerTimeCalculator.OGLE, AlarmRegistry.KIND_EXACT, NOW + 1000);
+        Map<Integer, Long> armed = new HashMap<>();
+        Map<Integer, Long> slots = new HashMap<>();
+        armed.put(other.id, other.triggerAt);
+        slots.put(other.id, other.slot());
+
+        List<AlarmBatchPlanner.Entry> request = Arrays.asList(
+            new AlarmBatchPlanner.Entry(9541, PrayerTimeCalculator.OGLE, DAY, AlarmRegistry.KIND_EXACT, NOW + 2000));
+        AlarmBatchPlanner.Plan plan = AlarmBatchPlanner.plan(armed, slots, request, false, NOW);
+        assertEquals(AlarmBatchPlanner.STATUS_CREATED, plan.statuses[0]);
+        assertNotEquals(other.id, plan.codes[0]);
+        assertEquals(plan.codes[0], plan.toCreate.get(0).requestCode());
+        assertEquals(plan.codes[0], plan.toCreate.get(0).toRecord().id);
+        assertTrue(plan.toCancel.isEmpty());
+        assertEquals(Long.valueOf(NOW + 1000), plan.armedAfter.get(other.id));
+        assertEquals(2, plan.armedAfter.size());
+
+        // Kaydırılmış kimlikle kurulduktan sonra aynı istek değişmez
+        slots.put(plan.codes[0], request.get(0).slot());
+        AlarmBatchPlanner.Plan again = AlarmBatchPlanner.plan(plan.armedAfter, slots, request, false, NOW);
+        assertEquals(AlarmBatchPlanner.STATUS_UNCHANGED, again.statuses[0]);
+        assertEquals(plan.codes[0], again.codes[0]);
+    }
+
+    @Test
+    public void collidingLocations_inSameRequest_getDistinctIds() {
+        List<AlarmBatchPlanner.Entry> request = Arrays.asList(
+            new AlarmBatchPlanner.Entry(192, PrayerTimeCalculator.OGLE, DAY, AlarmRegistry.KIND_EXACT, NOW + 1000),
+            new AlarmBatchPlanner.Entry(9541, PrayerTimeCalculator.OGLE, DAY, AlarmRegistry.KIND_EXACT, NOW + 2000));
+        AlarmBatchPlanner.Plan plan = AlarmBatchPlanner.plan(new HashMap<>(), new HashMap<>(), request, false, NOW);
+        assertEquals(2, plan.toCreate.size());
+        assertNotEquals(plan.codes[0], plan.codes[1]);
+        assertEquals(2, plan.armedAfter.size());
+    }
+
+    private static int code(long epochDay, int prayer) {
+        return AlarmRegistry.alarmId(0, epochDay, prayer, AlarmRegistry.KIND_EXACT);
+    }
+}
@@ -0,0 +1,37 @@
+package com.sadeezanvakti.app;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class AlarmModeTest {
+
+    @Test
+    public void ladder_triesExactThenAlarmClockThenInexact() {
+        int[] expected = {AlarmMode.EXACT, AlarmMode.ALARM_CLOCK, AlarmMode.INEXACT};
+        assertArrayEquals(expected, AlarmMode.ladder(AlarmMode.SDK_S, true));
+        assertArrayEquals(expected, AlarmMode.ladder(36, true));
+    }
+
+    @Test
+    public void ladder_withoutExactPermission_goesStraightToInexact() {
+        assertArrayEquals(new int[]{AlarmMode.INEXACT}, AlarmMode.ladder(AlarmMode.SDK_S, false));
+        assertArrayEquals(new int[]{AlarmMode.INEXACT}, AlarmMode.ladder(34, false));
+    }
+
+    @Test
+    public void ladder_beforeAndroid12_ignoresPermission() {
+        // 12 öncesinde izin yoktur; kesin alarm her zaman kurulabilir
+        assertEquals(AlarmMode.EXACT, AlarmMode.ladder(AlarmMode.SDK_S - 1, false)[0]);
+        assertEquals(AlarmMode.EXACT, AlarmMode.ladder(24, false)[0]);
+    }
+
+    @Test
+    public void names_coverEveryMode() {
+        assertEquals("exact", AlarmMode.NAMES[AlarmMode.EXACT]);
+        assertEquals("alarmClock", AlarmMode.NAMES[AlarmMode.ALARM_CLOCK]);
+        assertEquals("inexact", AlarmMode.NAMES[AlarmMode.INEXACT]);
+        assertTrue(AlarmMode.isExact(AlarmMode.ALARM_CLOCK));
+        assertFalse(AlarmMode.isExact(AlarmMode.INEXACT));
+    }
+}
@@ -0,0 +1,160 @@
+package com.sadeezanvakti.app;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TimeZone;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AlarmRegistryTest {
+
+    private static final long NOW = 1_770_000_000_000L;
+    private static final long DAY = PrayerTimeCalculator.epochDay(2026, 2, 13);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void ids_areUniqueAcrossYearOfSlots_andNonNegative() {
+        Set<Integer> ids = new HashSet<>();
+        int count = 0;
+        for (int d = 0; d < 366; d++) {
+            for (int p = 0; p < PrayerTimeCalculator.PRAYER_COUNT; p++) {
+                for (int k = 0; k < AlarmRegistry.KIND_NAMES.length; k++) {
+                    int id = AlarmRegistry.alarmId(9541, DAY + d, p, k);
+                    assertTrue(id >= 0);
+                    ids.add(id);
+                    count++;
+                }
+            }
+        }
+        assertEquals(count, ids.size());
+    }
+
+    @Test
+    public void colliding_locations_getDistinctIds_thatSurviveReload() throws Exception {
+        // 9541 ve 192'nin 10 bitlik konum özeti aynıdır
+        assertEquals(AlarmRegistry.alarmId(9541, DAY, PrayerTimeCalculator.OGLE, AlarmRegistry.KIND_EXACT),
+            AlarmRegistry.alarmId(192, DAY, PrayerTimeCalculator.OGLE, AlarmRegistry.KIND_EXACT));
+
+        File file = new File(folder.getRoot(), AlarmRegistry.FILE_NAME);
+        AlarmRegistry registry = new AlarmRegistry(file);
+        AlarmRegistry.Record first = new AlarmRegistry.Record(
+            192, DAY, PrayerTimeCalculator.OGLE, AlarmRegistry.KIND_EXACT, NOW + 1000);
+        assertNull(registry.put(first));
+
+        int id = registry.idFor(9541, DAY, PrayerTimeCalculator.OGLE, AlarmRegistry.KIND_EXACT);
+        assertNotEquals(first.id, id);
+        assertTrue(id >= 0);
+        // Kaydırma tür bitlerini korur; alıcı türü kimlikten okur
+        assertEquals(AlarmRegistry.KIND_EXACT, id & 3);
+        AlarmRegistry.Record second = new AlarmRegistry.Record(
+            id, 9541, DAY, PrayerTimeCalculator.OGLE, AlarmRegistry.KIND_EXACT, NOW + 2000, AlarmMode.EXACT);
+        assertNull(registry.put(second));
+        assertEquals(2, registry.size());
+
+        // Kayıtlı dörtlü kendi kimliğini alır, ana kimlik boşalsa da
+        registry.remove(first.id);
+        assertEquals(id, registry.idFor(9541, DAY, PrayerTimeCalculator.OGLE, AlarmRegistry.KIND_EXACT));
+
+        registry.put(first);
+        registry.save();
+        AlarmRegistry reloaded = new AlarmRegistry(file);
+        assertEquals(9541, reloaded.get(id).locationId);
+        assertEquals(192, reloaded.get(first.id).locationId);
+    }
+
+    @Test
+    public void putAndRemove_answerIsArmed() {
+        AlarmRegistry registry = new AlarmRegistry(new File(folder.getRoot(), AlarmRegistry.FILE_NAME));
+        AlarmRegistry.Record record = new AlarmRegistry.Record(
+            9541, DAY, PrayerTimeCalculator.AKSAM, AlarmRegistry.KIND_EXACT, NOW + 1000);
+
+        assertFalse(registry.isArmed(record.id));
+        assertNull(registry.put(record));
+        assertTrue(registry.isArmed(record.id));
+        assertSame(record, registry.remove(record.id));
+        assertFalse(registry.isArmed(record.id));
+    }
+
+    @Test
+    public void saveAndReload_roundTripsRecords() throws Exception {
+        File file = new File(folder.getRoot(), AlarmRegistry.FILE_NAME);
+        AlarmRegistry registry = new AlarmRegistry(file);
+        for (int p = 0; p < PrayerTimeCalculator.PRAYER_COUNT; p++) {
+            registry.put(new AlarmRegistry.Record(9541, DAY, p, AlarmRegistry.KIND_EXACT, NOW + (6 - p) * 1000L));
+        }
+        registry.put(new AlarmRegistry.Record(9541, DAY, PrayerTimeCalculator.OGLE, AlarmRegistry.KIND_REMINDER, NOW + 500));
+        registry.save();
+
+        AlarmRegistry reloaded = new AlarmRegistry(file);
+        assertEquals(7, reloaded.size());
+        List<AlarmRegistry.Record> list = reloaded.list();
+        assertEquals(AlarmRegistry.KIND_REMINDER, list.get(0).kind);
+        assertEquals(PrayerTimeCalculator.YATSI, list.get(1).prayer);
+        assertEquals(NOW + 6000, list.get(6).triggerAt);
+        assertEquals(2, reloaded.findByPrayer(PrayerTimeCalculator.OGLE).size());
+    }
+
+    @Test
+    public void mode_roundTripsAndDefaultsToExact() throws Exception {
+        File file = new File(folder.getRoot(), AlarmRegistry.FILE_NAME);
+        AlarmRegistry registry = new AlarmRegistry(file);
+        AlarmRegistry.Record legacy = new AlarmRegistry.Record(
+            9541, DAY, PrayerTimeCalculator.IMSAK, AlarmRegistry.KIND_EXACT, NOW);
+        AlarmRegistry.Record inexact = new AlarmRegistry.Record(
+            9541, DAY, PrayerTimeCalculator.OGLE, AlarmRegistry.KIND_EXACT, NOW + 1000).withMode(AlarmMode.INEXACT);
+        registry.put(legacy);
+        registry.put(inexact);
+        registry.save();
+
+        AlarmRegistry reloaded = new AlarmRegistry(file);
+        assertEquals(AlarmMode.EXACT, reloaded.list().get(0).mode);
+        assertEquals(AlarmMode.INEXACT, reloaded.list().get(1).mode);
+        // Yol kimliği değiştirmez
+        assertEquals(new AlarmRegistry.Record(9541, DAY, PrayerTimeCalculator.OGLE, AlarmRegistry.KIND_EXACT, 0).id,
+            reloaded.list().get(1).id);
+    }
+
+    @Test
+    public void pruneExpired_dropsOnlyPastRecords() {
+        AlarmRegistry registry = new AlarmRegistry(new File(folder.getRoot(), AlarmRegistry.FILE_NAME));
+        registry.put(new AlarmRegistry.Record(0, DAY - 1, PrayerTimeCalculator.YATSI, AlarmRegistry.KIND_EXACT, NOW - 1));
+        registry.put(new AlarmRegistry.Record(0, DAY, PrayerTimeCalculator.IMSAK, AlarmRegistry.KIND_EXACT, NOW + 1));
+
+        assertEquals(1, registry.pruneExpired(NOW));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    public void corruptFile_isIgnored() throws Exception {
+        File file = new File(folder.getRoot(), AlarmRegistry.FILE_NAME);
+        Files.write(file.toPath(), new byte[]{1, 2, 3});
+        AlarmRegistry registry = new AlarmRegistry(file);
+        assertEquals(0, registry.size());
+        // Hata çağırana bir kez bildirilir
+        assertTrue(registry.takeLoadFailure());
+        assertFalse(registry.takeLoadFailure());
+    }
+
+    @Test
+    public void missingFile_isNotALoadFailure() {
+        AlarmRegistry registry = new AlarmRegistry(new File(folder.getRoot(), AlarmRegistry.FILE_NAME));
+        assertFalse(registry.takeLoadFailure());
+    }
+
+    @Test
+    public void localEpochDay_usesLocalMidnight() {
+        TimeZone istanbul = TimeZone.getTimeZone("Europe/Istanbul");
+        // 13.02.2026 00:30 İstanbul = 12.02.2026 21:30 UTC
+        long ts = (DAY * 1440 + 30 - 180) * 60_000L;
+        assertEquals(DAY, AlarmRegistry.localEpochDay(ts, istanbul));
+        assertEquals(DAY - 1, AlarmRegistry.localEpochDay(ts, TimeZone.getTimeZone("UTC")));
+    }
+}
@@ -0,0 +1,111 @@
+package com.sadeezanvakti.app;
+
+import static org.junit.Assert.*;
+
+import java.util.TimeZone;
+import org.junit.Test;
+
+public class NextPrayerIndexTest {
+
+    private static final TimeZone ISTANBUL = TimeZone.getTimeZone("Europe/Istanbul");
+    private static final TimeZone BERLIN = TimeZone.getTimeZone("Europe/Berlin");
+    private static final long MINUTE = 60_000L;
+
+    // 06:00, 07:30, 13:00, 16:30, 19:00, 20:30
+    private static final int[] DAY = {360, 450, 780, 990, 1140, 1230};
+
+    private static long localMillis(long epochDay, int minuteOfDay, TimeZone tz) {
+        return NextPrayerIndex.localToEpochMillis(epochDay, minuteOfDay, tz);
+    }
+
+    @Test
+    public void indexAfter_findsFirstStrictlyLaterPrayer() {
+        long day = PrayerTimeCalculator.epochDay(2024, 6, 10);
+        NextPrayerIndex index = new NextPrayerIndex();
+        index.load(day, DAY, DAY, ISTANBUL);
+        assertEquals(NextPrayerIndex.SLOTS, index.size());
+
+        int slot = index.indexAfter(localMillis(day, 700, ISTANBUL));
+        assertEquals(PrayerTimeCalculator.OGLE, index.prayerAt(slot));
+        assertEquals(localMillis(day, 780, ISTANBUL), index.timeAt(slot));
+        assertFalse(index.isTomorrow(slot));
+
+        // Tam vakit anında sıradaki vakte geçilir
+        slot = index.indexAfter(localMillis(day, 780, ISTANBUL));
+        assertEquals(PrayerTimeCalculator.IKINDI, index.prayerAt(slot));
+    }
+
+    @Test
+    public void indexAfter_afterYatsi_rollsOverToTomorrowsImsak() {
+        long day = PrayerTimeCalculator.epochDay(2024, 12, 31);
+        NextPrayerIndex index = new NextPrayerIndex();
+        index.load(day, DAY, DAY, ISTANBUL);
+
+        int slot = index.indexAfter(localMillis(day, 1300, ISTANBUL));
+        assertEquals(PrayerTimeCalculator.IMSAK, index.prayerAt(slot));
+        assertTrue(index.isTomorrow(slot));
+        assertEquals(localMillis(day + 1, 360, ISTANBUL), index.timeAt(slot));
+
+        // Yarın bilinmiyorsa yatsıdan sonrası boştur
+        index.load(day, DAY, null, ISTANBUL);
+        assertEquals(-1, index.indexAfter(localMillis(day, 1300, ISTANBUL)));
+    }
+
+    @Test
+    public void load_skipsMissingPrayers() {
+        long day = PrayerTimeCalculator.epochDay(2024, 6, 10);
+        int[] partial = DAY.clone();
+        partial[PrayerTimeCalculator.OGLE] = PrayerTable.MISSING;
+        NextPrayerIndex index = new NextPrayerIndex();
+        index.load(day, partial, null, ISTANBUL);
+
+        assertEquals(5, index.size());
+        int slot = index.indexAfter(localMillis(day, 700, ISTANBUL));
+        assertEquals(PrayerTimeCalculator.IKINDI, index.prayerAt(slot));
+    }
+
+    @Test
+    public void load_handlesDstTransitions() {
+        // 31 Mart 2024: Berlin 02:00'de 03:00'e geçer; 27 Ekim 2024: 03:00'te 02:00'ye döner
+        long spring = PrayerTimeCalculator.epochDay(2024, 3, 31);
+        NextPrayerIndex index = new NextPrayerIndex();
+        index.load(spring, DAY, DAY, BERLIN);
+        int slot = index.indexAfter(0);
+        // 06:00 CEST = 04:00 UTC; ertesi gün de aynı ofset
+        assertEquals(spring * 1440 * MINUTE + 4 * 60 * MINUTE, index.timeAt(slot));
+        assertEquals(24 * 60 * MINUTE, index.timeAt(6) - index.timeAt(0));
+
+        long autumn = PrayerTimeCalculator.epochDay(2024, 10, 27);
+        index.load(autumn - 1, DAY, DAY, BERLIN);
+        // Geçiş gecesi 25 saat sürer
+        assertEquals(25 * 60 * MINUTE, index.timeAt(6) - index.timeAt(0));
+
+        // İleri alınan saatteki vakit geçişten sonraya düşer, sıra bozulmaz
+        int[] gap = {150, 450, 780, 990, 1140, 1230};
+        index.load(spring, gap, null, BERLIN);
+        assertEquals(PrayerTimeCalculator.IMSAK, index.prayerAt(0));
+        assertEquals(spring * 1440 * MINUTE + 90 * MINUTE, index.timeAt(0));
+        for (int i = 1; i < index.size(); i++) {
+            assertTrue(index.timeAt(i) > index.timeAt(i - 1));
+        }
+    }
+
+    @Test
+    public void load_fromSource_readsEpochMinutes() {
+        long day = PrayerTimeCalculator.epochDay(2024, 6, 10);
+        PrayerTimeCalculator calculator = new PrayerTimeCalculator(41.0082, 28.9784);
+        NextPrayerIndex index = new NextPrayerIndex();
+        index.load((epochDay, out) -> {
+            calculator.computeDay(epochDay, out, 0);
+            return true;
+        }, day);
+
+        int[] expected = new int[PrayerTimeCalculator.PRAYER_COUNT];
+        calculator.computeDay(day + 1, expected, 0);
+        assertEquals(NextPrayerIndex.SLOTS, index.size());
+        assertEquals(expected[PrayerTimeCalculator.IMSAK] * MINUTE, index.timeAt(6));
+        assertTrue(index.isTomorrow(6));
+        assertTrue(index.coversDay(index.timeAt(0), ISTANBUL));
+        assertFalse(index.coversDay(index.timeAt(6), ISTANBUL));
+    }
+}
@@ -0,0 +1,137 @@
+package com.sadeezanvakti.app;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * PrayerTimeCalculator'ı Diyanet imsakiyesinden alınmış örnek değerlerle karşılaştırır.
+ */
+public class PrayerTimeCalculatorTest {
+
+    // Türkiye sabit UTC+3
+    private static final int TURKEY_OFFSET_MINUTES = 180;
+
+    // Diyanet bir dakikalık yuvarlama ve kendi temkin tablosunu kullanır
+    private static final int TOLERANCE_MINUTES = 2;
+
+    private static final double ISTANBUL_LAT = 41.0082;
+    private static final double ISTANBUL_LNG = 28.9784;
+    private static final double ANKARA_LAT = 39.9334;
+    private static final double ANKARA_LNG = 32.8597;
+
+    // { yıl, ay, gün, imsak, akşam } - Ramazan imsakiyesi (yerel saat, dakika)
+    private static final int[][] ISTANBUL_SAMPLE = {
+        {2023, 3, 23, 5 * 60 + 31, 19 * 60 + 26},
+        {2024, 3, 11, 5 * 60 + 51, 19 * 60 + 14},
+        {2025, 3, 1, 6 * 60 + 7, 19 * 60 + 2},
+    };
+
+    private static final int[][] ANKARA_SAMPLE = {
+        {2023, 3, 23, 5 * 60 + 17, 19 * 60 + 10},
+        {2024, 3, 11, 5 * 60 + 36, 18 * 60 + 59},
+        {2025, 3, 1, 5 * 60 + 52, 18 * 60 + 48},
+    };
+
+    @Test
+    public void istanbul_matchesDiyanetSample() {
+        assertSample(new PrayerTimeCalculator(ISTANBUL_LAT, ISTANBUL_LNG), ISTANBUL_SAMPLE);
+    }
+
+    @Test
+    public void ankara_matchesDiyanetSample() {
+        assertSample(new PrayerTimeCalculator(ANKARA_LAT, ANKARA_LNG), ANKARA_SAMPLE);
+    }
+
+    @Test
+    public void istanbulSummerSolstice_allSixTimes() {
+        // 21.06.2024 İstanbul: 03:24 05:25 13:11 17:11 20:47 22:38
+        int[] expected = {
+            3 * 60 + 24, 5 * 60 + 25, 13 * 60 + 11, 17 * 60 + 11, 20 * 60 + 47, 22 * 60 + 38
+        };
+        PrayerTimeCalculator calculator = new PrayerTimeCalculator(ISTANBUL_LAT, ISTANBUL_LNG);
+        int[] out = new int[PrayerTimeCalculator.PRAYER_COUNT];
+        calculator.computeDay(2024, 6, 21, out, 0);
+        for (int i = 0; i < PrayerTimeCalculator.PRAYER_COUNT; i++) {
+            assertWithin(PrayerTimeCalculator.PRAYER_KEYS[i], expected[i], localMinuteOfDay(out[i]));
+        }
+    }
+
+    @Test
+    public void computeYear_isOrderedAndMatchesComputeDay() {
+        PrayerTimeCalculator calculator = new PrayerTimeCalculator(ISTANBUL_LAT, ISTANBUL_LNG);
+        int[] year = new int[PrayerTimeCalculator.MAX_DAYS_PER_YEAR * PrayerTimeCalculator.PRAYER_COUNT];
+        assertEquals(366, calculator.computeYear(2024, year));
+        assertEquals(365, calculator.computeYear(2025, year));
+
+        int[] day = new int[PrayerTimeCalculator.PRAYER_COUNT];
+        calculator.computeDay(2025, 12, 31, day, 0);
+        int last = 364 * PrayerTimeCalculator.PRAYER_COUNT;
+        for (int i = 0; i < PrayerTimeCalculator.PRAYER_COUNT; i++) {
+            assertEquals(day[i], year[last + i]);
+        }
+
+        for (int d = 0; d < 365; d++) {
+            for (int i = 1; i < PrayerTimeCalculator.PRAYER_COUNT; i++) {
+                int idx = d * PrayerTimeCalculator.PRAYER_COUNT + i;
+                assertTrue("Gün " + d + " sırası bozuk", year[idx] > year[idx - 1]);
+            }
+        }
+    }
+
+    @Test
+    public void computeYear_isFast() {
+        PrayerTimeCalculator calculator = new PrayerTimeCalculator(ISTANBUL_LAT, ISTANBUL_LNG);
+        int[] year = new int[PrayerTimeCalculator.MAX_DAYS_PER_YEAR * PrayerTimeCalculator.PRAYER_COUNT];
+        for (int i = 0; i < 50; i++) {
+            calculator.computeYear(2024, year);
+        }
+        long start = System.nanoTime();
+        calculator.computeYear(2024, year);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        assertTrue("Bir yıl " + elapsedMs + " ms sürdü", elapsedMs < 50);
+    }
+
+    @Test
+    public void highLatitude_producesOrderedTimes() {
+        // Tromsø, yaz ortası - güneş batmaz
+        PrayerTimeCalculator calculator = new PrayerTimeCalculator(69.65, 18.96);
+        int[] out = new int[PrayerTimeCalculator.PRAYER_COUNT];
+        calculator.computeDay(2024, 6, 21, out, 0);
+        for (int i = 1; i < PrayerTimeCalculator.PRAYER_COUNT; i++) {
+            assertTrue(out[i] > out[i - 1]);
+        }
+    }
+
+    @Test
+    public void epochDay_matchesKnownDates() {
+        assertEquals(0, PrayerTimeCalculator.epochDay(1970, 1, 1));
+        assertEquals(19723, PrayerTimeCalculator.epochDay(2024, 1, 1));
+        assertEquals(59, PrayerTimeCalculator.dayOfYear(2024, 2, 29));
+        assertEquals(365, PrayerTimeCalculator.dayOfYear(2024, 12, 31));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidLatitude_throws() {
+        new PrayerTimeCalculator(91, 29);
+    }
+
+    private static void assertSample(PrayerTimeCalculator calculator, int[][] sample) {
+        int[] out = new int[PrayerTimeCalculator.PRAYER_COUNT];
+        for (int[] row : sample) {
+            calculator.computeDay(row[0], row[1], row[2], out, 0);
+            String date = row[2] + "." + row[1] + "." + row[0];
+            assertWithin(date + " imsak", row[3], localMinuteOfDay(out[PrayerTimeCalculator.IMSAK]));
+            assertWithin(date + " akşam", row[4], localMinuteOfDay(out[PrayerTimeCalculator.AKSAM]));
+        }
+    }
+
+    private static void assertWithin(String label, int expected, int actual) {
+        assertTrue(label + ": beklenen " + expected + ", hesaplanan " + actual,
+            Math.abs(expected - actual) <= TOLERANCE_MINUTES);
+    }
+
+    private static int localMinuteOfDay(int epochMinute) {
+        return Math.floorMod(epochMinute + TURKEY_OFFSET_MINUTES, PrayerTimeCalculator.MINUTES_PER_DAY);
+    }
+}
@@ -1,6 +1,8 @@
 
 import React, { useEffect, useRef } from 'react';
+import { Capacitor } from '@capacitor/core';
 import { SOUND_BEEP, SOUND_EZAN } from '../constants';
+import AlarmSound from '../services/alarmSound';
 import { AppSettings } from '../types';
 
 interface AlarmOverlayProps {
@@ -15,6 +17,13 @@ const AlarmOverlay: React.FC<AlarmOverlayProps> = ({ onStop, prayerName, setting
 
   useEffect(() => {
     // 1. Play Sound
+    // Android: önceden kopyalanmış yerel ses USAGE_ALARM ile çalar; başarısızsa web sesi
+    let cancelled = false;
+    const playWebAudio = () => {
+      if (cancelled || !audioRef.current) return;
+      audioRef.current.play().catch(e => console.warn("Audio play blocked", e));
+    };
+
     let soundSrc = SOUND_BEEP; // Default fallback
 
     if (settings.soundType === 'ezan') {
@@ -37,7 +46,13 @@ const AlarmOverlay: React.FC<AlarmOverlayProps> = ({ onStop, prayerName, setting
     audioRef.current.volume = settings.volume;
     
     // Attempt to play (browser may block if no interaction, but we assume interaction happened previously)
-    audioRef.current.play().catch(e => console.warn("Audio play blocked", e));
+    if (Capacitor.isNativePlatform()) {
+      AlarmSound.play()
+        .then(r => { if (!r.success) playWebAudio(); })
+        .catch(playWebAudio);
+    } else {
+      playWebAudio();
+    }
 
     // 2. Vibrate
     if (settings.vibrationEnabled && navigator.vibrate) {
@@ -51,6 +66,10 @@ const AlarmOverlay: React.FC<AlarmOverlayProps> = ({ onStop, prayerName, setting
 
     return () => {
       // Cleanup
+      cancelled = true;
+      if (Capacitor.isNativePlatform()) {
+        AlarmSound.stop().catch(() => { /* eklenti yoksa sorun değil */ });
+      }
       if (audioRef.current) {
         audioRef.current.pause();
         audioRef.current = null;
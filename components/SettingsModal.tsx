@@ -1,7 +1,7 @@
 
 import React, { useRef, useEffect, useState } from 'react';
 import { AppSettings, PrayerKeys, PrayerName, PrayerData } from '../types';
-import { ArrowLeft, Info, Volume2, Smartphone, Check, Sun, Moon, Sunrise, Sunset, CheckCircle, MapPin, Plus, Minus, Music, Bell, Upload, FileAudio, Power, BellOff } from 'lucide-react';
+import { ArrowLeft, Info, Volume2, Smartphone, Check, Sun, Moon, Sunrise, Sunset, CheckCircle, MapPin, Plus, Minus, Music, Bell, Upload, FileAudio, Power, BellOff, Timer } from 'lucide-react';
 
 interface SettingsModalProps {
     isOpen: boolean;
@@ -55,10 +55,38 @@ const SettingsModal: React.FC<SettingsModalProps> = ({ isOpen, onClose, settings
         onUpdateSettings({ ...settings, vibrationEnabled: !settings.vibrationEnabled });
     };
 
+    const toggleCountdownNotification = () => {
+        onUpdateSettings({ ...settings, countdownNotification: !settings.countdownNotification });
+    };
+
     const toggleNotifications = () => {
         onUpdateSettings({ ...settings, notificationsEnabled: !settings.notificationsEnabled });
     };
 
+    const PRE_REMINDER_CHOICES = [0, 10, 15, 30];
+    const FOLLOW_UP_CHOICES = [0, 5, 10];
+
+    const setTierMinutes = (field: 'preReminderMinutes' | 'followUpMinutes', minutes: number) => {
+        onUpdateSettings({ ...settings, [field]: minutes });
+    };
+
+    const renderTierChoices = (field: 'preReminderMinutes' | 'followUpMinutes', choices: number[]) => (
+        <div className="flex gap-2 mt-3">
+            {choices.map(minutes => {
+                const selected = (settings[field] ?? 0) === minutes;
+                return (
+                    <button
+                        key={minutes}
+                        onClick={() => setTierMinutes(field, minutes)}
+                        className={`flex-1 py-2 rounded-xl border-2 font-bold text-sm transition-all ${selected ? 'border-green-500 bg-green-50 text-green-900' : 'border-slate-100 bg-white text-slate-600'}`}
+                    >
+                        {minutes === 0 ? 'Kapalı' : `${minutes} dk`}
+                    </button>
+                );
+            })}
+        </div>
+    );
+
     const setPrayerReminder = (key: string, minutes: number) => {
         onUpdateSettings({
             ...settings,
@@ -197,6 +225,56 @@ const SettingsModal: React.FC<SettingsModalProps> = ({ isOpen, onClose, settings
                             </div>
                         </div>
                     </div>
+
+                    <div className="h-px bg-slate-50" />
+
+                    {/* Geri Sayım Bildirimi (uygulama açılmadan sıradaki vakit) */}
+                    <div
+                        onClick={toggleCountdownNotification}
+                        className="flex items-center justify-between py-2 rounded-2xl active:bg-slate-50 transition-colors cursor-pointer"
+                    >
+                        <div className="flex items-center gap-4">
+                            <div className={`w-12 h-12 ${settings.countdownNotification ? 'bg-indigo-100 text-indigo-600' : 'bg-slate-100 text-slate-400'} rounded-full flex items-center justify-center shrink-0`}>
+                                <Timer className="w-6 h-6" />
+                            </div>
+                            <div>
+                                <div className="font-bold text-slate-900 text-xl">Geri Sayım Bildirimi</div>
+                                <div className="text-slate-500 text-base">Sıradaki vakit bildirim çubuğunda</div>
+                            </div>
+                        </div>
+                        <div className={`w-16 h-9 rounded-full relative transition-all duration-300 ease-out ${settings.countdownNotification ? 'bg-green-500' : 'bg-slate-200'}`}>
+                            <div className={`absolute top-1 w-7 h-7 bg-white rounded-full shadow-sm transition-all duration-300 flex items-center justify-center ${settings.countdownNotification ? 'left-8' : 'left-1'}`}>
+                                {settings.countdownNotification && <Check className="w-4 h-4 text-green-500" strokeWidth={4} />}
+                            </div>
+                        </div>
+                    </div>
+
+                    <div className="h-px bg-slate-50" />
+
+                    {/* Ön Hatırlatma ve Takip (yerel zamanlayıcı kademeleri) */}
+                    <div className={!settings.notificationsEnabled ? 'opacity-50 grayscale pointer-events-none' : ''}>
+                        <div className="flex items-center gap-4">
+                            <div className="w-12 h-12 bg-amber-100 text-amber-600 rounded-full flex items-center justify-center shrink-0">
+                                <Bell className="w-6 h-6" />
+                            </div>
+                            <div>
+                                <div className="font-bold text-slate-900 text-xl">Ön Hatırlatma</div>
+                                <div className="text-slate-500 text-base">Ezandan önce sessiz bildirim</div>
+                            </div>
+                        </div>
+                        {renderTierChoices('preReminderMinutes', PRE_REMINDER_CHOICES)}
+
+                        <div className="flex items-center gap-4 mt-6">
+                            <div className="w-12 h-12 bg-blue-100 text-blue-600 rounded-full flex items-center justify-center shrink-0">
+                                <Bell className="w-6 h-6" />
+                            </div>
+                            <div>
+                                <div className="font-bold text-slate-900 text-xl">Tekrar Hatırlat</div>
+                                <div className="text-slate-500 text-base">Alarm kapatılmazsa yeniden çalsın</div>
+                            </div>
+                        </div>
+                        {renderTierChoices('followUpMinutes', FOLLOW_UP_CHOICES)}
+                    </div>
                 </div>
 
                 {/* Ses Seçimi */}
@@ -13,6 +13,9 @@ export const DEFAULT_SETTINGS: AppSettings = {
     aksam: 0,
     yatsi: 0,
   },
+  preReminderMinutes: 0,
+  followUpMinutes: 0,
+  countdownNotification: false,
   volume: 1.0,
   locationMode: 'auto',
 };
@@ -0,0 +1,34 @@
+import { registerPlugin } from '@capacitor/core';
+
+export interface AlarmSoundPlugin {
+  /**
+   * Seçili sesi yerel depoya bir kez kopyalar; kaynak değişmediyse kopyalama atlanır.
+   * 'beep' için sistem alarm sesi kullanılır.
+   */
+  setSound(options: {
+    type: 'ezan' | 'beep' | 'custom';
+    url?: string;
+    data?: string;     // base64 veya data URL (özel ses)
+    volume?: number;   // 0..1
+  }): Promise<{ success: boolean; copied: boolean; cached: boolean; elapsedMs: number }>;
+
+  /**
+   * Yerel kopyayı USAGE_ALARM ile çalar (önceden hazırlandıysa hemen başlar)
+   */
+  play(): Promise<{ success: boolean }>;
+
+  stop(): Promise<void>;
+
+  /**
+   * Son çalışların "çal isteği → ilk ses karesi" süreleri
+   */
+  getAudioStats(): Promise<{
+    cached: boolean;
+    plays: Array<{ at: number; firstAudioMs: number; prewarmed: boolean }>;
+  }>;
+}
+
+// Yalnızca Android'de mevcut; web'de AlarmOverlay HTMLAudioElement kullanır
+const AlarmSound = registerPlugin<AlarmSoundPlugin>('AlarmSound');
+
+export default AlarmSound;
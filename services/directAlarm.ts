@@ -1,5 +1,64 @@
 import { registerPlugin, WebPlugin } from '@capacitor/core';
 
+export interface BatchAlarm {
+  prayer: string;     // 'imsak' | 'gunes' | 'ogle' | 'ikindi' | 'aksam' | 'yatsi'
+  timestamp: number;
+  date?: string;      // "dd.MM.yyyy" — verilmezse timestamp'in yerel günü
+  locationId?: number;
+  kind?: AlarmKind;   // varsayılan 'exact'
+}
+
+export type AlarmKind = 'exact' | 'reminder' | 'followUp' | 'test';
+
+/** AlarmManager yolu: kesin izin yoksa (Android 12+) 'inexact', dakikalarca kayabilir */
+export type AlarmMode = 'exact' | 'alarmClock' | 'inexact';
+
+export interface PendingAlarm {
+  id: number;         // (konum, gün, vakit, tür) dörtlüsünden türetilen PendingIntent istek kodu
+  prayer: string;
+  date: string;       // "dd.MM.yyyy"
+  kind: AlarmKind;
+  locationId: number;
+  timestamp: number;
+  mode: AlarmMode;
+}
+
+export interface BatchResult {
+  success: boolean;
+  results: Array<{
+    index: number;
+    status: 'created' | 'updated' | 'unchanged' | 'past' | 'invalid';
+    prayer?: string;
+    timestamp?: number;
+    id?: number;
+    mode?: AlarmMode;   // yalnızca bu çağrıda kurulanlar
+  }>;
+  created: number;
+  cancelled: number;
+  armed: number;
+  elapsedMs: number;
+}
+
+export interface PowerStats {
+  ceilingMs: number;
+  holds: Array<{
+    at: number;
+    prayer: string;
+    holdMs: number;
+    path: 'open' | 'normal' | 'timeout' | 'killed';
+  }>;
+  paths: Record<'open' | 'normal' | 'timeout' | 'killed', number>;
+  totalHoldMs: number;
+  maxHoldMs: number;
+  avgHoldMs: number;
+}
+
+export interface SchedulingInfo {
+  canScheduleExact: boolean;
+  modes: Record<AlarmMode, number>; // süreç başından beri yol başına kurulan alarm
+  fallbacks: number;
+}
+
 export interface DirectAlarmPlugin {
   /**
    * Schedule a direct alarm that will launch the app
@@ -7,22 +66,29 @@ export interface DirectAlarmPlugin {
   scheduleAlarm(options: {
     prayer: string;
     timestamp: number;
+    date?: string;
+    locationId?: number;
+    kind?: AlarmKind;
     autoTrigger?: boolean;
     directLaunch?: boolean;
     testMode?: boolean;
   }): Promise<{
     success: boolean;
     message: string;
+    id?: number;
+    mode?: AlarmMode;
   }>;
 
   /**
-   * Cancel a specific alarm
+   * Cancel a specific alarm: { id } exactly that alarm, { prayer } every armed alarm of that prayer
    */
   cancelAlarm(options: {
-    prayer: string;
+    prayer?: string;
+    id?: number;
   }): Promise<{
     success: boolean;
     message: string;
+    cancelled?: number;
   }>;
 
   /**
@@ -32,6 +98,59 @@ export interface DirectAlarmPlugin {
     success: boolean;
     message: string;
   }>;
+
+  /**
+   * Kurulu alarmları tetiklenme sırasıyla döndürür
+   */
+  listPending(): Promise<{ success: boolean; alarms: PendingAlarm[]; canScheduleExact?: boolean }>;
+
+  /**
+   * Kesin alarm izni ve kurulan alarmların yol dağılımı (yalnızca Android)
+   */
+  getSchedulingInfo(): Promise<SchedulingInfo>;
+
+  /**
+   * Kimliği verilen alarm kurulu mu?
+   */
+  isArmed(options: { id: number }): Promise<{ armed: boolean }>;
+
+  /**
+   * Alarm wake lock tutuşları: süre ve bırakılma yolu (yalnızca Android)
+   */
+  getPowerStats(): Promise<PowerStats>;
+
+  /**
+   * Birden çok alarmı tek köprü çağrısında kurar; istekte olmayan alarmlara dokunmaz
+   */
+  scheduleBatch(options: { alarms: BatchAlarm[] }): Promise<BatchResult>;
+
+  /**
+   * Kurulu alarm kümesini istekteki kümeyle değiştirir; yalnızca farklar uygulanır
+   */
+  replaceAll(options: { alarms: BatchAlarm[] }): Promise<BatchResult>;
+
+  /**
+   * Yerel yuvarlanan zamanlayıcıyı yapılandırır (yalnızca Android).
+   * Alarm her tetiklendiğinde bir sonraki vakit WebView açılmadan kurulur.
+   */
+  configureSchedule(options: {
+    enabled: boolean;
+    locationId?: number;
+    latitude?: number;
+    longitude?: number;
+    prayers?: string[];
+    offsets?: Record<string, number>;
+    /** Asıl alarmdan kaç dakika önce sessiz bildirim (0 kapalı) */
+    reminders?: Record<string, number>;
+    /** Asıl alarm kapatılmadıysa kaç dakika sonra tekrar (0 kapalı) */
+    followUps?: Record<string, number>;
+  }): Promise<{
+    success: boolean;
+    nextPrayer?: string;
+    nextTriggerAt?: number;
+    nextKind?: AlarmKind;
+    mode?: AlarmMode;
+  }>;
 }
 
 class DirectAlarmWeb extends WebPlugin implements DirectAlarmPlugin {
@@ -81,8 +200,8 @@ class DirectAlarmWeb extends WebPlugin implements DirectAlarmPlugin {
     window.dispatchEvent(event);
   }
 
-  async cancelAlarm(options: { prayer: string }): Promise<{ success: boolean; message: string }> {
-    if (this.testTimers.has(options.prayer)) {
+  async cancelAlarm(options: { prayer?: string; id?: number }): Promise<{ success: boolean; message: string }> {
+    if (options.prayer && this.testTimers.has(options.prayer)) {
       clearTimeout(this.testTimers.get(options.prayer));
       this.testTimers.delete(options.prayer);
     }
@@ -96,6 +215,82 @@ class DirectAlarmWeb extends WebPlugin implements DirectAlarmPlugin {
     console.log('[DirectAlarm] Web: Tüm alarmlar iptal edildi.');
     return { success: true, message: 'Web: Tüm alarmlar iptal edildi.' };
   }
+
+  async scheduleBatch(options: { alarms: BatchAlarm[] }): Promise<BatchResult> {
+    return this._applyBatch(options.alarms, false);
+  }
+
+  async replaceAll(options: { alarms: BatchAlarm[] }): Promise<BatchResult> {
+    return this._applyBatch(options.alarms, true);
+  }
+
+  private async _applyBatch(alarms: BatchAlarm[], replaceAll: boolean): Promise<BatchResult> {
+    const start = performance.now();
+    const now = Date.now();
+    const timerKey = (a: BatchAlarm) => `${a.prayer}@${a.date ?? new Date(a.timestamp).toDateString()}`;
+    const requested = new Set(alarms.map(timerKey));
+    let cancelled = 0;
+
+    if (replaceAll) {
+      this.testTimers.forEach((timer, key) => {
+        if (!requested.has(key)) {
+          clearTimeout(timer);
+          this.testTimers.delete(key);
+          cancelled++;
+        }
+      });
+    }
+
+    const results: BatchResult['results'] = alarms.map((alarm, index) => {
+      if (alarm.timestamp <= now) return { index, status: 'past', prayer: alarm.prayer, timestamp: alarm.timestamp };
+      const key = timerKey(alarm);
+      const existed = this.testTimers.has(key);
+      if (existed) clearTimeout(this.testTimers.get(key));
+      this.testTimers.set(key, setTimeout(() => {
+        this._triggerAlarmScreen(alarm.prayer);
+        this.testTimers.delete(key);
+      }, alarm.timestamp - now));
+      return { index, status: existed ? 'updated' : 'created', prayer: alarm.prayer, timestamp: alarm.timestamp };
+    });
+
+    return {
+      success: true,
+      results,
+      created: results.filter(r => r.status === 'created' || r.status === 'updated').length,
+      cancelled,
+      armed: this.testTimers.size,
+      elapsedMs: performance.now() - start,
+    };
+  }
+
+  async listPending(): Promise<{ success: boolean; alarms: PendingAlarm[] }> {
+    // Web zamanlayıcıları kalıcı değil; kayıt yalnızca Android'de tutulur
+    return { success: true, alarms: [] };
+  }
+
+  async isArmed(): Promise<{ armed: boolean }> {
+    return { armed: false };
+  }
+
+  async getPowerStats(): Promise<PowerStats> {
+    return {
+      ceilingMs: 0,
+      holds: [],
+      paths: { open: 0, normal: 0, timeout: 0, killed: 0 },
+      totalHoldMs: 0,
+      maxHoldMs: 0,
+      avgHoldMs: 0,
+    };
+  }
+
+  async getSchedulingInfo(): Promise<SchedulingInfo> {
+    return { canScheduleExact: false, modes: { exact: 0, alarmClock: 0, inexact: 0 }, fallbacks: 0 };
+  }
+
+  async configureSchedule(): Promise<{ success: boolean }> {
+    // Web'de yerel zamanlayıcı yok; App.tsx bildirim yoluna düşer
+    return { success: false };
+  }
 }
 
 // Plugin'i global olarak kaydet
@@ -0,0 +1,38 @@
+import { registerPlugin } from '@capacitor/core';
+
+export type JournalLevel = 'debug' | 'info' | 'warn' | 'error' | 'off';
+
+export interface JournalRecord {
+  seq: number;
+  at: number;          // epoch ms
+  level: JournalLevel;
+  type: string;        // 'alarmFired', 'activityShown', 'wakeLockReleased', ...
+  prayer?: string;     // vakte bağlı olaylarda
+  durationMs: number;  // alarmFired: planlanan zamandan gecikme (-1 bilinmiyor)
+  value: number;       // türe göre: tetiklenme zamanı, indirilen bayt...
+  arg: number;         // türe göre: AlarmMode, alarm kimliği, yol...
+}
+
+export interface EventJournalPlugin {
+  /**
+   * Yerel olay günlüğü, eskiden yeniye. since olarak önceki nextSeq verilirse yalnızca yeniler gelir
+   */
+  export(options?: { since?: number; limit?: number }): Promise<{
+    level: JournalLevel;
+    capacity: number;
+    nextSeq: number;
+    records: JournalRecord[];
+  }>;
+
+  /**
+   * Kaydedilecek en düşük seviye; yeniden başlatmada korunur (varsayılan 'info')
+   */
+  setLevel(options: { level: JournalLevel }): Promise<void>;
+
+  clear(): Promise<void>;
+}
+
+// Yalnızca Android'de mevcut; web'de çağrılar "unimplemented" hatası verir
+const EventJournal = registerPlugin<EventJournalPlugin>('EventJournal');
+
+export default EventJournal;
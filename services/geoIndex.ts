@@ -0,0 +1,38 @@
+import { registerPlugin } from '@capacitor/core';
+
+export type GeoKind = 'city' | 'district';
+
+export interface NearestLocation {
+  id: number;        // Diyanet SehirID (il) veya IlceID (ilçe)
+  cityId: number;    // Bağlı olduğu il (SehirID)
+  kind: GeoKind;
+  name: string;
+  latitude: number;
+  longitude: number;
+  distanceKm: number;
+  queryUs: number;
+}
+
+export interface GeoIndexPlugin {
+  /**
+   * Paketlenmiş k-d ağacında en yakın il/ilçe merkezi (haversine)
+   */
+  nearest(options: {
+    latitude: number;
+    longitude: number;
+    kind?: GeoKind;
+  }): Promise<NearestLocation>;
+
+  /**
+   * İndeksteki nokta sayısı ve yükleme süresi
+   */
+  getInfo(): Promise<{
+    size: number;
+    loadMs: number;
+  }>;
+}
+
+// Yalnızca Android'de mevcut; web'de çağrılar "unimplemented" hatası verir
+const GeoIndex = registerPlugin<GeoIndexPlugin>('GeoIndex');
+
+export default GeoIndex;
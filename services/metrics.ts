@@ -0,0 +1,67 @@
+import { registerPlugin } from '@capacitor/core';
+
+export interface MethodMetrics {
+  method: string;     // "Eklenti.metot", ör. "DirectAlarm.scheduleBatch"
+  count: number;
+  p50Ms: number;      // iş parçacığında çalışma süresi
+  p95Ms: number;
+  p99Ms: number;
+  maxMs: number;
+  meanMs: number;
+  waitP95Ms: number;  // sırada bekleme
+  rejected: number;   // sıra dolu olduğu için reddedilen
+  firstAtMs: number;  // süreç başından ilk çağrıya kadar
+}
+
+export interface StartupPathStats {
+  count: number;      // kayıtlı soğuk açılış
+  p50Ms: number;      // süreç başından ilk kareye
+  maxMs: number;
+  p50PssKb: number;   // ilk karedeki bellek
+}
+
+/**
+ * Aynı alarm için bastırılan tekrarlar (süreç başından beri). fired: yinelenen yayın,
+ * screen: ikinci ekran açma, sound: ikinci ses, event: ikinci web olayı
+ */
+export interface SuppressedCounts {
+  fired: number;
+  screen: number;
+  sound: number;
+  event: number;
+}
+
+/**
+ * Son alarmın yaşam döngüsü (yerelde kalıcı). totalRingMs ertelemeler dahil çalma süresi
+ */
+export interface AlarmSessionInfo {
+  state: 'idle' | 'ringing' | 'snoozed' | 'dismissed' | 'timedOut';
+  snoozeCount: number;
+  totalRingMs: number;
+  snoozeUntil?: number;
+}
+
+export interface MetricsPlugin {
+  /**
+   * Yerel eklenti çağrılarının gecikme yüzdelikleri, ilk çağrılma sırasıyla
+   */
+  getMetrics(options?: {
+    log?: boolean;    // logcat'e de yaz (plugin_metrics satırları)
+    reset?: boolean;
+  }): Promise<{ methods: MethodMetrics[] }>;
+
+  /**
+   * Soğuk açılış medyanları: ui = köprü + WebView, alarm = yalnız yerel AlarmActivity
+   */
+  getStartupTrace(): Promise<{ ui: StartupPathStats; alarm: StartupPathStats }>;
+
+  /**
+   * Bastırılan tekrar alarmlar ve son alarm oturumu
+   */
+  getAlarmStats(): Promise<{ suppressed: SuppressedCounts; session: AlarmSessionInfo }>;
+}
+
+// Yalnızca Android'de mevcut; web'de çağrılar "unimplemented" hatası verir
+const Metrics = registerPlugin<MetricsPlugin>('Metrics');
+
+export default Metrics;
@@ -0,0 +1,95 @@
+import { registerPlugin } from '@capacitor/core';
+
+export type FetchAttemptStatus = 'won' | 'failed' | 'cancelled' | 'notStarted';
+
+export interface FetchAttempt {
+  endpoint: string;
+  status: FetchAttemptStatus;
+  startedAtMs: number;   // indirme başlangıcına göre
+  latencyMs: number;
+  bytesRead: number;     // indirilen gövde baytları
+  error?: string;
+}
+
+export interface EndpointHealthEntry {
+  endpoint: string;
+  latencyMs: number | null;
+  successRate: number;
+  failuresInRow: number;
+  samples: number;
+  score: number;         // düşük olan önce denenir
+}
+
+export interface FetchOutcome {
+  success: boolean;
+  skipped: boolean;      // tablo güncel, ağa gidilmedi
+  notModified: boolean;  // sunucu 304 döndü, gövde indirilmedi
+  endpoint?: string;
+  source?: 'diyanet' | 'proxy';
+  days?: number;
+  daysChanged?: number;  // tabloda gerçekten değişen gün
+  elapsedMs: number;
+  bytesDownloaded: number;
+  bytesWritten: number;
+  attempts: FetchAttempt[];
+}
+
+export interface FetchOptions {
+  locationId: number;
+  ilceId?: string;
+  citySlug?: string;
+}
+
+export type RefreshRunOutcome = 'skipped' | 'notModified' | 'updated' | 'failed' | 'noLocation';
+
+export interface RefreshRun {
+  startedAt: number;
+  durationMs: number;
+  outcome: RefreshRunOutcome;
+  locationId: number;
+  daysChanged: number;
+  bytesDownloaded: number;
+  bytesWritten: number;
+  rearmed: boolean;      // değişen veriyle alarm yeniden kuruldu
+  attempt: number;       // WorkManager deneme sayısı, 0'dan
+  endpoint?: string;
+  error?: string;
+}
+
+export interface RefreshWork {
+  state: 'ENQUEUED' | 'RUNNING' | 'SUCCEEDED' | 'FAILED' | 'BLOCKED' | 'CANCELLED';
+  requiresCharging: boolean;
+  network: string;       // CONNECTED | UNMETERED
+  nextRunAt: number;
+  attempt: number;
+}
+
+export interface PrayerFetchPlugin {
+  /**
+   * Diyanet ve yedek kaynakları kademeli yarıştırır; kazanan yanıt
+   * doğrudan yerel vakit tablosuna yamanır (yalnızca değişen günler)
+   */
+  fetch(options: FetchOptions): Promise<FetchOutcome>;
+
+  /**
+   * fetch gibi, ama önümüzdeki 30 gün tabloda ve son bir haftada doğrulanmışsa
+   * ağa gitmez. Bayatsa koşullu istek atar (ETag / Last-Modified)
+   */
+  refresh(options: FetchOptions & { force?: boolean }): Promise<FetchOutcome>;
+
+  /**
+   * Arka plan yenilemesinin (şarjda veya ücretsiz Wi-Fi'da, 12 saatte bir)
+   * son çalışmaları, en yeni önce. Konum fetch/refresh ile kaydedilir
+   */
+  getRefreshHistory(): Promise<{ runs: RefreshRun[]; work: RefreshWork[] }>;
+
+  /**
+   * Kaynak başına gecikme ve sağlık puanları
+   */
+  getEndpointHealth(): Promise<{ endpoints: EndpointHealthEntry[] }>;
+}
+
+// Yalnızca Android'de mevcut; web'de çağrılar "unimplemented" hatası verir
+const PrayerFetch = registerPlugin<PrayerFetchPlugin>('PrayerFetch');
+
+export default PrayerFetch;
@@ -1,9 +1,17 @@
 import { PrayerData, PrayerTimes } from '../types';
 import { TURKEY_CITIES, DIYANET_API_BASE } from '../constants';
-import { CapacitorHttp } from '@capacitor/core';
+import { Capacitor, CapacitorHttp } from '@capacitor/core';
+import PrayerTable from './prayerTable';
+import GeoIndex from './geoIndex';
+import PrayerFetch from './prayerFetch';
 
 const YEARLY_CACHE_KEY = 'ezan_diyanet_v60';
 const DISTRICT_CACHE_KEY = 'ezan_district_cache';
+const NATIVE_TABLE_KEY = 'ezan_native_table_v1';
+const PREFETCH_KEY = 'ezan_prefetch_v1';
+const DIYANET_SOURCE = "Diyanet İşleri Başkanlığı (Resmi)";
+const PREFETCH_DELAY_MS = 15000;
+const REFRESH_DELAY_MS = 20000;
 
 // ============================================================
 // ANA FONKSİYON: Namaz vakitlerini getir
@@ -14,35 +22,80 @@ export const fetchPrayerTimes = async (lat: number, lng: number, cityOverride?:
     const currentYear = now.getFullYear();
     const todayKey = `${now.getDate().toString().padStart(2, '0')}.${(now.getMonth() + 1).toString().padStart(2, '0')}.${currentYear}`;
 
-    const cityNameRaw = cityOverride || findNearestCity(lat, lng) || 'İstanbul';
-    const cityName = cityNameRaw;
+    const nearest = cityOverride ? null : await resolveLocation(lat, lng);
+    const cityName = cityOverride || nearest?.city || 'İstanbul';
+    const districtId = nearest?.districtId;
 
     // 1. ÖNBELLEK KONTROLÜ (Sonsuz süre, sadece şehir değişiminde temizlenir)
     const cached = localStorage.getItem(YEARLY_CACHE_KEY);
     if (cached) {
         try {
             const fullData = JSON.parse(cached);
-            if (fullData.city === cityName && fullData.days && fullData.days[todayKey]) {
+            const sameDistrict = !districtId || String(fullData.locationId) === districtId;
+            if (fullData.city === cityName && sameDistrict && fullData.days && fullData.days[todayKey]) {
+                const locationId = fullData.locationId ?? TURKEY_CITIES.find(c => c.name === fullData.city)?.sehirId;
+                syncNativeTable(cached, locationId);
+                if (fullData.source === DIYANET_SOURCE) {
+                    schedulePrefetch(locationId, now);
+                    scheduleRefresh(locationId);
+                }
                 return {
                     date: todayKey,
                     times: fullData.days[todayKey],
                     city: fullData.city,
                     isOffline: true,
-                    source: fullData.source || "Diyanet İşleri Başkanlığı (Önbellek)"
+                    source: fullData.source || "Diyanet İşleri Başkanlığı (Önbellek)",
+                    locationId,
+                    coords: { latitude: lat, longitude: lng }
                 };
             }
         } catch (e) { /* önbellek bozuksa yeniden çek */ }
     }
 
+    // 1b. YEREL ÇOK KONUMLU TABLO (Android) - daha önce açılan şehirler ağsız ve anında
+    const stored = await readNativeTable(cityName, districtId, todayKey);
+    if (stored) {
+        if (stored.official) {
+            schedulePrefetch(stored.locationId, now);
+            scheduleRefresh(stored.locationId);
+        }
+        return {
+            date: todayKey,
+            times: stored.times,
+            city: cityName,
+            isOffline: true,
+            source: "Diyanet İşleri Başkanlığı (Yerel Tablo)",
+            locationId: stored.locationId,
+            coords: { latitude: lat, longitude: lng }
+        };
+    }
+
+    // 2a. YEREL HEDGED İNDİRME (Android) - kaynaklar sırayla değil, kademeli yarışır
+    const fetched = await fetchNative(cityName, districtId, todayKey);
+    if (fetched) {
+        if (fetched.official) schedulePrefetch(fetched.locationId, now);
+        return {
+            date: todayKey,
+            times: fetched.times,
+            city: cityName,
+            source: fetched.official ? DIYANET_SOURCE : "Diyanet Uyumlu (Proxy)",
+            locationId: fetched.locationId,
+            coords: { latitude: lat, longitude: lng }
+        };
+    }
+
     // 2. DİYANET RESMİ API (ezanvakti.emushaf.net) - 1 YILLIK VERİ
     try {
-        const data = await fetchFromDiyanetOfficial(cityName);
+        const data = await fetchFromDiyanetOfficial(cityName, districtId);
         if (data && data.days[todayKey]) {
+            schedulePrefetch(data.locationId, now);
             return {
                 date: todayKey,
                 times: data.days[todayKey],
                 city: cityName,
-                source: "Diyanet İşleri Başkanlığı (Resmi)"
+                source: "Diyanet İşleri Başkanlığı (Resmi)",
+                locationId: data.locationId,
+                coords: { latitude: lat, longitude: lng }
             };
         }
     } catch (e) {
@@ -73,12 +126,15 @@ export const fetchPrayerTimes = async (lat: number, lng: number, cityOverride?:
                 });
 
                 const sourceInfo = "Diyanet Uyumlu (Proxy)";
-                localStorage.setItem(YEARLY_CACHE_KEY, JSON.stringify({
-                    city: cityName, days: daysMap, source: sourceInfo
-                }));
+                const locationId = TURKEY_CITIES.find(c => c.name === cityName)?.sehirId;
+                const raw = storeYearlyCache(cityName, daysMap, sourceInfo, locationId);
+                syncNativeTable(raw, locationId);
 
                 if (daysMap[todayKey]) {
-                    return { date: todayKey, times: daysMap[todayKey], city: cityName, source: sourceInfo };
+                    return {
+                        date: todayKey, times: daysMap[todayKey], city: cityName, source: sourceInfo,
+                        locationId, coords: { latitude: lat, longitude: lng }
+                    };
                 }
             }
         } catch (e) {
@@ -106,7 +162,9 @@ export const fetchPrayerTimes = async (lat: number, lng: number, cityOverride?:
                         times: fullData.days[closestDate],
                         city: fullData.city || cityName,
                         isOffline: true,
-                        source: `${fullData.source || "Önbellek"} (Offline Mod)`
+                        source: `${fullData.source || "Önbellek"} (Offline Mod)`,
+                        locationId: fullData.locationId,
+                        coords: { latitude: lat, longitude: lng }
                     };
                 }
             }
@@ -121,13 +179,13 @@ export const fetchPrayerTimes = async (lat: number, lng: number, cityOverride?:
 // ============================================================
 // DİYANET RESMİ API - İlçe ID'sini bul ve vakitleri çek
 // ============================================================
-const fetchFromDiyanetOfficial = async (cityName: string): Promise<{ days: Record<string, PrayerTimes>; source: string } | null> => {
+const fetchFromDiyanetOfficial = async (cityName: string, districtId?: string): Promise<{ days: Record<string, PrayerTimes>; source: string; locationId: string } | null> => {
     // Şehir bilgisini bul
     const cityInfo = TURKEY_CITIES.find(c => c.name === cityName);
     if (!cityInfo) return null;
 
-    // İlçe ID'sini al (önbellekten veya API'den)
-    const ilceId = await getDiyanetDistrictId(cityInfo.sehirId, cityName);
+    // İlçe ID'sini al (yerel indeksten, önbellekten veya API'den)
+    const ilceId = districtId || await getDiyanetDistrictId(cityInfo.sehirId, cityName);
     if (!ilceId) return null;
 
     // Namaz vakitlerini çek
@@ -136,7 +194,53 @@ const fetchFromDiyanetOfficial = async (cityName: string): Promise<{ days: Recor
     const rawData = response.data;
     if (!Array.isArray(rawData) || rawData.length === 0) throw new Error("Boş veri");
 
-    // Diyanet API yanıtını uygulama formatına dönüştür
+    const daysMap = toDaysMap(rawData);
+    const source = DIYANET_SOURCE;
+
+    // Önbelleğe kaydet
+    const raw = storeYearlyCache(cityName, daysMap, source, ilceId);
+    syncNativeTable(raw, ilceId);
+
+    return { days: daysMap, source, locationId: ilceId };
+};
+
+// ============================================================
+// YILLIK ÖNBELLEK - Aynı konumun yeni günleri eskilerle birleşir;
+// hiçbir gün değişmediyse localStorage yeniden yazılmaz
+// ============================================================
+const storeYearlyCache = (city: string, days: Record<string, PrayerTimes>, source: string,
+    locationId?: string | number): string => {
+    const existing = localStorage.getItem(YEARLY_CACHE_KEY);
+    let merged = days;
+    if (existing) {
+        try {
+            const previous = JSON.parse(existing);
+            if (previous.city === city && String(previous.locationId) === String(locationId) && previous.days) {
+                merged = { ...previous.days, ...days };
+            }
+        } catch (e) { /* bozuk önbellek üzerine yazılır */ }
+    }
+    const raw = JSON.stringify({ city, days: merged, source, locationId });
+    if (raw !== existing) localStorage.setItem(YEARLY_CACHE_KEY, raw);
+    return raw;
+};
+
+// ============================================================
+// YEREL İKİLİ TABLO - Android'de önbelleği bir kez içe aktar
+// Alarm tarafı JSON'u yeniden ayrıştırmadan O(1) okur
+// ============================================================
+const syncNativeTable = (raw: string, locationId?: string | number) => {
+    if (!Capacitor.isNativePlatform() || locationId === undefined) return;
+    const marker = `${locationId}:${raw.length}`;
+    if (localStorage.getItem(NATIVE_TABLE_KEY) === marker) return;
+
+    PrayerTable.importJson({ json: raw, locationId: Number(locationId) })
+        .then(() => localStorage.setItem(NATIVE_TABLE_KEY, marker))
+        .catch(e => console.warn("Yerel vakit tablosu aktarılamadı:", e));
+};
+
+// Diyanet API yanıtını uygulama formatına dönüştür
+const toDaysMap = (rawData: any[]): Record<string, PrayerTimes> => {
     const daysMap: Record<string, PrayerTimes> = {};
     rawData.forEach((item: any) => {
         const dateKey = item.MiladiTarihKisa; // "13.02.2026" formatı
@@ -151,29 +255,148 @@ const fetchFromDiyanetOfficial = async (cityName: string): Promise<{ days: Recor
             };
         }
     });
+    return daysMap;
+};
 
-    const source = "Diyanet İşleri Başkanlığı (Resmi)";
+// ============================================================
+// ÇOK KONUMLU YEREL TABLO - Şehir değişiminde ağa gitmeden oku
+// İlçe kimliği indeksten veya ilçe önbelleğinden; proxy verisi il kimliğiyle saklanır
+// ============================================================
+const readNativeTable = async (cityName: string, districtId: string | undefined, todayKey: string):
+    Promise<{ locationId: string; times: PrayerTimes; official: boolean } | null> => {
+    if (!Capacitor.isNativePlatform()) return null;
+    const cityInfo = TURKEY_CITIES.find(c => c.name === cityName);
+    const candidates: { id?: string; official: boolean }[] = [
+        { id: districtId, official: true },
+        { id: cityInfo ? cachedDistrictId(cityInfo.sehirId) : undefined, official: true },
+        { id: cityInfo?.sehirId, official: false }
+    ];
+    for (const candidate of candidates) {
+        if (!candidate.id) continue;
+        try {
+            const day = await PrayerTable.getDay({ locationId: Number(candidate.id), date: todayKey });
+            return { locationId: candidate.id, times: day.times, official: candidate.official };
+        } catch (e) { /* bu konum için tablo yok */ }
+    }
+    return null;
+};
 
-    // Önbelleğe kaydet
-    localStorage.setItem(YEARLY_CACHE_KEY, JSON.stringify({
-        city: cityName, days: daysMap, source
-    }));
+// ============================================================
+// YEREL HEDGED İNDİRME - Java tarafı Diyanet ve proxy'leri yarıştırır,
+// yanıtı akıştan doğrudan yıllık tabloya yazar
+// ============================================================
+const fetchNative = async (cityName: string, districtId: string | undefined, todayKey: string):
+    Promise<{ locationId: string; times: PrayerTimes; official: boolean } | null> => {
+    if (!Capacitor.isNativePlatform()) return null;
+    const cityInfo = TURKEY_CITIES.find(c => c.name === cityName);
+    if (!cityInfo) return null;
 
-    return { days: daysMap, source };
+    try {
+        const ilceId = districtId || await getDiyanetDistrictId(cityInfo.sehirId, cityName).catch(() => null);
+        const locationId = ilceId || cityInfo.sehirId;
+        const result = await PrayerFetch.fetch({
+            locationId: Number(locationId),
+            ilceId: ilceId || undefined,
+            citySlug: getDiyanetSlug(cityName.toLocaleUpperCase('tr-TR'))
+        });
+        console.log(`Yerel indirme: ${result.endpoint ?? 'başarısız'} (${result.elapsedMs}ms)`, result.attempts);
+        if (!result.success) return null;
+
+        const day = await PrayerTable.getDay({ locationId: Number(locationId), date: todayKey });
+        return { locationId, times: day.times, official: result.source === 'diyanet' };
+    } catch (e) {
+        console.warn("Yerel indirme başarısız, JS kaynakları deneniyor...", e);
+        return null;
+    }
+};
+
+// ============================================================
+// ARALIK ÖN YÜKLEMESİ - Gelecek yılın tablosunu arka planda çek
+// Yalnızca Diyanet ilçe kimlikleri için; günde en fazla bir deneme
+// ============================================================
+const schedulePrefetch = (locationId: string | number | undefined, now: Date) => {
+    if (!Capacitor.isNativePlatform() || locationId === undefined || now.getMonth() !== 11) return;
+    const nextYear = now.getFullYear() + 1;
+    const marker = `${locationId}:${nextYear}:${now.getDate()}`;
+    if (localStorage.getItem(PREFETCH_KEY) === marker) return;
+    localStorage.setItem(PREFETCH_KEY, marker);
+
+    setTimeout(async () => {
+        try {
+            const { exists } = await PrayerTable.hasYear({ locationId: Number(locationId), year: nextYear });
+            if (exists) return;
+            // Yanıt yerelde mevcut yılın günleriyle birleştirilir; localStorage'a dokunulmaz
+            const result = await PrayerFetch.fetch({ locationId: Number(locationId), ilceId: String(locationId) });
+            if (result.success) console.log(`${nextYear} vakitleri önceden yüklendi: ${locationId}`);
+        } catch (e) {
+            console.warn("Gelecek yıl ön yüklemesi başarısız:", e);
+        }
+    }, PREFETCH_DELAY_MS);
+};
+
+// ============================================================
+// ARKA PLAN YENİLEMESİ - Önbellekten açılışta tabloyu gerektiği kadar tazele
+// Java tarafı güncel tabloda ağa gitmez, bayatsa koşullu istek atar ve
+// yalnızca değişen günleri yazar
+// ============================================================
+const scheduleRefresh = (locationId: string | number | undefined) => {
+    if (!Capacitor.isNativePlatform() || locationId === undefined) return;
+
+    setTimeout(async () => {
+        try {
+            const result = await PrayerFetch.refresh({ locationId: Number(locationId), ilceId: String(locationId) });
+            if (result.skipped) return;
+            console.log(`Vakit yenileme: ${result.notModified ? 'değişmedi' : `${result.daysChanged ?? 0} gün değişti`}`
+                + ` (${result.bytesDownloaded} B indirildi, ${result.bytesWritten} B yazıldı)`);
+            // Düzeltilmiş günler yerel tablodan okunsun diye eski JSON önbelleği bırakılır
+            if (result.daysChanged) localStorage.removeItem(YEARLY_CACHE_KEY);
+        } catch (e) {
+            console.warn("Arka plan yenilemesi başarısız:", e);
+        }
+    }, REFRESH_DELAY_MS);
+};
+
+// ============================================================
+// KONUM ÇÖZÜMLEME - Android'de paketlenmiş yerel indeks (ilçe çözünürlüğü),
+// web'de il merkezleri üzerinde haversine taraması
+// ============================================================
+const resolveLocation = async (lat: number, lng: number): Promise<{ city: string; districtId?: string } | null> => {
+    if (Capacitor.isNativePlatform()) {
+        try {
+            const hit = await GeoIndex.nearest({ latitude: lat, longitude: lng });
+            const city = TURKEY_CITIES.find(c => c.sehirId === String(hit.cityId));
+            if (city) {
+                return {
+                    city: city.name,
+                    districtId: hit.kind === 'district' ? String(hit.id) : undefined
+                };
+            }
+        } catch (e) {
+            console.warn("Yerel konum indeksi kullanılamadı:", e);
+        }
+    }
+    const city = findNearestCity(lat, lng);
+    return city ? { city } : null;
 };
 
 // ============================================================
 // İlçe ID'sini bul (şehir merkezi)
 // ============================================================
+const cachedDistrictId = (sehirId: string): string | undefined => {
+    const districtCache = localStorage.getItem(DISTRICT_CACHE_KEY);
+    if (!districtCache) return undefined;
+    try {
+        return JSON.parse(districtCache)[sehirId] || undefined;
+    } catch (e) {
+        return undefined;
+    }
+};
+
 const getDiyanetDistrictId = async (sehirId: string, cityName: string): Promise<string | null> => {
     // Önbellekten kontrol
+    const cachedId = cachedDistrictId(sehirId);
+    if (cachedId) return cachedId;
     const districtCache = localStorage.getItem(DISTRICT_CACHE_KEY);
-    if (districtCache) {
-        try {
-            const cache = JSON.parse(districtCache);
-            if (cache[sehirId]) return cache[sehirId];
-        } catch (e) { /* */ }
-    }
 
     // API'den ilçeleri çek
     const response = await CapacitorHttp.get({ url: `${DIYANET_API_BASE}/ilceler/${sehirId}` });
@@ -230,6 +453,27 @@ export const calculateNextPrayer = (times: PrayerTimes): { nextKey: string, isTo
     return { nextKey: 'imsak', isTomorrow: true };
 }
 
+export interface NextPrayerTarget {
+    nextKey: string;
+    isTomorrow: boolean;
+    time: string;       // "HH:mm"
+    triggerAt: number;  // epoch ms
+}
+
+/**
+ * Sıradaki vakit ve mutlak zamanı. Geri sayım bunu vakit geçene kadar saklar;
+ * her saniye yalnızca triggerAt - Date.now() hesaplanır, dizgi ayrıştırılmaz.
+ */
+export const nextPrayerTarget = (times: PrayerTimes): NextPrayerTarget => {
+    const { nextKey, isTomorrow } = calculateNextPrayer(times);
+    const time = times[nextKey];
+    const [h, m] = time.split(':').map(Number);
+    const target = new Date();
+    target.setHours(h, m, 0, 0);
+    if (isTomorrow) target.setDate(target.getDate() + 1);
+    return { nextKey, isTomorrow, time, triggerAt: target.getTime() };
+}
+
 export const getTimeDifferenceMinutes = (targetTimeStr: string, isTomorrow: boolean): number => {
     const now = new Date();
     const [targetH, targetM] = targetTimeStr.split(':').map(Number);
@@ -242,8 +486,16 @@ export const getTimeDifferenceMinutes = (targetTimeStr: string, isTomorrow: bool
 const findNearestCity = (lat: number, lng: number): string | null => {
     let minDist = Infinity; let nearest = null;
     for (const c of TURKEY_CITIES) {
-        const d = Math.sqrt(Math.pow(lat - c.lat, 2) + Math.pow(lng - c.lng, 2));
+        const d = haversineKm(lat, lng, c.lat, c.lng);
         if (d < minDist) { minDist = d; nearest = c.name; }
     }
     return nearest;
 }
+
+const haversineKm = (lat1: number, lng1: number, lat2: number, lng2: number): number => {
+    const rad = Math.PI / 180;
+    const dLat = (lat2 - lat1) * rad;
+    const dLng = (lng2 - lng1) * rad;
+    const a = Math.sin(dLat / 2) ** 2 + Math.cos(lat1 * rad) * Math.cos(lat2 * rad) * Math.sin(dLng / 2) ** 2;
+    return 12742 * Math.asin(Math.min(1, Math.sqrt(a)));
+}
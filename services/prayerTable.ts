@@ -0,0 +1,92 @@
+import { registerPlugin } from '@capacitor/core';
+import type { PluginListenerHandle } from '@capacitor/core';
+import type { PrayerTimes } from '../types';
+
+export interface PrayerTablePlugin {
+  /**
+   * localStorage'daki yıllık JSON önbelleğini yerel ikili tabloya aktarır
+   */
+  importJson(options: {
+    json: string;
+    locationId: number;
+  }): Promise<{
+    success: boolean;
+    days: number;
+    elapsedMs: number;
+  }>;
+
+  /**
+   * Tek günün vakitlerini yerel tablodan okur
+   */
+  getDay(options: {
+    locationId: number;
+    date: string; // "dd.MM.yyyy"
+  }): Promise<{
+    date: string;
+    times: PrayerTimes;
+  }>;
+
+  /**
+   * Konum ve yıl için tablo var mı?
+   */
+  hasYear(options: {
+    locationId: number;
+    year: number;
+  }): Promise<{
+    exists: boolean;
+  }>;
+
+  /**
+   * Çok konumlu LRU önbelleğin sayaçları; tables en yeniden eskiye
+   */
+  getCacheStats(): Promise<TableCacheStats>;
+
+  /**
+   * Sıradaki vakit (yatsıdan sonra yarının imsakı). Tablo yoksa koordinatlarla hesaplanır.
+   * watch: her vakit sınırında bir kez "nextPrayer" olayı gönderilir; yoklama gerekmez.
+   */
+  getNextPrayer(options: {
+    locationId?: number;
+    latitude?: number;
+    longitude?: number;
+    watch?: boolean;
+  }): Promise<NativeNextPrayer>;
+
+  /**
+   * Sıradaki vakti geri sayımla gösteren süren bildirim. Ana ekran bileşeni gibi
+   * getNextPrayer'ın son konumunu kullanır; yalnızca vakit sınırında güncellenir.
+   */
+  setCountdownNotification(options: { enabled: boolean }): Promise<{ success: boolean }>;
+
+  addListener(
+    eventName: 'nextPrayer',
+    listenerFunc: (event: NativeNextPrayer) => void,
+  ): Promise<PluginListenerHandle>;
+}
+
+export interface NativeNextPrayer {
+  found: boolean;
+  prayer?: string;       // "imsak" ... "yatsi"
+  triggerAt?: number;    // epoch ms, yaz saati dahil
+  time?: string;         // "HH:mm" yerel
+  isTomorrow?: boolean;
+}
+
+export interface TableCacheStats {
+  hits: number;
+  misses: number;
+  evictions: number;
+  tableCount: number;
+  bytes: number;
+  maxTables: number;
+  budgetBytes: number;
+  pinnedLocationId: number;
+  bytesWritten: number;  // süreç başından beri tablo ve özet dosyalarına yazılan
+  daysChanged: number;   // yamada gerçekten değişen gün sayısı
+  tables: { locationId: number; year: number }[];
+}
+
+// Yalnızca Android'de mevcut; web'de çağrılar "unimplemented" hatası verir
+const PrayerTable = registerPlugin<PrayerTablePlugin>('PrayerTable');
+
+export default PrayerTable;
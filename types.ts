@@ -16,6 +16,8 @@ export interface PrayerData {
   isOffline?: boolean;
   lastUpdated?: string;
   source?: string;
+  locationId?: string;
+  coords?: Coordinates;
 }
 
 export interface Coordinates {
@@ -35,6 +37,9 @@ export interface AppSettings {
   vibrationEnabled: boolean;
   notificationsEnabled: boolean;
   prayerReminders: Record<string, number>; // key: prayerKey, value: minutes (0 or 10)
+  preReminderMinutes?: number; // Alarmdan önce sessiz hatırlatma (0 kapalı)
+  followUpMinutes?: number; // Kapatılmayan alarm için takip (0 kapalı)
+  countdownNotification?: boolean; // Sıradaki vakte geri sayım bildirimi (yalnızca Android)
   volume: number;
   locationMode: 'auto' | 'manual';
   manualLocation?: ManualLocation;